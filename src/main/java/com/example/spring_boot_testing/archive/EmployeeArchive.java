@@ -0,0 +1,140 @@
+package com.example.spring_boot_testing.archive;
+
+import com.example.spring_boot_testing.changes.EmployeeChangeSequence;
+import com.example.spring_boot_testing.dto.ArchivedEmployee;
+import com.example.spring_boot_testing.model.Employee;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+// The employees_archive table: cold copies of deleted and inactive employees, so the employees table and its
+// indexes only hold the working set. The archive is range partitioned by archived_at, one partition per month,
+// so old months can be detached or dropped without a large DELETE.
+// ddl-auto can not create partitioned tables, the table is created (if not exists) with this object, partitions
+// are created ahead of every move.
+public class EmployeeArchive {
+
+    public static final String TABLE = "employees_archive";
+
+    private static final String COLUMNS = "id, first_name, last_name, email, created_at, updated_at, deleted_at, archived_at, reason";
+
+    private static final RowMapper<ArchivedEmployee> ROW_MAPPER = EmployeeArchive::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeArchive(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        // the primary key of a partitioned table has to contain the partition key; ids are never reused, so
+        // (id, archived_at) is unique per id in practice and serves lookups by id
+        jdbcTemplate.execute("create table if not exists " + TABLE + " (" +
+                "id bigint not null, first_name varchar(255) not null, last_name varchar(255) not null, " +
+                "email varchar(255) not null, created_at timestamp(6) with time zone, updated_at timestamp(6) with time zone, " +
+                "deleted_at timestamp(6) with time zone, archived_at timestamp(6) with time zone not null, " +
+                "reason varchar(16) not null, primary key (id, archived_at)) partition by range (archived_at)");
+        // archived rows keep the email as it was stored, rows from before emails were normalized may be mixed case
+        jdbcTemplate.execute("create index if not exists idx_employees_archive_email_lower on " + TABLE + " (lower(email))");
+        // the archiver looks for deleted rows on every run, a partial index keeps that lookup off the live rows
+        jdbcTemplate.execute("create index if not exists idx_employees_deleted on employees (id) where deleted_at is not null");
+        jdbcTemplate.execute("create index if not exists idx_employee_tombstones_deleted_at on employee_tombstones (deleted_at)");
+    }
+
+    // creates the monthly partition holding the given instant, if it does not exist yet
+    public void ensurePartition(Instant instant) {
+        YearMonth month = YearMonth.from(instant.atOffset(ZoneOffset.UTC));
+        String from = month.atDay(1) + " 00:00:00+00";
+        String to = month.plusMonths(1).atDay(1) + " 00:00:00+00";
+        jdbcTemplate.execute(String.format("create table if not exists %s_p%d%02d partition of %s for values from ('%s') to ('%s')",
+                TABLE, month.getYear(), month.getMonthValue(), TABLE, from, to));
+    }
+
+    // Moves up to batchSize deleted employees (and, with inactiveBefore, employees not updated since then) with
+    // a single statement: DELETE ... RETURNING feeds an INSERT ... SELECT into the archive. Rows locked by other
+    // transactions (or another node's archiver) are skipped. Entity listeners do not see this delete, so the
+    // statement also writes the tombstones of moved inactive employees for the changes feed (deleted employees
+    // got theirs when they were deleted). Returns the moved employees with the reason they were moved.
+    public List<MovedEmployee> moveBatch(Instant archivedAt, Instant inactiveBefore, int batchSize) {
+        Timestamp archivedAtTimestamp = Timestamp.from(archivedAt);
+        String candidates = inactiveBefore == null
+                ? "deleted_at is not null"
+                : "deleted_at is not null or updated_at < ?";
+        String sql = "with candidates as (" +
+                "  select id from employees where " + candidates + " order by id limit ? for update skip locked), " +
+                "moved as (" +
+                "  delete from employees e using candidates c where e.id = c.id " +
+                "  returning e.id, e.first_name, e.last_name, e.email, e.created_at, e.updated_at, e.deleted_at), " +
+                "tombstones as (" +
+                "  insert into employee_tombstones (employee_id, change_seq, deleted_at) " +
+                "  select id, nextval('" + EmployeeChangeSequence.SEQUENCE + "'), cast(? as timestamptz) from moved where deleted_at is null " +
+                "  on conflict (employee_id) do nothing) " +
+                "insert into " + TABLE + " (" + COLUMNS + ") " +
+                "select id, first_name, last_name, email, created_at, updated_at, deleted_at, cast(? as timestamptz), " +
+                "  case when deleted_at is null then 'INACTIVE' else 'DELETED' end from moved " +
+                "returning id, reason";
+        RowMapper<MovedEmployee> mapper = (rs, rowNum) ->
+                new MovedEmployee(rs.getLong("id"), ArchivedEmployee.Reason.valueOf(rs.getString("reason")));
+        return inactiveBefore == null
+                ? jdbcTemplate.query(sql, mapper, batchSize, archivedAtTimestamp, archivedAtTimestamp)
+                : jdbcTemplate.query(sql, mapper, Timestamp.from(inactiveBefore), batchSize, archivedAtTimestamp, archivedAtTimestamp);
+    }
+
+    // Removes up to batchSize tombstones of employees deleted before the given instant with a single statement and
+    // raises the watermark in employee_tombstones_pruned to the newest removed change, so the changes feed can tell
+    // a token that may have missed one of them (see EmployeeChangeFeedServiceImpl). Returns the number of removed tombstones.
+    public int pruneTombstones(Instant deletedBefore, int batchSize) {
+        String sql = "with candidates as (" +
+                "  select employee_id from employee_tombstones where deleted_at < ? order by deleted_at limit ? for update skip locked), " +
+                "pruned as (" +
+                "  delete from employee_tombstones t using candidates c where t.employee_id = c.employee_id " +
+                "  returning t.change_xid, t.change_seq), " +
+                "watermark as (" +
+                "  insert into employee_tombstones_pruned (id, change_xid, change_seq) " +
+                "  select true, change_xid, change_seq from pruned where change_xid is not null " +
+                "  order by change_xid desc, change_seq desc limit 1 " +
+                "  on conflict (id) do update set change_xid = excluded.change_xid, change_seq = excluded.change_seq " +
+                "  where (excluded.change_xid, excluded.change_seq) > (employee_tombstones_pruned.change_xid, employee_tombstones_pruned.change_seq)) " +
+                "select count(*) from pruned";
+        Integer pruned = jdbcTemplate.queryForObject(sql, Integer.class, Timestamp.from(deletedBefore), batchSize);
+        return pruned == null ? 0 : pruned;
+    }
+
+    // an id is archived once, ids are never reused
+    public Optional<ArchivedEmployee> findById(long id) {
+        return jdbcTemplate.query("select " + COLUMNS + " from " + TABLE + " where id = ?", ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    // case-insensitive like the lookups of live employees, through idx_employees_archive_email_lower
+    public List<ArchivedEmployee> findByEmail(String email) {
+        return jdbcTemplate.query("select " + COLUMNS + " from " + TABLE + " where lower(email) = ? order by archived_at desc",
+                ROW_MAPPER, Employee.normalizeEmail(email));
+    }
+
+    private static ArchivedEmployee mapRow(ResultSet rs, int rowNum) throws SQLException {
+        return new ArchivedEmployee(
+                rs.getLong("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                toInstant(rs.getTimestamp("created_at")),
+                toInstant(rs.getTimestamp("updated_at")),
+                toInstant(rs.getTimestamp("deleted_at")),
+                toInstant(rs.getTimestamp("archived_at")),
+                ArchivedEmployee.Reason.valueOf(rs.getString("reason")));
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    public record MovedEmployee(long id, ArchivedEmployee.Reason reason) {
+    }
+
+}
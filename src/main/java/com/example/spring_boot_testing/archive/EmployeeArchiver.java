@@ -0,0 +1,99 @@
+package com.example.spring_boot_testing.archive;
+
+import com.example.spring_boot_testing.dto.ArchivedEmployee;
+import com.example.spring_boot_testing.event.EmployeeChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Background job moving deleted employees (and, with employees.archive.inactive-after, employees not updated for
+// that long) from the employees table into employees_archive. Each batch is one statement in its own transaction,
+// so locks are short and a failed run loses nothing; several nodes can run it at the same time.
+// Archived inactive employees disappear from the employees API like deleted ones, so caches and read models
+// are told they were deleted.
+// Each run also removes tombstones older than employees.archive.tombstone-retention, in batches the same way;
+// changes feed clients that have not synced for longer than that have to start over.
+public class EmployeeArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeArchiver.class);
+
+    private final EmployeeArchive employeeArchive;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration inactiveAfter;
+    private final Duration tombstoneRetention;
+
+    public EmployeeArchiver(EmployeeArchive employeeArchive, ApplicationEventPublisher eventPublisher, Clock clock,
+                            int batchSize, int maxBatchesPerRun, Duration inactiveAfter, Duration tombstoneRetention) {
+        this.employeeArchive = employeeArchive;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.inactiveAfter = inactiveAfter;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    // scheduled by EmployeeArchiveConfig every employees.archive.interval
+    public void archive() {
+        try {
+            int moved = archiveNow();
+            if (moved > 0) {
+                log.info("Archived {} employees", moved);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Archiving employees failed, retrying on the next run", e);
+        }
+        try {
+            int pruned = pruneTombstonesNow();
+            if (pruned > 0) {
+                log.info("Removed {} tombstones older than {}", pruned, tombstoneRetention);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Removing old tombstones failed, retrying on the next run", e);
+        }
+    }
+
+    // moves batches until a batch comes back short or maxBatchesPerRun is reached, returns the number of moved employees
+    public int archiveNow() {
+        int moved = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Instant now = clock.instant();
+            employeeArchive.ensurePartition(now);
+            Instant inactiveBefore = inactiveAfter == null ? null : now.minus(inactiveAfter);
+            List<EmployeeArchive.MovedEmployee> movedEmployees = employeeArchive.moveBatch(now, inactiveBefore, batchSize);
+            for (EmployeeArchive.MovedEmployee movedEmployee : movedEmployees) {
+                if (movedEmployee.reason() == ArchivedEmployee.Reason.INACTIVE) {
+                    eventPublisher.publishEvent(new EmployeeChangedEvent(movedEmployee.id(), EmployeeChangedEvent.Type.DELETED));
+                }
+            }
+            moved += movedEmployees.size();
+            if (movedEmployees.size() < batchSize) {
+                break;
+            }
+        }
+        return moved;
+    }
+
+    // removes batches of tombstones older than the retention until a batch comes back short or maxBatchesPerRun is
+    // reached, returns the number of removed tombstones
+    public int pruneTombstonesNow() {
+        int pruned = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int removed = employeeArchive.pruneTombstones(clock.instant().minus(tombstoneRetention), batchSize);
+            pruned += removed;
+            if (removed < batchSize) {
+                break;
+            }
+        }
+        return pruned;
+    }
+
+}
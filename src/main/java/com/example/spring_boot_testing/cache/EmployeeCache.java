@@ -0,0 +1,208 @@
+package com.example.spring_boot_testing.cache;
+
+import com.example.spring_boot_testing.model.Employee;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+import java.util.function.LongToIntFunction;
+
+// In-process cache of employees by id.
+// Entries are stored and returned as copies, because callers (e.g. the update endpoint) modify the entities they get.
+// The cache is bounded: when it is full a randomly sampled entry is evicted to make room.
+// With an access frequency function (TinyLFU-style admission, see EmployeeHotKeys) a full cache compares the new
+// employee with the least frequently accessed of a few randomly sampled entries and only replaces it when the new one is
+// accessed more often, so a scan over many ids that are read once does not push out the employees read all the time.
+// A read from the database takes an eviction stamp first and hands it to put: when the id was evicted (updated,
+// deleted, invalidated by another node) or the cache cleared while the row was being read, the row may be older
+// than the change and is not cached.
+public class EmployeeCache {
+
+    // entries looked at to pick the victim when the cache is full, see sample()
+    private static final int EVICTION_SAMPLE = 8;
+    // eviction counters are striped by id, two ids sharing a stripe only cost a skipped put
+    private static final int STAMP_STRIPES = 1024;
+
+    // a ConcurrentHashMap for its spliterator, see sample()
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray evictions = new AtomicLongArray(STAMP_STRIPES);
+    private final AtomicLong clears = new AtomicLong();
+    private final int maxSize;
+    private final long ttlNanos;
+    // null: every put is admitted
+    private final LongToIntFunction frequency;
+    private final LongSupplier nanoTime;
+    private final AtomicLong admissionRejections = new AtomicLong();
+
+    public EmployeeCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, null, System::nanoTime);
+    }
+
+    public EmployeeCache(int maxSize, Duration ttl, LongToIntFunction frequency) {
+        this(maxSize, ttl, frequency, System::nanoTime);
+    }
+
+    EmployeeCache(int maxSize, Duration ttl, LongSupplier nanoTime) {
+        this(maxSize, ttl, null, nanoTime);
+    }
+
+    EmployeeCache(int maxSize, Duration ttl, LongToIntFunction frequency, LongSupplier nanoTime) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.frequency = frequency;
+        this.nanoTime = nanoTime;
+    }
+
+    public Optional<Employee> get(long id) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (nanoTime.getAsLong() - entry.loadedAt() > ttlNanos) {
+            entries.remove(id, entry);
+            return Optional.empty();
+        }
+        return Optional.of(copy(entry.employee()));
+    }
+
+    public void put(Employee employee) {
+        if (employee == null || employee.getId() == null) {
+            return;
+        }
+        insert(employee);
+    }
+
+    // to be taken before the employee is read from the database, see put(Employee, long)
+    public long evictionStamp(long id) {
+        // both counters only grow, so the sum changes whenever one of them does
+        return evictions.get(stripe(id)) + clears.get();
+    }
+
+    // Caches an employee read after evictionStamp(id) was taken, unless it was evicted in the meantime.
+    // evict bumps the stamp before it removes the entry, and the stamp is checked again after the entry was put:
+    // either this check sees the bump and removes the entry, or the eviction comes later and removes it.
+    public void put(Employee employee, long evictionStamp) {
+        if (employee == null || employee.getId() == null || evictionStamp(employee.getId()) != evictionStamp) {
+            return;
+        }
+        Entry entry = insert(employee);
+        if (entry != null && evictionStamp(employee.getId()) != evictionStamp) {
+            entries.remove(employee.getId(), entry);
+        }
+    }
+
+    public void evict(long id) {
+        evictions.incrementAndGet(stripe(id));
+        entries.remove(id);
+    }
+
+    public void clear() {
+        clears.incrementAndGet();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // puts not admitted because the employee was accessed less often than the entry it would have replaced
+    public long admissionRejections() {
+        return admissionRejections.get();
+    }
+
+    // null when the employee was not admitted
+    private Entry insert(Employee employee) {
+        if (entries.size() >= maxSize && !entries.containsKey(employee.getId()) && !makeRoomFor(employee.getId())) {
+            admissionRejections.incrementAndGet();
+            return null;
+        }
+        Entry entry = new Entry(copy(employee), nanoTime.getAsLong());
+        entries.put(employee.getId(), entry);
+        return entry;
+    }
+
+    // evicts an entry for the candidate id, unless the candidate is not worth it
+    private boolean makeRoomFor(long id) {
+        List<Map.Entry<Long, Entry>> sample = sample();
+        if (sample.isEmpty()) {
+            // emptied meanwhile
+            return true;
+        }
+        if (frequency == null) {
+            entries.remove(sample.get(0).getKey());
+            return true;
+        }
+        Long victim = null;
+        int victimFrequency = Integer.MAX_VALUE;
+        long now = nanoTime.getAsLong();
+        for (Map.Entry<Long, Entry> entry : sample) {
+            if (now - entry.getValue().loadedAt() > ttlNanos) {
+                entries.remove(entry.getKey(), entry.getValue());
+                return true;
+            }
+            int entryFrequency = frequency.applyAsInt(entry.getKey());
+            if (entryFrequency < victimFrequency) {
+                victim = entry.getKey();
+                victimFrequency = entryFrequency;
+            }
+        }
+        if (frequency.applyAsInt(id) <= victimFrequency) {
+            return false;
+        }
+        entries.remove(victim);
+        return true;
+    }
+
+    // Up to EVICTION_SAMPLE entries from a random part of the map. The iterator always starts at the first buckets,
+    // so sampling it would only ever compare the candidate with the same few entries, which a hot group there
+    // would keep out of reach of eviction. A ConcurrentHashMap spliterator splits its bucket range in halves;
+    // following a random half until about EVICTION_SAMPLE entries are left picks random buckets in O(log n) steps,
+    // without keeping an index of the keys.
+    private List<Map.Entry<Long, Entry>> sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Spliterator<Map.Entry<Long, Entry>> region = entries.entrySet().spliterator();
+        while (region.estimateSize() > EVICTION_SAMPLE) {
+            Spliterator<Map.Entry<Long, Entry>> half = region.trySplit();
+            if (half == null) {
+                break;
+            }
+            if (random.nextBoolean()) {
+                region = half;
+            }
+        }
+        List<Map.Entry<Long, Entry>> sample = new ArrayList<>(EVICTION_SAMPLE);
+        while (sample.size() < EVICTION_SAMPLE && region.tryAdvance(sample::add)) {
+            // collected by tryAdvance
+        }
+        if (sample.isEmpty()) {
+            // the size is only estimated, the picked buckets can be empty
+            Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+            while (sample.size() < EVICTION_SAMPLE && iterator.hasNext()) {
+                sample.add(iterator.next());
+            }
+        }
+        return sample;
+    }
+
+    private static int stripe(long id) {
+        long hash = id * 0x9E3779B97F4A7C15L;
+        return (int) (hash >>> 54) & (STAMP_STRIPES - 1);
+    }
+
+    private static Employee copy(Employee employee) {
+        return employee.toBuilder().build();
+    }
+
+    private record Entry(Employee employee, long loadedAt) {
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.spring_boot_testing.cache;
+
+import java.util.List;
+
+// Access frequencies of employee ids (getEmployeeById) and normalized emails (findByEmail), recorded by
+// EmployeeServiceImpl on every lookup, hits included. The id frequencies decide which employees EmployeeCache
+// admits; both are listed by the hotkeys actuator endpoint.
+public class EmployeeHotKeys {
+
+    private final HotKeys<Long> ids;
+    private final HotKeys<String> emails;
+
+    public EmployeeHotKeys(int expectedKeys, int tracked) {
+        this.ids = new HotKeys<>(expectedKeys, tracked);
+        this.emails = new HotKeys<>(expectedKeys, tracked);
+    }
+
+    public int recordId(long id) {
+        return ids.record(id);
+    }
+
+    public int idFrequency(long id) {
+        return ids.frequency(id);
+    }
+
+    public int recordEmail(String normalizedEmail) {
+        return emails.record(normalizedEmail);
+    }
+
+    public List<HotKeys.HotKey<Long>> topIds(int limit) {
+        return ids.top(limit);
+    }
+
+    public List<HotKeys.HotKey<String>> topEmails(int limit) {
+        return emails.top(limit);
+    }
+
+}
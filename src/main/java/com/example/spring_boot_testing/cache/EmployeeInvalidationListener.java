@@ -0,0 +1,140 @@
+package com.example.spring_boot_testing.cache;
+
+import com.example.spring_boot_testing.event.EmployeeInvalidatedEvent;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Listens on the employee_changes channel over its own JDBC connection (not one from the pool, because a
+// LISTEN connection is held for the lifetime of the application) and evicts the notified ids from the local cache.
+// Notifications sent while the connection is down are lost, so the whole cache is flushed after every reconnect.
+// Every eviction is also published locally as an EmployeeInvalidatedEvent for read models that hold the full table.
+public class EmployeeInvalidationListener implements InitializingBean, DisposableBean, Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeInvalidationListener.class);
+    // payload that asks every node to flush everything, e.g. after a bulk change
+    public static final String FLUSH_ALL = "*";
+
+    private final EmployeeCache employeeCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final Duration pollTimeout;
+    private final Duration reconnectDelay;
+
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread thread;
+
+    public EmployeeInvalidationListener(EmployeeCache employeeCache, ApplicationEventPublisher eventPublisher,
+                                        String url, String username, String password,
+                                        Duration pollTimeout, Duration reconnectDelay) {
+        this.employeeCache = employeeCache;
+        this.eventPublisher = eventPublisher;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollTimeout = pollTimeout;
+        this.reconnectDelay = reconnectDelay;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        running = true;
+        thread = new Thread(this, "employee-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        thread.interrupt();
+        thread.join(pollTimeout.toMillis() * 2);
+    }
+
+    @Override
+    public void run() {
+        boolean firstConnect = true;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + EmployeeInvalidationPublisher.CHANNEL);
+                }
+                if (!firstConnect) {
+                    // we may have missed notifications while we were disconnected
+                    flushAll();
+                    log.info("Reconnected to {}, flushed local employee cache", EmployeeInvalidationPublisher.CHANNEL);
+                }
+                firstConnect = false;
+                listening = true;
+                listen(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Employee invalidation listener lost its connection, retrying in {}", reconnectDelay, e);
+                }
+            } finally {
+                listening = false;
+            }
+            sleep(reconnectDelay);
+        }
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    private void listen(PGConnection connection) throws SQLException {
+        while (running) {
+            PGNotification[] notifications = connection.getNotifications((int) pollTimeout.toMillis());
+            if (notifications == null) {
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                handle(notification.getParameter());
+            }
+        }
+    }
+
+    void handle(String payload) {
+        if (FLUSH_ALL.equals(payload)) {
+            flushAll();
+            return;
+        }
+        long id;
+        try {
+            id = Long.parseLong(payload);
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring invalid employee invalidation payload: {}", payload);
+            return;
+        }
+        employeeCache.evict(id);
+        eventPublisher.publishEvent(EmployeeInvalidatedEvent.of(id));
+    }
+
+    private void flushAll() {
+        employeeCache.clear();
+        eventPublisher.publishEvent(EmployeeInvalidatedEvent.everything());
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+}
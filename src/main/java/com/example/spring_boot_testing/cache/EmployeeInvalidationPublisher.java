@@ -0,0 +1,36 @@
+package com.example.spring_boot_testing.cache;
+
+import com.example.spring_boot_testing.event.EmployeeChangedEvent;
+import com.example.spring_boot_testing.event.EmployeesBulkUpdatedEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+// Sends NOTIFY employee_changes, '<id>' after an employee was updated or deleted, so every node
+// (including this one) evicts the id from its local EmployeeCache; '*' after a bulk update.
+// Runs after commit; outside a transaction (fallbackExecution) it runs right away.
+public class EmployeeInvalidationPublisher {
+
+    public static final String CHANNEL = "employee_changes";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeInvalidationPublisher(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.type() == EmployeeChangedEvent.Type.CREATED) {
+            // nobody can have a new id cached yet
+            return;
+        }
+        jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, CHANNEL, String.valueOf(event.employeeId()));
+    }
+
+    // the ids touched by a bulk update are unknown, every node flushes all employees
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesBulkUpdated(EmployeesBulkUpdatedEvent event) {
+        jdbcTemplate.queryForObject("select pg_notify(?, ?)", Object.class, CHANNEL, EmployeeInvalidationListener.FLUSH_ALL);
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.example.spring_boot_testing.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Count-min sketch estimating how often a key was seen recently, in constant memory (4 rows of int counters,
+// each row a power of two wide, sized from the number of keys expected to matter).
+// A key's estimate is the smallest of its 4 counters: it never undercounts, and collisions only overcount.
+// Increments are conservative (only counters at the current minimum go up), which keeps the overcounting of
+// cold keys sharing counters with hot ones low.
+// Aging: after 10 increments per column all counters are halved, so the sketch follows a shifting working set and
+// keys that were hot an hour ago lose to keys that are hot now.
+// Thread-safe without locks; concurrent updates of the same counter may be lost, which only makes estimates
+// slightly lower.
+public class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_WIDTH = 1 << 24;
+    private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+    private final AtomicIntegerArray counters;
+    private final int width;
+    private final int sampleSize;
+    private final AtomicInteger additions = new AtomicInteger();
+    private final AtomicInteger ages = new AtomicInteger();
+    private final AtomicBoolean aging = new AtomicBoolean();
+
+    public FrequencySketch(int expectedKeys) {
+        this.width = expectedKeys >= MAX_WIDTH ? MAX_WIDTH : Math.max(16, Integer.highestOneBit(Math.max(1, expectedKeys - 1)) << 1);
+        this.counters = new AtomicIntegerArray(DEPTH * width);
+        this.sampleSize = 10 * width;
+    }
+
+    // counts one occurrence of the key with this hash code and returns its new estimate
+    public int increment(int hashCode) {
+        int hash = spread(hashCode);
+        int frequency = frequencyOfSpread(hash);
+        for (int row = 0; row < DEPTH; row++) {
+            counters.compareAndSet(indexOf(hash, row), frequency, frequency + 1);
+        }
+        if (additions.incrementAndGet() >= sampleSize && aging.compareAndSet(false, true)) {
+            try {
+                age();
+            } finally {
+                aging.set(false);
+            }
+        }
+        return frequency + 1;
+    }
+
+    public int frequency(int hashCode) {
+        return frequencyOfSpread(spread(hashCode));
+    }
+
+    // how many times the counters have been halved so far
+    public int ages() {
+        return ages.get();
+    }
+
+    int width() {
+        return width;
+    }
+
+    private int frequencyOfSpread(int hash) {
+        int frequency = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            frequency = Math.min(frequency, counters.get(indexOf(hash, row)));
+        }
+        return frequency;
+    }
+
+    private void age() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.getAndUpdate(i, count -> count >>> 1);
+        }
+        additions.addAndGet(-sampleSize / 2);
+        ages.incrementAndGet();
+    }
+
+    private int indexOf(int hash, int row) {
+        long index = (hash + SEEDS[row]) * SEEDS[row];
+        index += index >>> 32;
+        return row * width + ((int) index & (width - 1));
+    }
+
+    // hash codes of Long and String keys are poorly distributed in the low bits
+    private static int spread(int x) {
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        x = ((x >>> 16) ^ x) * 0x45d9f3b;
+        return (x >>> 16) ^ x;
+    }
+
+}
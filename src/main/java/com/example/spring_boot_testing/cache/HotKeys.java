@@ -0,0 +1,92 @@
+package com.example.spring_boot_testing.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Most frequently recorded keys of one kind, by the estimates of a FrequencySketch.
+// The sketch cannot list its keys, so the keys that may belong to the top are kept next to it: a recorded key
+// becomes a candidate once its estimate beats the least frequent key that survived the last trim, and when there
+// are twice as many candidates as tracked the least frequent ones are dropped again. The set therefore stays
+// bounded no matter how many distinct keys a scan records.
+public class HotKeys<K> {
+
+    private final FrequencySketch sketch;
+    private final int tracked;
+    private final Set<K> candidates = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock trimLock = new ReentrantLock();
+    private volatile Threshold threshold = new Threshold(0, 0);
+
+    public HotKeys(int expectedKeys, int tracked) {
+        if (tracked < 1) {
+            throw new IllegalArgumentException("tracked must be at least 1");
+        }
+        this.sketch = new FrequencySketch(expectedKeys);
+        this.tracked = tracked;
+    }
+
+    // counts one access of the key and returns its estimated frequency
+    public int record(K key) {
+        int frequency = sketch.increment(key.hashCode());
+        if (frequency > currentThreshold() && !candidates.contains(key) && candidates.add(key)
+                && candidates.size() > 2 * tracked) {
+            trim();
+        }
+        return frequency;
+    }
+
+    public int frequency(K key) {
+        return sketch.frequency(key.hashCode());
+    }
+
+    // at most `tracked` keys, most frequent first
+    public List<HotKey<K>> top(int limit) {
+        List<HotKey<K>> ranked = ranked();
+        int size = Math.min(Math.min(limit, tracked), ranked.size());
+        return List.copyOf(ranked.subList(0, Math.max(size, 0)));
+    }
+
+    // the threshold halves with every aging of the sketch since it was taken, like the frequencies it came from
+    private int currentThreshold() {
+        Threshold current = threshold;
+        int ages = sketch.ages() - current.ages();
+        return ages >= Integer.SIZE ? 0 : current.frequency() >>> ages;
+    }
+
+    private void trim() {
+        if (!trimLock.tryLock()) {
+            return;
+        }
+        try {
+            List<HotKey<K>> ranked = ranked();
+            if (ranked.size() <= tracked) {
+                return;
+            }
+            for (HotKey<K> hotKey : ranked.subList(tracked, ranked.size())) {
+                candidates.remove(hotKey.key());
+            }
+            threshold = new Threshold(ranked.get(tracked - 1).frequency(), sketch.ages());
+        } finally {
+            trimLock.unlock();
+        }
+    }
+
+    private List<HotKey<K>> ranked() {
+        List<HotKey<K>> ranked = new ArrayList<>();
+        for (K key : candidates) {
+            ranked.add(new HotKey<>(key, frequency(key)));
+        }
+        ranked.sort(Comparator.comparingInt(HotKey<K>::frequency).reversed());
+        return ranked;
+    }
+
+    public record HotKey<K>(K key, int frequency) {
+    }
+
+    private record Threshold(int frequency, int ages) {
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.spring_boot_testing.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Actuator endpoint listing the most frequently looked up employee ids and emails (estimated, recent accesses
+// weigh more), next to the state of the employee cache:
+//   GET /actuator/hotkeys?limit=20
+// Like every actuator endpoint it is only reachable over HTTP once exposed
+// (management.endpoints.web.exposure.include), which should only be done behind the management port or security.
+@Endpoint(id = "hotkeys")
+public class HotKeysEndpoint {
+
+    private final EmployeeHotKeys hotKeys;
+    private final EmployeeCache employeeCache;
+    private final int defaultLimit;
+
+    public HotKeysEndpoint(EmployeeHotKeys hotKeys, EmployeeCache employeeCache, int defaultLimit) {
+        this.hotKeys = hotKeys;
+        this.employeeCache = employeeCache;
+        this.defaultLimit = defaultLimit;
+    }
+
+    @ReadOperation
+    public Map<String, Object> hotKeys(@Nullable Integer limit) {
+        int size = limit != null ? limit : defaultLimit;
+        Map<String, Object> hot = new LinkedHashMap<>();
+        hot.put("ids", hotKeys.topIds(size));
+        hot.put("emails", hotKeys.topEmails(size));
+        hot.put("cacheSize", employeeCache.size());
+        hot.put("cacheAdmissionRejections", employeeCache.admissionRejections());
+        return hot;
+    }
+
+}
@@ -0,0 +1,200 @@
+package com.example.spring_boot_testing.cache;
+
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.model.Employee;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// Last copies of employees (and of the full list) successfully read from the database, served marked as stale
+// while the database circuit breaker is open. Unlike EmployeeCache entries they do not expire: an old copy
+// with a staleness header beats a request that waits for pool timeouts.
+// Everything handed out stale is remembered. When the database is back, revalidate() reloads it on a
+// background thread; until a copy has been reloaded, reads keep getting it right away (stale-while-revalidate)
+// instead of all of them hitting the recovering database at once.
+public class LastKnownGoodEmployees {
+
+    private static final Logger log = LoggerFactory.getLogger(LastKnownGoodEmployees.class);
+
+    private final ConcurrentMap<Long, Entry<Employee>> entries = new ConcurrentHashMap<>();
+    private final Set<Long> servedStale = ConcurrentHashMap.newKeySet();
+    private final Set<Long> revalidating = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean allServedStale = new AtomicBoolean();
+    private final AtomicBoolean revalidationRunning = new AtomicBoolean();
+    private final ExecutorService revalidationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-revalidation");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final int maxSize;
+    private final int maxListSize;
+    private final LongSupplier nanoTime;
+    private volatile Entry<List<Employee>> all;
+    private volatile boolean revalidatingAll;
+
+    public LastKnownGoodEmployees(int maxSize, int maxListSize) {
+        this(maxSize, maxListSize, System::nanoTime);
+    }
+
+    LastKnownGoodEmployees(int maxSize, int maxListSize, LongSupplier nanoTime) {
+        this.maxSize = maxSize;
+        this.maxListSize = maxListSize;
+        this.nanoTime = nanoTime;
+    }
+
+    public void put(Employee employee) {
+        if (employee == null || employee.getId() == null) {
+            return;
+        }
+        if (entries.size() >= maxSize && !entries.containsKey(employee.getId())) {
+            Iterator<Long> iterator = entries.keySet().iterator();
+            if (iterator.hasNext()) {
+                entries.remove(iterator.next());
+            }
+        }
+        entries.put(employee.getId(), new Entry<>(copy(employee), nanoTime.getAsLong()));
+        revalidating.remove(employee.getId());
+    }
+
+    public void remove(long id) {
+        entries.remove(id);
+        revalidating.remove(id);
+    }
+
+    // drops every copy, for writes that may have changed any employee (bulk updates)
+    public void clear() {
+        entries.clear();
+        revalidating.clear();
+        all = null;
+        revalidatingAll = false;
+    }
+
+    // keeps the list itself (callers only serialize full lists), copies are made when it is served stale.
+    // A list longer than maxListSize is not kept, and the previous one is dropped as it is out of date: the full
+    // list then fails while the database is down instead of pinning a copy of a large table in memory.
+    public void putAll(List<Employee> employees) {
+        if (employees.size() > maxListSize) {
+            all = null;
+            revalidatingAll = false;
+            return;
+        }
+        all = new Entry<>(List.copyOf(employees), nanoTime.getAsLong());
+        revalidatingAll = false;
+    }
+
+    // the last known copy, if there is one; the id is revalidated once the database is back
+    public Optional<ReadResult<Employee>> getStale(long id) {
+        Entry<Employee> entry = entries.get(id);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        servedStale.add(id);
+        return Optional.of(ReadResult.stale(copy(entry.value()), age(entry)));
+    }
+
+    public Optional<ReadResult<List<Employee>>> getAllStale() {
+        Entry<List<Employee>> entry = all;
+        if (entry == null) {
+            return Optional.empty();
+        }
+        allServedStale.set(true);
+        return Optional.of(ReadResult.stale(copyAll(entry.value()), age(entry)));
+    }
+
+    // the last known copy while a background reload of it is pending, empty otherwise
+    public Optional<ReadResult<Employee>> getRevalidating(long id) {
+        if (!revalidating.contains(id)) {
+            return Optional.empty();
+        }
+        Entry<Employee> entry = entries.get(id);
+        return entry == null ? Optional.empty() : Optional.of(ReadResult.stale(copy(entry.value()), age(entry)));
+    }
+
+    public Optional<ReadResult<List<Employee>>> getAllRevalidating() {
+        Entry<List<Employee>> entry = all;
+        if (!revalidatingAll || entry == null) {
+            return Optional.empty();
+        }
+        return Optional.of(ReadResult.stale(copyAll(entry.value()), age(entry)));
+    }
+
+    // Reloads everything that was served stale on a background thread. loadByIds gets ids in chunks and returns
+    // the employees that still exist. Does nothing while a revalidation is already running.
+    public void revalidate(Function<Collection<Long>, List<Employee>> loadByIds, Supplier<List<Employee>> loadAll, int chunkSize) {
+        if (!revalidationRunning.compareAndSet(false, true)) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(servedStale);
+        servedStale.removeAll(ids);
+        revalidating.addAll(ids);
+        boolean reloadAll = allServedStale.getAndSet(false);
+        revalidatingAll = reloadAll;
+        try {
+            revalidationExecutor.execute(() -> {
+                try {
+                    for (int from = 0; from < ids.size(); from += chunkSize) {
+                        List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                        Set<Long> missing = new HashSet<>(chunk);
+                        for (Employee employee : loadByIds.apply(chunk)) {
+                            put(employee);
+                            missing.remove(employee.getId());
+                        }
+                        missing.forEach(this::remove);
+                    }
+                    if (reloadAll) {
+                        putAll(loadAll.get());
+                    }
+                    log.info("Revalidated {} stale employees{}", ids.size(), reloadAll ? " and the employee list" : "");
+                } catch (RuntimeException e) {
+                    // whatever was not reloaded is served from the database again, and stale again if it is still down
+                    log.warn("Revalidation of stale employees failed", e);
+                } finally {
+                    revalidating.clear();
+                    revalidatingAll = false;
+                    revalidationRunning.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            revalidating.clear();
+            revalidatingAll = false;
+            revalidationRunning.set(false);
+            throw e;
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private Duration age(Entry<?> entry) {
+        return Duration.ofNanos(nanoTime.getAsLong() - entry.loadedAt());
+    }
+
+    private static Employee copy(Employee employee) {
+        return employee.toBuilder().build();
+    }
+
+    private static List<Employee> copyAll(List<Employee> employees) {
+        return employees.stream().map(LastKnownGoodEmployees::copy).toList();
+    }
+
+    private record Entry<T>(T value, long loadedAt) {
+    }
+
+}
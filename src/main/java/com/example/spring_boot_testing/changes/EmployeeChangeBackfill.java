@@ -0,0 +1,64 @@
+package com.example.spring_boot_testing.changes;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Prepares the employees and employee_tombstones tables for the changes feed on startup:
+// - adds the change_xid column where it is missing and installs the triggers stamping it, the id of the writing
+//   transaction, on every insert and update.
+//   A trigger rather than the entity listener, so bulk JPQL/SQL statements and the archiver get it as well, and
+//   without a round trip per write. The feed only returns rows of finished transactions, judged by this id.
+// - gives rows written before the changes feed existed a change sequence number and audit timestamps, so a full
+//   sync (no token) still returns them; the same update stamps their change_xid through the trigger.
+// - creates employee_tombstones_pruned, the watermark of the tombstone retention.
+// "create or replace" makes this safe for every node to run. Without the triggers (a database other than
+// PostgreSQL) writes still work, but the feed returns nothing, so a failure is only logged.
+@Component
+public class EmployeeChangeBackfill {
+
+    private static final String XID_FUNCTION = "employee_change_xid";
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeChangeBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeChangeBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void backfill() {
+        installTriggers();
+        jdbcTemplate.update("update employees set change_seq = coalesce(change_seq, nextval('" + EmployeeChangeSequence.SEQUENCE + "')), " +
+                "created_at = coalesce(created_at, current_timestamp), updated_at = coalesce(updated_at, current_timestamp) " +
+                "where change_seq is null or change_xid is null");
+        jdbcTemplate.update("update employee_tombstones set change_seq = change_seq where change_xid is null");
+    }
+
+    private void installTriggers() {
+        try {
+            // ddl-auto adds the column and index to a plain table, but does not see the columns of a partitioned one
+            for (String table : new String[]{"employees", "employee_tombstones"}) {
+                jdbcTemplate.execute("alter table " + table + " add column if not exists change_xid bigint");
+            }
+            jdbcTemplate.execute("create index if not exists idx_employees_change on employees (change_xid, change_seq)");
+            // one row: the newest change whose tombstone the archiver has removed, see EmployeeArchive.pruneTombstones
+            jdbcTemplate.execute("create table if not exists employee_tombstones_pruned (id boolean primary key default true check (id), " +
+                    "change_xid bigint not null, change_seq bigint not null)");
+            jdbcTemplate.execute("create or replace function " + XID_FUNCTION + "() returns trigger language plpgsql as $$ " +
+                    "begin new.change_xid := cast(cast(pg_current_xact_id() as text) as bigint); return new; end $$");
+            for (String table : new String[]{"employees", "employee_tombstones"}) {
+                jdbcTemplate.execute("create or replace trigger " + XID_FUNCTION + " before insert or update on " + table +
+                        " for each row execute function " + XID_FUNCTION + "()");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not install the change_xid triggers, GET /api/employees/changes will not return any change", e);
+        }
+    }
+
+}
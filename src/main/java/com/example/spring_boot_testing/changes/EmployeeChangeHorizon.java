@@ -0,0 +1,51 @@
+package com.example.spring_boot_testing.changes;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Decides up to which transaction id the changes feed returns rows (see EmployeeChangeFeedServiceImpl).
+// The xmin of the current snapshot is cluster wide: one long running transaction, in any database of the server,
+// or a session left idle in transaction holds the whole feed back for as long as it runs. To bound that, the xmax of
+// the snapshot is sampled as the feed is read; every transaction id below a sample older than maxLag was handed out
+// at least maxLag ago, so the feed returns rows below it even while some of those transactions are still running.
+// A transaction running longer than maxLag can therefore be missed by clients whose token is already past it.
+public class EmployeeChangeHorizon {
+
+    private final Duration maxLag;
+    private final Duration sampleInterval;
+    // (time, xmax) pairs, oldest first
+    private final Deque<Sample> samples = new ArrayDeque<>();
+
+    public EmployeeChangeHorizon(Duration maxLag) {
+        this.maxLag = maxLag;
+        this.sampleInterval = maxLag.dividedBy(8);
+    }
+
+    // the feed returns rows with a change_xid below the returned transaction id; snapshot is the text form
+    // "xmin:xmax:xip,..." of pg_current_snapshot()
+    public synchronized long visibleBelow(String snapshot, Instant now) {
+        String[] parts = snapshot.split(":", 3);
+        long xmin = Long.parseLong(parts[0]);
+        long xmax = Long.parseLong(parts[1]);
+        if (samples.isEmpty() || !samples.peekLast().time().plus(sampleInterval).isAfter(now)) {
+            samples.addLast(new Sample(now, xmax));
+        }
+        // keep the newest sample older than maxLag, drop the ones before it
+        Instant lagLimit = now.minus(maxLag);
+        while (samples.size() > 1) {
+            Sample first = samples.removeFirst();
+            if (samples.peekFirst().time().isAfter(lagLimit)) {
+                samples.addFirst(first);
+                break;
+            }
+        }
+        Sample oldest = samples.peekFirst();
+        return oldest.time().isAfter(lagLimit) ? xmin : Math.max(xmin, oldest.xmax());
+    }
+
+    private record Sample(Instant time, long xmax) {
+    }
+
+}
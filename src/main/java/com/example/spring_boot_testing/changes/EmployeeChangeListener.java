@@ -0,0 +1,53 @@
+package com.example.spring_boot_testing.changes;
+
+import com.example.spring_boot_testing.model.Employee;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+
+// JPA entity listener of Employee (instantiated by Hibernate through Spring while the EntityManagerFactory is
+// built, so it gets constructor injection but may only depend on non-JPA beans that exist in every context,
+// including @DataJpaTest slices).
+// Stamps the audit columns and the change sequence on every insert / update and leaves a tombstone for every
+// delete, in the same transaction as the write itself. Bulk JPQL/SQL statements bypass entity listeners and
+// have to maintain these columns themselves.
+public class EmployeeChangeListener {
+
+    private final EmployeeChangeSequence changeSequence;
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public EmployeeChangeListener(JdbcTemplate jdbcTemplate, ObjectProvider<Clock> clock) {
+        this.changeSequence = new EmployeeChangeSequence(jdbcTemplate);
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock.getIfAvailable(Clock::systemUTC);
+    }
+
+    @PrePersist
+    public void beforeInsert(Employee employee) {
+        Instant now = clock.instant();
+        employee.setCreatedAt(now);
+        employee.setUpdatedAt(now);
+        employee.setChangeSeq(changeSequence.next());
+    }
+
+    // only called when Hibernate found the entity dirty, so an unchanged employee keeps its sequence number
+    @PreUpdate
+    public void beforeUpdate(Employee employee) {
+        employee.setUpdatedAt(clock.instant());
+        employee.setChangeSeq(changeSequence.next());
+    }
+
+    @PreRemove
+    public void beforeDelete(Employee employee) {
+        jdbcTemplate.update("insert into employee_tombstones (employee_id, change_seq, deleted_at) values (?, ?, ?)",
+                employee.getId(), changeSequence.next(), Timestamp.from(clock.instant()));
+    }
+
+}
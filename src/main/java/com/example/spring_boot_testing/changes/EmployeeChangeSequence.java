@@ -0,0 +1,35 @@
+package com.example.spring_boot_testing.changes;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// Database sequence numbering every employee write (insert, update, delete) for the changes feed.
+// The sequence is created when this object is created: ddl-auto does not manage sequences that are not
+// id generators, and "if not exists" makes it safe for every instance and every node to do so.
+// Pooled like Hibernate's pooled-lo optimizer: the sequence advances by ALLOCATION_SIZE, every nextval reserves
+// that many numbers, and next() hands them out without a round trip until the block is used up. Numbers stay
+// unique across nodes and increase within one instance, which is all the feed needs: its order is the
+// transaction id first, the sequence only orders the writes of one transaction. SQL statements calling
+// nextval themselves just use the first number of their block.
+public class EmployeeChangeSequence {
+
+    public static final String SEQUENCE = "employee_change_seq";
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private long next;
+    private long limit;
+
+    public EmployeeChangeSequence(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        jdbcTemplate.execute("create sequence if not exists " + SEQUENCE + " increment by " + ALLOCATION_SIZE);
+    }
+
+    public synchronized long next() {
+        if (next == limit) {
+            next = jdbcTemplate.queryForObject("select nextval('" + SEQUENCE + "')", Long.class);
+            limit = next + ALLOCATION_SIZE;
+        }
+        return next++;
+    }
+
+}
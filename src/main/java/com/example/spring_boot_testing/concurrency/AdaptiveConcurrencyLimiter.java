@@ -0,0 +1,90 @@
+package com.example.spring_boot_testing.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD (additive increase / multiplicative decrease) concurrency limiter.
+// Every finished request reports its latency. While requests complete under the latency threshold and
+// the limit is actually being used, the limit grows by one. As soon as a request is slower than the
+// threshold (or fails because of overload) the limit is multiplied by the backoff ratio.
+// Requests above the current limit are rejected immediately instead of queueing in Tomcat and in the pool.
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                                      double backoffRatio, Duration latencyThreshold) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name + ": min=" + minLimit + ", max=" + maxLimit);
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Backoff ratio must be between 0 and 1: " + backoffRatio);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    // Returns true when the caller may proceed. Callers that got true must call onComplete exactly once.
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // overloaded should be true when the request failed in a way that signals overload (e.g. pool timeout).
+    public void onComplete(long latencyNanos, boolean overloaded) {
+        int inflightBeforeRelease = inflight.getAndDecrement();
+        if (overloaded || latencyNanos > latencyThresholdNanos) {
+            decrease();
+        } else if (inflightBeforeRelease * 2 >= limit) {
+            // only grow while at least half the limit is in use, otherwise an idle service would drift to maxLimit
+            increase();
+        }
+    }
+
+    // releases the permit without a sample, for requests whose latency says nothing about the load (e.g. their
+    // deadline ran out, or they read the whole table)
+    public void onIgnored() {
+        inflight.decrementAndGet();
+    }
+
+    private synchronized void increase() {
+        if (limit < maxLimit) {
+            limit = limit + 1;
+        }
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minLimit, (int) (limit * backoffRatio));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+}
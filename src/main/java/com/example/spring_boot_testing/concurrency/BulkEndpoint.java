@@ -0,0 +1,15 @@
+package com.example.spring_boot_testing.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a handler method whose latency grows with the amount of data it reads or writes (full lists, exports,
+// multi-id lookups, set-based updates). ConcurrencyLimitFilter holds a permit for its requests like for any other,
+// but does not compare their latency with the threshold meant for single-employee requests; only overload
+// (503, pool timeouts) shrinks the limit.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BulkEndpoint {
+}
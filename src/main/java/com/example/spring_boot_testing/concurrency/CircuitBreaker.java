@@ -0,0 +1,100 @@
+package com.example.spring_boot_testing.concurrency;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+// Circuit breaker in front of a dependency (the database).
+// CLOSED:    calls go through. `failureThreshold` failures in a row (errors, or calls slower than
+//            `slowCallThreshold`) open the breaker.
+// OPEN:      calls are rejected right away for `openDuration`, callers fall back instead of waiting for timeouts.
+// HALF_OPEN: after that one trial call is let through (everybody else is still rejected); if it succeeds the
+//            breaker closes and the close listeners run, if it fails the breaker opens again.
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long slowCallThresholdNanos;
+    private final long openDurationNanos;
+    private final LongSupplier nanoTime;
+    private final List<Runnable> closeListeners = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public CircuitBreaker(String name, int failureThreshold, Duration slowCallThreshold, Duration openDuration) {
+        this(name, failureThreshold, slowCallThreshold, openDuration, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int failureThreshold, Duration slowCallThreshold, Duration openDuration, LongSupplier nanoTime) {
+        if (failureThreshold < 1) {
+            throw new IllegalArgumentException("Failure threshold of " + name + " must be at least 1: " + failureThreshold);
+        }
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.slowCallThresholdNanos = slowCallThreshold.toNanos();
+        this.openDurationNanos = openDuration.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    // Returns true when the caller may call the dependency. Callers that got true must call onComplete exactly once.
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (nanoTime.getAsLong() - openedAt >= openDurationNanos) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // the trial call is still running
+                return false;
+        }
+    }
+
+    // failed should be true when the call failed because of the dependency (not e.g. because of invalid input)
+    public void onComplete(long latencyNanos, boolean failed) {
+        boolean closed;
+        synchronized (this) {
+            State previous = state;
+            if (failed || latencyNanos > slowCallThresholdNanos) {
+                consecutiveFailures++;
+                if (previous == State.HALF_OPEN || (previous == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+                    state = State.OPEN;
+                    openedAt = nanoTime.getAsLong();
+                }
+                closed = false;
+            } else {
+                consecutiveFailures = 0;
+                state = State.CLOSED;
+                closed = previous != State.CLOSED;
+            }
+        }
+        if (closed) {
+            closeListeners.forEach(Runnable::run);
+        }
+    }
+
+    // runs on the thread whose call closed the breaker, so listeners should only hand work off
+    public void onClose(Runnable listener) {
+        closeListeners.add(listener);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+}
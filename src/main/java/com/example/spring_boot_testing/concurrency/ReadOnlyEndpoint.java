@@ -0,0 +1,13 @@
+package com.example.spring_boot_testing.concurrency;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a handler method that only reads although it is mapped to an unsafe HTTP method (e.g. a POST carrying
+// a query in its body), so ConcurrencyLimitFilter counts its requests against the read limit.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ReadOnlyEndpoint {
+}
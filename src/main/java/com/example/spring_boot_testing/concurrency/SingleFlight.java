@@ -0,0 +1,115 @@
+package com.example.spring_boot_testing.concurrency;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Request coalescing: while a load for a key is running, every other caller asking for the same key
+// waits for that load instead of starting its own. The first caller (the leader) runs the loader on its
+// own thread, followers wait at most `timeout` (or less, see execute) and get the leader's result or the leader's
+// exception. Exceptions that belong to the leader's own call rather than to the load (leaderOnly, e.g. its request
+// deadline running out) are not handed on: the followers load again, one of them as the new leader.
+// Nothing is cached: once the leader finishes the key is removed and the next caller loads again.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Call<V>> inflight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    // applied to the result handed to followers, e.g. to give each of them its own copy of a mutable entity
+    private final UnaryOperator<V> shareFunction;
+    private final Predicate<Throwable> leaderOnly;
+
+    public SingleFlight(Duration timeout) {
+        this(timeout, UnaryOperator.identity());
+    }
+
+    public SingleFlight(Duration timeout, UnaryOperator<V> shareFunction) {
+        this(timeout, shareFunction, e -> false);
+    }
+
+    public SingleFlight(Duration timeout, UnaryOperator<V> shareFunction, Predicate<Throwable> leaderOnly) {
+        this.timeout = timeout;
+        this.shareFunction = shareFunction;
+        this.leaderOnly = leaderOnly;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        return execute(key, timeout, loader);
+    }
+
+    // as a follower, waits at most maxWait (and never longer than the timeout) in total, retries included
+    public V execute(K key, Duration maxWait, Supplier<V> loader) {
+        long waitNanos = Math.max(0, Math.min(timeout.toNanos(), maxWait.toNanos()));
+        long waitUntil = System.nanoTime() + waitNanos;
+        while (true) {
+            Call<V> call = new Call<>();
+            Call<V> existing = inflight.putIfAbsent(key, call);
+            if (existing == null) {
+                return lead(key, call, loader);
+            }
+            existing.followers.incrementAndGet();
+            try {
+                V value = existing.result.get(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS);
+                return value == null ? null : shareFunction.apply(value);
+            } catch (TimeoutException e) {
+                throw new QueryTimeoutException("Timed out after " + TimeUnit.NANOSECONDS.toMillis(waitNanos)
+                        + "ms waiting for in-flight load of key: " + key);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new QueryTimeoutException("Interrupted while waiting for in-flight load of key: " + key, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (leaderOnly.test(cause)) {
+                    continue;
+                }
+                if (cause instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                if (cause instanceof Error error) {
+                    throw error;
+                }
+                throw new IllegalStateException(cause);
+            }
+        }
+    }
+
+    private V lead(K key, Call<V> call, Supplier<V> loader) {
+        try {
+            V value = loader.get();
+            call.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(key, call);
+        }
+    }
+
+    public int inflightCount() {
+        return inflight.size();
+    }
+
+    // callers that joined the in-flight load of the key, 0 when none is running
+    public int followerCount(K key) {
+        Call<V> call = inflight.get(key);
+        return call == null ? 0 : call.followers.get();
+    }
+
+    private static final class Call<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+
+    }
+
+}
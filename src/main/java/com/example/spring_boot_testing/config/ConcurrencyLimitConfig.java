@@ -0,0 +1,75 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.spring_boot_testing.concurrency.BulkEndpoint;
+import com.example.spring_boot_testing.concurrency.ReadOnlyEndpoint;
+import com.example.spring_boot_testing.filter.ConcurrencyLimitFilter;
+import com.example.spring_boot_testing.filter.HandlerAnnotationMatcher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(prefix = "employees.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimiter employeeReadLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        return register(create("read", properties.getRead()), meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimiter employeeWriteLimiter(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        return register(create("write", properties.getWrite()), meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(AdaptiveConcurrencyLimiter employeeReadLimiter,
+                                                                                 AdaptiveConcurrencyLimiter employeeWriteLimiter,
+                                                                                 ConcurrencyLimitProperties properties,
+                                                                                 ObjectProvider<RequestMappingHandlerMapping> handlerMappings,
+                                                                                 MeterRegistry meterRegistry) {
+        Counter readRejected = rejectedCounter(employeeReadLimiter, meterRegistry);
+        Counter writeRejected = rejectedCounter(employeeWriteLimiter, meterRegistry);
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(employeeReadLimiter, employeeWriteLimiter,
+                new HandlerAnnotationMatcher(handlerMappings, ReadOnlyEndpoint.class),
+                new HandlerAnnotationMatcher(handlerMappings, BulkEndpoint.class), properties.getRetryAfter(),
+                limiter -> (limiter == employeeReadLimiter ? readRejected : writeRejected).increment());
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        // run before everything else so rejected requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    private static Counter rejectedCounter(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        return Counter.builder("employees.concurrency.rejected")
+                .tag("kind", limiter.getName())
+                .register(meterRegistry);
+    }
+
+    private static AdaptiveConcurrencyLimiter create(String name, ConcurrencyLimitProperties.Limit limit) {
+        return new AdaptiveConcurrencyLimiter(name, limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(),
+                limit.getBackoffRatio(), limit.getLatencyThreshold());
+    }
+
+    private static AdaptiveConcurrencyLimiter register(AdaptiveConcurrencyLimiter limiter, MeterRegistry meterRegistry) {
+        Gauge.builder("employees.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("kind", limiter.getName())
+                .register(meterRegistry);
+        Gauge.builder("employees.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInflight)
+                .tag("kind", limiter.getName())
+                .register(meterRegistry);
+        return limiter;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.spring_boot_testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Settings for the adaptive concurrency limiter in front of /api/employees.
+// Reads and writes get separate limits so a burst of slow writes can not starve cheap reads (and vice versa).
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employees.concurrency")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+    // value of the Retry-After header sent with 503 responses
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private Limit read = new Limit(50, Duration.ofMillis(250));
+    private Limit write = new Limit(20, Duration.ofMillis(500));
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        private int initialLimit;
+        private int minLimit = 2;
+        private int maxLimit = 200;
+        private double backoffRatio = 0.9;
+        private Duration latencyThreshold;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, Duration latencyThreshold) {
+            this.initialLimit = initialLimit;
+            this.latencyThreshold = latencyThreshold;
+        }
+
+    }
+
+}
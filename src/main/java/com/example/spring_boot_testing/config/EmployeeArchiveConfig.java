@@ -0,0 +1,43 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.archive.EmployeeArchive;
+import com.example.spring_boot_testing.archive.EmployeeArchiver;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+
+import java.time.Clock;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeArchiveProperties.class)
+@ConditionalOnProperty(prefix = "employees.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EmployeeArchiveConfig {
+
+    // after the EntityManagerFactory, so ddl-auto has added employees.deleted_at before the archive indexes it
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public EmployeeArchive employeeArchive(JdbcTemplate jdbcTemplate) {
+        return new EmployeeArchive(jdbcTemplate);
+    }
+
+    @Bean
+    public EmployeeArchiver employeeArchiver(EmployeeArchive employeeArchive, ApplicationEventPublisher eventPublisher,
+                                             Clock clock, EmployeeArchiveProperties properties) {
+        return new EmployeeArchiver(employeeArchive, eventPublisher, clock, properties.getBatchSize(),
+                properties.getMaxBatchesPerRun(), properties.getInactiveAfter(), properties.getTombstoneRetention());
+    }
+
+    // registered programmatically: @Scheduled only takes ISO-8601 or milliseconds, not durations like 5m
+    @Bean
+    public SchedulingConfigurer employeeArchiveSchedule(EmployeeArchiver employeeArchiver, EmployeeArchiveProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(new FixedDelayTask(employeeArchiver::archive,
+                properties.getInterval(), properties.getInitialDelay()));
+    }
+
+}
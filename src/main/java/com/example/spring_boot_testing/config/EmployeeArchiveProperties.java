@@ -0,0 +1,28 @@
+package com.example.spring_boot_testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employees.archive")
+public class EmployeeArchiveProperties {
+
+    private boolean enabled = true;
+    // first run after startup, then one run every interval (counted from the end of the previous run)
+    private Duration initialDelay = Duration.ofMinutes(1);
+    private Duration interval = Duration.ofMinutes(5);
+    // employees moved per statement; bounds the time rows of the employees table stay locked
+    private int batchSize = 1000;
+    // batches per run of the job, the rest waits for the next run
+    private int maxBatchesPerRun = 100;
+    // employees not updated for this long are archived as well, null = only deleted employees are archived
+    private Duration inactiveAfter;
+    // tombstones of deleted employees are kept this long for the changes feed, clients that have not synced for
+    // longer get 410 Gone and start over
+    private Duration tombstoneRetention = Duration.ofDays(30);
+
+}
@@ -0,0 +1,60 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.cache.EmployeeHotKeys;
+import com.example.spring_boot_testing.cache.EmployeeInvalidationListener;
+import com.example.spring_boot_testing.cache.EmployeeInvalidationPublisher;
+import com.example.spring_boot_testing.cache.HotKeysEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeCacheProperties.class)
+public class EmployeeCacheConfig {
+
+    // the sketches are sized for the cache, the keys that compete for it
+    @Bean
+    public EmployeeHotKeys employeeHotKeys(EmployeeCacheProperties properties) {
+        return new EmployeeHotKeys(properties.getMaxSize(), properties.getHotKeys().getTracked());
+    }
+
+    @Bean
+    public EmployeeCache employeeCache(EmployeeCacheProperties properties, EmployeeHotKeys employeeHotKeys) {
+        if (!properties.getAdmission().isEnabled()) {
+            return new EmployeeCache(properties.getMaxSize(), properties.getTtl());
+        }
+        return new EmployeeCache(properties.getMaxSize(), properties.getTtl(), employeeHotKeys::idFrequency);
+    }
+
+    @Bean
+    public HotKeysEndpoint hotKeysEndpoint(EmployeeHotKeys employeeHotKeys, EmployeeCache employeeCache,
+                                           EmployeeCacheProperties properties) {
+        return new HotKeysEndpoint(employeeHotKeys, employeeCache, properties.getHotKeys().getDefaultLimit());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "employees.cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EmployeeInvalidationPublisher employeeInvalidationPublisher(JdbcTemplate jdbcTemplate) {
+        return new EmployeeInvalidationPublisher(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "employees.cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EmployeeInvalidationListener employeeInvalidationListener(EmployeeCache employeeCache,
+                                                                     ApplicationEventPublisher eventPublisher,
+                                                                     DataSourceProperties dataSourceProperties,
+                                                                     EmployeeCacheProperties properties) {
+        return new EmployeeInvalidationListener(employeeCache, eventPublisher,
+                dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(),
+                dataSourceProperties.determinePassword(),
+                properties.getInvalidation().getPollTimeout(),
+                properties.getInvalidation().getReconnectDelay());
+    }
+
+}
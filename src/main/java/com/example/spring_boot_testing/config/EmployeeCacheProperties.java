@@ -0,0 +1,50 @@
+package com.example.spring_boot_testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employees.cache")
+public class EmployeeCacheProperties {
+
+    private int maxSize = 10_000;
+    // can be long because other nodes' writes are pushed to us through LISTEN/NOTIFY
+    private Duration ttl = Duration.ofMinutes(30);
+    private Invalidation invalidation = new Invalidation();
+    private Admission admission = new Admission();
+    private HotKeys hotKeys = new HotKeys();
+
+    @Getter
+    @Setter
+    public static class Invalidation {
+
+        private boolean enabled = true;
+        private Duration pollTimeout = Duration.ofMillis(500);
+        private Duration reconnectDelay = Duration.ofSeconds(2);
+
+    }
+
+    @Getter
+    @Setter
+    public static class Admission {
+
+        // a full cache only admits employees accessed more often than the entry they replace
+        private boolean enabled = true;
+
+    }
+
+    @Getter
+    @Setter
+    public static class HotKeys {
+
+        // ids and emails kept per kind for the hotkeys actuator endpoint
+        private int tracked = 100;
+        private int defaultLimit = 20;
+
+    }
+
+}
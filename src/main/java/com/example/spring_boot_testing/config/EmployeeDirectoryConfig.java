@@ -0,0 +1,50 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.directory.CompactEmployeeDirectory;
+import com.example.spring_boot_testing.directory.EmployeeDirectoryRefresher;
+import com.example.spring_boot_testing.directory.OffHeapEmployeeDirectory;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Optional full-table read models, each kept in sync by its own EmployeeDirectoryRefresher.
+@Configuration
+public class EmployeeDirectoryConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "employees.directory.off-heap", name = "enabled", havingValue = "true")
+    static class OffHeapDirectoryConfig {
+
+        @Bean
+        public OffHeapEmployeeDirectory offHeapEmployeeDirectory(@Value("${employees.directory.off-heap.expected-size:100000}") int expectedSize) {
+            return new OffHeapEmployeeDirectory(expectedSize);
+        }
+
+        @Bean
+        public EmployeeDirectoryRefresher offHeapEmployeeDirectoryRefresher(OffHeapEmployeeDirectory offHeapEmployeeDirectory,
+                                                                            EmployeeRepository employeeRepository) {
+            return new EmployeeDirectoryRefresher(offHeapEmployeeDirectory, employeeRepository);
+        }
+
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "employees.directory.compact", name = "enabled", havingValue = "true")
+    static class CompactDirectoryConfig {
+
+        @Bean
+        public CompactEmployeeDirectory compactEmployeeDirectory(@Value("${employees.directory.compact.expected-size:100000}") int expectedSize) {
+            return new CompactEmployeeDirectory(expectedSize);
+        }
+
+        @Bean
+        public EmployeeDirectoryRefresher compactEmployeeDirectoryRefresher(CompactEmployeeDirectory compactEmployeeDirectory,
+                                                                            EmployeeRepository employeeRepository) {
+            return new EmployeeDirectoryRefresher(compactEmployeeDirectory, employeeRepository);
+        }
+
+    }
+
+}
@@ -0,0 +1,39 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.example.spring_boot_testing.id.SnowflakeIdentifierGenerator;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Hands the employees.id.* properties to the Hibernate id generator (see SnowflakeIdentifierGenerator), which is
+// created by Hibernate and can not be injected, and to the ObjectMapper (see EmployeeIdSerializer).
+// The worker id has no default: two nodes with the same worker id generate the same ids, so every node has to be
+// given its own.
+@Configuration
+public class EmployeeIdConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer employeeIdHibernatePropertiesCustomizer(@Value("${employees.id.worker-id:#{null}}") Integer workerId,
+                                                                                 @Value("${employees.id.max-clock-rollback:100ms}") Duration maxClockRollback) {
+        if (workerId == null) {
+            throw new IllegalStateException("employees.id.worker-id is not set: every node needs its own worker id (0-1023)");
+        }
+        return properties -> {
+            properties.put(SnowflakeIdentifierGenerator.WORKER_ID, workerId);
+            properties.put(SnowflakeIdentifierGenerator.MAX_CLOCK_ROLLBACK, (int) maxClockRollback.toMillis());
+        };
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer employeeIdJsonCustomizer(@Value("${employees.id.json-strings:false}") boolean jsonStrings) {
+        return builder -> builder.postConfigurer(objectMapper -> objectMapper.setDefaultAttributes(
+                ContextAttributes.getEmpty().withSharedAttribute(EmployeeIdSerializer.JSON_STRINGS, jsonStrings)));
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.partitioning.EmployeeTablePartitioner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+// Opt-in hash partitioning of the employees table, applied while the context starts: after ddl-auto created or
+// updated the table and before anything else (backfill, warm-up, read models) uses it.
+@Configuration
+@ConditionalOnProperty(prefix = "employees.partitioning", name = "enabled", havingValue = "true")
+public class EmployeePartitioningConfig {
+
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public EmployeeTablePartitioner employeeTablePartitioner(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                                             @Value("${employees.partitioning.partitions:16}") int partitions) {
+        EmployeeTablePartitioner partitioner = new EmployeeTablePartitioner(jdbcTemplate, new TransactionTemplate(transactionManager));
+        partitioner.partition(partitions);
+        return partitioner;
+    }
+
+}
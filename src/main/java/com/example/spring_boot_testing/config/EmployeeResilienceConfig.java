@@ -0,0 +1,31 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.cache.LastKnownGoodEmployees;
+import com.example.spring_boot_testing.concurrency.CircuitBreaker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeResilienceProperties.class)
+public class EmployeeResilienceConfig {
+
+    @Bean
+    public CircuitBreaker employeeDatabaseCircuitBreaker(EmployeeResilienceProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("database", properties.getFailureThreshold(),
+                properties.getSlowCallThreshold(), properties.getOpenDuration());
+        // 0 = closed, 1 = open, 2 = half open
+        Gauge.builder("employees.circuit-breaker.state", circuitBreaker, breaker -> breaker.getState().ordinal())
+                .tag("name", circuitBreaker.getName())
+                .register(meterRegistry);
+        return circuitBreaker;
+    }
+
+    @Bean
+    public LastKnownGoodEmployees lastKnownGoodEmployees(EmployeeResilienceProperties properties) {
+        return new LastKnownGoodEmployees(properties.getLastKnownGoodMaxSize(), properties.getLastKnownGoodMaxListSize());
+    }
+
+}
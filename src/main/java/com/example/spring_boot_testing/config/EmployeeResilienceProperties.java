@@ -0,0 +1,25 @@
+package com.example.spring_boot_testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Circuit breaker around the database reads of EmployeeService and the last known good copies served while it is open.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employees.resilience")
+public class EmployeeResilienceProperties {
+
+    // failed or slow calls in a row that open the breaker; the full list only counts when it fails, its latency
+    // grows with the table
+    private int failureThreshold = 5;
+    private Duration slowCallThreshold = Duration.ofSeconds(2);
+    // how long reads are not sent to the database before one trial call
+    private Duration openDuration = Duration.ofSeconds(5);
+    private int lastKnownGoodMaxSize = 100_000;
+    // longest full employee list kept as last known good copy, longer lists are not served stale
+    private int lastKnownGoodMaxListSize = 10_000;
+
+}
@@ -0,0 +1,26 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.warmup.EmployeeWarmup;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeWarmupProperties.class)
+public class EmployeeWarmupConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "employees.warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public EmployeeWarmup employeeWarmup(DataSource dataSource, EmployeeRepository employeeRepository,
+                                         EmployeeCache employeeCache, Environment environment,
+                                         EmployeeWarmupProperties properties) {
+        return new EmployeeWarmup(dataSource, employeeRepository, employeeCache, environment, properties);
+    }
+
+}
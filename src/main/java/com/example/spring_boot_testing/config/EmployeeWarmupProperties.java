@@ -0,0 +1,24 @@
+package com.example.spring_boot_testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employees.warmup")
+public class EmployeeWarmupProperties {
+
+    private boolean enabled = true;
+    // rounds of repository queries; pgjdbc switches a statement to a server-side prepared statement after 5 executions
+    private int queryRounds = 5;
+    // rounds of synthetic HTTP reads, enough for the hot paths to be compiled by C1 and most of them by C2
+    private int requestRounds = 300;
+    // the warm-up stops early after this, the application becomes ready anyway
+    private Duration maxDuration = Duration.ofSeconds(30);
+    // number of most recently changed employees loaded into the EmployeeCache, 0 = none
+    private int preloadSize = 0;
+
+}
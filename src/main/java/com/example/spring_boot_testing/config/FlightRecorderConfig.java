@@ -0,0 +1,64 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.jfr.FlightRecordingEndpoint;
+import com.example.spring_boot_testing.jfr.JfrEventInterceptors;
+import com.example.spring_boot_testing.service.EmployeeService;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Custom JFR events (jfr package) for EmployeeService calls and repository queries, and the actuator endpoint
+// that records them on demand. The events also show up in recordings started with -XX:StartFlightRecording.
+@Configuration
+@ConditionalOnProperty(prefix = "employees.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecorderConfig {
+
+    @Bean
+    public FlightRecordingEndpoint flightRecordingEndpoint(@Value("${employees.jfr.service-threshold:5ms}") Duration serviceThreshold,
+                                                           @Value("${employees.jfr.query-threshold:1ms}") Duration queryThreshold,
+                                                           @Value("${employees.jfr.max-age:15m}") Duration maxAge,
+                                                           @Value("${employees.jfr.dump-directory:${java.io.tmpdir}/employees-jfr}") Path dumpDirectory) {
+        return new FlightRecordingEndpoint(serviceThreshold, queryThreshold, maxAge, dumpDirectory);
+    }
+
+    // static: bean post processors are created before the other beans of this class
+    @Bean
+    public static BeanPostProcessor flightRecorderEventsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0,
+                                    JfrEventInterceptors.queryEvents(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof EmployeeService)) {
+                    return bean;
+                }
+                // outermost advice, so the event includes the transaction of @Transactional methods
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, JfrEventInterceptors.serviceEvents());
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.addInterface(EmployeeService.class);
+                proxyFactory.addAdvice(JfrEventInterceptors.serviceEvents());
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.idempotency.IdempotencyService;
+import com.example.spring_boot_testing.idempotency.IdempotencyStore;
+import com.example.spring_boot_testing.idempotency.InMemoryIdempotencyStore;
+import com.example.spring_boot_testing.idempotency.JdbcIdempotencyStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+
+import java.time.Clock;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "employees.idempotency", name = "store", havingValue = "jdbc")
+    public JdbcIdempotencyStore jdbcIdempotencyStore(JdbcTemplate jdbcTemplate, IdempotencyProperties properties, Clock clock) {
+        return new JdbcIdempotencyStore(jdbcTemplate, properties.getTtl(), properties.getReservationTimeout(), clock);
+    }
+
+    // registered programmatically: @Scheduled only takes ISO-8601 or milliseconds, not durations like 10m
+    @Bean
+    @ConditionalOnProperty(prefix = "employees.idempotency", name = "store", havingValue = "jdbc")
+    public SchedulingConfigurer idempotencyCleanup(JdbcIdempotencyStore jdbcIdempotencyStore, IdempotencyProperties properties) {
+        return registrar -> registrar.addFixedDelayTask(new FixedDelayTask(jdbcIdempotencyStore::deleteExpired,
+                properties.getCleanupInterval(), properties.getCleanupInterval()));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "employees.idempotency", name = "store", havingValue = "memory", matchIfMissing = true)
+    public IdempotencyStore inMemoryIdempotencyStore(IdempotencyProperties properties, Clock clock) {
+        return new InMemoryIdempotencyStore(properties.getMaxEntries(), properties.getTtl(), properties.getReservationTimeout(), clock);
+    }
+
+    @Bean
+    public IdempotencyService idempotencyService(IdempotencyStore idempotencyStore, ObjectMapper objectMapper,
+                                                 IdempotencyProperties properties, Clock clock) {
+        return new IdempotencyService(idempotencyStore, objectMapper, clock, properties.getWaitTimeout());
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.spring_boot_testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employees.idempotency")
+public class IdempotencyProperties {
+
+    // memory: per node, bounded by maxEntries; jdbc: shared idempotency_keys table
+    private String store = "memory";
+    private Duration ttl = Duration.ofHours(24);
+    private int maxEntries = 100_000;
+    // how long a duplicate waits for the first request with the same key
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    // a reservation that was not completed within this time belongs to a node that died and is taken over;
+    // has to be longer than the slowest request (the write deadlines go up to 30s)
+    private Duration reservationTimeout = Duration.ofMinutes(2);
+    // how often the jdbc store deletes expired rows
+    private Duration cleanupInterval = Duration.ofMinutes(10);
+
+}
@@ -0,0 +1,99 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.deadline.RequestDeadlineFilter;
+import com.example.spring_boot_testing.deadline.RequestDeadlineInterceptors;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.EmployeeBatchService;
+import com.example.spring_boot_testing.service.EmployeeChangeFeedService;
+import com.example.spring_boot_testing.service.EmployeeService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.Set;
+
+// Request deadlines for /api/employees (deadline package): the filter derives the deadline of every request, the
+// @Transactional service methods and the EmployeeRepository proxies refuse calls after it, and the repository turns
+// the time left into the statement timeout of its transaction. Expired requests are counted in
+// employees.deadline.exceeded, tagged with where they were stopped.
+@Configuration
+@EnableConfigurationProperties(RequestDeadlineProperties.class)
+@ConditionalOnProperty(prefix = "employees.deadline", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RequestDeadlineConfig {
+
+    private static final String METRIC = "employees.deadline.exceeded";
+
+    private static final Set<Class<?>> SERVICES = Set.of(EmployeeService.class, EmployeeBatchService.class, EmployeeChangeFeedService.class);
+
+    @Bean
+    public FilterRegistrationBean<RequestDeadlineFilter> requestDeadlineFilter(RequestDeadlineProperties properties, Clock clock,
+                                                                               MeterRegistry meterRegistry) {
+        RequestDeadlineFilter filter = new RequestDeadlineFilter(clock, properties.getDefaultTimeout(), properties.getMaxTimeout(),
+                properties.getEndpoints(), () -> meterRegistry.counter(METRIC, "stage", "arrival").increment());
+        FilterRegistrationBean<RequestDeadlineFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        // inside the timing filter, outside the concurrency limit filter: expired requests never take a slot
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 7);
+        return registration;
+    }
+
+    // static: bean post processors are created before the other beans of this class; the providers are resolved when
+    // the repository is created
+    @Bean
+    public static BeanPostProcessor requestDeadlinePostProcessor(ObjectProvider<JdbcTemplate> jdbcTemplate,
+                                                                 ObjectProvider<RequestDeadlineProperties> properties,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                        if (repositoryInformation.getRepositoryInterface() != EmployeeRepository.class) {
+                            return;
+                        }
+                        // the fail-fast check before the transaction interceptor, the statement timeout after it
+                        proxyFactory.addAdvice(0, RequestDeadlineInterceptors.failFast(
+                                () -> meterRegistry.getObject().counter(METRIC, "stage", "repository").increment()));
+                        proxyFactory.addAdvice(RequestDeadlineInterceptors.statementTimeout(jdbcTemplate.getObject(),
+                                properties.getObject().getStatementTimeoutRefresh()));
+                    }));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (SERVICES.stream().noneMatch(service -> service.isInstance(bean))) {
+                    return bean;
+                }
+                // ahead of the transaction interceptor, so an expired request does not take a connection to begin
+                // the service transaction, which the repository check inside it would only refuse afterwards
+                Advisor failFast = new DefaultPointcutAdvisor(AnnotationMatchingPointcut.forMethodAnnotation(Transactional.class),
+                        RequestDeadlineInterceptors.failFast(() -> meterRegistry.getObject().counter(METRIC, "stage", "service").increment()));
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvisor(0, failFast);
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.addAdvisor(failFast);
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.example.spring_boot_testing.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Settings for the request deadlines of /api/employees (see RequestDeadlineFilter).
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employees.deadline")
+public class RequestDeadlineProperties {
+
+    private boolean enabled = true;
+    // deadline of requests without a deadline header whose path matches none of the endpoints
+    private Duration defaultTimeout = Duration.ofSeconds(10);
+    // upper bound for deadlines sent by clients
+    private Duration maxTimeout = Duration.ofSeconds(30);
+    // per-endpoint defaults by path pattern, checked in order, e.g. employees.deadline.endpoints[/api/employees/batch]=30s
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+    // how long the statement_timeout set in a transaction is reused by later repository calls of that transaction
+    private Duration statementTimeoutRefresh = Duration.ofMillis(100);
+
+}
@@ -0,0 +1,55 @@
+package com.example.spring_boot_testing.config;
+
+import com.example.spring_boot_testing.timing.RepositoryTimingInterceptor;
+import com.example.spring_boot_testing.timing.ServerTimingFilter;
+import com.example.spring_boot_testing.timing.TimingSessionEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.SessionEventSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+// Per-request phase timing of /api/employees (see RequestTimings): connection acquisition and SQL come from a
+// Hibernate session listener, repository time from an interceptor on the repository proxies.
+@Configuration
+@ConditionalOnProperty(prefix = "employees.timing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ServerTimingConfig {
+
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(MeterRegistry meterRegistry,
+                                                                        @Value("${employees.timing.server-timing-header:false}") boolean headerEnabled) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(meterRegistry, headerEnabled));
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        // outside the concurrency limit filter, so the total includes everything the server does
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer timingSessionEventListener() {
+        return properties -> properties.put(SessionEventSettings.AUTO_SESSION_EVENTS_LISTENER, TimingSessionEventListener.class.getName());
+    }
+
+    // static: bean post processors are created before the other beans of this class
+    @Bean
+    public static BeanPostProcessor repositoryTimingPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    RepositoryTimingInterceptor interceptor = new RepositoryTimingInterceptor();
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(0, interceptor)));
+                }
+                return bean;
+            }
+        };
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.spring_boot_testing.controller;
+
+import com.example.spring_boot_testing.archive.EmployeeArchive;
+import com.example.spring_boot_testing.dto.ArchivedEmployee;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Reads of archived (deleted or inactive) employees, served from employees_archive on demand.
+@RestController
+@RequestMapping("/api/employees/archive")
+@ConditionalOnProperty(prefix = "employees.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class EmployeeArchiveController {
+
+    private final EmployeeArchive employeeArchive;
+
+    @Autowired
+    public EmployeeArchiveController(EmployeeArchive employeeArchive){
+        this.employeeArchive = employeeArchive;
+    }
+
+    @GetMapping(params = "email")
+    public List<ArchivedEmployee> getArchivedEmployeesByEmail(@RequestParam("email") String email){
+        return employeeArchive.findByEmail(email);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ArchivedEmployee> getArchivedEmployeeById(@PathVariable("id") long employeeId){
+        ArchivedEmployee employee = employeeArchive.findById(employeeId).orElse(null);
+        if(employee != null){
+            return new ResponseEntity<>(employee,HttpStatus.OK);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+}
@@ -1,41 +1,176 @@
 package com.example.spring_boot_testing.controller;
 
+import com.example.spring_boot_testing.concurrency.BulkEndpoint;
+import com.example.spring_boot_testing.concurrency.ReadOnlyEndpoint;
+import com.example.spring_boot_testing.deadline.RequestDeadline;
+import com.example.spring_boot_testing.dto.BatchOperationRequest;
+import com.example.spring_boot_testing.dto.BatchOperationResponse;
+import com.example.spring_boot_testing.dto.EmployeeBatchResponse;
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateRequest;
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateResponse;
+import com.example.spring_boot_testing.dto.EmployeeChangesResponse;
+import com.example.spring_boot_testing.dto.EmployeeSearchCriteria;
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.example.spring_boot_testing.idempotency.IdempotencyService;
 import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.service.EmployeeBatchService;
+import com.example.spring_boot_testing.service.EmployeeChangeFeedService;
 import com.example.spring_boot_testing.service.EmployeeService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final String EXPORT_CONTENT_TYPE = "application/x-ndjson";
+    // RFC 7234 warn-code 110, sent with responses answered from last known good data while the database is unavailable
+    static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
     private final EmployeeService employeeService;
+    private final EmployeeBatchService employeeBatchService;
+    private final IdempotencyService idempotencyService;
+    private final EmployeeChangeFeedService employeeChangeFeedService;
+    private final ObjectMapper objectMapper;
 
     @Autowired
-    public EmployeeController(EmployeeService employeeService){
+    public EmployeeController(EmployeeService employeeService, EmployeeBatchService employeeBatchService,
+                              IdempotencyService idempotencyService, EmployeeChangeFeedService employeeChangeFeedService,
+                              ObjectMapper objectMapper){
         this.employeeService = employeeService;
+        this.employeeBatchService = employeeBatchService;
+        this.idempotencyService = idempotencyService;
+        this.employeeChangeFeedService = employeeChangeFeedService;
+        this.objectMapper = objectMapper;
     }
 
-    // The @ResponseStatus annotation in Spring MVC allows you to assign a specific HTTP status to a controller method or an exception.
-    // Using this annotation you can specify what HTTP status a controller method will return when executed correctly.
+    // With an Idempotency-Key header, retries of the same request get the stored response instead of inserting again.
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee){
-        return employeeService.saveEmployee(employee);
+    public ResponseEntity<Employee> createEmployee(@RequestBody Employee employee,
+                                                   @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey){
+        if(idempotencyKey == null){
+            return new ResponseEntity<>(employeeService.saveEmployee(employee),HttpStatus.CREATED);
+        }
+        return idempotencyService.execute(idempotencyKey, employee, Employee.class,
+                () -> new ResponseEntity<>(employeeService.saveEmployee(employee),HttpStatus.CREATED));
     }
+
+    // Many creates/updates/patches/deletes in one transaction. In all-or-nothing mode a batch with a failed
+    // operation is not committed and answered with 422, the body lists the result of every operation.
+    @BulkEndpoint
+    @PostMapping("/batch")
+    public ResponseEntity<BatchOperationResponse> executeBatch(@RequestBody BatchOperationRequest request){
+        BatchOperationResponse response = employeeBatchService.executeBatch(request);
+        return new ResponseEntity<>(response, response.isCommitted() ? HttpStatus.OK : HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    // Set-based update of every employee matching the filter, answered with the number of updated employees.
+    @BulkEndpoint
+    @PostMapping("/bulk-update")
+    public EmployeeBulkUpdateResponse bulkUpdateEmployees(@RequestBody EmployeeBulkUpdateRequest request){
+        return new EmployeeBulkUpdateResponse(employeeService.bulkUpdateEmployees(request));
+    }
+
+    // The @ResponseStatus annotation in Spring MVC allows you to assign a specific HTTP status to a controller method or an exception.
+    // Using this annotation you can specify what HTTP status a controller method will return when executed correctly.
+    // Without query parameters all employees are returned. With any of emailDomain, namePrefix, minId, maxId,
+    // sort or limit the filtering, sorting and limiting happen in the database (see EmployeeSearchCriteria).
+    @BulkEndpoint
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public List<Employee> getAllEmployees(EmployeeSearchCriteria criteria, HttpServletResponse response){
+        if(criteria.isEmpty()){
+            return markStale(employeeService.readAllEmployees(), response);
+        }
+        return employeeService.searchEmployees(criteria);
+    }
+
+    // Streams the whole table as newline delimited JSON (one employee per line). Rows are written while they are
+    // read from the database, so neither the server nor the client has to hold the full list. The body is written
+    // on an MVC async thread, the request deadline is taken along from the request thread.
+    @BulkEndpoint
+    @GetMapping(value = "/export", produces = EXPORT_CONTENT_TYPE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees(){
+        RequestDeadline deadline = RequestDeadline.current();
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+                employeeService.exportEmployees(deadline, employee -> {
+                    try {
+                        generator.writeObject(employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeRaw('\n');
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(EXPORT_CONTENT_TYPE)).body(body);
+    }
+
+    // Sparse fieldset, e.g. GET /api/employees?fields=id,email - only these columns are selected and returned.
+    // Can be combined with the search parameters above.
+    @BulkEndpoint
+    @GetMapping(params = {"fields", "!ids"})
+    public List<Map<String, Object>> getEmployeeFields(@RequestParam("fields") List<String> fields, EmployeeSearchCriteria criteria){
+        List<Map<String, Object>> rows = employeeService.getEmployeeFields(fields, criteria);
+        rows.forEach(this::writeId);
+        return rows;
+    }
+
+    // Delta sync: employees created, updated or deleted after the token. Without `since` the feed starts from the
+    // beginning, i.e. the first calls return the whole table page by page.
+    @GetMapping("/changes")
+    public EmployeeChangesResponse getChanges(@RequestParam(value = "since", required = false) String since){
+        return employeeChangeFeedService.getChangesSince(since);
     }
 
+    // GET /api/employees?ids=1,2,3 - one query instead of one request per id
+    @BulkEndpoint
+    @GetMapping(params = "ids")
+    public EmployeeBatchResponse getEmployeesByIds(@RequestParam("ids") List<Long> ids){
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    // same as above for id sets that do not fit into a URL
+    @BulkEndpoint
+    @ReadOnlyEndpoint
+    @PostMapping("/lookup")
+    public EmployeeBatchResponse lookupEmployees(@RequestBody List<Long> ids){
+        return employeeService.getEmployeesByIds(ids);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getEmployeeFieldsById(@PathVariable("id") long employeeId,
+                                                                     @RequestParam("fields") List<String> fields){
+        Map<String, Object> employee = employeeService.getEmployeeFieldsById(employeeId, fields);
+        if(employee != null){
+            writeId(employee);
+            return new ResponseEntity<>(employee,HttpStatus.OK);
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // While the database is unavailable the last known copy is returned with Warning and Age headers.
     @GetMapping("/{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
-        Employee employee = employeeService.getEmployeeById(employeeId);
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId, HttpServletResponse response){
+        Employee employee = markStale(employeeService.readEmployeeById(employeeId), response);
         if(employee != null){
             return new ResponseEntity<>(employee,HttpStatus.OK);
         } else {
@@ -62,4 +197,19 @@ public class EmployeeController {
         return new ResponseEntity<>("Employee deleted successfully!",HttpStatus.OK);
     }
 
+    private static <T> T markStale(ReadResult<T> result, HttpServletResponse response) {
+        if(result.isStale()){
+            response.setHeader(HttpHeaders.WARNING, STALE_WARNING);
+            response.setHeader(HttpHeaders.AGE, String.valueOf(result.staleness().toSeconds()));
+        }
+        return result.value();
+    }
+
+    // a selected id is written like Employee.id: as a string if the ObjectMapper is set up for it
+    private void writeId(Map<String, Object> row) {
+        if(EmployeeIdSerializer.asString(objectMapper)){
+            row.computeIfPresent("id", (field, id) -> id.toString());
+        }
+    }
+
 }
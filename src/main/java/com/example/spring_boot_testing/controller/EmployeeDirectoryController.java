@@ -0,0 +1,58 @@
+package com.example.spring_boot_testing.controller;
+
+import com.example.spring_boot_testing.concurrency.BulkEndpoint;
+import com.example.spring_boot_testing.directory.OffHeapEmployeeDirectory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Directory reads served from the off-heap snapshot: JSON is written straight from the snapshot to the response.
+@RestController
+@RequestMapping("/api/employees/directory")
+@ConditionalOnProperty(prefix = "employees.directory.off-heap", name = "enabled", havingValue = "true")
+public class EmployeeDirectoryController {
+
+    private final OffHeapEmployeeDirectory directory;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public EmployeeDirectoryController(OffHeapEmployeeDirectory directory, ObjectMapper objectMapper){
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    @BulkEndpoint
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> getDirectory(){
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                directory.writeAllJson(generator);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<StreamingResponseBody> getDirectoryEntry(@PathVariable("id") long employeeId){
+        if(!directory.contains(employeeId)){
+            return ResponseEntity.notFound().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                if (!directory.writeJson(employeeId, generator)) {
+                    generator.writeNull();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+}
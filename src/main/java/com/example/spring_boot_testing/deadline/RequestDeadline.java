@@ -0,0 +1,65 @@
+package com.example.spring_boot_testing.deadline;
+
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+
+// Point in time by which the current request has to be answered. RequestDeadlineFilter binds an instance to the
+// request thread; repository calls read it through current(), which returns null outside of an HTTP request
+// (schedulers, listeners, warm-up code), so background work is not bounded by it. Work a request hands to another
+// thread (the streamed export) captures the instance on the request thread and passes it on.
+// The deadline is kept on the System.nanoTime() scale, wall clock adjustments do not move it.
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private RequestDeadline(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    public static RequestDeadline after(Duration timeout) {
+        return new RequestDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    static RequestDeadline bind(Duration timeout) {
+        RequestDeadline deadline = after(timeout);
+        CURRENT.set(deadline);
+        return deadline;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    // marks the request of the current thread (RequestDeadlineExceededException.REQUEST_ATTRIBUTE) when a
+    // RequestDeadlineExceededException is raised for it, so the 504 is not taken for overload
+    public static void markExceeded() {
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.setAttribute(RequestDeadlineExceededException.REQUEST_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    // the time left as a PostgreSQL statement_timeout: rounded up, so the timeout fires at or after the deadline and
+    // is recognized as an exceeded deadline, and at least 1ms, 0 would disable it
+    public long statementTimeoutMillis() {
+        return Math.max(1, (remainingNanos() + 999_999) / 1_000_000);
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.example.spring_boot_testing.deadline;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Derives the deadline of every request and binds it to the request thread (see RequestDeadline):
+// - X-Request-Deadline: absolute point in time, epoch milliseconds or ISO-8601 (e.g. 2024-05-01T10:15:30.250Z)
+// - X-Request-Timeout: time budget relative to arrival, e.g. 250ms or 2s (plain numbers are milliseconds)
+// - otherwise the timeout of the first endpoint pattern matching the path, or the default timeout
+// Deadlines sent by clients are capped at maxTimeout. A request that arrives with its deadline already passed is
+// answered with 504 right away, before it takes a concurrency limit slot or a pooled connection.
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    public static final String DEADLINE_HEADER = "X-Request-Deadline";
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    private final Clock clock;
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+    private final Map<PathPattern, Duration> endpointTimeouts = new LinkedHashMap<>();
+    private final Runnable onExpired;
+
+    public RequestDeadlineFilter(Clock clock, Duration defaultTimeout, Duration maxTimeout,
+                                 Map<String, Duration> endpointTimeouts, Runnable onExpired) {
+        this.clock = clock;
+        this.defaultTimeout = defaultTimeout;
+        this.maxTimeout = maxTimeout;
+        endpointTimeouts.forEach((pattern, timeout) ->
+                this.endpointTimeouts.put(PathPatternParser.defaultInstance.parse(pattern), timeout));
+        this.onExpired = onExpired;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Duration timeout;
+        try {
+            timeout = timeout(request);
+        } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        if (timeout.isNegative() || timeout.isZero()) {
+            onExpired.run();
+            response.setStatus(HttpStatus.GATEWAY_TIMEOUT.value());
+            return;
+        }
+        RequestDeadline.bind(timeout);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.unbind();
+        }
+    }
+
+    private Duration timeout(HttpServletRequest request) {
+        String deadline = request.getHeader(DEADLINE_HEADER);
+        if (deadline != null) {
+            return capped(Duration.between(clock.instant(), parseInstant(deadline.trim())));
+        }
+        String timeout = request.getHeader(TIMEOUT_HEADER);
+        if (timeout != null) {
+            return capped(DurationStyle.detectAndParse(timeout.trim()));
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+        for (Map.Entry<PathPattern, Duration> endpoint : endpointTimeouts.entrySet()) {
+            if (endpoint.getKey().matches(path)) {
+                return endpoint.getValue();
+            }
+        }
+        return defaultTimeout;
+    }
+
+    private Duration capped(Duration timeout) {
+        return timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+    }
+
+    private static Instant parseInstant(String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return Instant.ofEpochMilli(Long.parseLong(value));
+        }
+        return Instant.parse(value);
+    }
+
+}
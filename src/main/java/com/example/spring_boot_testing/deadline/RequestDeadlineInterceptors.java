@@ -0,0 +1,122 @@
+package com.example.spring_boot_testing.deadline;
+
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+// Method interceptors bounding repository and service calls by the deadline of the current request (see
+// RequestDeadline). Outside of a request (no deadline bound) both only cost a ThreadLocal read.
+public final class RequestDeadlineInterceptors {
+
+    private RequestDeadlineInterceptors() {
+    }
+
+    // Outermost advice: refuses the call once the deadline has passed, before the repository or service transaction
+    // takes a connection from the pool, and reports statements cancelled by the statement timeout (or failing for any
+    // other database reason after the deadline) as an exceeded deadline instead of a database failure. Either way the
+    // request is marked (RequestDeadlineExceededException.REQUEST_ATTRIBUTE), so the 504 is not taken for overload.
+    public static MethodInterceptor failFast(Runnable onExpired) {
+        return invocation -> {
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline == null) {
+                return invocation.proceed();
+            }
+            if (deadline.isExpired()) {
+                onExpired.run();
+                RequestDeadline.markExceeded();
+                throw new RequestDeadlineExceededException("Request deadline exceeded before " + name(invocation));
+            }
+            try {
+                return invocation.proceed();
+            } catch (RequestDeadlineExceededException e) {
+                // raised further in (the export scan, a flight wait), counted where it was raised
+                RequestDeadline.markExceeded();
+                throw e;
+            } catch (DataAccessException | TransactionException e) {
+                if (!deadline.isExpired()) {
+                    throw e;
+                }
+                onExpired.run();
+                RequestDeadline.markExceeded();
+                throw new RequestDeadlineExceededException("Request deadline exceeded during " + name(invocation), e);
+            }
+        };
+    }
+
+    // Innermost advice, inside the repository transaction: sets the time left as statement_timeout of the transaction
+    // (SET LOCAL, reset by PostgreSQL at commit or rollback), so no statement of the transaction outlives the request.
+    // Repository calls of the same transaction reuse the timeout for refreshInterval; a statement started later may
+    // run at most that long past the deadline. Calls without a transaction bound to the connection of jdbcTemplate
+    // are only covered by failFast; the stateless scan sets the timeout on its own transaction.
+    public static MethodInterceptor statementTimeout(JdbcTemplate jdbcTemplate, Duration refreshInterval) {
+        return new StatementTimeoutInterceptor(jdbcTemplate, refreshInterval.toNanos());
+    }
+
+    private static String name(MethodInvocation invocation) {
+        return invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName();
+    }
+
+    private static final class StatementTimeoutInterceptor implements MethodInterceptor {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final long refreshNanos;
+
+        private StatementTimeoutInterceptor(JdbcTemplate jdbcTemplate, long refreshNanos) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.refreshNanos = refreshNanos;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            RequestDeadline deadline = RequestDeadline.current();
+            if (deadline == null || !TransactionSynchronizationManager.isActualTransactionActive()
+                    || !TransactionSynchronizationManager.isSynchronizationActive()) {
+                return invocation.proceed();
+            }
+            Object connection = TransactionSynchronizationManager.getResource(jdbcTemplate.getDataSource());
+            if (connection == null) {
+                return invocation.proceed();
+            }
+            long now = System.nanoTime();
+            // bound under this interceptor as key; a transaction started with REQUIRES_NEW has another connection
+            TimeoutSet timeoutSet = (TimeoutSet) TransactionSynchronizationManager.getResource(this);
+            if (timeoutSet == null || timeoutSet.connection != connection || now - timeoutSet.setAt >= refreshNanos) {
+                jdbcTemplate.execute("set local statement_timeout = " + deadline.statementTimeoutMillis());
+                if (timeoutSet == null) {
+                    timeoutSet = new TimeoutSet();
+                    bindToTransaction(timeoutSet);
+                }
+                timeoutSet.connection = connection;
+                timeoutSet.setAt = now;
+            }
+            return invocation.proceed();
+        }
+
+        private void bindToTransaction(TimeoutSet timeoutSet) {
+            TransactionSynchronizationManager.bindResource(this, timeoutSet);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(StatementTimeoutInterceptor.this);
+                }
+            });
+        }
+
+    }
+
+    // the connection (holder) the statement timeout was set on, and when
+    private static final class TimeoutSet {
+
+        private Object connection;
+        private long setAt;
+
+    }
+
+}
@@ -0,0 +1,203 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// On-heap copy of the employees table stored column by column instead of as one Employee object per row.
+// - ids live in a long[] and are indexed by a primitive LongIntHashMap (id -> row), no boxed Long keys
+// - first names and email domains are dictionary encoded (int code per row, one String per distinct value)
+// - emails are split into a per-row local part and a shared domain
+// Rows are kept dense: removing a row moves the last row into its place.
+public class CompactEmployeeDirectory implements EmployeeReadModel {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int expectedEmployees;
+    private LongIntHashMap rowById;
+    private StringDictionary firstNames = new StringDictionary();
+    private StringDictionary emailDomains = new StringDictionary();
+
+    private long[] ids;
+    private int[] firstNameCodes;
+    private String[] lastNames;
+    private String[] emailLocalParts;
+    private int[] emailDomainCodes;
+    private int rows;
+    private volatile boolean loaded;
+
+    public CompactEmployeeDirectory(int expectedEmployees) {
+        this.expectedEmployees = expectedEmployees;
+        int capacity = Math.max(16, expectedEmployees);
+        rowById = new LongIntHashMap(capacity);
+        ids = new long[capacity];
+        firstNameCodes = new int[capacity];
+        lastNames = new String[capacity];
+        emailLocalParts = new String[capacity];
+        emailDomainCodes = new int[capacity];
+    }
+
+    @Override
+    public void upsert(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.get(employee.getId());
+            if (row == LongIntHashMap.NO_VALUE) {
+                ensureCapacity(rows + 1);
+                row = rows++;
+                rowById.put(employee.getId(), row);
+            }
+            ids[row] = employee.getId();
+            firstNameCodes[row] = firstNames.encode(employee.getFirstName());
+            lastNames[row] = employee.getLastName();
+            String email = employee.getEmail();
+            int at = email == null ? -1 : email.lastIndexOf('@');
+            if (at < 0) {
+                emailLocalParts[row] = email;
+                emailDomainCodes[row] = StringDictionary.NULL_CODE;
+            } else {
+                emailLocalParts[row] = email.substring(0, at);
+                emailDomainCodes[row] = emailDomains.encode(email.substring(at + 1));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowById.remove(id);
+            if (row == LongIntHashMap.NO_VALUE) {
+                return;
+            }
+            int last = --rows;
+            if (row != last) {
+                ids[row] = ids[last];
+                firstNameCodes[row] = firstNameCodes[last];
+                lastNames[row] = lastNames[last];
+                emailLocalParts[row] = emailLocalParts[last];
+                emailDomainCodes[row] = emailDomainCodes[last];
+                rowById.put(ids[row], row);
+            }
+            lastNames[last] = null;
+            emailLocalParts[last] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            rowById.clear();
+            Arrays.fill(lastNames, 0, rows, null);
+            Arrays.fill(emailLocalParts, 0, rows, null);
+            rows = 0;
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    @Override
+    public void markStale() {
+        loaded = false;
+    }
+
+    @Override
+    public CompactEmployeeDirectory newEmpty() {
+        return new CompactEmployeeDirectory(Math.max(expectedEmployees, size()));
+    }
+
+    @Override
+    public void replaceWith(EmployeeReadModel rebuilt) {
+        CompactEmployeeDirectory source = (CompactEmployeeDirectory) rebuilt;
+        lock.writeLock().lock();
+        try {
+            rowById = source.rowById;
+            firstNames = source.firstNames;
+            emailDomains = source.emailDomains;
+            ids = source.ids;
+            firstNameCodes = source.firstNameCodes;
+            lastNames = source.lastNames;
+            emailLocalParts = source.emailLocalParts;
+            emailDomainCodes = source.emailDomainCodes;
+            rows = source.rows;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Optional<Employee> findById(long id) {
+        lock.readLock().lock();
+        try {
+            int row = rowById.get(id);
+            return row == LongIntHashMap.NO_VALUE ? Optional.empty() : Optional.of(toEmployee(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Employee> findAll() {
+        lock.readLock().lock();
+        try {
+            List<Employee> employees = new ArrayList<>(rows);
+            for (int row = 0; row < rows; row++) {
+                employees.add(toEmployee(row));
+            }
+            return employees;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Employee toEmployee(int row) {
+        String domain = emailDomains.decode(emailDomainCodes[row]);
+        String localPart = emailLocalParts[row];
+        return Employee.builder()
+                .id(ids[row])
+                .firstName(firstNames.decode(firstNameCodes[row]))
+                .lastName(lastNames[row])
+                .email(domain == null ? localPart : localPart + "@" + domain)
+                .build();
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, capacity);
+        firstNameCodes = Arrays.copyOf(firstNameCodes, capacity);
+        lastNames = Arrays.copyOf(lastNames, capacity);
+        emailLocalParts = Arrays.copyOf(emailLocalParts, capacity);
+        emailDomainCodes = Arrays.copyOf(emailDomainCodes, capacity);
+    }
+
+}
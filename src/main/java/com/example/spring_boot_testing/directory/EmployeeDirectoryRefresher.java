@@ -0,0 +1,140 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.event.EmployeeChangedEvent;
+import com.example.spring_boot_testing.event.EmployeeInvalidatedEvent;
+import com.example.spring_boot_testing.event.EmployeesBulkUpdatedEvent;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+// Keeps an EmployeeReadModel in sync: loads the table once at startup (through the stateless scan, so loaded
+// entities are not retained by a persistence context), applies every committed write made through this node's EmployeeService,
+// and reloads employees that other nodes reported as changed.
+// A full reload (bulk update, or another node invalidating everything) builds a new model from a scan on a
+// background thread while the current one keeps serving, then swaps it in at once. Changes arriving during the
+// scan are applied to the current model and replayed on the new one before the swap, so none is lost whichever
+// side of the scan's snapshot it committed on; a full reload requested meanwhile runs after the current one.
+public class EmployeeDirectoryRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeDirectoryRefresher.class);
+
+    private final EmployeeReadModel readModel;
+    private final EmployeeRepository employeeRepository;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "employee-directory-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Object rebuildLock = new Object();
+    private final Object changeLock = new Object();
+    // changes applied while a rebuild scans, null while none does; guarded by changeLock
+    private List<Consumer<EmployeeReadModel>> pendingChanges;
+    // a rebuild is queued and has not started scanning yet, so it will see every change committed so far
+    private boolean rebuildQueued;
+
+    public EmployeeDirectoryRefresher(EmployeeReadModel readModel, EmployeeRepository employeeRepository) {
+        this.readModel = readModel;
+        this.employeeRepository = employeeRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.type() == EmployeeChangedEvent.Type.DELETED) {
+            apply(model -> model.remove(event.employeeId()));
+        } else if (event.employee() != null) {
+            Employee employee = event.employee();
+            apply(model -> model.upsert(employee));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeesBulkUpdated(EmployeesBulkUpdatedEvent event) {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onEmployeeInvalidated(EmployeeInvalidatedEvent event) {
+        if (event.all()) {
+            scheduleRebuild();
+            return;
+        }
+        long id = event.employeeId();
+        Optional<Employee> employee = employeeRepository.findById(id);
+        apply(model -> employee.ifPresentOrElse(model::upsert, () -> model.remove(id)));
+    }
+
+    // returns once the rebuild has been queued; the model is marked stale until it has been swapped in
+    void scheduleRebuild() {
+        synchronized (changeLock) {
+            readModel.markStale();
+            if (rebuildQueued) {
+                return;
+            }
+            rebuildQueued = true;
+        }
+        rebuildExecutor.execute(() -> {
+            synchronized (changeLock) {
+                rebuildQueued = false;
+            }
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.warn("Rebuilding {} failed, it keeps its previous contents", readModel.getClass().getSimpleName(), e);
+            }
+        });
+    }
+
+    private void rebuild() {
+        synchronized (rebuildLock) {
+            EmployeeReadModel rebuilt = readModel.newEmpty();
+            synchronized (changeLock) {
+                pendingChanges = new ArrayList<>();
+            }
+            long loaded;
+            try {
+                loaded = employeeRepository.scanAll(rebuilt::upsert);
+            } catch (RuntimeException e) {
+                synchronized (changeLock) {
+                    pendingChanges = null;
+                }
+                throw e;
+            }
+            synchronized (changeLock) {
+                pendingChanges.forEach(change -> change.accept(rebuilt));
+                pendingChanges = null;
+                readModel.replaceWith(rebuilt);
+                // a full reload requested during the scan is still queued and keeps the model stale
+                if (rebuildQueued) {
+                    readModel.markStale();
+                }
+            }
+            log.info("Loaded {} employees into {}", loaded, readModel.getClass().getSimpleName());
+        }
+    }
+
+    private void apply(Consumer<EmployeeReadModel> change) {
+        synchronized (changeLock) {
+            change.accept(readModel);
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.model.Employee;
+
+// A full in-memory copy of the employees table that is kept up to date by EmployeeDirectoryRefresher.
+public interface EmployeeReadModel {
+
+    void upsert(Employee employee);
+
+    void remove(long id);
+
+    void clear();
+
+    // true once the initial load has finished, i.e. a missing id really does not exist
+    boolean isLoaded();
+
+    void markLoaded();
+
+    // the contents are known to be behind the database until the next replaceWith; reads that check isLoaded go
+    // to the database meanwhile, the others keep being served the previous contents
+    void markStale();
+
+    // an empty model of the same kind and size, filled by a rebuild while this one keeps serving reads
+    EmployeeReadModel newEmpty();
+
+    // takes over the contents of a model created by newEmpty() in one step (readers see either the old or the
+    // new contents, never a mix) and marks this model loaded; the rebuilt model must not be used afterwards
+    void replaceWith(EmployeeReadModel rebuilt);
+
+}
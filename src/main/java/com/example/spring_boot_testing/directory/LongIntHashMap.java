@@ -0,0 +1,142 @@
+package com.example.spring_boot_testing.directory;
+
+import java.util.Arrays;
+
+// Open-addressing (linear probing) map from long keys to non-negative int values, backed by two parallel arrays.
+// Unlike HashMap<Long, Integer> it allocates no Entry/Long/Integer objects: 12 bytes per slot in total.
+// Values must be >= 0, NO_VALUE marks an empty slot. Not thread-safe.
+public class LongIntHashMap {
+
+    public static final int NO_VALUE = -1;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private int resizeThreshold;
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int get(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int value = values[slot];
+            if (value == NO_VALUE || keys[slot] == key) {
+                return value;
+            }
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+
+    // returns the previous value or NO_VALUE
+    public int put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            int previous = values[slot];
+            if (previous == NO_VALUE) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > resizeThreshold) {
+                    resize(keys.length * 2);
+                }
+                return NO_VALUE;
+            }
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return previous;
+            }
+        }
+    }
+
+    // returns the removed value or NO_VALUE
+    public int remove(long key) {
+        int slot = slot(key);
+        while (values[slot] != NO_VALUE && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        int removed = values[slot];
+        if (removed == NO_VALUE) {
+            return NO_VALUE;
+        }
+        values[slot] = NO_VALUE;
+        size--;
+        // backward shift: move later entries of the probe sequence into the hole so lookups never stop early
+        int hole = slot;
+        for (int next = (hole + 1) & mask; values[next] != NO_VALUE; next = (next + 1) & mask) {
+            int home = slot(keys[next]);
+            boolean canMove = hole <= next ? (home <= hole || home > next) : (home <= hole && home > next);
+            if (canMove) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                values[next] = NO_VALUE;
+                hole = next;
+            }
+        }
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(values, NO_VALUE);
+        size = 0;
+    }
+
+    public void forEach(LongIntConsumer consumer) {
+        for (int slot = 0; slot < values.length; slot++) {
+            if (values[slot] != NO_VALUE) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    // heap used by the two arrays
+    public long memoryBytes() {
+        return (long) keys.length * Long.BYTES + (long) values.length * Integer.BYTES;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != NO_VALUE) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NO_VALUE);
+        mask = capacity - 1;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(16, capacity);
+    }
+
+    @FunctionalInterface
+    public interface LongIntConsumer {
+        void accept(long key, int value);
+    }
+
+}
@@ -0,0 +1,316 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.example.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Snapshot of the employees table kept outside the Java heap.
+// Records are appended to a direct ByteBuffer in a compact binary layout:
+//   [long id][short len][firstName UTF-8][short len][lastName UTF-8][short len][email UTF-8]
+// and indexed by id with a primitive LongIntHashMap (id -> record offset). Updating an employee appends a
+// new record and repoints the index, the old record becomes garbage; the buffer is compacted once more than
+// half of it is garbage. Reads write JSON straight from the buffer, no Employee object is created per row.
+// Bytes below the write position are never changed in place (compaction, clear and a rebuild switch to a new
+// buffer), so a reader takes the buffer and the offsets it needs under the read lock and writes the JSON after
+// releasing it: a slow client never holds up writers.
+public class OffHeapEmployeeDirectory implements EmployeeReadModel {
+
+    private static final int MAX_FIELD_BYTES = Short.MAX_VALUE;
+    private static final int MIN_COMPACTION_BYTES = 1 << 20;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int expectedEmployees;
+    private LongIntHashMap index;
+    private ByteBuffer buffer;
+    private int garbageBytes;
+    private volatile boolean loaded;
+
+    public OffHeapEmployeeDirectory(int expectedEmployees) {
+        this.expectedEmployees = expectedEmployees;
+        this.index = new LongIntHashMap(expectedEmployees);
+        // ~64 bytes per record is a typical size for names plus an email address; the buffer grows when needed
+        this.buffer = ByteBuffer.allocateDirect((int) Math.min(Integer.MAX_VALUE, Math.max(4096L, expectedEmployees * 64L)));
+    }
+
+    @Override
+    public void upsert(Employee employee) {
+        byte[] firstName = encode(employee.getFirstName());
+        byte[] lastName = encode(employee.getLastName());
+        byte[] email = encode(employee.getEmail());
+        int length = Long.BYTES + 3 * Short.BYTES + byteLength(firstName) + byteLength(lastName) + byteLength(email);
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(length);
+            int offset = buffer.position();
+            buffer.putLong(employee.getId());
+            putField(firstName);
+            putField(lastName);
+            putField(email);
+            int previous = index.put(employee.getId(), offset);
+            if (previous != LongIntHashMap.NO_VALUE) {
+                garbageBytes += recordLength(previous);
+                compactIfWorthIt();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            int previous = index.remove(id);
+            if (previous != LongIntHashMap.NO_VALUE) {
+                garbageBytes += recordLength(previous);
+                compactIfWorthIt();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            // not reused: readers may still be writing JSON from the records in the old buffer
+            buffer = ByteBuffer.allocateDirect(buffer.capacity());
+            garbageBytes = 0;
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    public void markLoaded() {
+        loaded = true;
+    }
+
+    @Override
+    public void markStale() {
+        loaded = false;
+    }
+
+    @Override
+    public OffHeapEmployeeDirectory newEmpty() {
+        return new OffHeapEmployeeDirectory(Math.max(expectedEmployees, size()));
+    }
+
+    // the old buffer is not reused either, readers may still be writing JSON from it
+    @Override
+    public void replaceWith(EmployeeReadModel rebuilt) {
+        OffHeapEmployeeDirectory source = (OffHeapEmployeeDirectory) rebuilt;
+        lock.writeLock().lock();
+        try {
+            index = source.index;
+            buffer = source.buffer;
+            garbageBytes = source.garbageBytes;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(long id) {
+        lock.readLock().lock();
+        try {
+            return index.containsKey(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // writes the employee as a JSON object, returns false if the id is unknown
+    public boolean writeJson(long id, JsonGenerator generator) throws IOException {
+        ByteBuffer source;
+        int offset;
+        lock.readLock().lock();
+        try {
+            source = buffer;
+            offset = index.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (offset == LongIntHashMap.NO_VALUE) {
+            return false;
+        }
+        writeRecord(source, offset, generator, new byte[recordLength(source, offset)]);
+        return true;
+    }
+
+    // Writes all live employees as a JSON array, in the order they were (last) written, as of the moment it was
+    // called. Only finding the live records happens under the read lock, the JSON is written after releasing it.
+    public void writeAllJson(JsonGenerator generator) throws IOException {
+        ByteBuffer source;
+        int end;
+        BitSet live = new BitSet();
+        lock.readLock().lock();
+        try {
+            source = buffer;
+            end = buffer.position();
+            int record = 0;
+            for (int offset = 0; offset < end; offset += recordLength(source, offset), record++) {
+                // records that were overwritten or removed are garbage
+                if (index.get(source.getLong(offset)) == offset) {
+                    live.set(record);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        byte[] scratch = new byte[MAX_FIELD_BYTES];
+        generator.writeStartArray();
+        int record = 0;
+        for (int offset = 0; offset < end; offset += recordLength(source, offset), record++) {
+            if (live.get(record)) {
+                writeRecord(source, offset, generator, scratch);
+            }
+        }
+        generator.writeEndArray();
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return buffer.capacity();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long indexHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return index.memoryBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void writeRecord(ByteBuffer source, int offset, JsonGenerator generator, byte[] scratch) throws IOException {
+        int position = offset;
+        generator.writeStartObject();
+        // written like Employee.id
+        long id = source.getLong(position);
+        if (EmployeeIdSerializer.asString(generator)) {
+            generator.writeStringField("id", Long.toString(id));
+        } else {
+            generator.writeNumberField("id", id);
+        }
+        position += Long.BYTES;
+        position = writeField(source, "firstName", position, generator, scratch);
+        position = writeField(source, "lastName", position, generator, scratch);
+        writeField(source, "email", position, generator, scratch);
+        generator.writeEndObject();
+    }
+
+    private static int writeField(ByteBuffer source, String name, int position, JsonGenerator generator, byte[] scratch) throws IOException {
+        short length = source.getShort(position);
+        position += Short.BYTES;
+        generator.writeFieldName(name);
+        if (length < 0) {
+            generator.writeNull();
+            return position;
+        }
+        source.get(position, scratch, 0, length);
+        generator.writeUTF8String(scratch, 0, length);
+        return position + length;
+    }
+
+    private int recordLength(int offset) {
+        return recordLength(buffer, offset);
+    }
+
+    private static int recordLength(ByteBuffer source, int offset) {
+        int position = offset + Long.BYTES;
+        for (int field = 0; field < 3; field++) {
+            short length = source.getShort(position);
+            position += Short.BYTES + Math.max(0, length);
+        }
+        return position - offset;
+    }
+
+    private void putField(byte[] value) {
+        if (value == null) {
+            buffer.putShort((short) -1);
+            return;
+        }
+        buffer.putShort((short) value.length);
+        buffer.put(value);
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.remaining() >= length) {
+            return;
+        }
+        int live = buffer.position() - garbageBytes;
+        long required = (long) live + length;
+        long capacity = Math.max(required, (long) buffer.capacity() * 2);
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap employee directory is full");
+        }
+        copyLiveRecordsTo(ByteBuffer.allocateDirect((int) capacity));
+    }
+
+    private void compactIfWorthIt() {
+        if (garbageBytes > MIN_COMPACTION_BYTES && garbageBytes * 2 > buffer.position()) {
+            copyLiveRecordsTo(ByteBuffer.allocateDirect(buffer.capacity()));
+        }
+    }
+
+    // copies live records in their current order and repoints the index; the old buffer is freed by the GC
+    private void copyLiveRecordsTo(ByteBuffer target) {
+        int end = buffer.position();
+        for (int offset = 0; offset < end; ) {
+            int length = recordLength(offset);
+            long id = buffer.getLong(offset);
+            if (index.get(id) == offset) {
+                index.put(id, target.position());
+                target.put(target.position(), buffer, offset, length);
+                target.position(target.position() + length);
+            }
+            offset += length;
+        }
+        buffer = target;
+        garbageBytes = 0;
+    }
+
+    private static int byteLength(byte[] value) {
+        return value == null ? 0 : value.length;
+    }
+
+    private static byte[] encode(String value) {
+        if (value == null) {
+            return null;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_FIELD_BYTES) {
+            throw new IllegalArgumentException("Field too long for the employee directory: " + bytes.length + " bytes");
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.spring_boot_testing.directory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Assigns a small int code to every distinct string, so a column with few distinct values (first names,
+// email domains) is stored as an int[] of codes plus one String per distinct value. Codes are never reused.
+public class StringDictionary {
+
+    public static final int NULL_CODE = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public int encode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    public String decode(int code) {
+        return code == NULL_CODE ? null : values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+}
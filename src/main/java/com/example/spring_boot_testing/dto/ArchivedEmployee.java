@@ -0,0 +1,31 @@
+package com.example.spring_boot_testing.dto;
+
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+// An employee moved from the employees table to employees_archive, see EmployeeArchiver.
+// deletedAt is null for employees that were archived because they were inactive.
+@Getter
+@AllArgsConstructor
+public class ArchivedEmployee {
+
+    @JsonSerialize(using = EmployeeIdSerializer.class)
+    private long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private Instant createdAt;
+    private Instant updatedAt;
+    private Instant deletedAt;
+    private Instant archivedAt;
+    private Reason reason;
+
+    public enum Reason {
+        DELETED, INACTIVE
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.spring_boot_testing.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+// One entry of POST /api/employees/batch.
+// create: firstName, lastName, email; update: id + all fields; patch: id + the fields to change; delete: id
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperation {
+
+    private Type op;
+    private Long id;
+    private String firstName;
+    private String lastName;
+    private String email;
+
+    public enum Type {
+        @JsonProperty("create") CREATE,
+        @JsonProperty("update") UPDATE,
+        @JsonProperty("patch") PATCH,
+        @JsonProperty("delete") DELETE
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.example.spring_boot_testing.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOperationRequest {
+
+    // all-or-nothing: nothing is written if any operation fails; best-effort: failed operations are skipped
+    @Builder.Default
+    private Mode mode = Mode.ALL_OR_NOTHING;
+    @Builder.Default
+    private List<BatchOperation> operations = new ArrayList<>();
+
+    public enum Mode {
+        @JsonProperty("all-or-nothing") ALL_OR_NOTHING,
+        @JsonProperty("best-effort") BEST_EFFORT
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.example.spring_boot_testing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class BatchOperationResponse {
+
+    private boolean committed;
+    private List<BatchOperationResult> results;
+
+}
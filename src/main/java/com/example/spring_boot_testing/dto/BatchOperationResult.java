@@ -0,0 +1,29 @@
+package com.example.spring_boot_testing.dto;
+
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchOperationResult {
+
+    private int index;
+    private BatchOperation.Type op;
+    @JsonSerialize(using = EmployeeIdSerializer.class)
+    private Long id;
+    private Status status;
+    private String error;
+
+    public enum Status {
+        @JsonProperty("ok") OK,
+        @JsonProperty("failed") FAILED,
+        // valid, but not applied because another operation failed in all-or-nothing mode
+        @JsonProperty("skipped") SKIPPED
+    }
+
+}
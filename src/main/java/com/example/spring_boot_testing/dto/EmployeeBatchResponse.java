@@ -0,0 +1,21 @@
+package com.example.spring_boot_testing.dto;
+
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.example.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// Result of a multi-id lookup: the employees that were found, in the order their ids were requested,
+// plus the requested ids that do not exist.
+@Getter
+@AllArgsConstructor
+public class EmployeeBatchResponse {
+
+    private List<Employee> employees;
+    @JsonSerialize(contentUsing = EmployeeIdSerializer.class)
+    private List<Long> missingIds;
+
+}
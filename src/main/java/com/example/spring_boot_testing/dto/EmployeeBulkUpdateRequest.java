@@ -0,0 +1,34 @@
+package com.example.spring_boot_testing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Body of POST /api/employees/bulk-update, e.g.
+// {"filter": {"emailDomain": "old.com"}, "set": {"emailDomain": "new.com"}}
+// filter takes the filter parameters of GET /api/employees (emailDomain, namePrefix, minId, maxId) and needs at
+// least one of them; set.emailDomain replaces the part after '@' and keeps the local part.
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeBulkUpdateRequest {
+
+    private EmployeeSearchCriteria filter;
+    private Changes set;
+
+    @Getter
+    @Setter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Changes {
+        private String firstName;
+        private String lastName;
+        private String emailDomain;
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.example.spring_boot_testing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class EmployeeBulkUpdateResponse {
+
+    private int updated;
+
+}
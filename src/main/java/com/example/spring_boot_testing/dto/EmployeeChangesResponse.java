@@ -0,0 +1,24 @@
+package com.example.spring_boot_testing.dto;
+
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.example.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+// One page of the changes feed: employees created or updated since the token (current state) and ids of
+// employees deleted since the token. Pass nextToken as `since` in the next call; hasMore means the next page
+// is already available.
+@Getter
+@AllArgsConstructor
+public class EmployeeChangesResponse {
+
+    private List<Employee> changed;
+    @JsonSerialize(contentUsing = EmployeeIdSerializer.class)
+    private List<Long> deletedIds;
+    private String nextToken;
+    private boolean hasMore;
+
+}
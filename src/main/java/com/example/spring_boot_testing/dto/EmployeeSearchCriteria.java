@@ -0,0 +1,29 @@
+package com.example.spring_boot_testing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Query parameters of GET /api/employees, e.g. ?emailDomain=gmail.com&namePrefix=Mo&sort=lastName,desc&limit=50
+// sort is "<property>[,asc|desc]" and only accepts the indexed properties listed in EmployeeServiceImpl.
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSearchCriteria {
+
+    private String emailDomain;
+    private String namePrefix;
+    private Long minId;
+    private Long maxId;
+    private String sort;
+    private Integer limit;
+
+    public boolean isEmpty() {
+        return emailDomain == null && namePrefix == null && minId == null && maxId == null && sort == null && limit == null;
+    }
+
+}
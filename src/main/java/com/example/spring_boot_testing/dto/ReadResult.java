@@ -0,0 +1,21 @@
+package com.example.spring_boot_testing.dto;
+
+import java.time.Duration;
+
+// Result of a read that may have been answered from last known good data instead of the database.
+// staleness is null for fresh results, otherwise the time since the value was read from the database.
+public record ReadResult<T>(T value, Duration staleness) {
+
+    public static <T> ReadResult<T> fresh(T value) {
+        return new ReadResult<>(value, null);
+    }
+
+    public static <T> ReadResult<T> stale(T value, Duration staleness) {
+        return new ReadResult<>(value, staleness);
+    }
+
+    public boolean isStale() {
+        return staleness != null;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.spring_boot_testing.event;
+
+import com.example.spring_boot_testing.model.Employee;
+
+// Published by EmployeeService after an employee was created, updated or deleted.
+// employee holds the written state for CREATED/UPDATED and is null for DELETED.
+public record EmployeeChangedEvent(long employeeId, Type type, Employee employee) {
+
+    public EmployeeChangedEvent(long employeeId, Type type) {
+        this(employeeId, type, null);
+    }
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.example.spring_boot_testing.event;
+
+// Published locally when another node reported a change to an employee (or, with all = true, when
+// notifications may have been missed). Listeners must reload the affected state from the database.
+public record EmployeeInvalidatedEvent(long employeeId, boolean all) {
+
+    public static EmployeeInvalidatedEvent of(long employeeId) {
+        return new EmployeeInvalidatedEvent(employeeId, false);
+    }
+
+    public static EmployeeInvalidatedEvent everything() {
+        return new EmployeeInvalidatedEvent(0, true);
+    }
+
+}
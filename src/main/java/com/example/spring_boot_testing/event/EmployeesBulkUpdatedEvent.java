@@ -0,0 +1,6 @@
+package com.example.spring_boot_testing.event;
+
+// Published by EmployeeService after a set-based update. The affected ids are not known individually,
+// so listeners have to treat every employee as changed.
+public record EmployeesBulkUpdatedEvent(int updated) {
+}
@@ -0,0 +1,13 @@
+package com.example.spring_boot_testing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.GONE)
+public class ChangeTokenExpiredException extends RuntimeException{
+
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.example.spring_boot_testing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown instead of calling the database while its circuit breaker is open and there is nothing to fall back to.
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseUnavailableException extends RuntimeException{
+
+    public DatabaseUnavailableException(String message) {
+        super(message);
+    }
+
+}
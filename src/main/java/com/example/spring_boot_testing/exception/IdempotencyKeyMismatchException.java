@@ -0,0 +1,14 @@
+package com.example.spring_boot_testing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when an Idempotency-Key is reused with a different request body.
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class IdempotencyKeyMismatchException extends RuntimeException{
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,14 @@
+package com.example.spring_boot_testing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when a duplicate request gave up waiting for the request that holds its Idempotency-Key.
+@ResponseStatus(HttpStatus.CONFLICT)
+public class IdempotencyRequestInProgressException extends RuntimeException{
+
+    public IdempotencyRequestInProgressException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.spring_boot_testing.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// Thrown when the deadline of the current request (see RequestDeadline) has passed, either before a repository call
+// or because the statement timeout derived from the deadline cancelled a statement. Not a database failure, so it
+// does not count against the circuit breaker.
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class RequestDeadlineExceededException extends RuntimeException{
+
+    // set on the request it was thrown for, the exception itself is turned into the 504 before the filters see it
+    public static final String REQUEST_ATTRIBUTE = RequestDeadlineExceededException.class.getName();
+
+    public RequestDeadlineExceededException(String message) {
+        super(message);
+    }
+
+    public RequestDeadlineExceededException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
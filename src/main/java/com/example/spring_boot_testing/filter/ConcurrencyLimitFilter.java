@@ -0,0 +1,150 @@
+package com.example.spring_boot_testing.filter;
+
+import com.example.spring_boot_testing.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
+import com.example.spring_boot_testing.warmup.WarmupRequests;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Load shedding filter: picks the read or write limiter based on the HTTP method (and @ReadOnlyEndpoint handlers)
+// and answers 503 + Retry-After right away when the limiter is full, before any connection is taken from the pool.
+// Only 503 responses and connection pool timeouts count as overload; other errors (bugs, invalid requests) say
+// nothing about the load and do not shrink the limit. Requests stopped by their deadline (504) are not sampled at
+// all: their latency is the client's budget and a pool timeout inside them is the deadline's, not the pool's.
+// The latency of @BulkEndpoint requests depends on how much they read, so only their overload signals count.
+// Warm-up requests (see WarmupRequests) take a permit but are not sampled either, they run on a cold JVM.
+// An async request (streamed responses) keeps its permit until the async processing has completed.
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final AdaptiveConcurrencyLimiter readLimiter;
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+    private final Predicate<HttpServletRequest> readOnlyEndpoint;
+    private final Predicate<HttpServletRequest> bulkEndpoint;
+    private final String retryAfterSeconds;
+    private final Consumer<AdaptiveConcurrencyLimiter> onRejected;
+
+    public ConcurrencyLimitFilter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter,
+                                  Predicate<HttpServletRequest> readOnlyEndpoint, Predicate<HttpServletRequest> bulkEndpoint,
+                                  Duration retryAfter,
+                                  Consumer<AdaptiveConcurrencyLimiter> onRejected) {
+        this.readLimiter = readLimiter;
+        this.writeLimiter = writeLimiter;
+        this.readOnlyEndpoint = readOnlyEndpoint;
+        this.bulkEndpoint = bulkEndpoint;
+        this.retryAfterSeconds = String.valueOf(Math.max(1, retryAfter.toSeconds()));
+        this.onRejected = onRejected;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = isRead(request) ? readLimiter : writeLimiter;
+        if (!limiter.tryAcquire()) {
+            onRejected.accept(limiter);
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        Permit permit = new Permit(limiter, request, response, bulkEndpoint.test(request));
+        boolean async = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(permit);
+                async = true;
+            }
+        } catch (IOException | ServletException | RuntimeException e) {
+            permit.overloaded = isPoolTimeout(e);
+            throw e;
+        } finally {
+            if (!async) {
+                permit.release();
+            }
+        }
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method)
+                || readOnlyEndpoint.test(request);
+    }
+
+    // a taken permit, released when the request has completed, either when the filter chain returns or, for async
+    // requests, on the completion of the async context
+    private static final class Permit implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final boolean bulk;
+        private final boolean warmup;
+        private final long start = System.nanoTime();
+        private boolean overloaded;
+
+        private Permit(AdaptiveConcurrencyLimiter limiter, HttpServletRequest request, HttpServletResponse response, boolean bulk) {
+            this.limiter = limiter;
+            this.request = request;
+            this.response = response;
+            this.bulk = bulk;
+            this.warmup = WarmupRequests.isWarmup(request);
+        }
+
+        private void release() {
+            // 503 coming from further down (open circuit breaker, pool timeouts of reads) counts as overload as well
+            overloaded |= response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value();
+            if (warmup || request.getAttribute(RequestDeadlineExceededException.REQUEST_ATTRIBUTE) != null || (bulk && !overloaded)) {
+                limiter.onIgnored();
+            } else {
+                limiter.onComplete(System.nanoTime() - start, overloaded);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            overloaded = isPoolTimeout(event.getThrowable());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            // followed by onComplete
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // the listener is registered after the async processing started
+        }
+
+    }
+
+    // Hikari reports a connection that was not handed out within connectionTimeout as SQLTransientConnectionException,
+    // @Transactional methods wrap it into CannotCreateTransactionException
+    private static boolean isPoolTimeout(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientConnectionException || cause instanceof CannotCreateTransactionException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.spring_boot_testing.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.lang.annotation.Annotation;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+// Tells, before the DispatcherServlet runs, whether a request will be handled by a method carrying the annotation
+// (e.g. @ReadOnlyEndpoint), by matching it against the request mappings of those methods (path, HTTP method, params,
+// consumes).
+// The mappings are collected on first use, once the handler mappings have detected all controllers.
+public class HandlerAnnotationMatcher implements Predicate<HttpServletRequest> {
+
+    private final ObjectProvider<RequestMappingHandlerMapping> handlerMappings;
+    private final Class<? extends Annotation> annotation;
+    private volatile List<RequestMappingInfo> annotatedMappings;
+
+    public HandlerAnnotationMatcher(ObjectProvider<RequestMappingHandlerMapping> handlerMappings, Class<? extends Annotation> annotation) {
+        this.handlerMappings = handlerMappings;
+        this.annotation = annotation;
+    }
+
+    @Override
+    public boolean test(HttpServletRequest request) {
+        List<RequestMappingInfo> mappings = annotatedMappings();
+        if (mappings.isEmpty()) {
+            return false;
+        }
+        // PathPattern based mappings match against the parsed path, which the DispatcherServlet has not cached yet
+        if (!ServletRequestPathUtils.hasParsedRequestPath(request)) {
+            ServletRequestPathUtils.parseAndCache(request);
+        }
+        for (RequestMappingInfo mapping : mappings) {
+            if (mapping.getMatchingCondition(request) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<RequestMappingInfo> annotatedMappings() {
+        List<RequestMappingInfo> mappings = annotatedMappings;
+        if (mappings == null) {
+            mappings = handlerMappings.orderedStream()
+                    .flatMap(handlerMapping -> handlerMapping.getHandlerMethods().entrySet().stream())
+                    .filter(entry -> entry.getValue().hasMethodAnnotation(annotation))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            annotatedMappings = mappings;
+        }
+        return mappings;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.example.spring_boot_testing.id;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Writes employee ids to JSON as numbers, or as strings when employees.id.json-strings is enabled. Generated ids
+// are around 2^58, beyond Number.MAX_SAFE_INTEGER (2^53 - 1), so JavaScript clients parsing them as numbers get
+// rounded ids; strings keep them exact. Switching it on changes the type of every id in the responses, so it is
+// opt-in. EmployeeIdConfig puts the setting on the ObjectMapper as a default attribute, JSON written without the
+// mapper (sparse fieldsets, the off-heap directory) asks it through asString. Requests may send ids either way.
+public class EmployeeIdSerializer extends StdSerializer<Long> {
+
+    public static final String JSON_STRINGS = "employees.id.json-strings";
+
+    public EmployeeIdSerializer() {
+        super(Long.class);
+    }
+
+    @Override
+    public void serialize(Long id, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (Boolean.TRUE.equals(provider.getAttribute(JSON_STRINGS))) {
+            generator.writeString(id.toString());
+        } else {
+            generator.writeNumber(id);
+        }
+    }
+
+    public static boolean asString(ObjectMapper objectMapper) {
+        return Boolean.TRUE.equals(objectMapper.getSerializationConfig().getAttributes().getAttribute(JSON_STRINGS));
+    }
+
+    // generators created by an ObjectMapper (its factory) follow the mapper's setting, others write numbers
+    public static boolean asString(JsonGenerator generator) {
+        return generator.getCodec() instanceof ObjectMapper objectMapper && asString(objectMapper);
+    }
+
+}
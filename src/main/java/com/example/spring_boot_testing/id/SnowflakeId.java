@@ -0,0 +1,15 @@
+package com.example.spring_boot_testing.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Marks a Long id generated by SnowflakeIdGenerator before the insert, instead of by the database.
+@IdGeneratorType(SnowflakeIdentifierGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SnowflakeId {
+}
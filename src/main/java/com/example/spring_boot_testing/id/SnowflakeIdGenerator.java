@@ -0,0 +1,84 @@
+package com.example.spring_boot_testing.id;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Time-ordered 63-bit ids generated without a database round trip:
+//   [41 bits milliseconds since EPOCH][10 bits worker id][12 bits sequence]
+// i.e. 4096 ids per millisecond per worker for ~69 years. Ids of one worker are strictly increasing, ids of
+// different workers never collide as long as every node runs with its own worker id.
+// Lock-free: the last issued (millisecond, sequence) pair lives in one AtomicLong that is advanced with CAS.
+// When the clock has not moved (or the sequence of the current millisecond is used up) the next id simply
+// continues after the last one, borrowing from the next millisecond; the same happens when the clock steps
+// back by up to maxClockRollback, so an NTP correction does not stop id generation or produce duplicates.
+// Ids are never borrowed further ahead than that (callers spin until the clock moves on), and a larger step back
+// fails until the clock has caught up: ids borrowed further ahead could be issued again after a restart.
+public class SnowflakeIdGenerator {
+
+    public static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    public static final int MAX_WORKER_ID = (1 << 10) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int WORKER_BITS = 10;
+
+    // one generator per worker id and JVM, shared by every session factory using that worker id
+    private static final Map<Integer, SnowflakeIdGenerator> GENERATORS = new ConcurrentHashMap<>();
+
+    private final long worker;
+    private final long maxClockRollbackMillis;
+    private final LongSupplier currentTimeMillis;
+    // (milliseconds since EPOCH << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong last = new AtomicLong();
+
+    SnowflakeIdGenerator(int workerId, Duration maxClockRollback, LongSupplier currentTimeMillis) {
+        if (workerId < 0 || workerId > MAX_WORKER_ID) {
+            throw new IllegalArgumentException("Worker id must be between 0 and " + MAX_WORKER_ID + ", got " + workerId);
+        }
+        this.worker = (long) workerId << SEQUENCE_BITS;
+        this.maxClockRollbackMillis = maxClockRollback.toMillis();
+        this.currentTimeMillis = currentTimeMillis;
+    }
+
+    public static SnowflakeIdGenerator forWorker(int workerId, Duration maxClockRollback) {
+        return GENERATORS.computeIfAbsent(workerId,
+                id -> new SnowflakeIdGenerator(id, maxClockRollback, System::currentTimeMillis));
+    }
+
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long now = currentTimeMillis.getAsLong() - EPOCH.toEpochMilli();
+            long previousMillis = previous >>> SEQUENCE_BITS;
+            long next;
+            if (now > previousMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if (previousMillis - now <= maxClockRollbackMillis) {
+                // same millisecond, or the clock went back a little: continue after the last id, a sequence
+                // overflow carries into the millisecond bits
+                next = previous + 1;
+            } else if (previousMillis - now == maxClockRollbackMillis + 1) {
+                // more than 4096 ids per millisecond have borrowed as far ahead as allowed, wait for the clock
+                Thread.onSpinWait();
+                continue;
+            } else {
+                throw new IllegalStateException("Clock moved back by " + (previousMillis - now) + " ms, refusing to generate ids");
+            }
+            if (last.compareAndSet(previous, next)) {
+                return (next >>> SEQUENCE_BITS) << (SEQUENCE_BITS + WORKER_BITS) | worker | (next & ((1L << SEQUENCE_BITS) - 1));
+            }
+        }
+    }
+
+    public static Instant timestampOf(long id) {
+        return EPOCH.plusMillis(id >>> (SEQUENCE_BITS + WORKER_BITS));
+    }
+
+    public static int workerIdOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS) & MAX_WORKER_ID;
+    }
+
+}
@@ -0,0 +1,46 @@
+package com.example.spring_boot_testing.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.time.Duration;
+import java.util.EnumSet;
+
+// Hibernate side of @SnowflakeId. The id is known before the insert, so persisting an entity needs no round trip
+// and inserts are sent as JDBC batches (hibernate.jdbc.batch_size).
+// Settings (Hibernate properties, set from employees.id.* by EmployeeIdConfig):
+//   employees.id.worker-id           0..1023, unique per node, required
+//   employees.id.max-clock-rollback  milliseconds the clock may step back without failing
+public class SnowflakeIdentifierGenerator implements BeforeExecutionGenerator {
+
+    public static final String WORKER_ID = "employees.id.worker-id";
+    public static final String MAX_CLOCK_ROLLBACK = "employees.id.max-clock-rollback";
+
+    private final transient SnowflakeIdGenerator generator;
+
+    public SnowflakeIdentifierGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        ConfigurationService configuration = context.getServiceRegistry().requireService(ConfigurationService.class);
+        Integer workerId = configuration.getSetting(WORKER_ID, StandardConverters.INTEGER);
+        if (workerId == null) {
+            throw new IllegalStateException(WORKER_ID + " is not set: every node needs its own worker id (0-1023)");
+        }
+        int maxClockRollbackMillis = configuration.getSetting(MAX_CLOCK_ROLLBACK, StandardConverters.INTEGER, 100);
+        this.generator = SnowflakeIdGenerator.forWorker(workerId, Duration.ofMillis(maxClockRollbackMillis));
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return generator.nextId();
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EnumSet.of(EventType.INSERT);
+    }
+
+}
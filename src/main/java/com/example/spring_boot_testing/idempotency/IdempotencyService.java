@@ -0,0 +1,132 @@
+package com.example.spring_boot_testing.idempotency;
+
+import com.example.spring_boot_testing.concurrency.SingleFlight;
+import com.example.spring_boot_testing.exception.IdempotencyKeyMismatchException;
+import com.example.spring_boot_testing.exception.IdempotencyRequestInProgressException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Runs a request at most once per Idempotency-Key.
+// The key is reserved in the store before the action runs and completed with its response afterwards. A retry
+// with a known key is answered from the store; a duplicate that arrives while the first request is still running
+// waits for it instead of executing again: on the same node through single-flight, across nodes by polling the
+// store until the reservation is completed or waitTimeout is over (409 Conflict). A request that failed with an
+// exception releases its reservation, so it can be retried with the same key.
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    // first and longest pause between two looks at a reservation held by another node
+    private static final long MIN_POLL_MILLIS = 25;
+    private static final long MAX_POLL_MILLIS = 400;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final Duration waitTimeout;
+    private final SingleFlight<String, IdempotentResponse> inflight;
+
+    public IdempotencyService(IdempotencyStore store, ObjectMapper objectMapper, Clock clock, Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.waitTimeout = waitTimeout;
+        this.inflight = new SingleFlight<>(waitTimeout);
+    }
+
+    public <T> ResponseEntity<T> execute(String key, Object request, Class<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        String fingerprint = fingerprint(request);
+        AtomicReference<ResponseEntity<T>> executed = new AtomicReference<>();
+        IdempotentResponse response = inflight.execute(key, () -> reserveOrAwait(key, fingerprint).orElseGet(() -> {
+            ResponseEntity<T> result;
+            try {
+                result = action.get();
+            } catch (RuntimeException | Error e) {
+                store.release(key);
+                throw e;
+            }
+            executed.set(result);
+            IdempotentResponse stored = new IdempotentResponse(fingerprint, result.getStatusCode().value(),
+                    toJson(result.getBody()), clock.instant());
+            store.complete(key, stored);
+            return stored;
+        }));
+        if (!response.fingerprint().equals(fingerprint)) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key " + key + " was already used for a different request");
+        }
+        if (executed.get() != null) {
+            return executed.get();
+        }
+        return ResponseEntity.status(response.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(fromJson(response.body(), bodyType));
+    }
+
+    // Returns empty once this caller holds the reservation of the key, otherwise the completed response, or the
+    // reservation of a different request (which execute rejects as a mismatch without waiting for it).
+    private Optional<IdempotentResponse> reserveOrAwait(String key, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        long pauseMillis = MIN_POLL_MILLIS;
+        while (true) {
+            Optional<IdempotentResponse> existing = store.reserve(key, fingerprint);
+            if (existing.isEmpty() || existing.get().completed() || !existing.get().fingerprint().equals(fingerprint)) {
+                return existing;
+            }
+            long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new IdempotencyRequestInProgressException("Request with Idempotency-Key " + key + " is still in progress");
+            }
+            try {
+                Thread.sleep(Math.min(pauseMillis, remainingMillis));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyRequestInProgressException("Interrupted while waiting for the request with Idempotency-Key " + key);
+            }
+            pauseMillis = Math.min(pauseMillis * 2, MAX_POLL_MILLIS);
+        }
+    }
+
+    // duplicates on this node waiting for the request holding the key
+    int waitingDuplicates(String key) {
+        return inflight.followerCount(key);
+    }
+
+    String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return value == null ? null : objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T fromJson(String json, Class<T> type) {
+        try {
+            return json == null ? null : objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
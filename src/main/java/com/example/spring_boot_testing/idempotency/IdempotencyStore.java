@@ -0,0 +1,22 @@
+package com.example.spring_boot_testing.idempotency;
+
+import java.util.Optional;
+
+// Backing store for idempotent requests. A key is reserved (in progress) before its request runs and completed
+// with the response afterwards, so only one caller per key ever runs the request, even across nodes.
+// Implementations are responsible for expiring completed entries after the configured TTL, and for dropping
+// reservations that were never completed (the node running the request died) after the reservation timeout;
+// reserve must treat both as absent.
+public interface IdempotencyStore {
+
+    // Reserves the key for a request with the given fingerprint. Returns empty when the caller got the reservation
+    // and has to run the request, otherwise the entry already stored for the key, completed or still in progress.
+    Optional<IdempotentResponse> reserve(String key, String fingerprint);
+
+    // Stores the response of the request holding the reservation.
+    void complete(String key, IdempotentResponse response);
+
+    // Drops the reservation of a request that failed, so it can be retried with the same key.
+    void release(String key);
+
+}
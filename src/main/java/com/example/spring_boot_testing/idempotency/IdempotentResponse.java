@@ -0,0 +1,18 @@
+package com.example.spring_boot_testing.idempotency;
+
+import java.time.Instant;
+
+// What is remembered for an Idempotency-Key: the fingerprint of the request that used the key first
+// and the response that was sent back for it (body as JSON so every store can keep it as text).
+// While that request is still running the entry is a reservation without a response (completed is false).
+public record IdempotentResponse(String fingerprint, boolean completed, int status, String body, Instant createdAt) {
+
+    public IdempotentResponse(String fingerprint, int status, String body, Instant createdAt) {
+        this(fingerprint, true, status, body, createdAt);
+    }
+
+    public static IdempotentResponse inProgress(String fingerprint, Instant createdAt) {
+        return new IdempotentResponse(fingerprint, false, 0, null, createdAt);
+    }
+
+}
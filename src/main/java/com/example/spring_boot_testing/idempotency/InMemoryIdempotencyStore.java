@@ -0,0 +1,72 @@
+package com.example.spring_boot_testing.idempotency;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+// Bounded in-process store. Entries are kept in insertion order, so the eldest entry is evicted first
+// once maxEntries is reached, and expired entries are dropped lazily on lookup.
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Duration ttl;
+    private final Duration reservationTimeout;
+    private final Clock clock;
+    private final Map<String, IdempotentResponse> entries;
+
+    public InMemoryIdempotencyStore(int maxEntries, Duration ttl, Duration reservationTimeout, Clock clock) {
+        this.ttl = ttl;
+        this.reservationTimeout = reservationTimeout;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotentResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    public synchronized Optional<IdempotentResponse> reserve(String key, String fingerprint) {
+        Instant now = clock.instant();
+        IdempotentResponse existing = entries.get(key);
+        if (existing != null && !isExpired(existing, now)) {
+            return Optional.of(existing);
+        }
+        entries.remove(key);
+        entries.put(key, IdempotentResponse.inProgress(fingerprint, now));
+        return Optional.empty();
+    }
+
+    @Override
+    public synchronized void complete(String key, IdempotentResponse response) {
+        entries.put(key, response);
+    }
+
+    @Override
+    public synchronized void release(String key) {
+        IdempotentResponse existing = entries.get(key);
+        if (existing != null && !existing.completed()) {
+            entries.remove(key);
+        }
+    }
+
+    synchronized Optional<IdempotentResponse> find(String key) {
+        IdempotentResponse response = entries.get(key);
+        if (response == null || isExpired(response, clock.instant())) {
+            return Optional.empty();
+        }
+        return Optional.of(response);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private boolean isExpired(IdempotentResponse response, Instant now) {
+        return !response.createdAt().plus(response.completed() ? ttl : reservationTimeout).isAfter(now);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.example.spring_boot_testing.idempotency;
+
+import com.example.spring_boot_testing.model.IdempotencyRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+// Store backed by the idempotency_keys table, so a retry that lands on another node is still recognized.
+// A key is reserved with INSERT ... ON CONFLICT DO NOTHING before its request runs: exactly one node wins the
+// insert, every other one finds the IN_PROGRESS row and waits for it to be completed (see IdempotencyService).
+// Rows are written with plain statements in their own (auto-commit) transactions, so a reservation is visible
+// to the other nodes right away and not only once the request's transaction commits.
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final RowMapper<IdempotentResponse> ROW_MAPPER = JdbcIdempotencyStore::mapRow;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration reservationTimeout;
+    private final Clock clock;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, Duration ttl, Duration reservationTimeout, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.reservationTimeout = reservationTimeout;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<IdempotentResponse> reserve(String key, String fingerprint) {
+        while (true) {
+            Instant now = clock.instant();
+            int inserted = jdbcTemplate.update("insert into " + IdempotencyRecord.TABLE +
+                            " (idempotency_key, fingerprint, state, status, created_at) values (?, ?, ?, 0, ?)" +
+                            " on conflict (idempotency_key) do nothing",
+                    key, fingerprint, IdempotencyRecord.IN_PROGRESS, Timestamp.from(now));
+            if (inserted == 1) {
+                return Optional.empty();
+            }
+            Optional<IdempotentResponse> existing = find(key);
+            if (existing.isEmpty()) {
+                // released or cleaned up between the insert and the select
+                continue;
+            }
+            IdempotentResponse response = existing.get();
+            if (!isExpired(response, now)) {
+                return existing;
+            }
+            // an expired response or the reservation of a node that died: remove exactly the row that was read
+            // (a racing node may already have replaced it) and compete for the key again
+            jdbcTemplate.update("delete from " + IdempotencyRecord.TABLE + " where idempotency_key = ? and created_at = ?",
+                    key, Timestamp.from(response.createdAt()));
+        }
+    }
+
+    @Override
+    public void complete(String key, IdempotentResponse response) {
+        jdbcTemplate.update("update " + IdempotencyRecord.TABLE +
+                        " set state = ?, status = ?, body = ?, created_at = ? where idempotency_key = ? and state = ?",
+                IdempotencyRecord.COMPLETED, response.status(), response.body(), Timestamp.from(response.createdAt()),
+                key, IdempotencyRecord.IN_PROGRESS);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("delete from " + IdempotencyRecord.TABLE + " where idempotency_key = ? and state = ?",
+                key, IdempotencyRecord.IN_PROGRESS);
+    }
+
+    // run by the cleanup task scheduled in IdempotencyConfig
+    public int deleteExpired() {
+        Instant now = clock.instant();
+        return jdbcTemplate.update("delete from " + IdempotencyRecord.TABLE +
+                        " where created_at < ? or (state = ? and created_at < ?)",
+                Timestamp.from(now.minus(ttl)), IdempotencyRecord.IN_PROGRESS, Timestamp.from(now.minus(reservationTimeout)));
+    }
+
+    Optional<IdempotentResponse> find(String key) {
+        return jdbcTemplate.query("select fingerprint, state, status, body, created_at from " + IdempotencyRecord.TABLE +
+                        " where idempotency_key = ?", ROW_MAPPER, key)
+                .stream()
+                .findFirst();
+    }
+
+    private boolean isExpired(IdempotentResponse response, Instant now) {
+        return !response.createdAt().plus(response.completed() ? ttl : reservationTimeout).isAfter(now);
+    }
+
+    private static IdempotentResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Instant createdAt = rs.getTimestamp("created_at").toInstant();
+        if (IdempotencyRecord.IN_PROGRESS.equals(rs.getString("state"))) {
+            return IdempotentResponse.inProgress(rs.getString("fingerprint"), createdAt);
+        }
+        return new IdempotentResponse(rs.getString("fingerprint"), rs.getInt("status"), rs.getString("body"), createdAt);
+    }
+
+}
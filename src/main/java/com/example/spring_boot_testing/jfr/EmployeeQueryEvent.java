@@ -0,0 +1,30 @@
+package com.example.spring_boot_testing.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+// One repository method call, including connection acquisition and the transaction of the method.
+// The stack trace shows which service code issued the query.
+@Name("com.example.employees.RepositoryQuery")
+@Label("Employee Repository Query")
+@Category({"Employees", "Repository"})
+@Description("Call of a Spring Data repository method")
+@Threshold("10 ms")
+public class EmployeeQueryEvent extends Event {
+
+    @Label("Query")
+    @Description("Repository and method, e.g. EmployeeRepository.findByEmail")
+    public String query;
+
+    @Label("Rows")
+    @Description("Rows returned, or updated by modifying queries")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+
+}
@@ -0,0 +1,35 @@
+package com.example.spring_boot_testing.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+// One EmployeeService call. Only calls longer than the threshold are recorded (FlightRecordingEndpoint can
+// lower it for one recording), so the event can stay enabled in continuous recordings.
+@Name("com.example.employees.ServiceOperation")
+@Label("Employee Service Operation")
+@Category({"Employees", "Service"})
+@Description("Call of an EmployeeService method")
+@Threshold("20 ms")
+@StackTrace(false)
+public class EmployeeServiceEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Employee Id")
+    @Description("Id of the employee the operation is about, 0 for operations on many employees")
+    public long employeeId;
+
+    @Label("Rows")
+    @Description("Employees returned or changed")
+    public long rows;
+
+    @Label("Failed")
+    public boolean failed;
+
+}
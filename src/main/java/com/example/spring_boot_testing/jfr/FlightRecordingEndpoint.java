@@ -0,0 +1,127 @@
+package com.example.spring_boot_testing.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Actuator endpoint controlling one JDK Flight Recorder recording of this JVM, with the employee events enabled:
+//   GET  /actuator/flightrecording                  status of the current recording
+//   POST /actuator/flightrecording/start            {"serviceThreshold": "5ms", "queryThreshold": "1ms",
+//                                                    "settings": "profile", "maxAge": "10m"} (all optional)
+//   POST /actuator/flightrecording/stop
+//   GET  /actuator/flightrecording/dump             the recording so far as a .jfr file (JDK Mission Control, `jfr print`)
+// Like every actuator endpoint it is only reachable over HTTP once exposed
+// (management.endpoints.web.exposure.include), which should only be done behind the management port or security.
+@Endpoint(id = "flightrecording")
+public class FlightRecordingEndpoint {
+
+    private static final String RECORDING_NAME = "employees";
+    // settings are enabled and read back by event name, enable(Class) keys them by an internal type id
+    private static final String SERVICE_EVENT = EventType.getEventType(EmployeeServiceEvent.class).getName();
+    private static final String QUERY_EVENT = EventType.getEventType(EmployeeQueryEvent.class).getName();
+
+    private final Duration defaultServiceThreshold;
+    private final Duration defaultQueryThreshold;
+    private final Duration defaultMaxAge;
+    private final Path dumpDirectory;
+
+    // guarded by this
+    private Recording recording;
+
+    public FlightRecordingEndpoint(Duration defaultServiceThreshold, Duration defaultQueryThreshold, Duration defaultMaxAge,
+                                   Path dumpDirectory) {
+        this.defaultServiceThreshold = defaultServiceThreshold;
+        this.defaultQueryThreshold = defaultQueryThreshold;
+        this.defaultMaxAge = defaultMaxAge;
+        this.dumpDirectory = dumpDirectory;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NONE" : recording.getState().name());
+        if (recording != null) {
+            status.put("startTime", recording.getStartTime());
+            status.put("duration", recording.getDuration());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("size", recording.getSize());
+            status.put("serviceThreshold", recording.getSettings().get(SERVICE_EVENT + "#threshold"));
+            status.put("queryThreshold", recording.getSettings().get(QUERY_EVENT + "#threshold"));
+        }
+        return status;
+    }
+
+    // starts a new recording, a previous one is closed (and its data dropped) first
+    @WriteOperation
+    public synchronized Map<String, Object> control(@Selector String action, @Nullable Duration serviceThreshold,
+                                                    @Nullable Duration queryThreshold, @Nullable String settings,
+                                                    @Nullable Duration maxAge) throws IOException, ParseException {
+        switch (action) {
+            case "start" -> start(serviceThreshold != null ? serviceThreshold : defaultServiceThreshold,
+                    queryThreshold != null ? queryThreshold : defaultQueryThreshold,
+                    settings != null ? settings : "default",
+                    maxAge != null ? maxAge : defaultMaxAge);
+            case "stop" -> {
+                if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                    recording.stop();
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown action: " + action + ", use start or stop");
+        }
+        return status();
+    }
+
+    // Copies what was recorded so far into a file next to the other dumps; Spring streams the file and it is
+    // replaced by the next dump. Returns null (404) when there is no recording.
+    @ReadOperation
+    public synchronized Resource dump(@Selector String name) {
+        if (!"dump".equals(name)) {
+            throw new IllegalArgumentException("Unknown resource: " + name + ", use dump");
+        }
+        if (recording == null) {
+            return null;
+        }
+        try {
+            Files.createDirectories(dumpDirectory);
+            Path file = dumpDirectory.resolve(RECORDING_NAME + ".jfr");
+            recording.dump(file);
+            return new FileSystemResource(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void start(Duration serviceThreshold, Duration queryThreshold, String settings, Duration maxAge)
+            throws IOException, ParseException {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+        Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setMaxAge(maxAge);
+        newRecording.setToDisk(true);
+        newRecording.enable(SERVICE_EVENT).withThreshold(serviceThreshold);
+        newRecording.enable(QUERY_EVENT).withThreshold(queryThreshold);
+        newRecording.start();
+        recording = newRecording;
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.example.spring_boot_testing.jfr;
+
+import com.example.spring_boot_testing.dto.EmployeeBatchResponse;
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.warmup.WarmupRequests;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+// Method interceptors emitting the employee JFR events. The event fields are only filled in when the event will
+// actually be written (recording running, event enabled, call above the threshold); otherwise an event costs
+// two clock reads. Calls made by the warm-up (see WarmupRequests) are not written.
+public final class JfrEventInterceptors {
+
+    private JfrEventInterceptors() {
+    }
+
+    public static MethodInterceptor serviceEvents() {
+        return JfrEventInterceptors::serviceEvent;
+    }
+
+    public static MethodInterceptor queryEvents(Class<?> repositoryInterface) {
+        String repository = repositoryInterface.getSimpleName();
+        return invocation -> queryEvent(repository, invocation);
+    }
+
+    private static Object serviceEvent(MethodInvocation invocation) throws Throwable {
+        EmployeeServiceEvent event = new EmployeeServiceEvent();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit() && !WarmupRequests.isCurrent()) {
+                event.operation = invocation.getMethod().getName();
+                event.employeeId = employeeId(invocation.getArguments(), result);
+                event.rows = rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static Object queryEvent(String repository, MethodInvocation invocation) throws Throwable {
+        EmployeeQueryEvent event = new EmployeeQueryEvent();
+        event.begin();
+        Object result = null;
+        boolean failed = true;
+        try {
+            result = invocation.proceed();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit() && !WarmupRequests.isCurrent()) {
+                event.query = repository + "." + invocation.getMethod().getName();
+                event.rows = rows(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    // the id argument of by-id operations, or the id of the single employee saved / updated
+    private static long employeeId(Object[] arguments, Object result) {
+        Object first = arguments.length > 0 ? arguments[0] : null;
+        if (first instanceof Long id) {
+            return id;
+        }
+        if (first instanceof Employee employee) {
+            Employee saved = result instanceof Employee resultEmployee ? resultEmployee : employee;
+            return saved.getId() == null ? 0 : saved.getId();
+        }
+        return 0;
+    }
+
+    static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof ReadResult<?> readResult) {
+            return rows(readResult.value());
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof EmployeeBatchResponse batch) {
+            return batch.getEmployees().size();
+        }
+        // counts, bulk update counts and scanned rows
+        if (result instanceof Number number) {
+            return number.longValue();
+        }
+        if (result instanceof Boolean exists) {
+            return exists ? 1 : 0;
+        }
+        if (result instanceof Map<?, ?> || result instanceof Employee) {
+            return 1;
+        }
+        return 0;
+    }
+
+}
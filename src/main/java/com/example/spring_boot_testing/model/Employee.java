@@ -1,19 +1,46 @@
 package com.example.spring_boot_testing.model;
 
+import com.example.spring_boot_testing.changes.EmployeeChangeListener;
+import com.example.spring_boot_testing.id.EmployeeIdSerializer;
+import com.example.spring_boot_testing.id.SnowflakeId;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
+import java.util.Locale;
 
 @Setter
 @Getter
-@Builder // Implementation of Builder Design Pattern
+@Builder(toBuilder = true) // Implementation of Builder Design Pattern
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "employees")
+// the indexes back the sort keys allowed by GET /api/employees?sort=..., id is the tie-breaker of every sort;
+// (change_xid, change_seq) serves GET /api/employees/changes
+@Table(name = "employees", indexes = {
+        @Index(name = "idx_employees_email", columnList = "email"),
+        @Index(name = "idx_employees_last_name_id", columnList = "last_name, id"),
+        @Index(name = "idx_employees_change", columnList = "change_xid, change_seq")
+})
+@EntityListeners(EmployeeChangeListener.class)
+// deleting an employee only marks the row, EmployeeArchiver moves marked rows to employees_archive in batches;
+// marked rows are invisible to every entity load and JPQL/criteria query (native SQL has to filter itself)
+@SQLDelete(sql = "update employees set deleted_at = current_timestamp where id = ?")
+@SQLRestriction("deleted_at is null")
 public class Employee {
 
+    // generated in the application (time ordered, unique per node through employees.id.worker-id), so inserts
+    // do not wait for the database to return the id and are batched; ids created before keep their values.
+    // Written to JSON as a number, or as a string with employees.id.json-strings (see EmployeeIdSerializer).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
+    @JsonSerialize(using = EmployeeIdSerializer.class)
     private Long id;
     @Column(name = "first_name", nullable = false)
     private String firstName;
@@ -21,5 +48,39 @@ public class Employee {
     private String lastName;
     @Column(nullable = false)
     private String email;
+    // audit columns and change sequence, maintained by EmployeeChangeListener. Nullable only because rows that
+    // existed before these columns are backfilled on startup (EmployeeChangeBackfill).
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+    @JsonIgnore
+    @Column(name = "change_seq")
+    private Long changeSeq;
+    // id of the transaction that wrote the row last, set by a database trigger (see EmployeeChangeBackfill)
+    @JsonIgnore
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private Long changeXid;
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    // Canonical form of an email address: trimmed and lower case, so "A@x.com" and "a@x.com" are one employee.
+    // Written emails are stored canonical; rows written before are still found by the case-insensitive lookups
+    // (EmployeeEmailRepository.findByNormalizedEmail), which compare lower(email) through an expression index or
+    // the employee_emails table.
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        email = normalizeEmail(email);
+    }
 
 }
@@ -0,0 +1,29 @@
+package com.example.spring_boot_testing.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Marker left behind by a deleted employee so GET /api/employees/changes can report the delete.
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "employee_tombstones", indexes = @Index(name = "idx_employee_tombstones_change", columnList = "change_xid, change_seq"))
+public class EmployeeTombstone {
+
+    @Id
+    @Column(name = "employee_id")
+    private Long employeeId;
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+    // id of the inserting transaction, set by a database trigger (see EmployeeChangeBackfill)
+    @Column(name = "change_xid", insertable = false, updatable = false)
+    private Long changeXid;
+
+}
@@ -0,0 +1,38 @@
+package com.example.spring_boot_testing.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// The idempotency_keys table used by JdbcIdempotencyStore. The store works with plain SQL (it needs
+// INSERT ... ON CONFLICT), the entity is mapped so ddl-auto keeps the table in line with the other ones.
+@Setter
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = IdempotencyRecord.TABLE, indexes = @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at"))
+public class IdempotencyRecord {
+
+    public static final String TABLE = "idempotency_keys";
+    public static final String IN_PROGRESS = "IN_PROGRESS";
+    public static final String COMPLETED = "COMPLETED";
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+    // IN_PROGRESS while the request holding the key runs, then COMPLETED
+    @Column(nullable = false, length = 16)
+    private String state;
+    @Column(nullable = false)
+    private int status;
+    @Column(columnDefinition = "text")
+    private String body;
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+}
@@ -0,0 +1,127 @@
+package com.example.spring_boot_testing.partitioning;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+// Converts the employees table (as created by ddl-auto) into a table hash partitioned by id, in one transaction:
+// a partitioned copy with the same columns, identity and primary key is created with `partitions` partitions,
+// the rows are copied, the old table is dropped and its secondary indexes are recreated on the new one (indexes
+// on a partitioned table are created on every partition). Runs once; on later starts the table is already
+// partitioned and nothing happens. The copy holds an exclusive lock on employees, so the first start with
+// partitioning enabled belongs in a maintenance window on large tables.
+// Lookups by id (findById, findAllById, updates, deletes) are pruned to one partition. A unique index has to
+// contain the partition key, so there is no global unique index on email; instead employee_emails maps lower(email)
+// to the id of the live employee using it, with the email as primary key, and is itself hash partitioned by email
+// with as many partitions. A trigger on employees keeps it in sync with every insert, update, (soft) delete and
+// archived row; a write giving a live employee an email another live employee already has fails with a unique
+// violation of employee_emails (see EmployeeIndexInitializer.isEmailConflict), like the unique index does on a
+// plain table. Lookups by email (EmployeeEmailRepositoryImpl) read one employee_emails partition and then the
+// employees partition of the id found. Searches and pages ordered by id still read one index per partition.
+public class EmployeeTablePartitioner {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeTablePartitioner.class);
+
+    private static final String TABLE = "employees";
+    private static final String NEW_TABLE = "employees_partitioned";
+    public static final String EMAIL_TABLE = "employee_emails";
+    private static final String EMAIL_SYNC_FUNCTION = "employee_emails_sync";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public EmployeeTablePartitioner(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // returns the number of partitions of the employees table, 0 if it is not partitioned
+    public int partitionCount() {
+        return jdbcTemplate.queryForObject("select count(*) from pg_inherits where inhparent = to_regclass(?)",
+                Integer.class, TABLE);
+    }
+
+    public void partition(int partitions) {
+        if (partitions < 2) {
+            throw new IllegalArgumentException("Hash partitioning needs at least 2 partitions, got " + partitions);
+        }
+        int existing = partitionCount();
+        if (existing > 0) {
+            if (existing != partitions) {
+                log.warn("employees is already hash partitioned into {} partitions, repartitioning to {} is not supported",
+                        existing, partitions);
+            }
+            return;
+        }
+        long copied = transactionTemplate.execute(status -> {
+            long rows = convert(partitions);
+            createEmailTable(partitions);
+            return rows;
+        });
+        log.info("Partitioned employees by hash(id) into {} partitions, copied {} rows", partitions, copied);
+    }
+
+    // returns the number of partitions of employee_emails, 0 if it does not exist
+    public int emailPartitionCount() {
+        return jdbcTemplate.queryForObject("select count(*) from pg_inherits where inhparent = to_regclass(?)",
+                Integer.class, EMAIL_TABLE);
+    }
+
+    private long convert(int partitions) {
+        jdbcTemplate.execute("lock table " + TABLE + " in access exclusive mode");
+        List<Map<String, Object>> indexes = jdbcTemplate.queryForList(
+                "select i.indexname, i.indexdef from pg_indexes i where i.schemaname = current_schema() and i.tablename = ? " +
+                "and not exists (select 1 from pg_constraint c where c.conindid = to_regclass(i.indexname) and c.contype = 'p')",
+                TABLE);
+
+        jdbcTemplate.execute("create table " + NEW_TABLE + " (like " + TABLE + " including defaults including identity " +
+                "including constraints including generated) partition by hash (id)");
+        jdbcTemplate.execute("alter table " + NEW_TABLE + " add constraint " + NEW_TABLE + "_pkey primary key (id)");
+        for (int remainder = 0; remainder < partitions; remainder++) {
+            jdbcTemplate.execute(String.format("create table %s_p%d partition of %s for values with (modulus %d, remainder %d)",
+                    TABLE, remainder, NEW_TABLE, partitions, remainder));
+        }
+        long copied = jdbcTemplate.update("insert into " + NEW_TABLE + " overriding system value select * from " + TABLE);
+
+        jdbcTemplate.execute("drop table " + TABLE);
+        jdbcTemplate.execute("alter table " + NEW_TABLE + " rename to " + TABLE);
+        jdbcTemplate.execute("alter table " + TABLE + " rename constraint " + NEW_TABLE + "_pkey to " + TABLE + "_pkey");
+        for (Map<String, Object> index : indexes) {
+            jdbcTemplate.execute((String) index.get("indexdef"));
+        }
+        // the identity sequence of the copy starts at 1, new ids continue after the copied ones
+        jdbcTemplate.queryForObject("select setval(pg_get_serial_sequence(?, 'id'), coalesce(max(id), 0) + 1, false) from " + TABLE,
+                Long.class, TABLE);
+        return copied;
+    }
+
+    // live employees sharing an email (case-insensitively) make the copy fail, and with it the conversion: they
+    // have to be merged before the table can be partitioned
+    private long createEmailTable(int partitions) {
+        jdbcTemplate.execute("create table " + EMAIL_TABLE + " (email varchar(255) not null primary key, id bigint not null) " +
+                "partition by hash (email)");
+        for (int remainder = 0; remainder < partitions; remainder++) {
+            jdbcTemplate.execute(String.format("create table %s_p%d partition of %s for values with (modulus %d, remainder %d)",
+                    EMAIL_TABLE, remainder, EMAIL_TABLE, partitions, remainder));
+        }
+        long mapped = jdbcTemplate.update("insert into " + EMAIL_TABLE + " select lower(email), id from " + TABLE +
+                " where email is not null and deleted_at is null");
+        // soft deleted rows leave the map, restored ones come back; updates that keep both unchanged do nothing
+        jdbcTemplate.execute("create or replace function " + EMAIL_SYNC_FUNCTION + "() returns trigger language plpgsql as $$ begin " +
+                "if tg_op = 'UPDATE' and new.email is not distinct from old.email " +
+                "and (new.deleted_at is null) = (old.deleted_at is null) then return null; end if; " +
+                "if tg_op <> 'INSERT' and old.email is not null then " +
+                "delete from " + EMAIL_TABLE + " where email = lower(old.email) and id = old.id; end if; " +
+                "if tg_op <> 'DELETE' and new.email is not null and new.deleted_at is null then " +
+                "insert into " + EMAIL_TABLE + " values (lower(new.email), new.id); end if; " +
+                "return null; end $$");
+        jdbcTemplate.execute("create or replace trigger " + EMAIL_SYNC_FUNCTION + " after insert or update of email, deleted_at " +
+                "or delete on " + TABLE + " for each row execute function " + EMAIL_SYNC_FUNCTION + "()");
+        return mapped;
+    }
+
+}
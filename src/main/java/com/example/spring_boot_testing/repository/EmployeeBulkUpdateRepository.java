@@ -0,0 +1,14 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.model.Employee;
+import org.springframework.data.jpa.domain.Specification;
+
+// Custom EmployeeRepository fragment for set-based updates: one UPDATE statement for all matching rows.
+public interface EmployeeBulkUpdateRepository {
+
+    // sets firstName / lastName and replaces the email domain of every matching employee; null values are left
+    // unchanged. Returns the number of updated rows. The filter must only use the root and the CriteriaBuilder
+    // (like the EmployeeSpecifications do), it is applied to an update instead of a select.
+    int bulkUpdate(Specification<Employee> filter, String firstName, String lastName, String emailDomain);
+
+}
@@ -0,0 +1,71 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.changes.EmployeeChangeSequence;
+import com.example.spring_boot_testing.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+
+// Builds a JPQL bulk UPDATE. Entity listeners do not run for bulk statements, so the audit column and the
+// change sequence (see EmployeeChangeListener) are set by the statement itself: every row gets its own
+// nextval() of the change sequence, so the changes feed reports each updated employee.
+public class EmployeeBulkUpdateRepositoryImpl implements EmployeeBulkUpdateRepository {
+
+    private final EntityManager entityManager;
+    private final Clock clock;
+
+    public EmployeeBulkUpdateRepositoryImpl(EntityManager entityManager, ObjectProvider<Clock> clock) {
+        this.entityManager = entityManager;
+        this.clock = clock.getIfAvailable(Clock::systemUTC);
+    }
+
+    @Override
+    @Transactional
+    public int bulkUpdate(Specification<Employee> filter, String firstName, String lastName, String emailDomain) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+        List<Predicate> predicates = new ArrayList<>();
+        // @SQLRestriction is not applied to bulk statements, deleted rows waiting for the archiver stay untouched
+        predicates.add(cb.isNull(root.get("deletedAt")));
+        Predicate filterPredicate = filter == null ? null : filter.toPredicate(root, null, cb);
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+
+        if (firstName != null) {
+            update.set(root.<String>get("firstName"), firstName);
+        }
+        if (lastName != null) {
+            update.set(root.<String>get("lastName"), lastName);
+        }
+        if (emailDomain != null) {
+            // keep the local part including '@': lower(substring(email, 1, locate('@', email)) || domain), lower case
+            // like every written email (see Employee.normalizeEmail)
+            Path<String> email = root.get("email");
+            update.set(email, cb.lower(cb.concat(cb.substring(email, cb.literal(1), cb.locate(email, "@")),
+                    Employee.normalizeEmail(emailDomain))));
+            predicates.add(cb.like(email, "%@%"));
+        }
+        update.set(root.get("updatedAt"), clock.instant());
+        update.set(root.<Long>get("changeSeq"),
+                cb.function("nextval", Long.class, cb.literal(EmployeeChangeSequence.SEQUENCE)));
+        update.where(predicates.toArray(new Predicate[0]));
+
+        int updated = entityManager.createQuery(update).executeUpdate();
+        // like @Modifying(clearAutomatically = true): managed employees of this transaction are stale now
+        entityManager.clear();
+        return updated;
+    }
+
+}
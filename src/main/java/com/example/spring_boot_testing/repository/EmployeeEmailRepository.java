@@ -0,0 +1,18 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.model.Employee;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Custom EmployeeRepository fragment for case-insensitive lookups, the arguments have to be normalized with
+// Employee.normalizeEmail. Rows that only differ in case may exist from before emails were normalized, the
+// oldest one wins.
+public interface EmployeeEmailRepository {
+
+    Optional<Employee> findByNormalizedEmail(String normalizedEmail);
+
+    List<Employee> findByNormalizedEmailIn(Collection<String> normalizedEmails);
+
+}
@@ -0,0 +1,58 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.model.Employee;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// On a plain table lower(email) is compared to the plain parameter, which is exactly the expression of
+// idx_employees_email_lower (see EmployeeIndexInitializer). On a hash partitioned table that index exists once
+// per partition and every one of them would be read, so the ids are looked up in employee_emails, partitioned by
+// email, first: one partition of it and one employees partition per id are read (see EmployeeTablePartitioner).
+// Native queries bypass @SQLRestriction, they skip deleted rows themselves.
+public class EmployeeEmailRepositoryImpl implements EmployeeEmailRepository {
+
+    private final EntityManager entityManager;
+    private final boolean partitioned;
+
+    public EmployeeEmailRepositoryImpl(EntityManager entityManager,
+                                       @Value("${employees.partitioning.enabled:false}") boolean partitioned) {
+        this.entityManager = entityManager;
+        this.partitioned = partitioned;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Employee> findByNormalizedEmail(String normalizedEmail) {
+        List<Employee> employees = partitioned
+                ? entityManager.unwrap(Session.class).createNativeQuery("select e.* from employees e where e.id = " +
+                        "(select m.id from employee_emails m where m.email = :normalizedEmail) and e.deleted_at is null", Employee.class)
+                        .setParameter("normalizedEmail", normalizedEmail)
+                        .getResultList()
+                : entityManager.createQuery("select e from Employee e where lower(e.email) = :normalizedEmail order by e.id", Employee.class)
+                        .setParameter("normalizedEmail", normalizedEmail)
+                        .setMaxResults(1)
+                        .getResultList();
+        return employees.stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> findByNormalizedEmailIn(Collection<String> normalizedEmails) {
+        if (partitioned) {
+            return entityManager.unwrap(Session.class).createNativeQuery("select e.* from employees e where e.id in " +
+                            "(select m.id from employee_emails m where m.email in (:normalizedEmails)) and e.deleted_at is null", Employee.class)
+                    .setParameter("normalizedEmails", normalizedEmails)
+                    .getResultList();
+        }
+        return entityManager.createQuery("select e from Employee e where lower(e.email) in :normalizedEmails", Employee.class)
+                .setParameter("normalizedEmails", normalizedEmails)
+                .getResultList();
+    }
+
+}
@@ -0,0 +1,119 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.partitioning.EmployeeTablePartitioner;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Creates the indexes of the employees table that ddl-auto can not create, it only indexes plain columns with
+// their default operator class:
+//   idx_employees_email_lower       lower(email) where deleted_at is null, behind the case-insensitive email
+//                                   lookups; unique, so two live employees can not share an email even when two
+//                                   saves race past the lookup in saveEmployee. Deletes are soft and the email
+//                                   of a deleted employee may be taken again, hence partial. On a partitioned
+//                                   table a unique index has to contain the partition key, there the index is
+//                                   plain and the primary key of employee_emails keeps emails unique instead
+//                                   (see EmployeeTablePartitioner). Live rows from before emails were normalized
+//                                   that only differ in case make the unique build fail, and with it the start:
+//                                   they have to be merged first.
+//   idx_employees_email_domain      reverse(lower(email)) text_pattern_ops, behind the emailDomain filter, which is
+//                                   a prefix LIKE on the reversed email (see EmployeeSpecifications.emailDomain)
+//   idx_employees_last_name_prefix  (last_name varchar_pattern_ops, id), behind the namePrefix filter: with a
+//                                   collation other than C a LIKE prefix can not use idx_employees_last_name_id,
+//                                   which stays for sorting by last name
+// On a plain table the indexes are built concurrently, so writes go on while they are built on the first start;
+// a partitioned table (see EmployeeTablePartitioner) does not support that.
+// Without the other indexes the queries stay correct but scan the table, so a failure to build them is only logged.
+@Component
+public class EmployeeIndexInitializer {
+
+    public static final String EMAIL_INDEX = "idx_employees_email_lower";
+    public static final String EMAIL_DOMAIN_INDEX = "idx_employees_email_domain";
+    public static final String LAST_NAME_PREFIX_INDEX = "idx_employees_last_name_prefix";
+
+    private static final Pattern CONFLICTING_KEY = Pattern.compile("\\)=\\((.*)\\) already exists");
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeIndexInitializer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeIndexInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void createIndexes() {
+        boolean partitioned;
+        try {
+            partitioned = jdbcTemplate.queryForObject(
+                    "select count(*) from pg_partitioned_table where partrelid = to_regclass('employees')", Integer.class) > 0;
+        } catch (DataAccessException e) {
+            log.warn("Could not create the expression indexes of the employees table, email and name filters will scan it", e);
+            return;
+        }
+        try {
+            createIndex(EMAIL_INDEX, "lower(email)", !partitioned, "deleted_at is null", partitioned);
+        } catch (DataAccessException e) {
+            if(partitioned){
+                log.warn("Could not create index {}, case-insensitive email lookups will scan the employees table", EMAIL_INDEX, e);
+            } else {
+                throw new IllegalStateException("Could not create the unique index " + EMAIL_INDEX + ", live employees " +
+                        "sharing an email that only differs in case have to be merged first", e);
+            }
+        }
+        createOptionalIndex(EMAIL_DOMAIN_INDEX, "reverse(lower(email)) text_pattern_ops", partitioned, "email domain filters");
+        createOptionalIndex(LAST_NAME_PREFIX_INDEX, "last_name varchar_pattern_ops, id", partitioned, "last name prefix filters");
+    }
+
+    // true if the exception is a violation of the unique idx_employees_email_lower or, on a partitioned table, of the
+    // primary key of an employee_emails partition, i.e. another live employee already has the email
+    public static boolean isEmailConflict(DataIntegrityViolationException e) {
+        if(!(e.getCause() instanceof ConstraintViolationException violation) || violation.getConstraintName() == null){
+            return false;
+        }
+        String constraint = violation.getConstraintName();
+        return EMAIL_INDEX.equals(constraint)
+                || (constraint.startsWith(EmployeeTablePartitioner.EMAIL_TABLE + "_") && constraint.endsWith("_pkey"));
+    }
+
+    // the email named in the detail of a unique violation ("Key (lower(email::text))=(a@x.com) already exists."),
+    // for statements that change the emails of many employees at once
+    public static Optional<String> conflictingEmail(DataIntegrityViolationException e) {
+        if(!(e.getCause() instanceof ConstraintViolationException violation) || violation.getSQLException().getMessage() == null){
+            return Optional.empty();
+        }
+        Matcher matcher = CONFLICTING_KEY.matcher(violation.getSQLException().getMessage());
+        return matcher.find() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private void createOptionalIndex(String index, String columns, boolean partitioned, String usedBy) {
+        try {
+            createIndex(index, columns, false, null, partitioned);
+        } catch (DataAccessException e) {
+            log.warn("Could not create index {}, {} will scan the employees table", index, usedBy, e);
+        }
+    }
+
+    private void createIndex(String index, String columns, boolean unique, String where, boolean partitioned) {
+        // an interrupted concurrent build leaves an invalid index behind that "if not exists" would keep, and so
+        // would it keep an index created with another definition by an earlier version
+        boolean outdated = jdbcTemplate.queryForObject("select count(*) from pg_index where indexrelid = to_regclass('" + index + "') " +
+                "and (not indisvalid or indisunique <> ? or (indpred is null) <> ?)", Integer.class, unique, where == null) > 0;
+        if(outdated){
+            jdbcTemplate.execute("drop index " + index);
+        }
+        jdbcTemplate.execute("create " + (unique ? "unique " : "") + "index " + (partitioned ? "" : "concurrently ") +
+                "if not exists " + index + " on employees (" + columns + ")" + (where == null ? "" : " where " + where));
+    }
+
+}
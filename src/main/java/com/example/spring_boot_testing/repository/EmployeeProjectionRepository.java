@@ -0,0 +1,17 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.model.Employee;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.Map;
+
+// Custom EmployeeRepository fragment for sparse fieldsets: only the requested columns are selected.
+public interface EmployeeProjectionRepository {
+
+    // one map per row holding the given Employee attributes in the given order; the specification may be null,
+    // a limit of 0 means no limit
+    List<Map<String, Object>> findFields(List<String> fields, Specification<Employee> specification, Sort sort, int limit);
+
+}
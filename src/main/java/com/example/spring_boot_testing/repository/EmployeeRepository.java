@@ -1,18 +1,50 @@
 package com.example.spring_boot_testing.repository;
 
 import com.example.spring_boot_testing.model.Employee;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+// Declared query methods run in their own read-only transaction when no transaction is active (the inherited
+// CRUD methods already do): Hibernate switches the session to FlushMode.MANUAL and read-only entities, and the
+// connection is marked read-only, so pgjdbc starts the transaction with BEGIN READ ONLY.
 @Repository
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+@Transactional(readOnly = true)
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, JpaSpecificationExecutor<Employee>,
+        EmployeeScanRepository, EmployeeProjectionRepository, EmployeeBulkUpdateRepository,
+        EmployeeEmailRepository {
+
+    // in id order, i.e. creation order: a hash partitioned table returns its rows partition by partition otherwise
+    @Override
+    @Query("select e from Employee e order by e.id")
+    List<Employee> findAll();
 
     Optional<Employee> findByEmail(String email);
 
+    List<Employee> findByEmailIn(Collection<String> emails);
+
+    // rows written after the given change, in (transaction id, change sequence) order, by transactions with an id
+    // below visibleBelow only (see EmployeeChangeFeedServiceImpl); idx_employees_change
+    @Query(value = "select * from employees where (change_xid, change_seq) > (:sinceXid, :sinceSeq) " +
+            "and change_xid < :visibleBelow and deleted_at is null " +
+            "order by change_xid, change_seq limit :limit", nativeQuery = true)
+    List<Employee> findChangesSince(long sinceXid, long sinceSeq, long visibleBelow, int limit);
+
+    // the most recently changed employees, newest first: a backward scan of idx_employees_change, no count query
+    List<Employee> findByOrderByChangeXidDescChangeSeqDesc(Limit limit);
+
+    // "xmin:xmax:xip,..." of the current snapshot
+    @Query(value = "select cast(pg_current_snapshot() as text)", nativeQuery = true)
+    String currentSnapshot();
+
     // define custom query using JPQL with index params (?n)
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJPQLIndexParams(String firstName, String lastNAme);
@@ -21,12 +53,13 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query("select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
     Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastNAme);
 
+    // native queries bypass @SQLRestriction, they have to skip deleted rows themselves
     // define custom query using native SQL with index params
-    @Query(value = "select * from employees e where e.first_Name = ?1 and e.last_Name = ?2", nativeQuery = true)
+    @Query(value = "select * from employees e where e.first_Name = ?1 and e.last_Name = ?2 and e.deleted_at is null", nativeQuery = true)
     Employee findByNativeSQLIndexParams(String firstName, String lastName);
 
     // define custom query using native SQL with named params
-    @Query(value = "select * from employees e where e.first_Name =:firstName and e.last_Name =:lastName", nativeQuery = true)
+    @Query(value = "select * from employees e where e.first_Name =:firstName and e.last_Name =:lastName and e.deleted_at is null", nativeQuery = true)
     Employee findByNativeSQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
 }
@@ -0,0 +1,18 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.deadline.RequestDeadline;
+import com.example.spring_boot_testing.model.Employee;
+
+import java.util.function.Consumer;
+
+// Custom EmployeeRepository fragment for reading the whole table without filling a persistence context.
+public interface EmployeeScanRepository {
+
+    // streams every employee (ordered by id) to the action and returns how many were read.
+    // The Employee instances are detached and not kept anywhere, so memory use does not grow with the table.
+    long scanAll(Consumer<Employee> action);
+
+    // same, bounded by the given deadline (null = unbounded) instead of the one bound to the current thread
+    long scanAll(RequestDeadline deadline, Consumer<Employee> action);
+
+}
@@ -0,0 +1,93 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.deadline.RequestDeadline;
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
+import com.example.spring_boot_testing.model.Employee;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.util.function.Consumer;
+
+// Uses a Hibernate StatelessSession: no first-level cache, no dirty-checking snapshots, so every row can be
+// garbage collected as soon as the action returns. The rows are read through a forward-only cursor; the
+// PostgreSQL driver only fetches `fetchSize` rows at a time when autocommit is off, hence the transaction.
+// With a deadline the time left is set as statement_timeout of that transaction, which bounds every fetch, and the
+// deadline is checked once per fetch, which bounds the scan as a whole when the action is slow (a slow client).
+public class EmployeeScanRepositoryImpl implements EmployeeScanRepository {
+
+    private final SessionFactory sessionFactory;
+    private final int fetchSize;
+
+    public EmployeeScanRepositoryImpl(EntityManagerFactory entityManagerFactory,
+                                      @Value("${employees.scan.fetch-size:1000}") int fetchSize) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.fetchSize = fetchSize;
+    }
+
+    // the stateless session manages its own connection and transaction; NOT_SUPPORTED keeps the read-only
+    // transaction declared on EmployeeRepository from checking out a second, unused connection
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long scanAll(Consumer<Employee> action) {
+        return scanAll(RequestDeadline.current(), action);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long scanAll(RequestDeadline deadline, Consumer<Employee> action) {
+        if (deadline != null && deadline.isExpired()) {
+            throw new RequestDeadlineExceededException("Request deadline exceeded before the scan");
+        }
+        long count;
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            Transaction transaction = session.beginTransaction();
+            try {
+                // the stateless session's connection is out of reach of the repository's statement timeout advice
+                if (deadline != null) {
+                    session.doWork(connection -> {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("set local statement_timeout = " + deadline.statementTimeoutMillis());
+                        }
+                    });
+                }
+                count = scan(session, deadline, action);
+            } catch (PersistenceException e) {
+                if (deadline == null || !deadline.isExpired()) {
+                    throw e;
+                }
+                throw new RequestDeadlineExceededException("Request deadline exceeded during the scan", e);
+            } finally {
+                // nothing was written, rolling back just releases the connection
+                transaction.rollback();
+            }
+        }
+        return count;
+    }
+
+    private long scan(StatelessSession session, RequestDeadline deadline, Consumer<Employee> action) {
+        long count = 0;
+        try (ScrollableResults<Employee> results = session.createSelectionQuery("from Employee e order by e.id", Employee.class)
+                .setFetchSize(fetchSize)
+                .setReadOnly(true)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                action.accept(results.get());
+                count++;
+                if (deadline != null && count % fetchSize == 0 && deadline.isExpired()) {
+                    throw new RequestDeadlineExceededException("Request deadline exceeded during the scan after " + count + " rows");
+                }
+            }
+        }
+        return count;
+    }
+
+}
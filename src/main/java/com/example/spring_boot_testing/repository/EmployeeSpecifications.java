@@ -0,0 +1,51 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.model.Employee;
+import org.springframework.data.jpa.domain.Specification;
+
+// Building blocks for EmployeeRepository.findBy(Specification, ...). Every method returns null for a missing
+// argument, and Specification.allOf ignores null parts, so callers can combine all of them unconditionally.
+public final class EmployeeSpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private EmployeeSpecifications() {
+    }
+
+    // email ends with "@<domain>", ignoring case like every email comparison. Written as "the reversed email starts
+    // with the reversed @<domain>": a suffix LIKE ('%@gmail.com') can not use a btree index, this prefix LIKE is a
+    // range condition on idx_employees_email_domain (see EmployeeIndexInitializer).
+    public static Specification<Employee> emailDomain(String domain) {
+        if (domain == null) {
+            return null;
+        }
+        String reversedSuffix = new StringBuilder("@" + Employee.normalizeEmail(domain)).reverse().toString();
+        return (root, query, cb) -> cb.like(cb.function("reverse", String.class, cb.lower(root.get("email"))),
+                escapeLike(reversedSuffix) + "%", LIKE_ESCAPE);
+    }
+
+    // last name starts with the prefix; a prefix LIKE is a range condition on idx_employees_last_name_prefix
+    public static Specification<Employee> namePrefix(String prefix) {
+        if (prefix == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.like(root.get("lastName"), escapeLike(prefix) + "%", LIKE_ESCAPE);
+    }
+
+    public static Specification<Employee> hasId(long id) {
+        return (root, query, cb) -> cb.equal(root.get("id"), id);
+    }
+
+    public static Specification<Employee> idAtLeast(Long minId) {
+        return minId == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("id"), minId);
+    }
+
+    public static Specification<Employee> idAtMost(Long maxId) {
+        return maxId == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("id"), maxId);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+}
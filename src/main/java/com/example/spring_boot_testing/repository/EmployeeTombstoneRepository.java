@@ -0,0 +1,27 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.model.EmployeeTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+@Transactional(readOnly = true)
+public interface EmployeeTombstoneRepository extends JpaRepository<EmployeeTombstone, Long> {
+
+    // same order and visibility as EmployeeRepository.findChangesSince
+    @Query(value = "select * from employee_tombstones where (change_xid, change_seq) > (:sinceXid, :sinceSeq) " +
+            "and change_xid < :visibleBelow " +
+            "order by change_xid, change_seq limit :limit", nativeQuery = true)
+    List<EmployeeTombstone> findChangesSince(long sinceXid, long sinceSeq, long visibleBelow, int limit);
+
+    // "<change_xid>.<change_seq>" of the newest tombstone removed by the retention of the archiver, if any
+    // (see EmployeeArchive.pruneTombstones)
+    @Query(value = "select cast(change_xid as text) || '.' || cast(change_seq as text) from employee_tombstones_pruned", nativeQuery = true)
+    Optional<String> findPrunedThrough();
+
+}
@@ -0,0 +1,10 @@
+package com.example.spring_boot_testing.service;
+
+import com.example.spring_boot_testing.dto.BatchOperationRequest;
+import com.example.spring_boot_testing.dto.BatchOperationResponse;
+
+public interface EmployeeBatchService {
+
+    BatchOperationResponse executeBatch(BatchOperationRequest request);
+
+}
@@ -0,0 +1,7 @@
+package com.example.spring_boot_testing.service;
+
+import com.example.spring_boot_testing.dto.EmployeeChangesResponse;
+
+public interface EmployeeChangeFeedService {
+    EmployeeChangesResponse getChangesSince(String sinceToken);
+}
@@ -1,15 +1,31 @@
 package com.example.spring_boot_testing.service;
 
+import com.example.spring_boot_testing.dto.EmployeeBatchResponse;
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateRequest;
+import com.example.spring_boot_testing.dto.EmployeeSearchCriteria;
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.deadline.RequestDeadline;
 import com.example.spring_boot_testing.model.Employee;
 
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
 
     Employee saveEmployee(Employee employee);
     List<Employee> getAllEmployees();
+    ReadResult<List<Employee>> readAllEmployees();
+    List<Employee> searchEmployees(EmployeeSearchCriteria criteria);
+    List<Map<String, Object>> getEmployeeFields(List<String> fields, EmployeeSearchCriteria criteria);
+    Map<String, Object> getEmployeeFieldsById(long id, List<String> fields);
+    long exportEmployees(RequestDeadline deadline, Consumer<Employee> action);
     Employee getEmployeeById(long id);
+    ReadResult<Employee> readEmployeeById(long id);
+    Employee findByEmail(String email);
+    EmployeeBatchResponse getEmployeesByIds(List<Long> ids);
     Employee updateEmployee(Employee updateEmployee);
+    int bulkUpdateEmployees(EmployeeBulkUpdateRequest request);
     void deleteEmployee(long id);
 
 }
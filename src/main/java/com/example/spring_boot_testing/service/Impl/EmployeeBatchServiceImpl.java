@@ -0,0 +1,272 @@
+package com.example.spring_boot_testing.service.Impl;
+
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.cache.LastKnownGoodEmployees;
+import com.example.spring_boot_testing.dto.BatchOperation;
+import com.example.spring_boot_testing.dto.BatchOperationRequest;
+import com.example.spring_boot_testing.dto.BatchOperationResponse;
+import com.example.spring_boot_testing.dto.BatchOperationResult;
+import com.example.spring_boot_testing.event.EmployeeChangedEvent;
+import com.example.spring_boot_testing.exception.InvalidRequestException;
+import com.example.spring_boot_testing.exception.ResourceNotFoundException;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeIndexInitializer;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.EmployeeBatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Executes many creates/updates/patches/deletes in one transaction.
+// 1. all referenced employees are loaded with one query, all emails are checked with one query
+// 2. every operation is validated in request order against that state (emails are compared with the
+//    state before the batch plus the emails claimed by earlier operations of the batch)
+// 3. the valid operations are written grouped by type, so Hibernate sends them as JDBC batches
+//    (hibernate.jdbc.batch_size / order_inserts / order_updates)
+@Service
+public class EmployeeBatchServiceImpl implements EmployeeBatchService {
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeCache employeeCache;
+    private final LastKnownGoodEmployees lastKnownGood;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxOperations;
+
+    @Autowired
+    public EmployeeBatchServiceImpl(EmployeeRepository employeeRepository, EmployeeCache employeeCache,
+                                    LastKnownGoodEmployees lastKnownGood, ApplicationEventPublisher eventPublisher,
+                                    @Value("${employees.batch.max-operations:10000}") int maxOperations){
+        this.employeeRepository = employeeRepository;
+        this.employeeCache = employeeCache;
+        this.lastKnownGood = lastKnownGood;
+        this.eventPublisher = eventPublisher;
+        this.maxOperations = maxOperations;
+    }
+
+    @Override
+    @Transactional
+    public BatchOperationResponse executeBatch(BatchOperationRequest request) {
+        List<BatchOperation> operations = request.getOperations();
+        if(operations == null || operations.isEmpty()){
+            throw new InvalidRequestException("A batch needs at least one operation");
+        }
+        if(operations.size() > maxOperations){
+            throw new InvalidRequestException("A batch can contain at most " + maxOperations + " operations");
+        }
+
+        Map<Long, Employee> employees = loadReferencedEmployees(operations);
+        Map<String, Long> emailOwners = loadEmailOwners(operations);
+
+        String[] errors = new String[operations.size()];
+        Set<Long> deletedIds = new HashSet<>();
+        boolean failed = false;
+        for (int index = 0; index < operations.size(); index++) {
+            errors[index] = validate(operations.get(index), employees, emailOwners, deletedIds);
+            failed |= errors[index] != null;
+        }
+        if(failed && request.getMode() != BatchOperationRequest.Mode.BEST_EFFORT){
+            return new BatchOperationResponse(false, results(operations, errors, BatchOperationResult.Status.SKIPPED));
+        }
+
+        List<Employee> created = new ArrayList<>();
+        List<BatchOperation> updates = new ArrayList<>();
+        List<Employee> deleted = new ArrayList<>();
+        List<Integer> createdIndexes = new ArrayList<>();
+        for (int index = 0; index < operations.size(); index++) {
+            if(errors[index] != null){
+                continue;
+            }
+            BatchOperation operation = operations.get(index);
+            switch (operation.getOp()) {
+                case CREATE -> {
+                    Employee employee = Employee.builder()
+                            .firstName(operation.getFirstName())
+                            .lastName(operation.getLastName())
+                            .email(operation.getEmail())
+                            .build();
+                    created.add(employee);
+                    createdIndexes.add(index);
+                }
+                case UPDATE, PATCH -> updates.add(operation);
+                case DELETE -> deleted.add(employees.get(operation.getId()));
+            }
+        }
+        // deletes are written first: an email they free can be taken by an update or create of the same batch
+        employeeRepository.deleteAll(deleted);
+        employeeRepository.flush();
+        Map<Long, Employee> changed = new LinkedHashMap<>();
+        List<Employee> saved;
+        try {
+            // emails given up by the updates applied so far: the unique email index checks every row as it is
+            // written, so an update taking one of them is only flushed after the update that released it
+            Set<String> releasedEmails = new HashSet<>();
+            for (BatchOperation operation : updates) {
+                if(deletedIds.contains(operation.getId())){
+                    continue;
+                }
+                // the loaded entities are managed, the changes are flushed as one batch of updates
+                Employee employee = employees.get(operation.getId());
+                String previousEmail = Employee.normalizeEmail(employee.getEmail());
+                if(operation.getEmail() != null && releasedEmails.contains(Employee.normalizeEmail(operation.getEmail()))){
+                    employeeRepository.flush();
+                }
+                apply(operation, employee);
+                if(!previousEmail.equals(Employee.normalizeEmail(employee.getEmail()))){
+                    releasedEmails.add(previousEmail);
+                }
+                changed.put(employee.getId(), employee);
+            }
+            // Hibernate writes inserts before updates within one flush, and a new employee may take a released email
+            if(!changed.isEmpty()){
+                employeeRepository.flush();
+            }
+            saved = employeeRepository.saveAll(created);
+            employeeRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if(!EmployeeIndexInitializer.isEmailConflict(e)){
+                throw e;
+            }
+            // validation saw the emails as free, a concurrent request took one of them meanwhile
+            throw new ResourceNotFoundException("Resource already exist with given email: an email of the batch was saved concurrently");
+        }
+
+        for (Employee employee : saved) {
+            eventPublisher.publishEvent(new EmployeeChangedEvent(employee.getId(), EmployeeChangedEvent.Type.CREATED, employee));
+        }
+        for (Employee employee : changed.values()) {
+            EmployeeCacheEvictions.evict(employeeCache, lastKnownGood, employee.getId());
+            eventPublisher.publishEvent(new EmployeeChangedEvent(employee.getId(), EmployeeChangedEvent.Type.UPDATED, employee));
+        }
+        for (Employee employee : deleted) {
+            EmployeeCacheEvictions.evict(employeeCache, lastKnownGood, employee.getId());
+            eventPublisher.publishEvent(new EmployeeChangedEvent(employee.getId(), EmployeeChangedEvent.Type.DELETED));
+        }
+
+        List<BatchOperationResult> results = results(operations, errors, BatchOperationResult.Status.OK);
+        for (int i = 0; i < createdIndexes.size(); i++) {
+            int index = createdIndexes.get(i);
+            results.set(index, new BatchOperationResult(index, BatchOperation.Type.CREATE, saved.get(i).getId(),
+                    BatchOperationResult.Status.OK, null));
+        }
+        return new BatchOperationResponse(true, results);
+    }
+
+    // returns null when the operation can be applied, otherwise the reason why not
+    private String validate(BatchOperation operation, Map<Long, Employee> employees, Map<String, Long> emailOwners,
+                            Set<Long> deletedIds) {
+        if(operation.getOp() == null){
+            return "op is required";
+        }
+        if(operation.getOp() != BatchOperation.Type.CREATE){
+            if(operation.getId() == null){
+                return "id is required";
+            }
+            if(!employees.containsKey(operation.getId()) || deletedIds.contains(operation.getId())){
+                return "Employee not found with id: " + operation.getId();
+            }
+        }
+        if(operation.getOp() == BatchOperation.Type.CREATE || operation.getOp() == BatchOperation.Type.UPDATE){
+            if(operation.getFirstName() == null || operation.getLastName() == null || operation.getEmail() == null){
+                return "firstName, lastName and email are required";
+            }
+        }
+        if(operation.getOp() == BatchOperation.Type.DELETE){
+            deletedIds.add(operation.getId());
+            // the deleted employee's email (or the one an earlier operation gave it) is free for later operations
+            emailOwners.values().removeIf(owner -> owner.equals(operation.getId()));
+            return null;
+        }
+        if(operation.getEmail() != null){
+            // emails are compared in their normalized form, like they are stored
+            String email = Employee.normalizeEmail(operation.getEmail());
+            Long owner = emailOwners.get(email);
+            if(owner != null && !owner.equals(operation.getId())){
+                return "Resource already exist with given email: " + operation.getEmail();
+            }
+            // claim the email so later operations of the batch can not take it as well; -1 marks a new employee
+            emailOwners.put(email, operation.getId() == null ? -1L : operation.getId());
+            Employee current = employees.get(operation.getId());
+            String currentEmail = current == null ? null : Employee.normalizeEmail(current.getEmail());
+            if(current != null && !email.equals(currentEmail)){
+                emailOwners.remove(currentEmail, current.getId());
+            }
+        }
+        return null;
+    }
+
+    private static void apply(BatchOperation operation, Employee employee) {
+        boolean patch = operation.getOp() == BatchOperation.Type.PATCH;
+        if(!patch || operation.getFirstName() != null){
+            employee.setFirstName(operation.getFirstName());
+        }
+        if(!patch || operation.getLastName() != null){
+            employee.setLastName(operation.getLastName());
+        }
+        if(!patch || operation.getEmail() != null){
+            employee.setEmail(operation.getEmail());
+        }
+    }
+
+    private Map<Long, Employee> loadReferencedEmployees(List<BatchOperation> operations) {
+        Set<Long> ids = new HashSet<>();
+        for (BatchOperation operation : operations) {
+            if(operation.getOp() != BatchOperation.Type.CREATE && operation.getId() != null){
+                ids.add(operation.getId());
+            }
+        }
+        Map<Long, Employee> employees = new HashMap<>();
+        for (List<Long> chunk : chunks(ids)) {
+            employeeRepository.findAllById(chunk).forEach(employee -> employees.put(employee.getId(), employee));
+        }
+        return employees;
+    }
+
+    private Map<String, Long> loadEmailOwners(List<BatchOperation> operations) {
+        Set<String> emails = new HashSet<>();
+        for (BatchOperation operation : operations) {
+            if(operation.getOp() != BatchOperation.Type.DELETE && operation.getEmail() != null){
+                emails.add(Employee.normalizeEmail(operation.getEmail()));
+            }
+        }
+        Map<String, Long> owners = new HashMap<>();
+        for (List<String> chunk : chunks(emails)) {
+            employeeRepository.findByNormalizedEmailIn(chunk)
+                    .forEach(employee -> owners.putIfAbsent(Employee.normalizeEmail(employee.getEmail()), employee.getId()));
+        }
+        return owners;
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> list = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += EmployeeServiceImpl.MAX_IDS_PER_QUERY) {
+            chunks.add(list.subList(from, Math.min(from + EmployeeServiceImpl.MAX_IDS_PER_QUERY, list.size())));
+        }
+        return chunks;
+    }
+
+    private static List<BatchOperationResult> results(List<BatchOperation> operations, String[] errors,
+                                                      BatchOperationResult.Status statusOfValidOperations) {
+        List<BatchOperationResult> results = new ArrayList<>(operations.size());
+        for (int index = 0; index < operations.size(); index++) {
+            BatchOperation operation = operations.get(index);
+            results.add(errors[index] == null
+                    ? new BatchOperationResult(index, operation.getOp(), operation.getId(), statusOfValidOperations, null)
+                    : new BatchOperationResult(index, operation.getOp(), operation.getId(), BatchOperationResult.Status.FAILED, errors[index]));
+        }
+        return results;
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.spring_boot_testing.service.Impl;
+
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.cache.LastKnownGoodEmployees;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Drops employees written by the current transaction from the local caches, shared by the single-employee
+// writes of EmployeeServiceImpl and by EmployeeBatchServiceImpl.
+final class EmployeeCacheEvictions {
+
+    private EmployeeCacheEvictions() {
+    }
+
+    // Evicted from the cache now and once more after commit: a read that ran in between still got the old row, and
+    // an entry it cached (with a stamp taken after the first eviction) must not outlive the transaction.
+    // The last known good copy is dropped, not replaced: the transaction may still roll back.
+    static void evict(EmployeeCache employeeCache, LastKnownGoodEmployees lastKnownGood, long id) {
+        employeeCache.evict(id);
+        afterCommit(() -> employeeCache.evict(id));
+        lastKnownGood.remove(id);
+    }
+
+    static void afterCommit(Runnable action) {
+        if(TransactionSynchronizationManager.isSynchronizationActive()){
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+}
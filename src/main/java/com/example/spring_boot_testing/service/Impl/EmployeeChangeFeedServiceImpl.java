@@ -0,0 +1,141 @@
+package com.example.spring_boot_testing.service.Impl;
+
+import com.example.spring_boot_testing.changes.EmployeeChangeHorizon;
+import com.example.spring_boot_testing.dto.EmployeeChangesResponse;
+import com.example.spring_boot_testing.exception.ChangeTokenExpiredException;
+import com.example.spring_boot_testing.exception.InvalidRequestException;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.model.EmployeeTombstone;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.repository.EmployeeTombstoneRepository;
+import com.example.spring_boot_testing.service.EmployeeChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Serves GET /api/employees/changes from the (change_xid, change_seq) indexes of employees and employee_tombstones.
+// Every write stamps its row with the id of the writing transaction (change_xid, set by a trigger, see
+// EmployeeChangeBackfill) and a change sequence number. Sequence numbers are taken when a write is flushed but
+// become visible when it commits, so a slow transaction can commit a number lower than one already returned;
+// instead the feed is ordered by transaction id and only returns rows of transactions older than the xmin of the
+// current snapshot, which have all finished (committed or rolled back). A transaction still running, or starting
+// later, always has an id at or above that xmin, so its rows sort after every token already handed out.
+// That xmin is cluster wide, so a long running transaction anywhere on the server holds the feed back; after
+// employees.changes.max-lag rows are returned anyway (see EmployeeChangeHorizon), and a write transaction running
+// longer than that can be missed by clients that have read past it. The snapshot is read once per call, so both
+// queries use the same horizon.
+// Tombstones older than employees.archive.tombstone-retention are removed by the archiver; a token from before the
+// newest removed one is answered with 410 Gone, the client then syncs again from the beginning (no token).
+// The token is "<change_xid>.<change_seq>" of the last change the client has seen.
+@Service
+public class EmployeeChangeFeedServiceImpl implements EmployeeChangeFeedService {
+
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeTombstoneRepository tombstoneRepository;
+    private final Clock clock;
+    private final int pageSize;
+    private final EmployeeChangeHorizon horizon;
+
+    @Autowired
+    public EmployeeChangeFeedServiceImpl(EmployeeRepository employeeRepository, EmployeeTombstoneRepository tombstoneRepository, Clock clock,
+                                         @Value("${employees.changes.page-size:1000}") int pageSize,
+                                         @Value("${employees.changes.max-lag:5m}") Duration maxLag){
+        this.employeeRepository = employeeRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.clock = clock;
+        this.pageSize = pageSize;
+        this.horizon = new EmployeeChangeHorizon(maxLag);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeChangesResponse getChangesSince(String sinceToken) {
+        ChangeToken since = ChangeToken.parse(sinceToken);
+        // a client that has not seen any change yet holds no employee a removed tombstone could be about
+        if(since.compareTo(ChangeToken.START) > 0){
+            tombstoneRepository.findPrunedThrough().map(ChangeToken::parse).ifPresent(prunedThrough -> {
+                if(since.compareTo(prunedThrough) < 0){
+                    throw new ChangeTokenExpiredException("Change token expired, deletes after it are no longer known: " + sinceToken);
+                }
+            });
+        }
+        long visibleBelow = horizon.visibleBelow(employeeRepository.currentSnapshot(), clock.instant());
+        // one row more than a page tells whether there is a next page
+        List<Employee> employees = employeeRepository.findChangesSince(since.xid(), since.seq(), visibleBelow, pageSize + 1);
+        List<EmployeeTombstone> tombstones = tombstoneRepository.findChangesSince(since.xid(), since.seq(), visibleBelow, pageSize + 1);
+
+        // merge both lists in (transaction id, change sequence) order
+        List<Employee> changed = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+        ChangeToken last = since;
+        int e = 0;
+        int t = 0;
+        while (changed.size() + deletedIds.size() < pageSize && (e < employees.size() || t < tombstones.size())) {
+            boolean nextIsEmployee = t == tombstones.size()
+                    || (e < employees.size() && ChangeToken.of(employees.get(e)).compareTo(ChangeToken.of(tombstones.get(t))) < 0);
+            if(nextIsEmployee){
+                Employee employee = employees.get(e++);
+                changed.add(employee);
+                last = ChangeToken.of(employee);
+            } else {
+                EmployeeTombstone tombstone = tombstones.get(t++);
+                deletedIds.add(tombstone.getEmployeeId());
+                last = ChangeToken.of(tombstone);
+            }
+        }
+        boolean hasMore = e < employees.size() || t < tombstones.size();
+        return new EmployeeChangesResponse(changed, deletedIds, last.toString(), hasMore);
+    }
+
+    private record ChangeToken(long xid, long seq) implements Comparable<ChangeToken> {
+
+        static final ChangeToken START = new ChangeToken(0, 0);
+
+        static ChangeToken of(Employee employee) {
+            return new ChangeToken(employee.getChangeXid(), employee.getChangeSeq());
+        }
+
+        static ChangeToken of(EmployeeTombstone tombstone) {
+            return new ChangeToken(tombstone.getChangeXid(), tombstone.getChangeSeq());
+        }
+
+        static ChangeToken parse(String token) {
+            if(token == null || token.isBlank()){
+                return START;
+            }
+            try {
+                String[] parts = token.trim().split("\\.", -1);
+                if(parts.length != 2){
+                    throw new InvalidRequestException("Invalid change token: " + token);
+                }
+                long xid = Long.parseLong(parts[0]);
+                long seq = Long.parseLong(parts[1]);
+                if(xid < 0 || seq < 0){
+                    throw new InvalidRequestException("Invalid change token: " + token);
+                }
+                return new ChangeToken(xid, seq);
+            } catch (NumberFormatException ex) {
+                throw new InvalidRequestException("Invalid change token: " + token);
+            }
+        }
+
+        @Override
+        public int compareTo(ChangeToken other) {
+            int byXid = Long.compare(xid, other.xid);
+            return byXid != 0 ? byXid : Long.compare(seq, other.seq);
+        }
+
+        @Override
+        public String toString() {
+            return xid + "." + seq;
+        }
+
+    }
+
+}
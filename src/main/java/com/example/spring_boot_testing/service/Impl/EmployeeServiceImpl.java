@@ -1,55 +1,468 @@
 package com.example.spring_boot_testing.service.Impl;
 
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.cache.EmployeeHotKeys;
+import com.example.spring_boot_testing.cache.LastKnownGoodEmployees;
+import com.example.spring_boot_testing.concurrency.CircuitBreaker;
+import com.example.spring_boot_testing.concurrency.SingleFlight;
+import com.example.spring_boot_testing.deadline.RequestDeadline;
+import com.example.spring_boot_testing.directory.CompactEmployeeDirectory;
+import com.example.spring_boot_testing.dto.EmployeeBatchResponse;
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateRequest;
+import com.example.spring_boot_testing.dto.EmployeeSearchCriteria;
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.event.EmployeeChangedEvent;
+import com.example.spring_boot_testing.event.EmployeesBulkUpdatedEvent;
+import com.example.spring_boot_testing.exception.DatabaseUnavailableException;
+import com.example.spring_boot_testing.exception.InvalidRequestException;
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
 import com.example.spring_boot_testing.exception.ResourceNotFoundException;
 import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeIndexInitializer;
 import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.repository.EmployeeSpecifications;
 import com.example.spring_boot_testing.service.EmployeeService;
+import com.example.spring_boot_testing.warmup.WarmupRequests;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
+// Transactions are kept as short as possible, open-in-view is disabled (spring.jpa.open-in-view=false), so a
+// connection is only borrowed while a method below talks to the database and never during JSON serialization.
+// Reads that are answered from the directory or the cache are not transactional and do not touch the pool;
+// single-query reads use the read-only transaction of the repository method.
+// getEmployeeById and getAllEmployees go through the database circuit breaker: while it is open (or a database
+// call fails) they are answered from the last known good copies, marked as stale, instead of waiting for timeouts.
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
+    // how long a caller waits for somebody else's in-flight lookup of the same key
+    private static final Duration SINGLE_FLIGHT_TIMEOUT = Duration.ofSeconds(5);
+    // largest IN-list sent in one query. Hibernate pads IN-lists to the next power of two
+    // (hibernate.query.in_clause_parameter_padding), so this keeps at most 11 distinct plans around
+    static final int MAX_IDS_PER_QUERY = 1024;
+    // ids accepted by one getEmployeesByIds call (GET ?ids= or POST /lookup), the same bound as a batch
+    static final int MAX_LOOKUP_IDS = 10_000;
+    // result size of a search without / with the largest accepted limit parameter
+    static final int DEFAULT_SEARCH_LIMIT = 100;
+    static final int MAX_SEARCH_LIMIT = 1000;
+    // sort keys accepted by searchEmployees, each one is backed by an index (see Employee), so a sorted and
+    // limited search is an index scan that stops after `limit` rows instead of a full scan plus sort
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "email", "lastName");
+    // attributes that can be requested with ?fields=
+    private static final Set<String> SELECTABLE_FIELDS = Set.of("id", "firstName", "lastName", "email");
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeCache employeeCache;
+    private final ApplicationEventPublisher eventPublisher;
+    // optional read model holding the whole table, only present when employees.directory.compact.enabled=true
+    private final ObjectProvider<CompactEmployeeDirectory> compactDirectory;
+    private final CircuitBreaker circuitBreaker;
+    private final LastKnownGoodEmployees lastKnownGood;
+    // access frequencies of ids and emails, they drive the admission of employeeCache
+    private final EmployeeHotKeys hotKeys;
+    // concurrent lookups of the same id / email share one database query; followers get their own copy of the entity
+    // an exceeded deadline of the leader is not the followers' failure: they load again under their own deadline
+    private final SingleFlight<Long, Optional<Employee>> findByIdFlight = new SingleFlight<>(SINGLE_FLIGHT_TIMEOUT,
+            employee -> employee.map(e -> e.toBuilder().build()), RequestDeadlineExceededException.class::isInstance);
+    private final SingleFlight<String, Optional<Employee>> findByEmailFlight = new SingleFlight<>(SINGLE_FLIGHT_TIMEOUT,
+            employee -> employee.map(e -> e.toBuilder().build()), RequestDeadlineExceededException.class::isInstance);
 
     @Autowired
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository){
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EmployeeCache employeeCache,
+                               ApplicationEventPublisher eventPublisher,
+                               ObjectProvider<CompactEmployeeDirectory> compactDirectory,
+                               CircuitBreaker circuitBreaker, LastKnownGoodEmployees lastKnownGood,
+                               EmployeeHotKeys hotKeys){
         this.employeeRepository = employeeRepository;
+        this.employeeCache = employeeCache;
+        this.eventPublisher = eventPublisher;
+        this.compactDirectory = compactDirectory;
+        this.circuitBreaker = circuitBreaker;
+        this.lastKnownGood = lastKnownGood;
+        this.hotKeys = hotKeys;
+        circuitBreaker.onClose(() -> lastKnownGood.revalidate(employeeRepository::findAllById,
+                employeeRepository::findAll, MAX_IDS_PER_QUERY));
     }
 
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> getEmployee = employeeRepository.findByEmail(employee.getEmail());
+        Optional<Employee> getEmployee = employeeRepository.findByNormalizedEmail(Employee.normalizeEmail(employee.getEmail()));
         if(getEmployee.isPresent()){
             throw new ResourceNotFoundException("Resource already exist with given email: " + employee.getEmail());
         }
-        return employeeRepository.save(employee);
+        Employee savedEmployee = saveWithUniqueEmail(employee);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(savedEmployee.getId(), EmployeeChangedEvent.Type.CREATED, savedEmployee));
+        return savedEmployee;
     }
 
     @Override
     public List<Employee> getAllEmployees() {
-        return employeeRepository.findAll();
+        return readAllEmployees().value();
+    }
+
+    @Override
+    public ReadResult<List<Employee>> readAllEmployees() {
+        CompactEmployeeDirectory directory = loadedCompactDirectory();
+        if(directory != null){
+            return ReadResult.fresh(directory.findAll());
+        }
+        Optional<ReadResult<List<Employee>>> revalidating = lastKnownGood.getAllRevalidating();
+        if(revalidating.isPresent()){
+            return revalidating.get();
+        }
+        try {
+            List<Employee> employees = callDatabase(employeeRepository::findAll, false);
+            lastKnownGood.putAll(employees);
+            return ReadResult.fresh(employees);
+        } catch (RuntimeException e) {
+            if(!isDatabaseFailure(e)){
+                throw e;
+            }
+            return lastKnownGood.getAllStale().orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public List<Employee> searchEmployees(EmployeeSearchCriteria criteria) {
+        int limit = searchLimit(criteria);
+        Specification<Employee> specification = searchSpecification(criteria);
+        Sort sort = parseSort(criteria.getSort());
+        return employeeRepository.findBy(specification, query -> query.sortBy(sort).limit(limit).all());
+    }
+
+    // Sparse fieldset of the list / search: only the requested columns are selected and serialized.
+    // Without search parameters every employee is returned, like getAllEmployees().
+    @Override
+    public List<Map<String, Object>> getEmployeeFields(List<String> fields, EmployeeSearchCriteria criteria) {
+        List<String> selectedFields = validateFields(fields);
+        if(criteria.isEmpty()){
+            return employeeRepository.findFields(selectedFields, null, Sort.by("id"), 0);
+        }
+        return employeeRepository.findFields(selectedFields, searchSpecification(criteria), parseSort(criteria.getSort()),
+                searchLimit(criteria));
+    }
+
+    // an employee that is already in memory (directory or cache) is projected there, otherwise only the
+    // requested columns are read from the database
+    @Override
+    public Map<String, Object> getEmployeeFieldsById(long id, List<String> fields) {
+        List<String> selectedFields = validateFields(fields);
+        CompactEmployeeDirectory directory = loadedCompactDirectory();
+        Optional<Employee> inMemory = directory != null ? directory.findById(id) : employeeCache.get(id);
+        if(inMemory.isPresent()){
+            return project(inMemory.get(), selectedFields);
+        }
+        if(directory != null){
+            return null;
+        }
+        List<Map<String, Object>> rows = employeeRepository.findFields(selectedFields, EmployeeSpecifications.hasId(id), Sort.unsorted(), 1);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // full-table reads go through the stateless scan instead of findAll(), only one row is on the heap at a time
+    @Override
+    public long exportEmployees(RequestDeadline deadline, Consumer<Employee> action) {
+        return employeeRepository.scanAll(deadline, action);
     }
 
     @Override
     public Employee getEmployeeById(long id) {
-        if(employeeRepository.findById(id).isPresent()){
-            return employeeRepository.findById(id).get();
+        return readEmployeeById(id).value();
+    }
+
+    @Override
+    public ReadResult<Employee> readEmployeeById(long id) {
+        // warm-up lookups (see WarmupRequests) would make the ids and emails it happens to use hot
+        if(!WarmupRequests.isCurrent()){
+            hotKeys.recordId(id);
+        }
+        CompactEmployeeDirectory directory = loadedCompactDirectory();
+        if(directory != null){
+            return ReadResult.fresh(directory.findById(id).orElse(null));
+        }
+        Optional<Employee> cached = employeeCache.get(id);
+        if(cached.isPresent()){
+            return ReadResult.fresh(cached.get());
+        }
+        Optional<ReadResult<Employee>> revalidating = lastKnownGood.getRevalidating(id);
+        if(revalidating.isPresent()){
+            return revalidating.get();
+        }
+        try {
+            // cached by the leader of the flight: the eviction stamp has to be taken before its read started
+            Employee employee = callDatabase(() -> joinFlight(findByIdFlight, id, () -> {
+                long evictionStamp = employeeCache.evictionStamp(id);
+                Optional<Employee> loaded = employeeRepository.findById(id);
+                loaded.ifPresent(found -> employeeCache.put(found, evictionStamp));
+                return loaded;
+            })).orElse(null);
+            if(employee != null){
+                lastKnownGood.put(employee);
+            } else {
+                lastKnownGood.remove(id);
+            }
+            return ReadResult.fresh(employee);
+        } catch (RuntimeException e) {
+            if(!isDatabaseFailure(e)){
+                throw e;
+            }
+            return lastKnownGood.getStale(id).orElseThrow(() -> e);
+        }
+    }
+
+    // case-insensitive: lookups of "A@x.com" and "a@x.com" are the same lookup
+    @Override
+    public Employee findByEmail(String email) {
+        String normalizedEmail = Employee.normalizeEmail(email);
+        if(normalizedEmail != null && !WarmupRequests.isCurrent()){
+            hotKeys.recordEmail(normalizedEmail);
+        }
+        return joinFlight(findByEmailFlight, normalizedEmail, () -> employeeRepository.findByNormalizedEmail(normalizedEmail)).orElse(null);
+    }
+
+    // a follower waits no longer than its own request deadline; running out of it while waiting is an exceeded
+    // deadline, not a database failure
+    private <K, V> V joinFlight(SingleFlight<K, V> flight, K key, Supplier<V> loader) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return flight.execute(key, loader);
+        }
+        try {
+            return flight.execute(key, Duration.ofNanos(Math.max(0, deadline.remainingNanos())), loader);
+        } catch (QueryTimeoutException e) {
+            if (!deadline.isExpired()) {
+                throw e;
+            }
+            RequestDeadline.markExceeded();
+            throw new RequestDeadlineExceededException("Request deadline exceeded waiting for the in-flight load of " + key, e);
+        }
+    }
+
+    // one read-only transaction for all chunks: one connection checkout and one consistent snapshot
+    @Override
+    @Transactional(readOnly = true)
+    public EmployeeBatchResponse getEmployeesByIds(List<Long> ids) {
+        if(ids == null || ids.stream().anyMatch(Objects::isNull)){
+            throw new InvalidRequestException("ids must not contain null");
         }
-        return null;
+        if(ids.size() > MAX_LOOKUP_IDS){
+            throw new InvalidRequestException("At most " + MAX_LOOKUP_IDS + " ids can be looked up at once");
+        }
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        Map<Long, Employee> found = new HashMap<>();
+        for (int from = 0; from < distinctIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, distinctIds.size()));
+            employeeRepository.findAllById(chunk).forEach(employee -> found.put(employee.getId(), employee));
+        }
+        List<Employee> employees = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            Employee employee = found.get(id);
+            if (employee != null) {
+                employees.add(employee);
+            } else {
+                missingIds.add(id);
+            }
+        }
+        return new EmployeeBatchResponse(employees, missingIds);
     }
 
     @Override
+    @Transactional
     public Employee updateEmployee(Employee updateEmployee) {
-        return employeeRepository.save(updateEmployee);
+        Employee updatedEmployee = saveWithUniqueEmail(updateEmployee);
+        EmployeeCacheEvictions.evict(employeeCache, lastKnownGood, updatedEmployee.getId());
+        eventPublisher.publishEvent(new EmployeeChangedEvent(updatedEmployee.getId(), EmployeeChangedEvent.Type.UPDATED, updatedEmployee));
+        return updatedEmployee;
     }
 
+    // Flushed right away, so a violation of the unique email index (a concurrent save of the same email that the
+    // lookup did not see yet) surfaces here as the duplicate email error instead of a failed commit.
+    private Employee saveWithUniqueEmail(Employee employee) {
+        try {
+            Employee savedEmployee = employeeRepository.save(employee);
+            employeeRepository.flush();
+            return savedEmployee;
+        } catch (DataIntegrityViolationException e) {
+            if(!EmployeeIndexInitializer.isEmailConflict(e)){
+                throw e;
+            }
+            throw new ResourceNotFoundException("Resource already exist with given email: " + employee.getEmail());
+        }
+    }
+
+    // One UPDATE statement for all employees matching the filter. Which ids changed is not known, so the
+    // whole local cache and the last known good copies are dropped and listeners are told that every employee
+    // may have changed. A new email domain that gives two live employees the same email fails the whole statement
+    // with the duplicate email error of a single save.
     @Override
+    @Transactional
+    public int bulkUpdateEmployees(EmployeeBulkUpdateRequest request) {
+        EmployeeSearchCriteria filter = request.getFilter();
+        EmployeeBulkUpdateRequest.Changes changes = request.getSet();
+        if(filter == null || (filter.getEmailDomain() == null && filter.getNamePrefix() == null
+                && filter.getMinId() == null && filter.getMaxId() == null)){
+            throw new InvalidRequestException("A bulk update needs a filter on emailDomain, namePrefix, minId or maxId");
+        }
+        if(filter.getSort() != null || filter.getLimit() != null){
+            throw new InvalidRequestException("sort and limit can not be used in a bulk update filter");
+        }
+        if(changes == null || (changes.getFirstName() == null && changes.getLastName() == null && changes.getEmailDomain() == null)){
+            throw new InvalidRequestException("A bulk update needs at least one of firstName, lastName or emailDomain to set");
+        }
+        if(changes.getEmailDomain() != null && (changes.getEmailDomain().isBlank() || changes.getEmailDomain().contains("@"))){
+            throw new InvalidRequestException("Invalid email domain: " + changes.getEmailDomain());
+        }
+        int updated;
+        try {
+            updated = employeeRepository.bulkUpdate(searchSpecification(filter),
+                    changes.getFirstName(), changes.getLastName(), changes.getEmailDomain());
+        } catch (DataIntegrityViolationException e) {
+            if(!EmployeeIndexInitializer.isEmailConflict(e)){
+                throw e;
+            }
+            throw new ResourceNotFoundException("Resource already exist with given email: "
+                    + EmployeeIndexInitializer.conflictingEmail(e).orElse("*@" + Employee.normalizeEmail(changes.getEmailDomain())));
+        }
+        employeeCache.clear();
+        lastKnownGood.clear();
+        EmployeeCacheEvictions.afterCommit(employeeCache::clear);
+        if(updated > 0){
+            eventPublisher.publishEvent(new EmployeesBulkUpdatedEvent(updated));
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
     public void deleteEmployee(long id) {
         employeeRepository.deleteById(id);
+        EmployeeCacheEvictions.evict(employeeCache, lastKnownGood, id);
+        eventPublisher.publishEvent(new EmployeeChangedEvent(id, EmployeeChangedEvent.Type.DELETED));
+    }
+
+    // Runs a database call through the circuit breaker. Only failures of the database itself count against the
+    // breaker (and are answered from the last known good copies), not e.g. invalid arguments.
+    private <T> T callDatabase(Supplier<T> call) {
+        return callDatabase(call, true);
+    }
+
+    // timed = false for calls whose duration grows with the table (the full list): a large table is not a sick
+    // database, so only their failures count against the breaker, not their latency
+    private <T> T callDatabase(Supplier<T> call, boolean timed) {
+        if(!circuitBreaker.tryAcquire()){
+            throw new DatabaseUnavailableException("Database circuit breaker is open");
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } catch (RuntimeException e) {
+            failed = isDatabaseFailure(e);
+            throw e;
+        } finally {
+            circuitBreaker.onComplete(timed ? System.nanoTime() - start : 0, failed);
+        }
+    }
+
+    // pool timeouts surface as CannotCreateTransactionException, lost connections and query timeouts as
+    // DataAccessResourceFailureException / TransientDataAccessException
+    private static boolean isDatabaseFailure(RuntimeException e) {
+        return e instanceof DatabaseUnavailableException
+                || e instanceof TransientDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof TransactionException;
+    }
+
+    private static Specification<Employee> searchSpecification(EmployeeSearchCriteria criteria) {
+        return Specification.allOf(
+                EmployeeSpecifications.emailDomain(criteria.getEmailDomain()),
+                EmployeeSpecifications.namePrefix(criteria.getNamePrefix()),
+                EmployeeSpecifications.idAtLeast(criteria.getMinId()),
+                EmployeeSpecifications.idAtMost(criteria.getMaxId()));
+    }
+
+    private static int searchLimit(EmployeeSearchCriteria criteria) {
+        int limit = criteria.getLimit() == null ? DEFAULT_SEARCH_LIMIT : criteria.getLimit();
+        if(limit < 1 || limit > MAX_SEARCH_LIMIT){
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SEARCH_LIMIT);
+        }
+        return limit;
+    }
+
+    // distinct requested fields in request order
+    private static List<String> validateFields(List<String> fields) {
+        List<String> selectedFields = new ArrayList<>(new LinkedHashSet<>(fields));
+        selectedFields.removeIf(String::isBlank);
+        if(selectedFields.isEmpty() || !SELECTABLE_FIELDS.containsAll(selectedFields)){
+            throw new InvalidRequestException("fields must be a comma separated list of " + SELECTABLE_FIELDS);
+        }
+        return selectedFields;
+    }
+
+    private static Map<String, Object> project(Employee employee, List<String> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (String field : fields) {
+            switch (field) {
+                case "id" -> row.put(field, employee.getId());
+                case "firstName" -> row.put(field, employee.getFirstName());
+                case "lastName" -> row.put(field, employee.getLastName());
+                case "email" -> row.put(field, employee.getEmail());
+                default -> throw new IllegalArgumentException(field);
+            }
+        }
+        return row;
+    }
+
+    // "<property>[,asc|desc]", always followed by id so pages are stable
+    private static Sort parseSort(String sort) {
+        if(sort == null || sort.isBlank()){
+            return Sort.by("id");
+        }
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if(!SORTABLE_PROPERTIES.contains(property) || parts.length > 2){
+            throw new InvalidRequestException("sort must be one of " + SORTABLE_PROPERTIES + " optionally followed by ,asc or ,desc");
+        }
+        Sort.Direction direction = parts.length == 2
+                ? Sort.Direction.fromOptionalString(parts[1].trim())
+                        .orElseThrow(() -> new InvalidRequestException("sort direction must be asc or desc"))
+                : Sort.Direction.ASC;
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by(direction, "id"));
+    }
+
+    private CompactEmployeeDirectory loadedCompactDirectory() {
+        CompactEmployeeDirectory directory = compactDirectory.getIfAvailable();
+        return directory != null && directory.isLoaded() ? directory : null;
     }
 
 }
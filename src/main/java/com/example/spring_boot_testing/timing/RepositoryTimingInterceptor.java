@@ -0,0 +1,24 @@
+package com.example.spring_boot_testing.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+// Added in front of every Spring Data repository proxy (outside the transaction interceptor, so transaction
+// begin and commit are part of the repository time).
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RequestTimings timings = RequestTimings.current();
+        if (timings == null) {
+            return invocation.proceed();
+        }
+        timings.repositoryEntered();
+        try {
+            return invocation.proceed();
+        } finally {
+            timings.repositoryExited();
+        }
+    }
+
+}
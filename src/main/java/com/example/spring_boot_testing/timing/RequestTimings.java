@@ -0,0 +1,111 @@
+package com.example.spring_boot_testing.timing;
+
+import java.util.Locale;
+
+// Time spent by one request in each phase, collected on the request thread:
+//   pool  - waiting for a JDBC connection (Hibernate connection acquisition, includes the Hikari wait)
+//   db    - preparing and executing SQL statements, until the driver has the result
+//   orm   - the rest of the time inside repository calls: hydration, flush and dirty checking, transaction handling
+//   app   - everything else before the response body is written: MVC, controller and service code
+//   ser   - writing the response body (Jackson)
+//   total - the whole request as seen by ServerTimingFilter
+// ServerTimingFilter binds an instance to the thread; the recording methods are called through current(), which
+// returns null outside of a timed request, so the hooks cost a ThreadLocal read when nothing is measured.
+public final class RequestTimings {
+
+    public enum Phase {
+        POOL, DB, ORM, APP, SER, TOTAL
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long start = System.nanoTime();
+    private long poolNanos;
+    private long dbNanos;
+    private long repositoryNanos;
+    private long poolStart;
+    private long dbStart;
+    private long repositoryStart;
+    private int repositoryDepth;
+    private long serializationStart = -1;
+
+    private RequestTimings() {
+    }
+
+    static RequestTimings bind() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void unbind() {
+        CURRENT.remove();
+    }
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    void connectionAcquisitionStarted() {
+        poolStart = System.nanoTime();
+    }
+
+    void connectionAcquisitionEnded() {
+        poolNanos += System.nanoTime() - poolStart;
+    }
+
+    void statementStarted() {
+        dbStart = System.nanoTime();
+    }
+
+    void statementEnded() {
+        dbNanos += System.nanoTime() - dbStart;
+    }
+
+    // repository methods may call each other (fragments, default methods), only the outermost call is timed
+    void repositoryEntered() {
+        if (repositoryDepth++ == 0) {
+            repositoryStart = System.nanoTime();
+        }
+    }
+
+    void repositoryExited() {
+        if (--repositoryDepth == 0) {
+            repositoryNanos += System.nanoTime() - repositoryStart;
+        }
+    }
+
+    void serializationStarted() {
+        if (serializationStart < 0) {
+            serializationStart = System.nanoTime();
+        }
+    }
+
+    // durations in nanoseconds, indexed by Phase ordinal
+    long[] finish() {
+        long end = System.nanoTime();
+        long bodyStart = serializationStart < 0 ? end : serializationStart;
+        long[] nanos = new long[Phase.values().length];
+        nanos[Phase.POOL.ordinal()] = poolNanos;
+        nanos[Phase.DB.ordinal()] = dbNanos;
+        nanos[Phase.ORM.ordinal()] = Math.max(0, repositoryNanos - poolNanos - dbNanos);
+        nanos[Phase.APP.ordinal()] = Math.max(0, bodyStart - start - Math.max(repositoryNanos, poolNanos + dbNanos));
+        nanos[Phase.SER.ordinal()] = end - bodyStart;
+        nanos[Phase.TOTAL.ordinal()] = end - start;
+        return nanos;
+    }
+
+    // e.g. "pool;dur=0.02, db;dur=1.31, orm;dur=0.20, app;dur=0.45, ser;dur=0.12, total;dur=2.10"
+    static String toServerTiming(long[] nanos) {
+        StringBuilder header = new StringBuilder(96);
+        for (Phase phase : Phase.values()) {
+            if (header.length() > 0) {
+                header.append(", ");
+            }
+            header.append(phase.name().toLowerCase(Locale.ROOT)).append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.2f", nanos[phase.ordinal()] / 1_000_000.0));
+        }
+        return header.toString();
+    }
+
+}
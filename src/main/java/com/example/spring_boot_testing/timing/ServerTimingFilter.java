@@ -0,0 +1,88 @@
+package com.example.spring_boot_testing.timing;
+
+import com.example.spring_boot_testing.warmup.WarmupRequests;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Times the phases of every request (see RequestTimings) and records them in the employees.request.phase
+// histograms, tagged with phase and endpoint (method + route pattern, so the number of series stays bounded).
+// Warm-up requests (see WarmupRequests) are timed for the header but kept out of the histograms.
+// With the Server-Timing header enabled the response body is buffered, because ser can only be measured after
+// the body has been written but the header has to be sent before it. Async responses (the streamed export and
+// directory) write their body after this filter has returned; they stop being buffered once the request goes
+// async (see ServerTimingResponseWrapper) and get no header.
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+    static final String METRIC = "employees.request.phase";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean headerEnabled;
+    private final ConcurrentMap<String, Timer[]> timersByEndpoint = new ConcurrentHashMap<>();
+
+    public ServerTimingFilter(MeterRegistry meterRegistry, boolean headerEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.headerEnabled = headerEnabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTimingResponseWrapper bufferedResponse = headerEnabled ? new ServerTimingResponseWrapper(request, response) : null;
+        RequestTimings timings = RequestTimings.bind();
+        try {
+            filterChain.doFilter(request, bufferedResponse != null ? bufferedResponse : response);
+        } finally {
+            RequestTimings.unbind();
+            // async requests continue on another thread, their phases are not known here
+            if (!request.isAsyncStarted()) {
+                long[] nanos = timings.finish();
+                record(request, nanos);
+                if (bufferedResponse != null) {
+                    bufferedResponse.setHeader(HEADER, RequestTimings.toServerTiming(nanos));
+                    bufferedResponse.copyBodyToResponse();
+                }
+            } else if (bufferedResponse != null) {
+                bufferedResponse.streaming();
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, long[] nanos) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null || WarmupRequests.isWarmup(request)) {
+            // not handled by a controller (e.g. rejected by the concurrency limit), or warm-up traffic
+            return;
+        }
+        Timer[] timers = timersByEndpoint.computeIfAbsent(request.getMethod() + " " + pattern, this::timers);
+        for (int phase = 0; phase < timers.length; phase++) {
+            timers[phase].record(nanos[phase], TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer[] timers(String endpoint) {
+        RequestTimings.Phase[] phases = RequestTimings.Phase.values();
+        Timer[] timers = new Timer[phases.length];
+        for (RequestTimings.Phase phase : phases) {
+            timers[phase.ordinal()] = Timer.builder(METRIC)
+                    .tag("endpoint", endpoint)
+                    .tag("phase", phase.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
+
+}
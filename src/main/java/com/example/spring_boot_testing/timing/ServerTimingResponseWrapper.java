@@ -0,0 +1,123 @@
+package com.example.spring_boot_testing.timing;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+// Buffers the body until ServerTimingFilter has set the Server-Timing header, unless the request goes async
+// (StreamingResponseBody, DeferredResult, ...): from then on the body is written on another thread after the filter
+// has returned, so whatever was buffered is copied to the response and everything else is written straight through.
+// The switch is made on the first write that sees the request in async mode, or by the filter, whichever comes first.
+class ServerTimingResponseWrapper extends ContentCachingResponseWrapper {
+
+    private final HttpServletRequest request;
+    private volatile boolean streaming;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    ServerTimingResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+        super(response);
+        this.request = request;
+    }
+
+    // true once the body is written straight through to the response
+    boolean streaming() throws IOException {
+        if (!streaming && request.isAsyncStarted()) {
+            synchronized (this) {
+                if (!streaming) {
+                    copyBodyToResponse(false);
+                    streaming = true;
+                }
+            }
+        }
+        return streaming;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new SwitchingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            // flushed on every write, so nothing is left in the encoder when the buffer is copied
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding())) {
+                @Override
+                public void write(char[] buf, int off, int len) {
+                    super.write(buf, off, len);
+                    super.flush();
+                }
+
+                @Override
+                public void write(String s, int off, int len) {
+                    super.write(s, off, len);
+                    super.flush();
+                }
+
+                @Override
+                public void write(int c) {
+                    super.write(c);
+                    super.flush();
+                }
+            };
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (streaming()) {
+            getResponse().flushBuffer();
+        }
+    }
+
+    private class SwitchingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream buffer;
+
+        SwitchingOutputStream(ServletOutputStream buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            target().write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            target().write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            target().flush();
+        }
+
+        @Override
+        public boolean isReady() {
+            return buffer.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            buffer.setWriteListener(writeListener);
+        }
+
+        private ServletOutputStream target() throws IOException {
+            return streaming() ? getResponse().getOutputStream() : buffer;
+        }
+
+    }
+
+}
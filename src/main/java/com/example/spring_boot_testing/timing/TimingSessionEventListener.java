@@ -0,0 +1,69 @@
+package com.example.spring_boot_testing.timing;
+
+import org.hibernate.SessionEventListener;
+
+// Registered through hibernate.session.events.auto, Hibernate creates one per session. Adds connection
+// acquisition and statement execution of the session to the RequestTimings of the current thread.
+public class TimingSessionEventListener implements SessionEventListener {
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.connectionAcquisitionStarted();
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.connectionAcquisitionEnded();
+        }
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        statementStarted();
+    }
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        statementEnded();
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStarted();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statementEnded();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStarted();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statementEnded();
+    }
+
+    private static void statementStarted() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementStarted();
+        }
+    }
+
+    private static void statementEnded() {
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.statementEnded();
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.example.spring_boot_testing.warmup;
+
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.config.EmployeeWarmupProperties;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.repository.EmployeeSpecifications;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// Warms the application up before it reports ready. Runners run before ApplicationReadyEvent, and the readiness
+// state only becomes ACCEPTING_TRAFFIC after that event, so /actuator/health/readiness stays OUT_OF_SERVICE until
+// the warm-up is done. The phases, in order:
+// 1. open minimumIdle connections at once, instead of letting Hikari add them one by one under the first requests
+// 2. run every EmployeeRepository query with arguments that match nothing: Hibernate parses and caches the query
+//    plans, pgjdbc prepares the statements on the server
+// 3. send read-only requests over loopback HTTP, so Tomcat, the filters, Spring MVC and Jackson are loaded and
+//    JIT-compiled on the paths real traffic takes
+// 4. optionally put the most recently changed employees into the EmployeeCache
+// Nothing is written. A failing phase is logged and skipped, the warm-up never keeps the application from starting.
+// None of it is measured as traffic (see WarmupRequests): the requests carry the warm-up token, and the phases run
+// with the warm-up thread marked.
+public class EmployeeWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeWarmup.class);
+
+    private static final String NO_EMAIL = "warmup@warmup.invalid";
+    private static final String NO_NAME = "warmup";
+
+    private final DataSource dataSource;
+    private final EmployeeRepository employeeRepository;
+    private final EmployeeCache employeeCache;
+    private final Environment environment;
+    private final EmployeeWarmupProperties properties;
+
+    public EmployeeWarmup(DataSource dataSource, EmployeeRepository employeeRepository, EmployeeCache employeeCache,
+                          Environment environment, EmployeeWarmupProperties properties) {
+        this.dataSource = dataSource;
+        this.employeeRepository = employeeRepository;
+        this.employeeCache = employeeCache;
+        this.environment = environment;
+        this.properties = properties;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDuration().toNanos();
+        WarmupRequests.bind();
+        try {
+            phase("connection pool", () -> log.info("Opened {} connections", fillConnectionPool()));
+            phase("repository queries", this::prepareQueries);
+            phase("HTTP reads", () -> log.info("Sent {} requests", sendRequests(deadline)));
+            if (properties.getPreloadSize() > 0) {
+                phase("cache preload", () -> log.info("Cached {} employees", preloadCache()));
+            }
+        } finally {
+            WarmupRequests.unbind();
+        }
+        log.info("Warm-up finished in {} ms", Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    private int fillConnectionPool() throws SQLException {
+        int connectionCount = 1;
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            connectionCount = Math.max(1, dataSource.unwrap(HikariDataSource.class).getMinimumIdle());
+        }
+        // hold them all at the same time, otherwise the pool hands out the same connection again
+        List<Connection> connections = new ArrayList<>(connectionCount);
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+        return connections.size();
+    }
+
+    private void prepareQueries() {
+        for (int round = 0; round < properties.getQueryRounds(); round++) {
+            employeeRepository.findById(-1L);
+            employeeRepository.findAllById(List.of(-1L, -2L));
+            employeeRepository.findByEmail(NO_EMAIL);
+            employeeRepository.findByEmailIn(List.of(NO_EMAIL));
+            employeeRepository.findByNormalizedEmail(NO_EMAIL);
+            employeeRepository.findByNormalizedEmailIn(List.of(NO_EMAIL));
+            employeeRepository.findChangesSince(Long.MAX_VALUE, Long.MAX_VALUE, 0, 1);
+            employeeRepository.findByOrderByChangeXidDescChangeSeqDesc(Limit.of(1));
+            employeeRepository.findByJPQLIndexParams(NO_NAME, NO_NAME);
+            employeeRepository.findByJPQLNamedParams(NO_NAME, NO_NAME);
+            employeeRepository.findByNativeSQLIndexParams(NO_NAME, NO_NAME);
+            employeeRepository.findByNativeSQLNamedParams(NO_NAME, NO_NAME);
+            employeeRepository.findBy(EmployeeSpecifications.hasId(-1L), query -> query.sortBy(Sort.by("id")).limit(1).all());
+            employeeRepository.findFields(List.of("id", "email"), EmployeeSpecifications.hasId(-1L), Sort.by("id"), 1);
+        }
+    }
+
+    private int sendRequests(long deadline) throws IOException, InterruptedException {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            log.info("No web server, skipping");
+            return 0;
+        }
+        // an existing id makes the by-id requests go through the found path and the JSON serialization
+        long id = employeeRepository.findByOrderByChangeXidDescChangeSeqDesc(Limit.of(1)).stream().findFirst()
+                .map(Employee::getId).orElse(-1L);
+        String base = "http://localhost:" + port + "/api/employees";
+        List<URI> uris = List.of(
+                URI.create(base + "/" + id),
+                URI.create(base + "/" + id + "?fields=id,email"),
+                URI.create(base + "?ids=" + id + ",-1"),
+                URI.create(base + "?sort=lastName&limit=10"),
+                URI.create(base + "?emailDomain=warmup.invalid&limit=1"),
+                URI.create(base + "?fields=id,lastName&limit=10"),
+                URI.create(base + "/changes?since=" + Long.MAX_VALUE + "." + Long.MAX_VALUE),
+                URI.create(base + "/-1"));
+        HttpClient client = HttpClient.newHttpClient();
+        int sent = 0;
+        for (int round = 0; round < properties.getRequestRounds() && System.nanoTime() < deadline; round++) {
+            for (URI uri : uris) {
+                client.send(HttpRequest.newBuilder(uri).header(WarmupRequests.HEADER, WarmupRequests.token()).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    // there are no access statistics, recently changed employees are the best guess for the ones read next
+    private int preloadCache() {
+        List<Employee> employees = employeeRepository.findByOrderByChangeXidDescChangeSeqDesc(Limit.of(properties.getPreloadSize()));
+        employees.forEach(employeeCache::put);
+        return employees.size();
+    }
+
+    private static void phase(String name, Phase phase) {
+        long start = System.nanoTime();
+        try {
+            phase.run();
+            log.info("Warm-up phase '{}' took {} ms", name, Duration.ofNanos(System.nanoTime() - start).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Warm-up phase '{}' interrupted", name);
+        } catch (Exception e) {
+            log.warn("Warm-up phase '{}' failed, skipping it", name, e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Phase {
+
+        void run() throws Exception;
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.spring_boot_testing.warmup;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+
+// Tells the work done by EmployeeWarmup apart from real traffic, so it is not measured as such: the concurrency
+// limiter, the Server-Timing histograms, the JFR events and the hot keys skip it. Covers the warm-up thread itself
+// (repository queries, cache preload) and the loopback requests, which carry a token only this process knows, so
+// a client cannot have its requests skipped.
+public final class WarmupRequests {
+
+    public static final String HEADER = "X-Warmup-Token";
+
+    private static final String TOKEN = UUID.randomUUID().toString();
+    private static final ThreadLocal<Boolean> WARMUP_THREAD = new ThreadLocal<>();
+
+    private WarmupRequests() {
+    }
+
+    // the header value of warm-up requests; in-process only, it is never logged or returned
+    public static String token() {
+        return TOKEN;
+    }
+
+    static void bind() {
+        WARMUP_THREAD.set(Boolean.TRUE);
+    }
+
+    static void unbind() {
+        WARMUP_THREAD.remove();
+    }
+
+    public static boolean isWarmup(HttpServletRequest request) {
+        String token = request.getHeader(HEADER);
+        return token != null && MessageDigest.isEqual(TOKEN.getBytes(StandardCharsets.US_ASCII), token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // true on the warm-up thread and while a warm-up request is handled on the current thread
+    public static boolean isCurrent() {
+        if (WARMUP_THREAD.get() != null) {
+            return true;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes && isWarmup(servletAttributes.getRequest());
+    }
+
+}
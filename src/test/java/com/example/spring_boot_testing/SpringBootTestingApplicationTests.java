@@ -3,7 +3,7 @@ package com.example.spring_boot_testing;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "employees.id.worker-id=0")
 class SpringBootTestingApplicationTests {
 
 	@Test
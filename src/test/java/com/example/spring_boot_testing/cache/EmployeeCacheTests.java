@@ -0,0 +1,193 @@
+package com.example.spring_boot_testing.cache;
+
+import com.example.spring_boot_testing.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongToIntFunction;
+
+public class EmployeeCacheTests {
+
+    private AtomicLong now;
+    private EmployeeCache employeeCache;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        now = new AtomicLong();
+        employeeCache = new EmployeeCache(2, Duration.ofSeconds(10), now::get);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+    }
+
+    // JUnit test for returning copies of cached employees
+    @Test
+    @DisplayName("JUnit test for returning copies of cached employees")
+    public void givenCachedEmployee_whenCallerModifiesIt_thenCacheIsUnchanged() {
+
+        // given - precondition or setup
+        employeeCache.put(employee);
+
+        // when - action or the behavior that we are going test
+        employeeCache.get(1L).orElseThrow().setEmail("changed@gmail.com");
+        employee.setFirstName("Hossein");
+
+        // then - verify the output
+        Employee cachedEmployee = employeeCache.get(1L).orElseThrow();
+        Assertions.assertThat(cachedEmployee.getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+        Assertions.assertThat(cachedEmployee.getFirstName()).isEqualTo("Mohammad");
+
+    }
+
+    // JUnit test for expiring entries after the TTL
+    @Test
+    @DisplayName("JUnit test for expiring entries after the TTL")
+    public void givenExpiredEntry_whenGet_thenReturnEmpty() {
+
+        // given - precondition or setup
+        employeeCache.put(employee);
+
+        // when - action or the behavior that we are going test
+        now.addAndGet(Duration.ofSeconds(11).toNanos());
+
+        // then - verify the output
+        Assertions.assertThat(employeeCache.get(1L)).isEmpty();
+        Assertions.assertThat(employeeCache.size()).isZero();
+
+    }
+
+    // JUnit test for not caching a row that was evicted while it was read
+    @Test
+    @DisplayName("JUnit test for not caching a row that was evicted while it was read")
+    public void givenEvictionDuringRead_whenPutWithStamp_thenNotCached() {
+
+        // given - precondition or setup
+        long stamp = employeeCache.evictionStamp(1L);
+        long otherStamp = employeeCache.evictionStamp(2L);
+        employeeCache.evict(1L);
+        Employee other = employee.toBuilder().id(2L).build();
+
+        // when - action or the behavior that we are going test
+        employeeCache.put(employee, stamp);
+        employeeCache.put(other, otherStamp);
+        long staleAfterClear = employeeCache.evictionStamp(1L);
+        employeeCache.clear();
+        employeeCache.put(employee, staleAfterClear);
+
+        // then - verify the output
+        Assertions.assertThat(employeeCache.get(1L)).isEmpty();
+        Assertions.assertThat(employeeCache.size()).isZero();
+        employeeCache.put(other, employeeCache.evictionStamp(2L));
+        Assertions.assertThat(employeeCache.get(2L)).isPresent();
+
+    }
+
+    // JUnit test for the size bound
+    @Test
+    @DisplayName("JUnit test for the size bound")
+    public void givenFullCache_whenPut_thenStayWithinMaxSize() {
+
+        // given - precondition or setup
+        employeeCache.put(employee);
+        employeeCache.put(employee.toBuilder().id(2L).build());
+
+        // when - action or the behavior that we are going test
+        employeeCache.put(employee.toBuilder().id(3L).build());
+
+        // then - verify the output
+        Assertions.assertThat(employeeCache.size()).isEqualTo(2);
+        Assertions.assertThat(employeeCache.get(3L)).isPresent();
+
+    }
+
+    // JUnit test for the frequency based admission of a full cache
+    @Test
+    @DisplayName("JUnit test for the frequency based admission of a full cache")
+    public void givenFullCacheWithHotEmployees_whenPutScannedEmployees_thenKeepHotEmployees() {
+
+        // given - precondition or setup
+        EmployeeHotKeys hotKeys = new EmployeeHotKeys(100, 10);
+        EmployeeCache admittingCache = new EmployeeCache(2, Duration.ofSeconds(10), hotKeys::idFrequency, now::get);
+        for (long id = 1; id <= 2; id++) {
+            hotKeys.recordId(id);
+            hotKeys.recordId(id);
+            admittingCache.put(employee.toBuilder().id(id).build());
+        }
+
+        // when - action or the behavior that we are going test
+        for (long id = 3; id <= 50; id++) {
+            hotKeys.recordId(id);
+            admittingCache.put(employee.toBuilder().id(id).build());
+        }
+        for (int i = 0; i < 3; i++) {
+            hotKeys.recordId(7L);
+        }
+        admittingCache.put(employee.toBuilder().id(7L).build());
+
+        // then - verify the output
+        Assertions.assertThat(admittingCache.size()).isEqualTo(2);
+        Assertions.assertThat(admittingCache.admissionRejections()).isEqualTo(48);
+        Assertions.assertThat(admittingCache.get(7L)).isPresent();
+        Assertions.assertThat(admittingCache.get(1L).isPresent() ^ admittingCache.get(2L).isPresent()).isTrue();
+
+    }
+
+    // JUnit test for sampling eviction candidates from the whole cache
+    @Test
+    @DisplayName("JUnit test for sampling eviction candidates from the whole cache")
+    public void givenHotEmployeesInFirstBuckets_whenPutWarmEmployees_thenEvictColdEmployees() {
+
+        // given - precondition or setup
+        // ids 1-32 hash to the first buckets of the map and are hot, 33-64 are cold, the candidates are warm
+        LongToIntFunction frequency = id -> id <= 32 ? 10 : id <= 64 ? 0 : 5;
+        EmployeeCache admittingCache = new EmployeeCache(64, Duration.ofSeconds(10), frequency, now::get);
+        for (long id = 1; id <= 64; id++) {
+            admittingCache.put(employee.toBuilder().id(id).build());
+        }
+
+        // when - action or the behavior that we are going test
+        for (int i = 0; i < 10_000; i++) {
+            admittingCache.put(employee.toBuilder().id(1000L + i % 32).build());
+        }
+
+        // then - verify the output
+        Assertions.assertThat(admittingCache.size()).isEqualTo(64);
+        for (long id = 1; id <= 32; id++) {
+            Assertions.assertThat(admittingCache.get(id)).isPresent();
+            Assertions.assertThat(admittingCache.get(id + 32)).isEmpty();
+            Assertions.assertThat(admittingCache.get(id + 999)).isPresent();
+        }
+
+    }
+
+    // JUnit test for applying invalidation notifications
+    @Test
+    @DisplayName("JUnit test for applying invalidation notifications")
+    public void givenNotifications_whenHandle_thenEvictOrFlush() {
+
+        // given - precondition or setup
+        EmployeeInvalidationListener listener = new EmployeeInvalidationListener(employeeCache, event -> { }, "jdbc:postgresql://unused", "", "",
+                Duration.ofMillis(100), Duration.ofMillis(100));
+        employeeCache.put(employee);
+        employeeCache.put(employee.toBuilder().id(2L).build());
+
+        // when - action or the behavior that we are going test
+        listener.handle("1");
+
+        // then - verify the output
+        Assertions.assertThat(employeeCache.get(1L)).isEmpty();
+        Assertions.assertThat(employeeCache.get(2L)).isPresent();
+        listener.handle(EmployeeInvalidationListener.FLUSH_ALL);
+        Assertions.assertThat(employeeCache.size()).isZero();
+
+    }
+
+}
@@ -0,0 +1,61 @@
+package com.example.spring_boot_testing.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class FrequencySketchTests {
+
+    // JUnit test for estimating frequencies without undercounting
+    @Test
+    @DisplayName("JUnit test for estimating frequencies without undercounting")
+    public void givenSkewedAccesses_whenFrequency_thenEstimatesAtLeastActualCounts() {
+
+        // given - precondition or setup
+        FrequencySketch sketch = new FrequencySketch(1_000);
+
+        // when - action or the behavior that we are going test
+        for (int key = 0; key < 1_000; key++) {
+            for (int i = 0; i <= key % 5; i++) {
+                sketch.increment(Long.hashCode(key));
+            }
+        }
+
+        // then - verify the output
+        int exact = 0;
+        for (int key = 0; key < 1_000; key++) {
+            int frequency = sketch.frequency(Long.hashCode(key));
+            Assertions.assertThat(frequency).isGreaterThanOrEqualTo(key % 5 + 1);
+            if (frequency == key % 5 + 1) {
+                exact++;
+            }
+        }
+        Assertions.assertThat(exact).isGreaterThan(900);
+        Assertions.assertThat(sketch.frequency(Long.hashCode(1_000_000))).isLessThanOrEqualTo(1);
+
+    }
+
+    // JUnit test for halving all counters once the sample is full
+    @Test
+    @DisplayName("JUnit test for halving all counters once the sample is full")
+    public void givenFullSample_whenIncrement_thenFrequenciesAreHalved() {
+
+        // given - precondition or setup
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 40; i++) {
+            sketch.increment("hot".hashCode());
+        }
+
+        // when - action or the behavior that we are going test
+        // 10 increments per column fill the sample
+        for (int i = 40; i < 10 * sketch.width(); i++) {
+            sketch.increment(Integer.toString(i).hashCode());
+        }
+
+        // then - verify the output
+        Assertions.assertThat(sketch.ages()).isEqualTo(1);
+        Assertions.assertThat(sketch.frequency("hot".hashCode())).isBetween(20, 21);
+
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.example.spring_boot_testing.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class HotKeysTests {
+
+    // JUnit test for listing the most frequent keys among a scan of one-off keys
+    @Test
+    @DisplayName("JUnit test for listing the most frequent keys among a scan of one-off keys")
+    public void givenHotKeysAndScan_whenTop_thenReturnHotKeysMostFrequentFirst() {
+
+        // given - precondition or setup
+        HotKeys<Long> hotKeys = new HotKeys<>(10_000, 3);
+
+        // when - action or the behavior that we are going test
+        for (long id = 1_000; id < 6_000; id++) {
+            hotKeys.record(id);
+            if (id % 10 == 0) {
+                hotKeys.record(1L);
+                hotKeys.record(1L);
+                hotKeys.record(2L);
+            }
+            if (id % 20 == 0) {
+                hotKeys.record(3L);
+            }
+        }
+
+        // then - verify the output
+        List<HotKeys.HotKey<Long>> top = hotKeys.top(10);
+        Assertions.assertThat(top).extracting(HotKeys.HotKey::key).containsExactly(1L, 2L, 3L);
+        Assertions.assertThat(top.get(0).frequency()).isEqualTo(1_000);
+        Assertions.assertThat(hotKeys.top(1)).hasSize(1);
+
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.example.spring_boot_testing.cache;
+
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LastKnownGoodEmployeesTests {
+
+    private AtomicLong now;
+    private LastKnownGoodEmployees lastKnownGood;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        now = new AtomicLong();
+        lastKnownGood = new LastKnownGoodEmployees(10, 3, now::get);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+    }
+
+    // JUnit test for serving a stale copy with its age
+    @Test
+    @DisplayName("JUnit test for serving a stale copy with its age")
+    public void givenKnownEmployee_whenGetStale_thenReturnCopyWithAge() {
+
+        // given - precondition or setup
+        lastKnownGood.put(employee);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(30));
+
+        // when - action or the behavior that we are going test
+        ReadResult<Employee> result = lastKnownGood.getStale(1L).orElseThrow();
+
+        // then - verify the output
+        Assertions.assertThat(result.isStale()).isTrue();
+        Assertions.assertThat(result.staleness()).isEqualTo(Duration.ofSeconds(30));
+        Assertions.assertThat(result.value()).isNotSameAs(employee);
+        Assertions.assertThat(result.value().getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+        Assertions.assertThat(lastKnownGood.getStale(2L)).isEmpty();
+
+    }
+
+    // JUnit test for not keeping a full list longer than the bound
+    @Test
+    @DisplayName("JUnit test for not keeping a full list longer than the bound")
+    public void givenListLongerThanBound_whenPutAll_thenNoStaleListIsServed() {
+
+        // given - precondition or setup
+        lastKnownGood.putAll(List.of(employee));
+        List<Employee> longList = List.of(employee, employee.toBuilder().id(2L).build(),
+                employee.toBuilder().id(3L).build(), employee.toBuilder().id(4L).build());
+
+        // when - action or the behavior that we are going test
+        Optional<ReadResult<List<Employee>>> beforeLongList = lastKnownGood.getAllStale();
+        lastKnownGood.putAll(longList);
+
+        // then - verify the output
+        Assertions.assertThat(beforeLongList).isPresent();
+        Assertions.assertThat(lastKnownGood.getAllStale()).isEmpty();
+
+    }
+
+    // JUnit test for stale-while-revalidate after recovery
+    @Test
+    @DisplayName("JUnit test for stale-while-revalidate after recovery")
+    public void givenServedStale_whenRevalidate_thenServeStaleUntilReloaded() throws Exception {
+
+        // given - precondition or setup
+        Employee other = Employee.builder().id(2L).firstName("Ali").lastName("Rezaei").email("alirezaei@gmail.com").build();
+        lastKnownGood.put(employee);
+        lastKnownGood.put(other);
+        lastKnownGood.getStale(1L);
+        lastKnownGood.getStale(2L);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Employee renamed = employee.toBuilder().lastName("Karimi").build();
+
+        // when - action or the behavior that we are going test
+        lastKnownGood.revalidate(ids -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+            // employee 2 was deleted in the meantime
+            return List.of(renamed);
+        }, List::of, 100);
+        Optional<ReadResult<Employee>> whileReloading = lastKnownGood.getRevalidating(1L);
+        release.countDown();
+        done.await(5, TimeUnit.SECONDS);
+        // employee 1 is reloaded before employee 2 is dropped, wait for both
+        awaitRevalidation(1L);
+        awaitRevalidation(2L);
+
+        // then - verify the output
+        Assertions.assertThat(whileReloading).isPresent();
+        Assertions.assertThat(whileReloading.get().value().getLastName()).isEqualTo("Ranjbar");
+        Assertions.assertThat(lastKnownGood.getStale(1L).orElseThrow().value().getLastName()).isEqualTo("Karimi");
+        Assertions.assertThat(lastKnownGood.getStale(2L)).isEmpty();
+
+    }
+
+    private void awaitRevalidation(long id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (lastKnownGood.getRevalidating(id).isPresent() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.example.spring_boot_testing.changes;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+public class EmployeeChangeHorizonTests {
+
+    private static final Instant START = Instant.parse("2024-08-01T12:00:00Z");
+
+    // JUnit test for holding the feed back while the oldest running transaction is younger than the maximum lag
+    @Test
+    @DisplayName("JUnit test for holding the feed back while the oldest running transaction is younger than the maximum lag")
+    public void givenRunningTransaction_whenYoungerThanMaxLag_thenVisibleBelowIsXmin() {
+
+        // given - precondition or setup
+        EmployeeChangeHorizon horizon = new EmployeeChangeHorizon(Duration.ofMinutes(5));
+        horizon.visibleBelow("100:120:100", START);
+
+        // when - action or the behavior that we are going test
+        long visibleBelow = horizon.visibleBelow("100:150:100", START.plus(Duration.ofMinutes(4)));
+
+        // then - verify the output
+        Assertions.assertThat(visibleBelow).isEqualTo(100L);
+
+    }
+
+    // JUnit test for returning rows anyway once the xmin has been stuck for longer than the maximum lag
+    @Test
+    @DisplayName("JUnit test for returning rows anyway once the xmin has been stuck for longer than the maximum lag")
+    public void givenStuckXmin_whenOlderThanMaxLag_thenVisibleBelowIsXmaxOfThatTime() {
+
+        // given - precondition or setup
+        EmployeeChangeHorizon horizon = new EmployeeChangeHorizon(Duration.ofMinutes(5));
+        horizon.visibleBelow("100:120:100", START);
+        horizon.visibleBelow("100:130:100", START.plus(Duration.ofMinutes(2)));
+        horizon.visibleBelow("100:140:100", START.plus(Duration.ofMinutes(4)));
+
+        // when - action or the behavior that we are going test
+        long afterFiveMinutes = horizon.visibleBelow("100:150:100", START.plus(Duration.ofMinutes(5)));
+        long afterSevenMinutes = horizon.visibleBelow("100:160:100", START.plus(Duration.ofMinutes(7)));
+        long afterRelease = horizon.visibleBelow("158:160:", START.plus(Duration.ofMinutes(7)));
+
+        // then - verify the output
+        Assertions.assertThat(afterFiveMinutes).isEqualTo(120L);
+        Assertions.assertThat(afterSevenMinutes).isEqualTo(130L);
+        Assertions.assertThat(afterRelease).isEqualTo(158L);
+
+    }
+
+}
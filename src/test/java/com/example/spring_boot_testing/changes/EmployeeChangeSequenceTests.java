@@ -0,0 +1,49 @@
+package com.example.spring_boot_testing.changes;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeChangeSequenceTests {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    // JUnit test for handing out a block of sequence numbers per database round trip
+    @Test
+    @DisplayName("JUnit test for handing out a block of sequence numbers per database round trip")
+    public void givenPooledSequence_whenNext_thenOneRoundTripPerBlock() {
+
+        // given - precondition or setup
+        given(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).willReturn(1L, 51L);
+        EmployeeChangeSequence sequence = new EmployeeChangeSequence(jdbcTemplate);
+
+        // when - action or the behavior that we are going test
+        List<Long> numbers = new ArrayList<>();
+        for (int i = 0; i < EmployeeChangeSequence.ALLOCATION_SIZE + 1; i++) {
+            numbers.add(sequence.next());
+        }
+
+        // then - verify the output
+        Assertions.assertThat(numbers).first().isEqualTo(1L);
+        Assertions.assertThat(numbers).last().isEqualTo(51L);
+        Assertions.assertThat(numbers).doesNotHaveDuplicates().isSorted();
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), eq(Long.class));
+
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.example.spring_boot_testing.concurrency;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+public class AdaptiveConcurrencyLimiterTests {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    public void setup() {
+        limiter = new AdaptiveConcurrencyLimiter("read", 4, 2, 6, 0.5, Duration.ofMillis(100));
+    }
+
+    // JUnit test for rejecting requests above the limit
+    @Test
+    @DisplayName("JUnit test for rejecting requests above the limit")
+    public void givenFullLimiter_whenTryAcquire_thenReject() {
+
+        // given - precondition or setup
+        for (int i = 0; i < 4; i++) {
+            Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        // when - action or the behavior that we are going test
+        boolean acquired = limiter.tryAcquire();
+
+        // then - verify the output
+        Assertions.assertThat(acquired).isFalse();
+        Assertions.assertThat(limiter.getInflight()).isEqualTo(4);
+
+    }
+
+    // JUnit test for growing the limit while requests are fast
+    @Test
+    @DisplayName("JUnit test for growing the limit while requests are fast")
+    public void givenFastRequests_whenOnComplete_thenIncreaseLimit() {
+
+        // given - precondition or setup
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when - action or the behavior that we are going test
+        limiter.onComplete(TimeUnit.MILLISECONDS.toNanos(5), false);
+
+        // then - verify the output
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(5);
+        Assertions.assertThat(limiter.getInflight()).isEqualTo(1);
+
+    }
+
+    // JUnit test for shrinking the limit when requests get slow
+    @Test
+    @DisplayName("JUnit test for shrinking the limit when requests get slow")
+    public void givenSlowRequest_whenOnComplete_thenDecreaseLimitDownToMinimum() {
+
+        // given - precondition or setup
+        limiter.tryAcquire();
+        limiter.tryAcquire();
+
+        // when - action or the behavior that we are going test
+        limiter.onComplete(TimeUnit.MILLISECONDS.toNanos(500), false);
+        limiter.onComplete(0, true);
+
+        // then - verify the output
+        Assertions.assertThat(limiter.getLimit()).isEqualTo(2);
+        Assertions.assertThat(limiter.getInflight()).isZero();
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.example.spring_boot_testing.concurrency;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class CircuitBreakerTests {
+
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    public void setup() {
+        circuitBreaker = new CircuitBreaker("database", 3, Duration.ofMillis(100), Duration.ofSeconds(5), now::get);
+    }
+
+    // JUnit test for opening after consecutive failures
+    @Test
+    @DisplayName("JUnit test for opening after consecutive failures")
+    public void givenConsecutiveFailuresAndSlowCalls_whenOnComplete_thenOpenAndReject() {
+
+        // given - precondition or setup
+        circuitBreaker.tryAcquire();
+        circuitBreaker.onComplete(0, true);
+        circuitBreaker.tryAcquire();
+        circuitBreaker.onComplete(TimeUnit.MILLISECONDS.toNanos(500), false);
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // when - action or the behavior that we are going test
+        circuitBreaker.tryAcquire();
+        circuitBreaker.onComplete(0, true);
+
+        // then - verify the output
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+    }
+
+    // JUnit test for a success resetting the failure count
+    @Test
+    @DisplayName("JUnit test for a success resetting the failure count")
+    public void givenSuccessBetweenFailures_whenOnComplete_thenStayClosed() {
+
+        // given - precondition or setup
+        circuitBreaker.onComplete(0, true);
+        circuitBreaker.onComplete(0, true);
+
+        // when - action or the behavior that we are going test
+        circuitBreaker.onComplete(0, false);
+        circuitBreaker.onComplete(0, true);
+        circuitBreaker.onComplete(0, true);
+
+        // then - verify the output
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+    }
+
+    // JUnit test for one trial call after the open duration
+    @Test
+    @DisplayName("JUnit test for one trial call after the open duration")
+    public void givenOpenBreaker_whenOpenDurationPassedAndTrialSucceeds_thenCloseAndNotifyListeners() {
+
+        // given - precondition or setup
+        AtomicInteger closed = new AtomicInteger();
+        circuitBreaker.onClose(closed::incrementAndGet);
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onComplete(0, true);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+        // when - action or the behavior that we are going test
+        boolean trial = circuitBreaker.tryAcquire();
+        boolean duringTrial = circuitBreaker.tryAcquire();
+        circuitBreaker.onComplete(0, false);
+
+        // then - verify the output
+        Assertions.assertThat(trial).isTrue();
+        Assertions.assertThat(duringTrial).isFalse();
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(closed.get()).isEqualTo(1);
+
+    }
+
+    // JUnit test for a failed trial call
+    @Test
+    @DisplayName("JUnit test for a failed trial call")
+    public void givenHalfOpenBreaker_whenTrialFails_thenOpenAgain() {
+
+        // given - precondition or setup
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onComplete(0, true);
+        }
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        circuitBreaker.tryAcquire();
+
+        // when - action or the behavior that we are going test
+        circuitBreaker.onComplete(0, true);
+
+        // then - verify the output
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        Assertions.assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+    }
+
+}
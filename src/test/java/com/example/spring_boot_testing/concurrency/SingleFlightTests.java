@@ -0,0 +1,192 @@
+package com.example.spring_boot_testing.concurrency;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingleFlightTests {
+
+    private static final int CALLERS = 32;
+
+    // JUnit test for N concurrent callers sharing 1 load
+    @Test
+    @DisplayName("JUnit test for N concurrent callers sharing 1 load")
+    public void givenConcurrentCallersForSameKey_whenExecute_thenLoaderRunsOnce() throws Exception {
+
+        // given - precondition or setup
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+        // when - action or the behavior that we are going test
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            await(release);
+            return "Mohammad";
+        })));
+        leaderStarted.await();
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> singleFlight.execute(1L, () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        // the followers have to join the in-flight call before the leader finishes
+        awaitFollowers(singleFlight, CALLERS - 1);
+        release.countDown();
+
+        // then - verify the output
+        for (Future<String> result : results) {
+            Assertions.assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Mohammad");
+        }
+        Assertions.assertThat(loads.get()).isEqualTo(1);
+        Assertions.assertThat(singleFlight.inflightCount()).isZero();
+        executor.shutdownNow();
+
+    }
+
+    // JUnit test for propagating the leader's exception to followers
+    @Test
+    @DisplayName("JUnit test for propagating the leader's exception to followers")
+    public void givenFailingLoader_whenExecute_thenFollowersGetSameException() throws Exception {
+
+        // given - precondition or setup
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // when - action or the behavior that we are going test
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new IllegalStateException("database down");
+        }));
+        leaderStarted.await();
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "never"));
+        awaitFollowers(singleFlight, 1);
+        release.countDown();
+
+        // then - verify the output
+        Assertions.assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        executor.shutdownNow();
+
+    }
+
+    // JUnit test for followers giving up after the timeout
+    @Test
+    @DisplayName("JUnit test for followers giving up after the timeout")
+    public void givenSlowLoader_whenFollowerTimesOut_thenThrowQueryTimeoutException() throws Exception {
+
+        // given - precondition or setup
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> singleFlight.execute(1L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "Mohammad";
+        }));
+        leaderStarted.await();
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(QueryTimeoutException.class, () -> singleFlight.execute(1L, () -> "other"));
+        release.countDown();
+        executor.shutdownNow();
+
+    }
+
+    // JUnit test for followers loading again after a leader-only failure
+    @Test
+    @DisplayName("JUnit test for followers loading again after a leader-only failure")
+    public void givenLeaderOnlyFailure_whenExecute_thenFollowerLoadsAgain() throws Exception {
+
+        // given - precondition or setup
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5), value -> value,
+                UnsupportedOperationException.class::isInstance);
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // when - action or the behavior that we are going test
+        Future<String> leader = executor.submit(() -> singleFlight.execute(1L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            throw new UnsupportedOperationException("leader deadline exceeded");
+        }));
+        leaderStarted.await();
+        Future<String> follower = executor.submit(() -> singleFlight.execute(1L, () -> "Mohammad"));
+        awaitFollowers(singleFlight, 1);
+        release.countDown();
+
+        // then - verify the output
+        Assertions.assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(UnsupportedOperationException.class);
+        Assertions.assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("Mohammad");
+        executor.shutdownNow();
+
+    }
+
+    // JUnit test for bounding a follower's wait by its own maximum
+    @Test
+    @DisplayName("JUnit test for bounding a follower's wait by its own maximum")
+    public void givenMaxWaitBelowTimeout_whenFollowerWaits_thenThrowQueryTimeoutExceptionAfterMaxWait() throws Exception {
+
+        // given - precondition or setup
+        SingleFlight<Long, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> singleFlight.execute(1L, () -> {
+            leaderStarted.countDown();
+            await(release);
+            return "Mohammad";
+        }));
+        leaderStarted.await();
+
+        // when - action or the behavior that we are going test
+        long start = System.nanoTime();
+        org.junit.jupiter.api.Assertions.assertThrows(QueryTimeoutException.class,
+                () -> singleFlight.execute(1L, Duration.ofMillis(50), () -> "other"));
+
+        // then - verify the output
+        Assertions.assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        release.countDown();
+        executor.shutdownNow();
+
+    }
+
+    private static void awaitFollowers(SingleFlight<Long, String> singleFlight, int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.followerCount(1L) < followers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertThat(singleFlight.followerCount(1L)).isEqualTo(followers);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
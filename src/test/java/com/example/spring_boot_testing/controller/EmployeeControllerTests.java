@@ -1,6 +1,16 @@
 package com.example.spring_boot_testing.controller;
 
+import com.example.spring_boot_testing.archive.EmployeeArchive;
+import com.example.spring_boot_testing.dto.ArchivedEmployee;
+import com.example.spring_boot_testing.dto.EmployeeBatchResponse;
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateRequest;
+import com.example.spring_boot_testing.dto.EmployeeChangesResponse;
+import com.example.spring_boot_testing.dto.EmployeeSearchCriteria;
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.idempotency.IdempotencyService;
 import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.service.EmployeeBatchService;
+import com.example.spring_boot_testing.service.EmployeeChangeFeedService;
 import com.example.spring_boot_testing.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.hamcrest.CoreMatchers;
@@ -18,7 +28,12 @@ import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultHandlers;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 // The @WebMvcTest annotation in Spring Boot is specifically designed to test the web layer (controllers).
 // This annotation brings only the dependencies related to the web layer and does not load other layers such as the service layer by default.
@@ -47,6 +62,18 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeBatchService employeeBatchService;
+
+    @MockBean
+    private IdempotencyService idempotencyService;
+
+    @MockBean
+    private EmployeeChangeFeedService employeeChangeFeedService;
+
+    @MockBean
+    private EmployeeArchive employeeArchive;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -119,7 +146,7 @@ public class EmployeeControllerTests {
                 .email("hosseinranjbar@gmail.com")
                 .build();
         List<Employee> employeeList = List.of(employee1,employee2);
-        given(employeeService.getAllEmployees()).willReturn(employeeList);
+        given(employeeService.readAllEmployees()).willReturn(ReadResult.fresh(employeeList));
 
         // when - action or the behavior that we are going test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"));
@@ -131,6 +158,165 @@ public class EmployeeControllerTests {
 
     }
 
+    // JUnit test for get all employees api with filter, sort and limit parameters
+    @Test
+    @DisplayName("JUnit test for get all employees api with filter, sort and limit parameters")
+    public void givenSearchParameters_whenGetAllEmployees_thenReturnSearchResult() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+        given(employeeService.searchEmployees(argThat(criteria -> "gmail.com".equals(criteria.getEmailDomain())
+                && "Ran".equals(criteria.getNamePrefix())
+                && "lastName,desc".equals(criteria.getSort())
+                && Integer.valueOf(10).equals(criteria.getLimit()))))
+                .willReturn(List.of(employee));
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                .param("emailDomain", "gmail.com")
+                .param("namePrefix", "Ran")
+                .param("sort", "lastName,desc")
+                .param("limit", "10"));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.size()",CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email",CoreMatchers.is(employee.getEmail())))
+                .andDo(MockMvcResultHandlers.print());
+        verify(employeeService, never()).readAllEmployees();
+
+    }
+
+    // JUnit test for get employees api with a sparse fieldset
+    @Test
+    @DisplayName("JUnit test for get employees api with a sparse fieldset")
+    public void givenFields_whenGetAllEmployees_thenReturnOnlyRequestedFields() throws Exception {
+
+        // given - precondition or setup
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("email", "mohammadranjbar@gmail.com");
+        given(employeeService.getEmployeeFields(eq(List.of("id", "email")), any())).willReturn(List.of(row));
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("fields", "id,email"));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].id",CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].email",CoreMatchers.is("mohammadranjbar@gmail.com")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].firstName").doesNotExist())
+                .andDo(MockMvcResultHandlers.print());
+
+    }
+
+    // JUnit test for get employee by id api with a sparse fieldset (negative scenario)
+    @Test
+    @DisplayName("JUnit test for get employee by id api with a sparse fieldset (negative scenario)")
+    public void givenFieldsAndInvalidEmployeeId_whenGetEmployeeById_thenReturnNotFound() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeFieldsById(employeeId, List.of("email"))).willReturn(null);
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}",employeeId).param("fields", "email"));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isNotFound())
+                .andDo(MockMvcResultHandlers.print());
+        verify(employeeService, never()).readEmployeeById(employeeId);
+
+    }
+
+    // JUnit test for get changes api
+    @Test
+    @DisplayName("JUnit test for get changes api")
+    public void givenChangeToken_whenGetChanges_thenReturnChangesAndNextToken() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+        given(employeeChangeFeedService.getChangesSince("41"))
+                .willReturn(new EmployeeChangesResponse(List.of(employee), List.of(7L), "43", false));
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/changes").param("since", "41"));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changed[0].id",CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changed[0].email",CoreMatchers.is(employee.getEmail())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.changed[0].changeSeq").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.deletedIds[0]",CoreMatchers.is(7)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.nextToken",CoreMatchers.is("43")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.hasMore",CoreMatchers.is(false)))
+                .andDo(MockMvcResultHandlers.print());
+
+    }
+
+    // JUnit test for get archived employee by id api
+    @Test
+    @DisplayName("JUnit test for get archived employee by id api")
+    public void givenArchivedEmployeeId_whenGetArchivedEmployeeById_thenReturnArchivedEmployee() throws Exception {
+
+        // given - precondition or setup
+        Instant deletedAt = Instant.parse("2026-01-10T10:00:00Z");
+        ArchivedEmployee archivedEmployee = new ArchivedEmployee(7L, "Mohammad", "Ranjbar", "mohammadranjbar@gmail.com",
+                deletedAt.minusSeconds(3600), deletedAt.minusSeconds(3600), deletedAt, deletedAt.plusSeconds(300),
+                ArchivedEmployee.Reason.DELETED);
+        given(employeeArchive.findById(7L)).willReturn(Optional.of(archivedEmployee));
+        given(employeeArchive.findById(8L)).willReturn(Optional.empty());
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/archive/{id}", 7L));
+        ResultActions missing = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/archive/{id}", 8L));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email",CoreMatchers.is(archivedEmployee.getEmail())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.reason",CoreMatchers.is("DELETED")))
+                .andDo(MockMvcResultHandlers.print());
+        missing.andExpect(MockMvcResultMatchers.status().isNotFound());
+        verify(employeeService, never()).readEmployeeById(anyLong());
+
+    }
+
+    // JUnit test for bulk update api
+    @Test
+    @DisplayName("JUnit test for bulk update api")
+    public void givenBulkUpdateRequest_whenBulkUpdateEmployees_thenReturnUpdatedCount() throws Exception {
+
+        // given - precondition or setup
+        EmployeeBulkUpdateRequest request = EmployeeBulkUpdateRequest.builder()
+                .filter(EmployeeSearchCriteria.builder().emailDomain("gmail.com").build())
+                .set(EmployeeBulkUpdateRequest.Changes.builder().emailDomain("example.com").build())
+                .build();
+        given(employeeService.bulkUpdateEmployees(argThat(bulkUpdate -> "gmail.com".equals(bulkUpdate.getFilter().getEmailDomain())
+                && "example.com".equals(bulkUpdate.getSet().getEmailDomain()))))
+                .willReturn(3);
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/bulk-update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.updated",CoreMatchers.is(3)))
+                .andDo(MockMvcResultHandlers.print());
+
+    }
+
     // JUnit test for get employee by id api (positive scenario)
     @Test
     @DisplayName("JUnit test for get employee by id api (positive scenario)")
@@ -143,7 +329,7 @@ public class EmployeeControllerTests {
                 .lastName("Ranjbar")
                 .email("mohammadranjbar@gmail.com")
                 .build();
-        given(employeeService.getEmployeeById(employeeId)).willReturn(employee);
+        given(employeeService.readEmployeeById(employeeId)).willReturn(ReadResult.fresh(employee));
 
         // when - action or the behavior that we are going test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}",employeeId));
@@ -157,6 +343,62 @@ public class EmployeeControllerTests {
 
     }
 
+    // JUnit test for get employees by ids api
+    @Test
+    @DisplayName("JUnit test for get employees by ids api")
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnEmployeesAndMissingIds() throws Exception {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(2L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+        given(employeeService.getEmployeesByIds(List.of(2L, 3L)))
+                .willReturn(new EmployeeBatchResponse(List.of(employee), List.of(3L)));
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees").param("ids", "2,3"));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees.size()", CoreMatchers.is(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.employees[0].email", CoreMatchers.is(employee.getEmail())))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.missingIds[0]", CoreMatchers.is(3)))
+                .andDo(MockMvcResultHandlers.print());
+
+    }
+
+    // JUnit test for export employees api
+    @Test
+    @DisplayName("JUnit test for export employees api")
+    public void givenEmployees_whenExportEmployees_thenStreamOneJsonObjectPerLine() throws Exception {
+
+        // given - precondition or setup
+        List<Employee> employees = List.of(
+                Employee.builder().id(1L).firstName("Mohammad").lastName("Ranjbar").email("mohammadranjbar@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Ali").lastName("Rezaei").email("alirezaei@gmail.com").build());
+        given(employeeService.exportEmployees(any(), any())).willAnswer(invocation -> {
+            java.util.function.Consumer<Employee> action = invocation.getArgument(1);
+            employees.forEach(action);
+            return (long) employees.size();
+        });
+
+        // when - action or the behavior that we are going test
+        ResultActions started = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/export"));
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started.andReturn()));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType("application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        objectMapper.writeValueAsString(employees.get(0)) + "\n"
+                                + objectMapper.writeValueAsString(employees.get(1)) + "\n"))
+                .andDo(MockMvcResultHandlers.print());
+
+    }
+
     // JUnit test for get employee by id api (negative scenario)
     @Test
     @DisplayName("JUnit test for get employee by id api (negative scenario)")
@@ -164,7 +406,7 @@ public class EmployeeControllerTests {
 
         // given - precondition or setup
         long employeeId = 1L;
-        given(employeeService.getEmployeeById(employeeId)).willReturn(null);
+        given(employeeService.readEmployeeById(employeeId)).willReturn(ReadResult.fresh(null));
 
         // when - action or the behavior that we are going test
         ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}",employeeId));
@@ -175,6 +417,33 @@ public class EmployeeControllerTests {
 
     }
 
+    // JUnit test for get employee by id api answered from last known good data
+    @Test
+    @DisplayName("JUnit test for get employee by id api answered from last known good data")
+    public void givenStaleEmployee_whenGetEmployeeById_thenReturnEmployeeWithWarningAndAge() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+        given(employeeService.readEmployeeById(employeeId)).willReturn(ReadResult.stale(employee, Duration.ofSeconds(42)));
+
+        // when - action or the behavior that we are going test
+        ResultActions response = mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}",employeeId));
+
+        // then - verify the output
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Warning", "110 - \"Response is Stale\""))
+                .andExpect(MockMvcResultMatchers.header().string("Age", "42"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.email",CoreMatchers.is(employee.getEmail())))
+                .andDo(MockMvcResultHandlers.print());
+
+    }
+
     // JUnit test for update employee api (positive scenario)
     @Test
     @DisplayName("JUnit test for update employee api (positive scenario)")
@@ -0,0 +1,114 @@
+package com.example.spring_boot_testing.deadline;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class RequestDeadlineFilterTests {
+
+    private static final Instant NOW = Instant.parse("2024-05-01T10:15:30Z");
+
+    private AtomicInteger expired;
+    private RequestDeadlineFilter filter;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        expired = new AtomicInteger();
+        filter = new RequestDeadlineFilter(Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofSeconds(10), Duration.ofSeconds(30),
+                Map.of("/api/employees/batch", Duration.ofSeconds(60)), expired::incrementAndGet);
+        response = new MockHttpServletResponse();
+    }
+
+    // JUnit test for deadlines taken from the headers and the endpoint defaults
+    @Test
+    @DisplayName("JUnit test for deadlines taken from the headers and the endpoint defaults")
+    public void givenDeadlineSources_whenFilter_thenBindRemainingTime() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletRequest timeoutHeader = new MockHttpServletRequest("GET", "/api/employees");
+        timeoutHeader.addHeader(RequestDeadlineFilter.TIMEOUT_HEADER, "250ms");
+        MockHttpServletRequest deadlineHeader = new MockHttpServletRequest("GET", "/api/employees");
+        deadlineHeader.addHeader(RequestDeadlineFilter.DEADLINE_HEADER, String.valueOf(NOW.plusSeconds(2).toEpochMilli()));
+        MockHttpServletRequest tooLong = new MockHttpServletRequest("GET", "/api/employees");
+        tooLong.addHeader(RequestDeadlineFilter.DEADLINE_HEADER, NOW.plusSeconds(3600).toString());
+        MockHttpServletRequest batch = new MockHttpServletRequest("POST", "/api/employees/batch");
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/employees/1");
+
+        // when - action or the behavior that we are going test
+        long fromTimeoutHeader = remainingMillis(timeoutHeader);
+        long fromDeadlineHeader = remainingMillis(deadlineHeader);
+        long capped = remainingMillis(tooLong);
+        long endpointDefault = remainingMillis(batch);
+        long defaultTimeout = remainingMillis(other);
+
+        // then - verify the output
+        Assertions.assertThat(fromTimeoutHeader).isBetween(200L, 250L);
+        Assertions.assertThat(fromDeadlineHeader).isBetween(1_900L, 2_000L);
+        Assertions.assertThat(capped).isBetween(29_900L, 30_000L);
+        Assertions.assertThat(endpointDefault).isBetween(59_900L, 60_000L);
+        Assertions.assertThat(defaultTimeout).isBetween(9_900L, 10_000L);
+        Assertions.assertThat(RequestDeadline.current()).isNull();
+        Assertions.assertThat(expired.get()).isZero();
+
+    }
+
+    // JUnit test for rejecting requests that arrive after their deadline
+    @Test
+    @DisplayName("JUnit test for rejecting requests that arrive after their deadline")
+    public void givenPassedDeadline_whenFilter_thenRespondGatewayTimeoutWithoutCallingTheChain() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader(RequestDeadlineFilter.DEADLINE_HEADER, NOW.minusMillis(1).toString());
+        AtomicInteger chainCalls = new AtomicInteger();
+
+        // when - action or the behavior that we are going test
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> chainCalls.incrementAndGet());
+
+        // then - verify the output
+        Assertions.assertThat(response.getStatus()).isEqualTo(504);
+        Assertions.assertThat(chainCalls.get()).isZero();
+        Assertions.assertThat(expired.get()).isEqualTo(1);
+
+    }
+
+    // JUnit test for rejecting malformed deadline headers
+    @Test
+    @DisplayName("JUnit test for rejecting malformed deadline headers")
+    public void givenMalformedTimeoutHeader_whenFilter_thenRespondBadRequest() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader(RequestDeadlineFilter.TIMEOUT_HEADER, "soon");
+        AtomicInteger chainCalls = new AtomicInteger();
+
+        // when - action or the behavior that we are going test
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> chainCalls.incrementAndGet());
+
+        // then - verify the output
+        Assertions.assertThat(response.getStatus()).isEqualTo(400);
+        Assertions.assertThat(chainCalls.get()).isZero();
+
+    }
+
+    private long remainingMillis(MockHttpServletRequest request) throws Exception {
+        AtomicLong remaining = new AtomicLong(-1);
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) ->
+                remaining.set(TimeUnit.NANOSECONDS.toMillis(RequestDeadline.current().remainingNanos())));
+        return remaining.get();
+    }
+
+}
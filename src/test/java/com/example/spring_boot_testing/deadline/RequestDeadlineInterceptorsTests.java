@@ -0,0 +1,127 @@
+package com.example.spring_boot_testing.deadline;
+
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.matches;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RequestDeadlineInterceptorsTests {
+
+    @AfterEach
+    public void cleanup() {
+        RequestDeadline.unbind();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    // JUnit test for refusing repository calls after the deadline
+    @Test
+    @DisplayName("JUnit test for refusing repository calls after the deadline")
+    public void givenExpiredDeadline_whenFailFast_thenThrowWithoutProceeding() throws Throwable {
+
+        // given - precondition or setup
+        AtomicInteger expired = new AtomicInteger();
+        MethodInterceptor failFast = RequestDeadlineInterceptors.failFast(expired::incrementAndGet);
+        MethodInvocation invocation = invocation();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        RequestDeadline.bind(Duration.ZERO);
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(RequestDeadlineExceededException.class, () -> failFast.invoke(invocation));
+
+        // then - verify the output
+        verify(invocation, never()).proceed();
+        Assertions.assertThat(expired.get()).isEqualTo(1);
+        Assertions.assertThat(request.getAttribute(RequestDeadlineExceededException.REQUEST_ATTRIBUTE)).isEqualTo(Boolean.TRUE);
+
+    }
+
+    // JUnit test for reporting a cancelled statement as an exceeded deadline
+    @Test
+    @DisplayName("JUnit test for reporting a cancelled statement as an exceeded deadline")
+    public void givenStatementCancelledAtDeadline_whenFailFast_thenThrowDeadlineExceeded() throws Throwable {
+
+        // given - precondition or setup
+        MethodInterceptor failFast = RequestDeadlineInterceptors.failFast(() -> {});
+        MethodInvocation invocation = invocation();
+        when(invocation.proceed()).then(call -> {
+            Thread.sleep(20);
+            throw new QueryTimeoutException("canceling statement due to statement timeout");
+        });
+        RequestDeadline.bind(Duration.ofMillis(10));
+
+        // when - action or the behavior that we are going test
+        RequestDeadlineExceededException exception = org.junit.jupiter.api.Assertions.assertThrows(
+                RequestDeadlineExceededException.class, () -> failFast.invoke(invocation));
+
+        // then - verify the output
+        Assertions.assertThat(exception).hasCauseInstanceOf(QueryTimeoutException.class);
+
+    }
+
+    // JUnit test for setting the statement timeout once per transaction
+    @Test
+    @DisplayName("JUnit test for setting the statement timeout once per transaction")
+    public void givenTransaction_whenStatementTimeoutTwice_thenSetLocalOnce() throws Throwable {
+
+        // given - precondition or setup
+        DataSource dataSource = mock(DataSource.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        MethodInterceptor statementTimeout = RequestDeadlineInterceptors.statementTimeout(jdbcTemplate, Duration.ofMinutes(1));
+        RequestDeadline.bind(Duration.ofSeconds(2));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.bindResource(dataSource, new ConnectionHolder(mock(Connection.class)));
+
+        // when - action or the behavior that we are going test
+        try {
+            statementTimeout.invoke(invocation());
+            statementTimeout.invoke(invocation());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.unbindResource(dataSource);
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        statementTimeout.invoke(invocation());
+
+        // then - verify the output
+        verify(jdbcTemplate, times(1)).execute(matches("set local statement_timeout = (1\\d{3}|2000)"));
+        verify(jdbcTemplate, times(1)).execute(anyString());
+        Assertions.assertThat(TransactionSynchronizationManager.getResourceMap()).isEmpty();
+
+    }
+
+    private static MethodInvocation invocation() throws NoSuchMethodException {
+        MethodInvocation invocation = mock(MethodInvocation.class);
+        when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+        return invocation;
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Memory footprint of the compact directory compared to HashMap<Long, Employee>, measured with JOL. Walking the
+// object graphs takes several seconds, so it runs with the integration tests and not with the unit tests.
+public class CompactEmployeeDirectoryFootprintIT {
+
+    private static final String[] FIRST_NAMES = {"Mohammad", "Hossein", "Ali", "Reza", "Sara", "Maryam", "Zahra", "Amir"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "example.com"};
+
+    // JUnit test for the memory footprint compared to HashMap<Long, Employee> (measured with JOL)
+    @Test
+    @DisplayName("JUnit test for the memory footprint compared to HashMap<Long, Employee>")
+    public void givenSameEmployees_whenMeasuredWithJol_thenCompactDirectoryIsSmaller() {
+
+        // given - precondition or setup
+        int employees = 20_000;
+        Map<Long, Employee> map = new HashMap<>();
+        CompactEmployeeDirectory compact = new CompactEmployeeDirectory(employees);
+        for (long id = 1; id <= employees; id++) {
+            // new String(...) so every row has its own copy, as entities loaded by Hibernate do
+            Employee employee = Employee.builder()
+                    .id(id)
+                    .firstName(new String(FIRST_NAMES[(int) (id % FIRST_NAMES.length)]))
+                    .lastName("Lastname" + (id % 1000))
+                    .email("employee" + id + "@" + DOMAINS[(int) (id % DOMAINS.length)])
+                    .build();
+            map.put(id, employee);
+            compact.upsert(employee);
+        }
+
+        // when - action or the behavior that we are going test
+        long mapBytes = GraphLayout.parseInstance(map).totalSize();
+        long compactBytes = GraphLayout.parseInstance(compact).totalSize();
+        System.out.printf("HashMap<Long, Employee>: %d bytes (%d per employee), CompactEmployeeDirectory: %d bytes (%d per employee)%n",
+                mapBytes, mapBytes / employees, compactBytes, compactBytes / employees);
+
+        // then - verify the output
+        Assertions.assertThat(compactBytes).isLessThan(mapBytes * 2 / 3);
+
+    }
+
+}
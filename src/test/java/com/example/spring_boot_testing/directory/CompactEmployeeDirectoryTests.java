@@ -0,0 +1,66 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.model.Employee;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CompactEmployeeDirectoryTests {
+
+    private CompactEmployeeDirectory directory;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        directory = new CompactEmployeeDirectory(4);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+    }
+
+    // JUnit test for rebuilding employees from the columns
+    @Test
+    @DisplayName("JUnit test for rebuilding employees from the columns")
+    public void givenEmployee_whenFindById_thenReturnSameValues() {
+
+        // given - precondition or setup
+        directory.upsert(employee);
+        directory.upsert(employee.toBuilder().id(2L).email("no-domain").build());
+
+        // when - action or the behavior that we are going test
+        Employee foundEmployee = directory.findById(1L).orElseThrow();
+
+        // then - verify the output
+        Assertions.assertThat(foundEmployee).usingRecursiveComparison().isEqualTo(employee);
+        Assertions.assertThat(directory.findById(2L).orElseThrow().getEmail()).isEqualTo("no-domain");
+        Assertions.assertThat(directory.findById(3L)).isEmpty();
+
+    }
+
+    // JUnit test for keeping rows dense after removes
+    @Test
+    @DisplayName("JUnit test for keeping rows dense after removes")
+    public void givenRemovedEmployee_whenFindAll_thenOtherEmployeesStillFound() {
+
+        // given - precondition or setup
+        for (long id = 1; id <= 10; id++) {
+            directory.upsert(employee.toBuilder().id(id).email("employee" + id + "@gmail.com").build());
+        }
+
+        // when - action or the behavior that we are going test
+        directory.remove(3L);
+        directory.remove(10L);
+        directory.upsert(employee.toBuilder().id(9L).firstName("Hossein").build());
+
+        // then - verify the output
+        Assertions.assertThat(directory.size()).isEqualTo(8);
+        Assertions.assertThat(directory.findAll()).extracting(Employee::getId).containsExactlyInAnyOrder(1L, 2L, 4L, 5L, 6L, 7L, 8L, 9L);
+        Assertions.assertThat(directory.findById(9L).orElseThrow().getFirstName()).isEqualTo("Hossein");
+
+    }
+
+}
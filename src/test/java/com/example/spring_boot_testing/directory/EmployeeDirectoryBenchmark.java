@@ -0,0 +1,133 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// JMH read benchmarks of the full-table read models against the HashMap<Long, Employee> they replace:
+// lookups by id, lookups by id serialized to JSON, and listing every employee.
+// Run after mvn test-compile with the test classpath, e.g.
+//   mvn -q test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+//       -Dexec.args="-cp %classpath org.openjdk.jmh.Main EmployeeDirectoryBenchmark"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeDirectoryBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Mohammad", "Hossein", "Ali", "Reza", "Sara", "Maryam", "Zahra", "Amir"};
+    private static final String[] DOMAINS = {"gmail.com", "yahoo.com", "example.com"};
+    private static final int LOOKUP_IDS = 4096;
+
+    @Param({"100000"})
+    private int employees;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Map<Long, Employee> map;
+    private CompactEmployeeDirectory compact;
+    private OffHeapEmployeeDirectory offHeap;
+    private long[] ids;
+    private int next;
+    private JsonGenerator generator;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        map = new HashMap<>();
+        compact = new CompactEmployeeDirectory(employees);
+        offHeap = new OffHeapEmployeeDirectory(employees);
+        for (long id = 1; id <= employees; id++) {
+            // new String(...) so every row has its own copy, as entities loaded by Hibernate do
+            Employee employee = Employee.builder()
+                    .id(id)
+                    .firstName(new String(FIRST_NAMES[(int) (id % FIRST_NAMES.length)]))
+                    .lastName("Lastname" + (id % 1000))
+                    .email("employee" + id + "@" + DOMAINS[(int) (id % DOMAINS.length)])
+                    .build();
+            map.put(id, employee);
+            compact.upsert(employee);
+            offHeap.upsert(employee);
+        }
+        SplittableRandom random = new SplittableRandom(42);
+        ids = new long[LOOKUP_IDS];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = random.nextLong(1, employees + 1L);
+        }
+        generator = objectMapper.getFactory().createGenerator(OutputStream.nullOutputStream());
+    }
+
+    private long nextId() {
+        next = (next + 1) & (LOOKUP_IDS - 1);
+        return ids[next];
+    }
+
+    @Benchmark
+    public Employee hashMapFindById() {
+        return map.get(nextId());
+    }
+
+    @Benchmark
+    public Employee compactFindById() {
+        return compact.findById(nextId()).orElse(null);
+    }
+
+    @Benchmark
+    public void hashMapWriteJsonById() throws IOException {
+        objectMapper.writeValue(generator, map.get(nextId()));
+    }
+
+    @Benchmark
+    public void offHeapWriteJsonById() throws IOException {
+        offHeap.writeJson(nextId(), generator);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void hashMapFindAll(Blackhole blackhole) {
+        blackhole.consume(new ArrayList<>(map.values()));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void compactFindAll(Blackhole blackhole) {
+        List<Employee> all = compact.findAll();
+        blackhole.consume(all);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void offHeapWriteAllJson() throws IOException {
+        offHeap.writeAllJson(generator);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmployeeDirectoryBenchmark.class.getSimpleName()).build()).run();
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.event.EmployeeChangedEvent;
+import com.example.spring_boot_testing.event.EmployeesBulkUpdatedEvent;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeDirectoryRefresherTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private CompactEmployeeDirectory directory;
+    private EmployeeDirectoryRefresher refresher;
+
+    @BeforeEach
+    public void setup() {
+        directory = new CompactEmployeeDirectory(4);
+        refresher = new EmployeeDirectoryRefresher(directory, employeeRepository);
+    }
+
+    // JUnit test for serving the old contents while a bulk update rebuilds the directory and replaying changes made meanwhile
+    @Test
+    @DisplayName("JUnit test for serving the old contents while a bulk update rebuilds the directory and replaying changes made meanwhile")
+    public void givenChangeDuringRebuild_whenRebuildFinishes_thenChangeIsKept() throws Exception {
+
+        // given - precondition or setup
+        given(employeeRepository.scanAll(any())).willAnswer(invocation -> {
+            invocation.<Consumer<Employee>>getArgument(0).accept(employee(1L, "Ranjbar"));
+            return 1L;
+        });
+        refresher.load();
+        CountDownLatch scanStarted = new CountDownLatch(1);
+        CountDownLatch changeMade = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            Consumer<Employee> action = invocation.getArgument(0);
+            scanStarted.countDown();
+            changeMade.await(5, TimeUnit.SECONDS);
+            // the scan's snapshot was taken before employee 2 was created
+            action.accept(employee(1L, "Rahimi"));
+            return 1L;
+        }).given(employeeRepository).scanAll(any());
+
+        // when - action or the behavior that we are going test
+        refresher.onEmployeesBulkUpdated(new EmployeesBulkUpdatedEvent(1));
+        Assertions.assertThat(scanStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        refresher.onEmployeeChanged(new EmployeeChangedEvent(2L, EmployeeChangedEvent.Type.CREATED, employee(2L, "Rasouli")));
+        boolean loadedDuringRebuild = directory.isLoaded();
+        String lastNameDuringRebuild = directory.findById(1L).orElseThrow().getLastName();
+        changeMade.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!directory.isLoaded() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // then - verify the output
+        Assertions.assertThat(loadedDuringRebuild).isFalse();
+        Assertions.assertThat(lastNameDuringRebuild).isEqualTo("Ranjbar");
+        Assertions.assertThat(directory.isLoaded()).isTrue();
+        Assertions.assertThat(directory.findById(1L).orElseThrow().getLastName()).isEqualTo("Rahimi");
+        Assertions.assertThat(directory.findById(2L)).isPresent();
+        Assertions.assertThat(directory.size()).isEqualTo(2);
+
+    }
+
+    private static Employee employee(long id, String lastName) {
+        return Employee.builder()
+                .id(id)
+                .firstName("Mohammad")
+                .lastName(lastName)
+                .email("employee" + id + "@gmail.com")
+                .build();
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.spring_boot_testing.directory;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class LongIntHashMapTests {
+
+    // JUnit test for matching HashMap behaviour under random puts and removes
+    @Test
+    @DisplayName("JUnit test for matching HashMap behaviour under random puts and removes")
+    public void givenRandomOperations_whenComparedWithHashMap_thenSameContent() {
+
+        // given - precondition or setup
+        LongIntHashMap map = new LongIntHashMap(4);
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        // when - action or the behavior that we are going test
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                Assertions.assertThat(map.remove(key)).isEqualTo(removed == null ? LongIntHashMap.NO_VALUE : removed);
+            } else {
+                int value = random.nextInt(1_000_000);
+                Integer previous = expected.put(key, value);
+                Assertions.assertThat(map.put(key, value)).isEqualTo(previous == null ? LongIntHashMap.NO_VALUE : previous);
+            }
+        }
+
+        // then - verify the output
+        Assertions.assertThat(map.size()).isEqualTo(expected.size());
+        for (long key = 0; key < 5_000; key++) {
+            Integer value = expected.get(key);
+            Assertions.assertThat(map.get(key)).isEqualTo(value == null ? LongIntHashMap.NO_VALUE : value);
+        }
+
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.example.spring_boot_testing.directory;
+
+import com.example.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class OffHeapEmployeeDirectoryTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private OffHeapEmployeeDirectory directory;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        directory = new OffHeapEmployeeDirectory(10);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+    }
+
+    // JUnit test for reading an employee by id
+    @Test
+    @DisplayName("JUnit test for reading an employee by id")
+    public void givenEmployee_whenWriteJson_thenSerializeSameFieldsAsEmployee() throws IOException {
+
+        // given - precondition or setup
+        directory.upsert(employee);
+
+        // when - action or the behavior that we are going test
+        JsonNode json = objectMapper.readTree(write(generator -> directory.writeJson(1L, generator)));
+
+        // then - verify the output
+        Assertions.assertThat(json.toString()).isEqualTo(objectMapper.writeValueAsString(employee));
+
+    }
+
+    // JUnit test for listing after updates and deletes
+    @Test
+    @DisplayName("JUnit test for listing after updates and deletes")
+    public void givenUpdatesAndDeletes_whenWriteAllJson_thenListOnlyLatestLiveRecords() throws IOException {
+
+        // given - precondition or setup
+        directory.upsert(employee);
+        directory.upsert(employee.toBuilder().id(2L).firstName("Hossein").email("hossein@gmail.com").build());
+        directory.upsert(employee.toBuilder().id(3L).firstName("Ali").email("ali@gmail.com").build());
+        directory.upsert(employee.toBuilder().email("ranjbar@gmail.com").build());
+        directory.remove(2L);
+
+        // when - action or the behavior that we are going test
+        JsonNode json = objectMapper.readTree(write(directory::writeAllJson));
+
+        // then - verify the output
+        Assertions.assertThat(json.size()).isEqualTo(2);
+        Assertions.assertThat(json.get(0).get("id").asLong()).isEqualTo(3L);
+        Assertions.assertThat(json.get(1).get("email").asText()).isEqualTo("ranjbar@gmail.com");
+        Assertions.assertThat(directory.size()).isEqualTo(2);
+        Assertions.assertThat(directory.contains(2L)).isFalse();
+
+    }
+
+    // JUnit test for growing and compacting the buffer
+    @Test
+    @DisplayName("JUnit test for growing and compacting the buffer")
+    public void givenManyRewrites_whenUpsert_thenKeepAllLiveRecords() throws IOException {
+
+        // given - precondition or setup
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= 5_000; id++) {
+                directory.upsert(employee.toBuilder().id(id).email("employee" + id + "-" + round + "@gmail.com").build());
+            }
+        }
+
+        // when - action or the behavior that we are going test
+        JsonNode json = objectMapper.readTree(write(generator -> directory.writeJson(4_321L, generator)));
+
+        // then - verify the output
+        Assertions.assertThat(directory.size()).isEqualTo(5_000);
+        Assertions.assertThat(json.get("email").asText()).isEqualTo("employee4321-19@gmail.com");
+
+    }
+
+    // JUnit test for writing while a slow client reads the list
+    @Test
+    @DisplayName("JUnit test for writing while a slow client reads the list")
+    public void givenSlowClient_whenWriteAllJson_thenWritersAreNotBlocked() throws Exception {
+
+        // given - precondition or setup
+        for (long id = 1; id <= 1_000; id++) {
+            directory.upsert(employee.toBuilder().id(id).build());
+        }
+        CountDownLatch clientStuck = new CountDownLatch(1);
+        CountDownLatch releaseClient = new CountDownLatch(1);
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        OutputStream slowClient = new OutputStream() {
+            @Override
+            public void write(int b) {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                clientStuck.countDown();
+                await(releaseClient);
+                received.write(b, off, len);
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> listing = executor.submit(() -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(slowClient)) {
+                directory.writeAllJson(generator);
+            }
+            return null;
+        });
+        clientStuck.await(5, TimeUnit.SECONDS);
+
+        // when - action or the behavior that we are going test
+        // rewriting every employee grows and compacts the buffer under the write lock
+        for (int round = 0; round < 3; round++) {
+            for (long id = 1; id <= 1_000; id++) {
+                directory.upsert(employee.toBuilder().id(id).email("employee" + id + "-" + round + "@gmail.com").build());
+            }
+        }
+        directory.remove(1L);
+        releaseClient.countDown();
+        listing.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then - verify the output
+        JsonNode json = objectMapper.readTree(received.toByteArray());
+        Assertions.assertThat(json.size()).isEqualTo(1_000);
+        Assertions.assertThat(json.get(0).get("email").asText()).isEqualTo("mohammadranjbar@gmail.com");
+        Assertions.assertThat(directory.size()).isEqualTo(999);
+
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // the directory writes raw UTF-8, so (like the controller) write to a byte stream
+    private byte[] write(JsonWriter writer) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            writer.write(generator);
+        }
+        return out.toByteArray();
+    }
+
+    @FunctionalInterface
+    private interface JsonWriter {
+        void write(JsonGenerator generator) throws IOException;
+    }
+
+}
@@ -0,0 +1,258 @@
+package com.example.spring_boot_testing.filter;
+
+import com.example.spring_boot_testing.concurrency.AdaptiveConcurrencyLimiter;
+import com.example.spring_boot_testing.concurrency.BulkEndpoint;
+import com.example.spring_boot_testing.concurrency.ReadOnlyEndpoint;
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
+import com.example.spring_boot_testing.warmup.WarmupRequests;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ConcurrencyLimitFilterTests {
+
+    private AdaptiveConcurrencyLimiter readLimiter;
+    private AdaptiveConcurrencyLimiter writeLimiter;
+    private List<String> rejected;
+    private ConcurrencyLimitFilter filter;
+    private ObjectProvider<RequestMappingHandlerMapping> handlerMappings;
+
+    @BeforeEach
+    public void setup() {
+        readLimiter = new AdaptiveConcurrencyLimiter("read", 10, 2, 100, 0.5, Duration.ofSeconds(10));
+        writeLimiter = new AdaptiveConcurrencyLimiter("write", 10, 2, 100, 0.5, Duration.ofSeconds(10));
+        rejected = new ArrayList<>();
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.setServletContext(new MockServletContext());
+        context.registerSingleton("lookupController", LookupController.class);
+        context.registerSingleton("handlerMapping", RequestMappingHandlerMapping.class);
+        context.refresh();
+        handlerMappings = context.getBeanProvider(RequestMappingHandlerMapping.class);
+        filter = filter(readLimiter, writeLimiter);
+    }
+
+    // JUnit test for counting only 503 responses and pool timeouts as overload
+    @Test
+    @DisplayName("JUnit test for counting only 503 responses and pool timeouts as overload")
+    public void givenFailedRequests_whenFilter_thenOnlyOverloadShrinksLimit() throws Exception {
+
+        // given - precondition or setup
+        MockFilterChain failing = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                throw new IllegalArgumentException("invalid request");
+            }
+        };
+        MockFilterChain poolTimeout = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                throw new CannotCreateTransactionException("Could not open JPA EntityManager",
+                        new SQLTransientConnectionException("Connection is not available, request timed out after 30000ms"));
+            }
+        };
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), new MockHttpServletResponse(), failing));
+        int afterBug = writeLimiter.getLimit();
+        MockHttpServletResponse notFound = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), notFound,
+                (request, response) -> notFound.setStatus(HttpStatus.NOT_FOUND.value()));
+        int afterNotFound = readLimiter.getLimit();
+        org.junit.jupiter.api.Assertions.assertThrows(CannotCreateTransactionException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), new MockHttpServletResponse(), poolTimeout));
+        int afterPoolTimeout = writeLimiter.getLimit();
+        MockHttpServletResponse unavailable = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), unavailable,
+                (request, response) -> unavailable.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value()));
+
+        // then - verify the output
+        Assertions.assertThat(afterBug).isEqualTo(10);
+        Assertions.assertThat(afterNotFound).isEqualTo(10);
+        Assertions.assertThat(afterPoolTimeout).isEqualTo(5);
+        Assertions.assertThat(readLimiter.getLimit()).isEqualTo(5);
+        Assertions.assertThat(readLimiter.getInflight()).isZero();
+        Assertions.assertThat(writeLimiter.getInflight()).isZero();
+
+    }
+
+    // JUnit test for not sampling requests stopped by their deadline
+    @Test
+    @DisplayName("JUnit test for not sampling requests stopped by their deadline")
+    public void givenPoolTimeoutAfterDeadline_whenFilter_thenLimitIsUnchanged() throws Exception {
+
+        // given - precondition or setup
+        MockFilterChain deadlineExceeded = new MockFilterChain() {
+            @Override
+            public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                // as RequestDeadlineInterceptors.failFast does when it maps the failure
+                request.setAttribute(RequestDeadlineExceededException.REQUEST_ATTRIBUTE, Boolean.TRUE);
+                throw new RequestDeadlineExceededException("Request deadline exceeded during EmployeeService.saveEmployee",
+                        new CannotCreateTransactionException("Could not open JPA EntityManager",
+                                new SQLTransientConnectionException("Connection is not available, request timed out after 1000ms")));
+            }
+        };
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(RequestDeadlineExceededException.class, () ->
+                filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), new MockHttpServletResponse(), deadlineExceeded));
+
+        // then - verify the output
+        Assertions.assertThat(writeLimiter.getLimit()).isEqualTo(10);
+        Assertions.assertThat(writeLimiter.getInflight()).isZero();
+
+    }
+
+    // JUnit test for counting @ReadOnlyEndpoint handlers against the read limit
+    @Test
+    @DisplayName("JUnit test for counting @ReadOnlyEndpoint handlers against the read limit")
+    public void givenReadOnlyPostHandler_whenLimitsAreFull_thenRejectedByReadLimiter() throws Exception {
+
+        // given - precondition or setup
+        while (readLimiter.tryAcquire()) {
+            // fill the read limit
+        }
+
+        // when - action or the behavior that we are going test
+        MockHttpServletResponse lookup = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/employees/lookup"), lookup, new MockFilterChain());
+        MockHttpServletResponse create = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/employees"), create, new MockFilterChain());
+        MockHttpServletResponse update = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/employees/lookup/7"), update, new MockFilterChain());
+
+        // then - verify the output
+        Assertions.assertThat(lookup.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        Assertions.assertThat(create.getStatus()).isEqualTo(HttpStatus.OK.value());
+        Assertions.assertThat(update.getStatus()).isEqualTo(HttpStatus.OK.value());
+        Assertions.assertThat(rejected).containsExactly("read");
+
+    }
+
+    // JUnit test for holding the permit of an async request until it has completed
+    @Test
+    @DisplayName("JUnit test for holding the permit of an async request until it has completed")
+    public void givenAsyncRequest_whenInitialDispatchReturns_thenPermitIsHeldUntilCompletion() throws Exception {
+
+        // given - precondition or setup
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/7");
+        request.setAsyncSupported(true);
+
+        // when - action or the behavior that we are going test
+        filter.doFilter(request, new MockHttpServletResponse(), (servletRequest, servletResponse) -> servletRequest.startAsync());
+        int inflightDuringStream = readLimiter.getInflight();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // then - verify the output
+        Assertions.assertThat(inflightDuringStream).isEqualTo(1);
+        Assertions.assertThat(readLimiter.getInflight()).isZero();
+
+    }
+
+    // JUnit test for not comparing the latency of bulk requests with the threshold
+    @Test
+    @DisplayName("JUnit test for not comparing the latency of bulk requests with the threshold")
+    public void givenSlowBulkAndSingleReads_whenFilter_thenOnlySingleReadShrinksLimit() throws Exception {
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter strictReadLimiter = new AdaptiveConcurrencyLimiter("read", 10, 2, 100, 0.5, Duration.ofNanos(1));
+        ConcurrencyLimitFilter strictFilter = filter(strictReadLimiter, writeLimiter);
+        FilterChain slow = (request, response) -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // when - action or the behavior that we are going test
+        strictFilter.doFilter(new MockHttpServletRequest("POST", "/api/employees/lookup"), new MockHttpServletResponse(), slow);
+        int afterBulk = strictReadLimiter.getLimit();
+        strictFilter.doFilter(new MockHttpServletRequest("GET", "/api/employees/7"), new MockHttpServletResponse(), slow);
+
+        // then - verify the output
+        Assertions.assertThat(afterBulk).isEqualTo(10);
+        Assertions.assertThat(strictReadLimiter.getLimit()).isEqualTo(5);
+        Assertions.assertThat(strictReadLimiter.getInflight()).isZero();
+
+    }
+
+    // JUnit test for not sampling warm-up requests
+    @Test
+    @DisplayName("JUnit test for not sampling warm-up requests")
+    public void givenSlowWarmupRequest_whenFilter_thenLimitIsUnchanged() throws Exception {
+
+        // given - precondition or setup
+        AdaptiveConcurrencyLimiter strictReadLimiter = new AdaptiveConcurrencyLimiter("read", 10, 2, 100, 0.5, Duration.ofNanos(1));
+        ConcurrencyLimitFilter strictFilter = filter(strictReadLimiter, writeLimiter);
+        MockHttpServletRequest warmup = new MockHttpServletRequest("GET", "/api/employees/7");
+        warmup.addHeader(WarmupRequests.HEADER, WarmupRequests.token());
+        MockHttpServletRequest forged = new MockHttpServletRequest("GET", "/api/employees/7");
+        forged.addHeader(WarmupRequests.HEADER, "guessed");
+        FilterChain slow = (request, response) -> {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        // when - action or the behavior that we are going test
+        strictFilter.doFilter(warmup, new MockHttpServletResponse(), slow);
+        int afterWarmup = strictReadLimiter.getLimit();
+        strictFilter.doFilter(forged, new MockHttpServletResponse(), slow);
+
+        // then - verify the output
+        Assertions.assertThat(afterWarmup).isEqualTo(10);
+        Assertions.assertThat(strictReadLimiter.getLimit()).isEqualTo(5);
+        Assertions.assertThat(strictReadLimiter.getInflight()).isZero();
+
+    }
+
+    private ConcurrencyLimitFilter filter(AdaptiveConcurrencyLimiter readLimiter, AdaptiveConcurrencyLimiter writeLimiter) {
+        return new ConcurrencyLimitFilter(readLimiter, writeLimiter,
+                new HandlerAnnotationMatcher(handlerMappings, ReadOnlyEndpoint.class),
+                new HandlerAnnotationMatcher(handlerMappings, BulkEndpoint.class),
+                Duration.ofSeconds(1), limiter -> rejected.add(limiter.getName()));
+    }
+
+    @RestController
+    @RequestMapping("/api/employees")
+    static class LookupController {
+
+        @BulkEndpoint
+        @ReadOnlyEndpoint
+        @PostMapping("/lookup")
+        public String lookup() {
+            return "";
+        }
+
+        @PostMapping("/lookup/{id}")
+        public String update(@PathVariable("id") long id) {
+            return "";
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.example.spring_boot_testing.id;
+
+import com.example.spring_boot_testing.directory.OffHeapEmployeeDirectory;
+import com.example.spring_boot_testing.dto.EmployeeBatchResponse;
+import com.example.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.cfg.ContextAttributes;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+public class EmployeeIdSerializerTests {
+
+    // beyond Number.MAX_SAFE_INTEGER of JavaScript
+    private static final long ID = 290_000_000_000_000_001L;
+
+    private final Employee employee = Employee.builder()
+            .id(ID)
+            .firstName("Mohammad")
+            .lastName("Ranjbar")
+            .email("mohammadranjbar@gmail.com")
+            .build();
+
+    // JUnit test for writing ids as numbers by default
+    @Test
+    @DisplayName("JUnit test for writing ids as numbers by default")
+    public void givenDefaultObjectMapper_whenWriteEmployee_thenIdIsNumber() throws IOException {
+
+        // given - precondition or setup
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        // when - action or the behavior that we are going test
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(employee));
+
+        // then - verify the output
+        Assertions.assertThat(json.get("id").isNumber()).isTrue();
+        Assertions.assertThat(json.get("id").asLong()).isEqualTo(ID);
+        Assertions.assertThat(EmployeeIdSerializer.asString(objectMapper)).isFalse();
+
+    }
+
+    // JUnit test for writing every id as a string once enabled
+    @Test
+    @DisplayName("JUnit test for writing every id as a string once enabled")
+    public void givenJsonStringsEnabled_whenWriteEmployeesAndDirectory_thenIdsAreStrings() throws IOException {
+
+        // given - precondition or setup
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setDefaultAttributes(ContextAttributes.getEmpty().withSharedAttribute(EmployeeIdSerializer.JSON_STRINGS, true));
+        OffHeapEmployeeDirectory directory = new OffHeapEmployeeDirectory(10);
+        directory.upsert(employee);
+
+        // when - action or the behavior that we are going test
+        JsonNode batch = objectMapper.readTree(objectMapper.writeValueAsString(new EmployeeBatchResponse(List.of(employee), List.of(3L))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            directory.writeJson(ID, generator);
+        }
+
+        // then - verify the output
+        Assertions.assertThat(batch.get("employees").get(0).get("id").textValue()).isEqualTo(Long.toString(ID));
+        Assertions.assertThat(batch.get("missingIds").get(0).textValue()).isEqualTo("3");
+        Assertions.assertThat(objectMapper.readTree(out.toByteArray())).isEqualTo(batch.get("employees").get(0));
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.spring_boot_testing.id;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Generator throughput under contention, kept out of the unit tests because it runs for seconds; run with
+// -Dtest=SnowflakeIdGeneratorIT. Needs no database.
+public class SnowflakeIdGeneratorIT {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 2_000_000;
+
+    // JUnit test for the throughput of the generator with concurrent threads
+    @Test
+    @DisplayName("JUnit test for the throughput of the generator with concurrent threads")
+    public void givenConcurrentThreads_whenNextId_thenPrintThroughput() throws Exception {
+
+        // given - precondition or setup
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, Duration.ofMillis(100), System::currentTimeMillis);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // when - action or the behavior that we are going test
+        long start = System.nanoTime();
+        List<Future<Long>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                long last = 0;
+                for (int i = 0; i < IDS_PER_THREAD; i++) {
+                    long id = generator.nextId();
+                    if (id <= last) {
+                        throw new IllegalStateException("id " + id + " after " + last);
+                    }
+                    last = id;
+                }
+                return last;
+            }));
+        }
+        for (Future<Long> result : results) {
+            result.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdownNow();
+
+        // then - verify the output
+        System.out.printf("%d threads: %.1f million ids/s%n", THREADS, THREADS * IDS_PER_THREAD / seconds / 1e6);
+        Assertions.assertThat(seconds).isPositive();
+
+    }
+
+}
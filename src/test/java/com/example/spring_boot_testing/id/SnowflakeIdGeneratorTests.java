@@ -0,0 +1,130 @@
+package com.example.spring_boot_testing.id;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class SnowflakeIdGeneratorTests {
+
+    private static final long NOW = SnowflakeIdGenerator.EPOCH.toEpochMilli() + 1_000_000;
+
+    // JUnit test for unique ids across threads (SnowflakeIdGeneratorIT measures the throughput)
+    @Test
+    @DisplayName("JUnit test for unique ids across threads")
+    public void givenConcurrentThreads_whenNextId_thenAllIdsAreUnique() throws Exception {
+
+        // given - precondition or setup
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7, Duration.ofMillis(100), System::currentTimeMillis);
+        int threads = 4;
+        int idsPerThread = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        // when - action or the behavior that we are going test
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(executor.submit(() -> {
+                long[] ids = new long[idsPerThread];
+                for (int i = 0; i < idsPerThread; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        List<long[]> generated = new ArrayList<>();
+        for (Future<long[]> result : results) {
+            generated.add(result.get());
+        }
+        executor.shutdownNow();
+
+        // then - verify the output
+        Set<Long> unique = new HashSet<>();
+        for (long[] ids : generated) {
+            for (int i = 0; i < ids.length; i++) {
+                unique.add(ids[i]);
+                // every thread sees its own ids strictly increasing
+                if (i > 0) {
+                    Assertions.assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+                }
+            }
+        }
+        Assertions.assertThat(unique).hasSize(threads * idsPerThread);
+        Assertions.assertThat(unique).allSatisfy(id -> Assertions.assertThat(SnowflakeIdGenerator.workerIdOf(id)).isEqualTo(7));
+
+    }
+
+    // JUnit test for continuing after the last id when the clock steps back a little
+    @Test
+    @DisplayName("JUnit test for continuing after the last id when the clock steps back a little")
+    public void givenSmallClockRollback_whenNextId_thenIdsKeepIncreasing() {
+
+        // given - precondition or setup
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Duration.ofMillis(100), clock::get);
+        long beforeRollback = generator.nextId();
+
+        // when - action or the behavior that we are going test
+        clock.addAndGet(-50);
+        long afterRollback = generator.nextId();
+        clock.addAndGet(60);
+        long afterCatchUp = generator.nextId();
+
+        // then - verify the output
+        Assertions.assertThat(afterRollback).isGreaterThan(beforeRollback);
+        Assertions.assertThat(afterCatchUp).isGreaterThan(afterRollback);
+        Assertions.assertThat(SnowflakeIdGenerator.timestampOf(afterCatchUp).toEpochMilli()).isEqualTo(NOW + 10);
+
+    }
+
+    // JUnit test for refusing ids when the clock steps back too far
+    @Test
+    @DisplayName("JUnit test for refusing ids when the clock steps back too far")
+    public void givenLargeClockRollback_whenNextId_thenThrowIllegalStateException() {
+
+        // given - precondition or setup
+        AtomicLong clock = new AtomicLong(NOW);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, Duration.ofMillis(100), clock::get);
+        generator.nextId();
+        clock.addAndGet(-5_000);
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalStateException.class, generator::nextId);
+        clock.addAndGet(5_001);
+        Assertions.assertThat(generator.nextId()).isPositive();
+
+    }
+
+    // JUnit test for borrowing the next millisecond when the sequence is used up
+    @Test
+    @DisplayName("JUnit test for borrowing the next millisecond when the sequence is used up")
+    public void givenExhaustedSequence_whenNextId_thenContinueInNextMillisecond() {
+
+        // given - precondition or setup
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(3, Duration.ofMillis(100), () -> NOW);
+        long previous = 0;
+
+        // when - action or the behavior that we are going test
+        for (int i = 0; i < 4096; i++) {
+            previous = generator.nextId();
+        }
+        long borrowed = generator.nextId();
+
+        // then - verify the output
+        Assertions.assertThat(borrowed).isGreaterThan(previous);
+        Assertions.assertThat(SnowflakeIdGenerator.timestampOf(previous).toEpochMilli()).isEqualTo(NOW);
+        Assertions.assertThat(SnowflakeIdGenerator.timestampOf(borrowed).toEpochMilli()).isEqualTo(NOW + 1);
+        Assertions.assertThat(SnowflakeIdGenerator.workerIdOf(borrowed)).isEqualTo(3);
+
+    }
+
+}
@@ -0,0 +1,266 @@
+package com.example.spring_boot_testing.idempotency;
+
+import com.example.spring_boot_testing.exception.IdempotencyKeyMismatchException;
+import com.example.spring_boot_testing.exception.IdempotencyRequestInProgressException;
+import com.example.spring_boot_testing.model.Employee;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdempotencyServiceTests {
+
+    private InMemoryIdempotencyStore store;
+    private IdempotencyService idempotencyService;
+    private Employee employee;
+    private AtomicInteger executions;
+    // counted down when a caller finds a reservation in progress, i.e. a duplicate started waiting
+    private CountDownLatch reservationInProgress;
+
+    @BeforeEach
+    public void setup() {
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        reservationInProgress = new CountDownLatch(1);
+        store = new InMemoryIdempotencyStore(100, Duration.ofHours(1), Duration.ofMinutes(2), clock) {
+            @Override
+            public synchronized Optional<IdempotentResponse> reserve(String key, String fingerprint) {
+                Optional<IdempotentResponse> existing = super.reserve(key, fingerprint);
+                if (existing.isPresent() && !existing.get().completed()) {
+                    reservationInProgress.countDown();
+                }
+                return existing;
+            }
+        };
+        idempotencyService = new IdempotencyService(store, new ObjectMapper(), clock, Duration.ofSeconds(5));
+        employee = Employee.builder()
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+        executions = new AtomicInteger();
+    }
+
+    // JUnit test for replaying a retried request
+    @Test
+    @DisplayName("JUnit test for replaying a retried request")
+    public void givenRetryWithSameKey_whenExecute_thenReturnStoredResponseWithoutExecuting() {
+
+        // given - precondition or setup
+        idempotencyService.execute("key-1", employee, Employee.class, this::create);
+
+        // when - action or the behavior that we are going test
+        ResponseEntity<Employee> response = idempotencyService.execute("key-1", employee, Employee.class, this::create);
+
+        // then - verify the output
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        Assertions.assertThat(response.getBody().getId()).isEqualTo(1L);
+        Assertions.assertThat(response.getBody().getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+
+    }
+
+    // JUnit test for reusing a key with a different request
+    @Test
+    @DisplayName("JUnit test for reusing a key with a different request")
+    public void givenSameKeyWithDifferentBody_whenExecute_thenThrowsException() {
+
+        // given - precondition or setup
+        idempotencyService.execute("key-1", employee, Employee.class, this::create);
+        Employee other = employee.toBuilder().email("other@gmail.com").build();
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(IdempotencyKeyMismatchException.class,
+                () -> idempotencyService.execute("key-1", other, Employee.class, this::create));
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+
+    }
+
+    // JUnit test for concurrent duplicates waiting on the first request
+    @Test
+    @DisplayName("JUnit test for concurrent duplicates waiting on the first request")
+    public void givenConcurrentDuplicates_whenExecute_thenExecuteOnce() throws Exception {
+
+        // given - precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // when - action or the behavior that we are going test
+        Future<ResponseEntity<Employee>> first = executor.submit(() -> idempotencyService.execute("key-1", employee, Employee.class, () -> {
+            started.countDown();
+            await(release);
+            return create();
+        }));
+        started.await();
+        Future<ResponseEntity<Employee>> duplicate = executor.submit(() -> idempotencyService.execute("key-1", employee, Employee.class, this::create));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (idempotencyService.waitingDuplicates("key-1") == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        Assertions.assertThat(idempotencyService.waitingDuplicates("key-1")).isEqualTo(1);
+        release.countDown();
+
+        // then - verify the output
+        Assertions.assertThat(first.get(5, TimeUnit.SECONDS).getBody().getId()).isEqualTo(1L);
+        Assertions.assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody().getId()).isEqualTo(1L);
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        executor.shutdownNow();
+
+    }
+
+    // JUnit test for duplicates on another node waiting for the reservation
+    @Test
+    @DisplayName("JUnit test for duplicates on another node waiting for the reservation")
+    public void givenDuplicateOnOtherNode_whenExecute_thenWaitForReservationAndReplay() throws Exception {
+
+        // given - precondition or setup
+        IdempotencyService otherNode = new IdempotencyService(store, new ObjectMapper(),
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // when - action or the behavior that we are going test
+        Future<ResponseEntity<Employee>> first = executor.submit(() -> idempotencyService.execute("key-1", employee, Employee.class, () -> {
+            started.countDown();
+            await(release);
+            return create();
+        }));
+        started.await();
+        Future<ResponseEntity<Employee>> duplicate = executor.submit(() -> otherNode.execute("key-1", employee, Employee.class, this::create));
+        Assertions.assertThat(reservationInProgress.await(5, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+
+        // then - verify the output
+        Assertions.assertThat(first.get(5, TimeUnit.SECONDS).getBody().getId()).isEqualTo(1L);
+        ResponseEntity<Employee> replayed = duplicate.get(5, TimeUnit.SECONDS);
+        Assertions.assertThat(replayed.getBody().getId()).isEqualTo(1L);
+        Assertions.assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        executor.shutdownNow();
+
+    }
+
+    // JUnit test for giving up on a reservation that is not completed in time
+    @Test
+    @DisplayName("JUnit test for giving up on a reservation that is not completed in time")
+    public void givenReservationHeldTooLong_whenExecute_thenThrowsException() {
+
+        // given - precondition or setup
+        IdempotencyService otherNode = new IdempotencyService(store, new ObjectMapper(),
+                Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC), Duration.ofMillis(100));
+        store.reserve("key-1", otherNode.fingerprint(employee));
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(IdempotencyRequestInProgressException.class,
+                () -> otherNode.execute("key-1", employee, Employee.class, this::create));
+        Assertions.assertThat(executions.get()).isZero();
+
+    }
+
+    // JUnit test for retrying a request that failed
+    @Test
+    @DisplayName("JUnit test for retrying a request that failed")
+    public void givenFailedRequest_whenRetryWithSameKey_thenExecuteAgain() {
+
+        // given - precondition or setup
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalStateException.class,
+                () -> idempotencyService.execute("key-1", employee, Employee.class, () -> {
+                    throw new IllegalStateException("database down");
+                }));
+
+        // when - action or the behavior that we are going test
+        ResponseEntity<Employee> response = idempotencyService.execute("key-1", employee, Employee.class, this::create);
+
+        // then - verify the output
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        Assertions.assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+
+    }
+
+    // JUnit test for the bounded in-memory store
+    @Test
+    @DisplayName("JUnit test for the bounded in-memory store")
+    public void givenFullStore_whenSave_thenEvictEldestEntry() {
+
+        // given - precondition or setup
+        Clock clock = Clock.fixed(Instant.parse("2024-01-01T00:00:00Z"), ZoneOffset.UTC);
+        InMemoryIdempotencyStore smallStore = new InMemoryIdempotencyStore(2, Duration.ofHours(1), Duration.ofMinutes(2), clock);
+
+        // when - action or the behavior that we are going test
+        smallStore.complete("a", new IdempotentResponse("f", 201, null, clock.instant()));
+        smallStore.complete("b", new IdempotentResponse("f", 201, null, clock.instant()));
+        smallStore.complete("c", new IdempotentResponse("f", 201, null, clock.instant()));
+
+        // then - verify the output
+        Assertions.assertThat(smallStore.size()).isEqualTo(2);
+        Assertions.assertThat(smallStore.find("a")).isEmpty();
+        Assertions.assertThat(smallStore.find("c")).isPresent();
+
+    }
+
+    // JUnit test for taking over a reservation that was never completed
+    @Test
+    @DisplayName("JUnit test for taking over a reservation that was never completed")
+    public void givenAbandonedReservation_whenReserve_thenReservationTakenOver() {
+
+        // given - precondition or setup
+        Clock later = Clock.fixed(Instant.parse("2024-01-01T00:05:00Z"), ZoneOffset.UTC);
+        InMemoryIdempotencyStore laterStore = new InMemoryIdempotencyStore(100, Duration.ofHours(1), Duration.ofMinutes(2), later);
+        laterStore.complete("abandoned", IdempotentResponse.inProgress("f", Instant.parse("2024-01-01T00:00:00Z")));
+        laterStore.complete("running", IdempotentResponse.inProgress("f", Instant.parse("2024-01-01T00:04:00Z")));
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        Assertions.assertThat(laterStore.reserve("abandoned", "f")).isEmpty();
+        Assertions.assertThat(laterStore.reserve("running", "f")).get()
+                .extracting(IdempotentResponse::completed).isEqualTo(false);
+
+    }
+
+    // JUnit test for expiring entries after the TTL
+    @Test
+    @DisplayName("JUnit test for expiring entries after the TTL")
+    public void givenExpiredEntry_whenFind_thenReturnEmpty() {
+
+        // given - precondition or setup
+        store.complete("old", new IdempotentResponse("f", 201, null, Instant.parse("2023-12-31T22:00:00Z")));
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        Assertions.assertThat(store.find("old")).isEmpty();
+
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ResponseEntity<Employee> create() {
+        executions.incrementAndGet();
+        return new ResponseEntity<>(employee.toBuilder().id(1L).build(), HttpStatus.CREATED);
+    }
+
+}
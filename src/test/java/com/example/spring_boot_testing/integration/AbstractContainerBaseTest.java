@@ -64,6 +64,8 @@ public abstract class AbstractContainerBaseTest {
         registry.add("spring.datasource.url", POSTGRE_SQL_CONTAINER::getJdbcUrl);
         registry.add("spring.datasource.username", POSTGRE_SQL_CONTAINER::getUsername);
         registry.add("spring.datasource.password",POSTGRE_SQL_CONTAINER::getPassword);
+        // required, the application has no default worker id
+        registry.add("employees.id.worker-id", () -> 0);
     }
 
 }
@@ -0,0 +1,123 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Counts connection checkouts and their hold time per request with HikariCP's own metric
+// (hikaricp.connections.usage is recorded every time a connection goes back to the pool).
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ConnectionHoldTimeIT extends AbstractContainerBaseTest {
+
+    private static final int EMPLOYEES = 2_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private List<Employee> employees;
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAllInBatch();
+        List<Employee> newEmployees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            newEmployees.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").build());
+        }
+        employees = employeeRepository.saveAll(newEmployees);
+    }
+
+    // JUnit test for connection checkouts of a cached read
+    @Test
+    @DisplayName("JUnit test for connection checkouts of a cached read")
+    public void givenEmployee_whenGetEmployeeByIdTwice_thenOnlyFirstRequestBorrowsAConnection() throws Exception {
+
+        // given - precondition or setup
+        long employeeId = employees.get(0).getId();
+        Timer usage = connectionUsage();
+        long before = usage.count();
+
+        // when - action or the behavior that we are going test
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)).andExpect(MockMvcResultMatchers.status().isOk());
+        long afterFirst = usage.count();
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees/{id}", employeeId)).andExpect(MockMvcResultMatchers.status().isOk());
+
+        // then - verify the output
+        Assertions.assertThat(afterFirst - before).isEqualTo(1);
+        Assertions.assertThat(usage.count()).isEqualTo(afterFirst);
+
+    }
+
+    // JUnit test for connection hold time of a chunked read
+    @Test
+    @DisplayName("JUnit test for connection hold time of a chunked read")
+    public void givenMoreIdsThanOneQueryTakes_whenGetEmployeesByIds_thenBorrowOneConnectionBriefly() throws Exception {
+
+        // given - precondition or setup
+        String ids = employees.stream().map(employee -> String.valueOf(employee.getId())).collect(Collectors.joining(","));
+        Timer usage = connectionUsage();
+        long before = usage.count();
+        double holdBefore = usage.totalTime(TimeUnit.NANOSECONDS);
+
+        // when - action or the behavior that we are going test
+        long start = System.nanoTime();
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/employees/lookup")
+                        .contentType("application/json")
+                        .content("[" + ids + "]"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        long requestNanos = System.nanoTime() - start;
+
+        // then - verify the output
+        Assertions.assertThat(usage.count() - before).isEqualTo(1);
+        Assertions.assertThat(usage.totalTime(TimeUnit.NANOSECONDS) - holdBefore).isLessThan(requestNanos);
+
+    }
+
+    // JUnit test for releasing the connection before the response is serialized
+    @Test
+    @DisplayName("JUnit test for releasing the connection before the response is serialized")
+    public void givenManyEmployees_whenGetAllEmployees_thenConnectionIsHeldShorterThanTheRequest() throws Exception {
+
+        // given - precondition or setup
+        Timer usage = connectionUsage();
+        long before = usage.count();
+        double holdBefore = usage.totalTime(TimeUnit.NANOSECONDS);
+
+        // when - action or the behavior that we are going test
+        long start = System.nanoTime();
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")).andExpect(MockMvcResultMatchers.status().isOk());
+        long requestNanos = System.nanoTime() - start;
+
+        // then - verify the output
+        Assertions.assertThat(usage.count() - before).isEqualTo(1);
+        Assertions.assertThat(usage.totalTime(TimeUnit.NANOSECONDS) - holdBefore).isLessThan(requestNanos);
+
+    }
+
+    private Timer connectionUsage() {
+        return meterRegistry.get("hikaricp.connections.usage").timer();
+    }
+
+}
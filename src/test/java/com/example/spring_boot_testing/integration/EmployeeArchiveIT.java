@@ -0,0 +1,152 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.archive.EmployeeArchive;
+import com.example.spring_boot_testing.archive.EmployeeArchiver;
+import com.example.spring_boot_testing.dto.ArchivedEmployee;
+import com.example.spring_boot_testing.dto.EmployeeChangesResponse;
+import com.example.spring_boot_testing.exception.ChangeTokenExpiredException;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.EmployeeChangeFeedService;
+import com.example.spring_boot_testing.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+
+// Deleted employees stay in the employees table (invisible) until the archiver moves them to employees_archive.
+@SpringBootTest(properties = "employees.archive.initial-delay=1h")
+public class EmployeeArchiveIT extends AbstractContainerBaseTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeArchive employeeArchive;
+
+    @Autowired
+    private EmployeeArchiver employeeArchiver;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private EmployeeChangeFeedService changeFeedService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAllInBatch();
+    }
+
+    // JUnit test for moving a deleted employee to the archive
+    @Test
+    @DisplayName("JUnit test for moving a deleted employee to the archive")
+    public void givenDeletedEmployee_whenArchive_thenRowMovesToArchive() {
+
+        // given - precondition or setup
+        Employee kept = employeeService.saveEmployee(Employee.builder()
+                .firstName("Hossein").lastName("Rahimi").email("hosseinrahimi@gmail.com").build());
+        Employee deleted = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("alirasouli@gmail.com").build());
+        employeeService.deleteEmployee(deleted.getId());
+        Assertions.assertThat(countRows(deleted.getId())).isEqualTo(1);
+
+        // when - action or the behavior that we are going test
+        int moved = employeeArchiver.archiveNow();
+
+        // then - verify the output
+        Assertions.assertThat(moved).isEqualTo(1);
+        Assertions.assertThat(countRows(deleted.getId())).isZero();
+        Assertions.assertThat(countRows(kept.getId())).isEqualTo(1);
+        ArchivedEmployee archived = employeeArchive.findById(deleted.getId()).orElseThrow();
+        Assertions.assertThat(archived.getReason()).isEqualTo(ArchivedEmployee.Reason.DELETED);
+        Assertions.assertThat(archived.getDeletedAt()).isNotNull();
+        Assertions.assertThat(employeeArchive.findByEmail("alirasouli@gmail.com")).hasSize(1);
+        Assertions.assertThat(employeeArchive.findByEmail(" AliRasouli@Gmail.com")).hasSize(1);
+        Assertions.assertThat(employeeArchiver.archiveNow()).isZero();
+
+    }
+
+    // JUnit test for archiving employees that were not updated for a long time
+    @Test
+    @DisplayName("JUnit test for archiving employees that were not updated for a long time")
+    public void givenInactiveEmployee_whenArchive_thenRowMovesToArchiveWithTombstone() {
+
+        // given - precondition or setup
+        Employee inactive = employeeService.saveEmployee(Employee.builder()
+                .firstName("Mohammad").lastName("Ranjbar").email("mohammadranjbar@gmail.com").build());
+        // two days later, with employees archived after one day without updates
+        Clock later = Clock.offset(Clock.systemUTC(), Duration.ofDays(2));
+        EmployeeArchiver archiver = new EmployeeArchiver(employeeArchive, eventPublisher, later, 1, 10, Duration.ofDays(1), Duration.ofDays(30));
+
+        // when - action or the behavior that we are going test
+        int moved = archiver.archiveNow();
+
+        // then - verify the output
+        Assertions.assertThat(moved).isEqualTo(1);
+        Assertions.assertThat(employeeRepository.findById(inactive.getId())).isEmpty();
+        Assertions.assertThat(employeeArchive.findById(inactive.getId()).orElseThrow().getReason())
+                .isEqualTo(ArchivedEmployee.Reason.INACTIVE);
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employee_tombstones where employee_id = ?",
+                Integer.class, inactive.getId())).isEqualTo(1);
+
+    }
+
+    // JUnit test for removing old tombstones and expiring change tokens from before them
+    @Test
+    @DisplayName("JUnit test for removing old tombstones and expiring change tokens from before them")
+    public void givenOldTombstone_whenPruneTombstones_thenTombstoneIsRemovedAndOlderTokensExpire() {
+
+        // given - precondition or setup
+        Employee deleted = employeeService.saveEmployee(Employee.builder()
+                .firstName("Reza").lastName("Karimi").email("rezakarimi@gmail.com").build());
+        String token = drain(null);
+        employeeService.deleteEmployee(deleted.getId());
+        // 31 days later, with tombstones kept for 30 days
+        Clock later = Clock.offset(Clock.systemUTC(), Duration.ofDays(31));
+        EmployeeArchiver archiver = new EmployeeArchiver(employeeArchive, eventPublisher, later, 1000, 10, null, Duration.ofDays(30));
+
+        try {
+            // when - action or the behavior that we are going test
+            int pruned = archiver.pruneTombstonesNow();
+
+            // then - verify the output
+            Assertions.assertThat(pruned).isGreaterThanOrEqualTo(1);
+            Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employee_tombstones where employee_id = ?",
+                    Integer.class, deleted.getId())).isZero();
+            org.junit.jupiter.api.Assertions.assertThrows(ChangeTokenExpiredException.class, () -> changeFeedService.getChangesSince(token));
+            Assertions.assertThat(changeFeedService.getChangesSince(null).getDeletedIds()).doesNotContain(deleted.getId());
+        } finally {
+            jdbcTemplate.update("delete from employees where id = ?", deleted.getId());
+            jdbcTemplate.update("delete from employee_tombstones_pruned");
+        }
+
+    }
+
+    private String drain(String token) {
+        EmployeeChangesResponse changes;
+        do {
+            changes = changeFeedService.getChangesSince(token);
+            token = changes.getNextToken();
+        } while (changes.isHasMore());
+        return token;
+    }
+
+    private int countRows(long id) {
+        return jdbcTemplate.queryForObject("select count(*) from employees where id = ?", Integer.class, id);
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.SpringBootTestingApplication;
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.cache.EmployeeInvalidationListener;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.function.BooleanSupplier;
+
+// Two application contexts ("pods") share one PostgreSQL container. A write on the first one must evict
+// the employee from the second one's local cache through LISTEN/NOTIFY.
+public class EmployeeCacheInvalidationIT extends AbstractContainerBaseTest {
+
+    private static ConfigurableApplicationContext node1;
+    private static ConfigurableApplicationContext node2;
+
+    private Employee employee;
+
+    @BeforeAll
+    public static void startNodes() {
+        node1 = startNode(1);
+        node2 = startNode(2);
+    }
+
+    @AfterAll
+    public static void stopNodes() {
+        node1.close();
+        node2.close();
+    }
+
+    private static ConfigurableApplicationContext startNode(int workerId) {
+        return new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                // command line arguments, so they override application.properties
+                .run(
+                        "--employees.id.worker-id=" + workerId,
+                        "--spring.datasource.url=" + POSTGRE_SQL_CONTAINER.getJdbcUrl(),
+                        "--spring.datasource.username=" + POSTGRE_SQL_CONTAINER.getUsername(),
+                        "--spring.datasource.password=" + POSTGRE_SQL_CONTAINER.getPassword());
+    }
+
+    @BeforeEach
+    public void setup() {
+        node1.getBean(EmployeeRepository.class).deleteAll();
+        employee = node1.getBean(EmployeeService.class).saveEmployee(Employee.builder()
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build());
+        waitFor(() -> node1.getBean(EmployeeInvalidationListener.class).isListening()
+                && node2.getBean(EmployeeInvalidationListener.class).isListening());
+    }
+
+    @Test
+    public void givenEmployeeCachedOnOtherNode_whenUpdateEmployee_thenOtherNodeEvictsIt() {
+
+        // given - precondition or setup
+        node2.getBean(EmployeeService.class).getEmployeeById(employee.getId());
+        EmployeeCache node2Cache = node2.getBean(EmployeeCache.class);
+        Assertions.assertThat(node2Cache.get(employee.getId())).isPresent();
+
+        // when - action or the behavior that we are going test
+        employee.setEmail("hosseinranjbar@gmail.com");
+        node1.getBean(EmployeeService.class).updateEmployee(employee);
+
+        // then - verify the output
+        waitFor(() -> node2Cache.get(employee.getId()).isEmpty());
+        Assertions.assertThat(node2.getBean(EmployeeService.class).getEmployeeById(employee.getId()).getEmail())
+                .isEqualTo("hosseinranjbar@gmail.com");
+
+    }
+
+    @Test
+    public void givenEmployeeCachedOnOtherNode_whenDeleteEmployee_thenOtherNodeEvictsIt() {
+
+        // given - precondition or setup
+        node2.getBean(EmployeeService.class).getEmployeeById(employee.getId());
+        EmployeeCache node2Cache = node2.getBean(EmployeeCache.class);
+
+        // when - action or the behavior that we are going test
+        node1.getBean(EmployeeService.class).deleteEmployee(employee.getId());
+
+        // then - verify the output
+        waitFor(() -> node2Cache.get(employee.getId()).isEmpty());
+        Assertions.assertThat(node2.getBean(EmployeeService.class).getEmployeeById(employee.getId())).isNull();
+
+    }
+
+    private static void waitFor(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+}
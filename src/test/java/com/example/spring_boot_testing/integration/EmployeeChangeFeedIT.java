@@ -0,0 +1,113 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.dto.EmployeeChangesResponse;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.EmployeeChangeFeedService;
+import com.example.spring_boot_testing.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+// Audit columns, change sequence and tombstones are maintained by the entity listener on every write path,
+// the writing transaction id by a trigger.
+@SpringBootTest
+public class EmployeeChangeFeedIT extends AbstractContainerBaseTest {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeChangeFeedService changeFeedService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // JUnit test for reading creates, updates and deletes from a change token
+    @Test
+    @DisplayName("JUnit test for reading creates, updates and deletes from a change token")
+    public void givenChangeToken_whenEmployeesAreWritten_thenChangesSinceReturnsOnlyThoseWrites() {
+
+        // given - precondition or setup
+        Employee unchanged = employeeService.saveEmployee(Employee.builder()
+                .firstName("Hossein").lastName("Rahimi").email("hosseinrahimi@gmail.com").build());
+        Employee updated = employeeService.saveEmployee(Employee.builder()
+                .firstName("Mohammad").lastName("Ranjbar").email("mohammadranjbar@gmail.com").build());
+        Employee deleted = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("alirasouli@gmail.com").build());
+        String token = drain(null);
+
+        // when - action or the behavior that we are going test
+        Employee employee = employeeRepository.findById(updated.getId()).orElseThrow();
+        employee.setEmail("mohammad.ranjbar@gmail.com");
+        employeeService.updateEmployee(employee);
+        employeeService.deleteEmployee(deleted.getId());
+        Employee created = employeeService.saveEmployee(Employee.builder()
+                .firstName("Reza").lastName("Karimi").email("rezakarimi@gmail.com").build());
+        EmployeeChangesResponse changes = changeFeedService.getChangesSince(token);
+
+        // then - verify the output
+        Assertions.assertThat(changes.getChanged()).extracting(Employee::getId).containsExactly(updated.getId(), created.getId());
+        Assertions.assertThat(changes.getChanged().get(0).getEmail()).isEqualTo("mohammad.ranjbar@gmail.com");
+        Assertions.assertThat(changes.getChanged().get(0).getUpdatedAt()).isAfter(changes.getChanged().get(0).getCreatedAt());
+        Assertions.assertThat(changes.getDeletedIds()).containsExactly(deleted.getId());
+        Assertions.assertThat(changes.getChanged()).extracting(Employee::getId).doesNotContain(unchanged.getId());
+        Assertions.assertThat(changeFeedService.getChangesSince(changes.getNextToken()).getChanged()).isEmpty();
+
+    }
+
+    // JUnit test for not moving the token past a change of a transaction that is still running
+    @Test
+    @DisplayName("JUnit test for not moving the token past a change of a transaction that is still running")
+    public void givenSlowWriteTransaction_whenLaterWriteCommitsFirst_thenNeitherIsSkipped() throws Exception {
+
+        // given - precondition or setup
+        String token = drain(null);
+        long slowId;
+        try (Connection slow = dataSource.getConnection()) {
+            slow.setAutoCommit(false);
+            // takes its change sequence number first, commits last
+            try (Statement statement = slow.createStatement();
+                 ResultSet inserted = statement.executeQuery("insert into employees (id, first_name, last_name, email, change_seq, created_at, updated_at) " +
+                         "values (-4711, 'Sara', 'Ahmadi', 'saraahmadi@gmail.com', nextval('employee_change_seq'), current_timestamp, current_timestamp) returning id")) {
+                inserted.next();
+                slowId = inserted.getLong(1);
+            }
+            Employee fast = employeeService.saveEmployee(Employee.builder()
+                    .firstName("Reza").lastName("Karimi").email("rezakarimi2@gmail.com").build());
+
+            // when - action or the behavior that we are going test
+            EmployeeChangesResponse whileRunning = changeFeedService.getChangesSince(token);
+            slow.commit();
+            EmployeeChangesResponse afterCommit = changeFeedService.getChangesSince(whileRunning.getNextToken());
+
+            // then - verify the output
+            Assertions.assertThat(whileRunning.getChanged()).isEmpty();
+            Assertions.assertThat(whileRunning.getNextToken()).isEqualTo(token);
+            Assertions.assertThat(afterCommit.getChanged()).extracting(Employee::getId).containsExactly(slowId, fast.getId());
+        } finally {
+            employeeRepository.deleteById(-4711L);
+        }
+
+    }
+
+    private String drain(String token) {
+        EmployeeChangesResponse changes;
+        do {
+            changes = changeFeedService.getChangesSince(token);
+            token = changes.getNextToken();
+        } while (changes.isHasMore());
+        return token;
+    }
+
+}
@@ -57,7 +57,7 @@ import java.util.List;
 // This tool allows you to send real HTTP requests to a real server, so your tests will be closer to the real environment.
 // TestRestTemplate is best suited for full end-to-end testing, where you want to see how your application performs in a real environment.
 
-@SpringBootTest
+@SpringBootTest(properties = "employees.id.worker-id=0")
 @AutoConfigureMockMvc
 public class EmployeeControllerIT {
 
@@ -0,0 +1,174 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateRequest;
+import com.example.spring_boot_testing.dto.EmployeeSearchCriteria;
+import com.example.spring_boot_testing.exception.ResourceNotFoundException;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeIndexInitializer;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// Case-insensitive email lookups served by the unique expression index on lower(email). The benchmark loads a copy of
+// the employees table with mixed-case emails and compares lookups with and without the expression index; its size
+// is set with -Demployees.email.benchmark.rows (e.g. 1000000, the default keeps the build fast).
+@SpringBootTest
+public class EmployeeEmailLookupIT extends AbstractContainerBaseTest {
+
+    private static final int BENCHMARK_ROWS = Integer.getInteger("employees.email.benchmark.rows", 200_000);
+    private static final int BENCHMARK_LOOKUPS = 2_000;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // JUnit test for finding employees by email in any case
+    @Test
+    @DisplayName("JUnit test for finding employees by email in any case")
+    public void givenSavedEmployee_whenFindByEmailInOtherCase_thenReturnEmployee() {
+
+        // given - precondition or setup
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Mohammad").lastName("Ranjbar").email(" MohammadRanjbar@Gmail.com").build());
+
+        // when - action or the behavior that we are going test
+        Employee found = employeeService.findByEmail("MOHAMMADRANJBAR@gmail.COM");
+        // the table is too small here for the planner to prefer the index, the benchmark below checks the plan
+        String index = jdbcTemplate.queryForObject("select indexdef from pg_indexes where indexname = ?", String.class,
+                EmployeeIndexInitializer.EMAIL_INDEX);
+
+        // then - verify the output
+        Assertions.assertThat(employee.getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+        Assertions.assertThat(found.getId()).isEqualTo(employee.getId());
+        Assertions.assertThat(index).contains("lower((email)::text)");
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> employeeService.saveEmployee(Employee.builder()
+                .firstName("Mohammad").lastName("Ranjbar").email("MOHAMMADRANJBAR@GMAIL.COM").build()));
+        employeeService.deleteEmployee(employee.getId());
+        Assertions.assertThat(employeeRepository.findByNormalizedEmail("mohammadranjbar@gmail.com")).isEmpty();
+
+    }
+
+    // JUnit test for the unique email index, which ignores deleted employees
+    @Test
+    @DisplayName("JUnit test for the unique email index, which ignores deleted employees")
+    public void givenUniqueEmailIndex_whenEmailIsTakenOrFreed_thenOnlyLiveEmployeesConflict() {
+
+        // given - precondition or setup
+        // EmployeePartitioningIT may have partitioned the shared table, employee_emails keeps emails unique then
+        Assumptions.assumeTrue(jdbcTemplate.queryForObject(
+                "select count(*) from pg_partitioned_table where partrelid = to_regclass('employees')", Integer.class) == 0);
+        Employee deleted = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("alirasouli@gmail.com").build());
+        employeeService.deleteEmployee(deleted.getId());
+        Employee other = employeeService.saveEmployee(Employee.builder()
+                .firstName("Hossein").lastName("Rahimi").email("hosseinrahimi@gmail.com").build());
+
+        // when - action or the behavior that we are going test
+        Employee reused = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("AliRasouli@gmail.com").build());
+        String index = jdbcTemplate.queryForObject("select indexdef from pg_indexes where indexname = ?", String.class,
+                EmployeeIndexInitializer.EMAIL_INDEX);
+
+        // then - verify the output
+        Assertions.assertThat(reused.getId()).isNotEqualTo(deleted.getId());
+        Assertions.assertThat(index).startsWith("CREATE UNIQUE INDEX").endsWith("WHERE (deleted_at IS NULL)");
+        // no lookup before an update, the index rejects the second live employee with the email
+        ResourceNotFoundException exception = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.updateEmployee(other.toBuilder().email("alirasouli@gmail.com").build()));
+        Assertions.assertThat(exception.getMessage()).startsWith("Resource already exist with given email");
+        Assertions.assertThat(employeeService.findByEmail("hosseinrahimi@gmail.com")).isNotNull();
+        // a bulk update moving a second live employee to the email fails as a whole
+        Employee moved = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("alirasouli@yahoo.com").build());
+        ResourceNotFoundException bulkException = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.bulkUpdateEmployees(EmployeeBulkUpdateRequest.builder()
+                        .filter(EmployeeSearchCriteria.builder().emailDomain("yahoo.com").build())
+                        .set(EmployeeBulkUpdateRequest.Changes.builder().emailDomain("gmail.com").build())
+                        .build()));
+        Assertions.assertThat(bulkException.getMessage()).isEqualTo("Resource already exist with given email: alirasouli@gmail.com");
+        Assertions.assertThat(employeeService.findByEmail("alirasouli@yahoo.com").getId()).isEqualTo(moved.getId());
+        employeeService.deleteEmployee(moved.getId());
+        employeeService.deleteEmployee(reused.getId());
+        employeeService.deleteEmployee(other.getId());
+
+    }
+
+    // JUnit test for finding rows written before emails were normalized
+    @Test
+    @DisplayName("JUnit test for finding rows written before emails were normalized")
+    public void givenLegacyMixedCaseRow_whenFindByNormalizedEmail_thenReturnEmployee() {
+
+        // given - precondition or setup
+        long id = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from employees", Long.class);
+        jdbcTemplate.update("insert into employees (id, first_name, last_name, email) values (?, 'Hossein', 'Aslani', " +
+                "'HosseinAslani@Gmail.com')", id);
+
+        // when - action or the behavior that we are going test
+        Employee found = employeeService.findByEmail("hosseinaslani@gmail.com");
+
+        // then - verify the output
+        Assertions.assertThat(found.getId()).isEqualTo(id);
+        Assertions.assertThat(employeeRepository.findByEmail("hosseinaslani@gmail.com")).isEmpty();
+        jdbcTemplate.update("delete from employees where id = ?", id);
+
+    }
+
+    // JUnit test for lookup throughput with and without the expression index
+    @Test
+    @DisplayName("JUnit test for lookup throughput with and without the expression index")
+    public void givenMixedCaseEmails_whenLookupWithAndWithoutExpressionIndex_thenPrintThroughput() {
+
+        // given - precondition or setup
+        jdbcTemplate.execute("drop table if exists benchmark_emails");
+        jdbcTemplate.execute("create table benchmark_emails (id bigint primary key, first_name varchar(255), " +
+                "last_name varchar(255), email varchar(255))");
+        jdbcTemplate.update("insert into benchmark_emails select g, 'First' || g, 'Last' || g, " +
+                "'Employee' || g || '@Example.com' from generate_series(1, ?) g", BENCHMARK_ROWS);
+        jdbcTemplate.execute("analyze benchmark_emails");
+
+        // when - action or the behavior that we are going test
+        double withoutIndex = lookupsPerSecond();
+        jdbcTemplate.execute("create index benchmark_emails_lower on benchmark_emails (lower(email))");
+        jdbcTemplate.execute("analyze benchmark_emails");
+        double withIndex = lookupsPerSecond();
+        String plan = explain("select * from benchmark_emails where lower(email) = 'employee1@example.com'");
+
+        // then - verify the output
+        System.out.printf("%d rows, lower(email) without index: %.0f lookups/s%n", BENCHMARK_ROWS, withoutIndex);
+        System.out.printf("%d rows, lower(email) with index:    %.0f lookups/s%n", BENCHMARK_ROWS, withIndex);
+        Assertions.assertThat(plan).contains("benchmark_emails_lower");
+        Assertions.assertThat(withIndex).isGreaterThan(withoutIndex);
+        jdbcTemplate.execute("drop table benchmark_emails");
+
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForList("explain (analyze, costs off) " + sql, String.class).stream()
+                .collect(Collectors.joining("\n"));
+    }
+
+    private double lookupsPerSecond() {
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_LOOKUPS; i++) {
+            long id = ThreadLocalRandom.current().nextLong(1, BENCHMARK_ROWS + 1);
+            jdbcTemplate.queryForObject("select id from benchmark_emails where lower(email) = ?", Long.class,
+                    Employee.normalizeEmail("EMPLOYEE" + id + "@example.COM"));
+        }
+        return BENCHMARK_LOOKUPS / ((System.nanoTime() - start) / 1e9);
+    }
+
+}
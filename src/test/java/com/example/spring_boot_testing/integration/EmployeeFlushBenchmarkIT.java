@@ -0,0 +1,94 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.assertj.core.api.Assertions;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Cost of a flush with 1000 managed employees, for 0, 10 and 100 changed employees per flush. Without bytecode
+// enhancement every flush compares all 1000 employees with their snapshots; with it (the default build) only the
+// employees whose setters were called are looked at. For the baseline build without enhancement:
+//   mvn clean test -Dhibernate.enhance.phase=none -Dtest=EmployeeFlushBenchmarkIT
+// Flushes per measurement: -Demployees.flush.benchmark.rounds (default 500).
+@SpringBootTest
+public class EmployeeFlushBenchmarkIT extends AbstractContainerBaseTest {
+
+    private static final int EMPLOYEES = 1_000;
+    private static final int ROUNDS = Integer.getInteger("employees.flush.benchmark.rounds", 500);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAllInBatch();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").build());
+        }
+        employeeRepository.saveAll(employees);
+    }
+
+    // JUnit test for the flush cost per 1000 managed employees
+    @Test
+    @DisplayName("JUnit test for the flush cost per 1000 managed employees")
+    public void givenThousandManagedEmployees_whenFlush_thenPrintFlushCost() {
+
+        // given - precondition or setup
+        boolean enhanced = SelfDirtinessTracker.class.isAssignableFrom(Employee.class);
+
+        // when - action or the behavior that we are going test
+        // the first measurement warms up the JIT and the statement cache
+        microsPerFlush(10);
+        double unchanged = microsPerFlush(0);
+        double tenChanged = microsPerFlush(10);
+        double hundredChanged = microsPerFlush(100);
+
+        // then - verify the output
+        System.out.printf("enhanced=%s, %d managed employees, 0 changed:   %.1f us per flush%n", enhanced, EMPLOYEES, unchanged);
+        System.out.printf("enhanced=%s, %d managed employees, 10 changed:  %.1f us per flush%n", enhanced, EMPLOYEES, tenChanged);
+        System.out.printf("enhanced=%s, %d managed employees, 100 changed: %.1f us per flush%n", enhanced, EMPLOYEES, hundredChanged);
+        Assertions.assertThat(unchanged).isPositive();
+        Assertions.assertThat(employeeRepository.count()).isEqualTo(EMPLOYEES);
+
+    }
+
+    // loads all employees into one persistence context and flushes ROUNDS times, changing `changed` employees
+    // before each flush; the transaction is rolled back at the end
+    private double microsPerFlush(int changed) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.getTransaction().begin();
+            List<Employee> employees = entityManager.createQuery("select e from Employee e", Employee.class).getResultList();
+            Assertions.assertThat(employees).hasSize(EMPLOYEES);
+            long nanos = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                for (int i = 0; i < changed; i++) {
+                    Employee employee = employees.get((round * changed + i) % EMPLOYEES);
+                    employee.setFirstName("First" + round + "-" + i);
+                }
+                long start = System.nanoTime();
+                entityManager.flush();
+                nanos += System.nanoTime() - start;
+            }
+            entityManager.getTransaction().rollback();
+            return nanos / 1_000.0 / ROUNDS;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.id.SnowflakeIdGenerator;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+// Insert throughput of the three ways to get an employee id, written the way Hibernate writes them with
+// hibernate.jdbc.batch_size=50, one transaction per 50 employees:
+// - IDENTITY: every insert is executed on its own to read the generated id back, no JDBC batching
+// - pooled sequence (allocationSize = 50): one nextval per 50 rows, then one batch
+// - Snowflake: ids from SnowflakeIdGenerator, one batch
+// Rows per run: -Demployees.id.benchmark.rows (default 20000).
+@SpringBootTest
+public class EmployeeIdInsertBenchmarkIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = Integer.getInteger("employees.id.benchmark.rows", 20_000);
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // JUnit test for insert throughput with database and application generated ids
+    @Test
+    @DisplayName("JUnit test for insert throughput with database and application generated ids")
+    public void givenIdStrategies_whenInsertEmployees_thenPrintThroughput() throws Exception {
+
+        // given - precondition or setup
+        jdbcTemplate.execute("drop table if exists id_benchmark_identity, id_benchmark_sequence, id_benchmark_snowflake");
+        jdbcTemplate.execute("drop sequence if exists id_benchmark_seq");
+        jdbcTemplate.execute("create table id_benchmark_identity (id bigint generated by default as identity primary key, " +
+                "first_name varchar(255), last_name varchar(255), email varchar(255))");
+        jdbcTemplate.execute("create table id_benchmark_sequence (like id_benchmark_identity including defaults)");
+        jdbcTemplate.execute("alter table id_benchmark_sequence add primary key (id)");
+        jdbcTemplate.execute("create sequence id_benchmark_seq increment by " + BATCH_SIZE);
+        jdbcTemplate.execute("create table id_benchmark_snowflake (id bigint primary key, " +
+                "first_name varchar(255), last_name varchar(255), email varchar(255))");
+        SnowflakeIdGenerator generator = SnowflakeIdGenerator.forWorker(SnowflakeIdGenerator.MAX_WORKER_ID, Duration.ofMillis(100));
+
+        // when - action or the behavior that we are going test
+        double identity = insertsPerSecond(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(
+                    "insert into id_benchmark_identity (first_name, last_name, email) values (?, ?, ?)",
+                    Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < BATCH_SIZE; i++) {
+                    bind(insert, i);
+                    insert.executeUpdate();
+                    try (ResultSet keys = insert.getGeneratedKeys()) {
+                        keys.next();
+                    }
+                }
+            }
+        });
+        double sequence = insertsPerSecond(connection -> {
+            long first;
+            try (Statement statement = connection.createStatement();
+                 ResultSet nextval = statement.executeQuery("select nextval('id_benchmark_seq')")) {
+                nextval.next();
+                first = nextval.getLong(1);
+            }
+            insertBatch(connection, "id_benchmark_sequence", i -> first + i);
+        });
+        double snowflake = insertsPerSecond(connection ->
+                insertBatch(connection, "id_benchmark_snowflake", i -> generator.nextId()));
+
+        // then - verify the output
+        System.out.printf("%d rows, IDENTITY:        %.0f inserts/s%n", ROWS, identity);
+        System.out.printf("%d rows, pooled sequence: %.0f inserts/s%n", ROWS, sequence);
+        System.out.printf("%d rows, Snowflake:       %.0f inserts/s%n", ROWS, snowflake);
+        for (String table : new String[]{"id_benchmark_identity", "id_benchmark_sequence", "id_benchmark_snowflake"}) {
+            Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class))
+                    .isEqualTo(ROWS / BATCH_SIZE * BATCH_SIZE);
+        }
+        jdbcTemplate.execute("drop table id_benchmark_identity, id_benchmark_sequence, id_benchmark_snowflake");
+        jdbcTemplate.execute("drop sequence id_benchmark_seq");
+
+    }
+
+    // runs one transaction per batch of BATCH_SIZE rows
+    private double insertsPerSecond(TransactionBody body) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            for (int batch = 0; batch < ROWS / BATCH_SIZE; batch++) {
+                body.run(connection);
+                connection.commit();
+            }
+            connection.setAutoCommit(true);
+        }
+        return ROWS / BATCH_SIZE * BATCH_SIZE / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static void insertBatch(Connection connection, String table, IdSource ids) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into " + table + " (id, first_name, last_name, email) values (?, ?, ?, ?)")) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                insert.setLong(1, ids.id(i));
+                insert.setString(2, "First" + i);
+                insert.setString(3, "Last" + i);
+                insert.setString(4, "employee" + i + "@example.com");
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement insert, int i) throws SQLException {
+        insert.setString(1, "First" + i);
+        insert.setString(2, "Last" + i);
+        insert.setString(3, "employee" + i + "@example.com");
+    }
+
+    private interface TransactionBody {
+        void run(Connection connection) throws SQLException;
+    }
+
+    private interface IdSource {
+        long id(int index);
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateRequest;
+import com.example.spring_boot_testing.dto.EmployeeSearchCriteria;
+import com.example.spring_boot_testing.exception.ResourceNotFoundException;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.partitioning.EmployeeTablePartitioner;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.EmployeeService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+// The employees table converted to 4 hash partitions: lookups by id are pruned to one partition, lookups by email
+// to one employee_emails partition and one employees partition, everything else keeps working. The benchmark
+// compares plain and hash partitioned copies of the table; its size is set with
+// -Demployees.partitioning.benchmark.rows (e.g. 10000000, the default keeps the build fast).
+@SpringBootTest(properties = {"employees.partitioning.enabled=true", "employees.partitioning.partitions=4"})
+public class EmployeePartitioningIT extends AbstractContainerBaseTest {
+
+    private static final int PARTITIONS = 4;
+    private static final int BENCHMARK_ROWS = Integer.getInteger("employees.partitioning.benchmark.rows", 200_000);
+    private static final int BENCHMARK_LOOKUPS = 10_000;
+
+    @Autowired
+    private EmployeeTablePartitioner partitioner;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // JUnit test for partition pruning of lookups by id
+    @Test
+    @DisplayName("JUnit test for partition pruning of lookups by id")
+    public void givenPartitionedTable_whenFindById_thenOnlyOnePartitionIsRead() {
+
+        // given - precondition or setup
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Mohammad").lastName("Ranjbar").email("mohammadranjbar@gmail.com").build());
+
+        // when - action or the behavior that we are going test
+        String byId = explain("select * from employees where id = " + employee.getId());
+
+        // then - verify the output
+        Assertions.assertThat(partitioner.partitionCount()).isEqualTo(PARTITIONS);
+        Assertions.assertThat(partitionsIn(byId, "employees")).hasSize(1);
+        Assertions.assertThat(employeeRepository.findById(employee.getId())).isPresent();
+        Assertions.assertThat(employeeRepository.findByEmail("mohammadranjbar@gmail.com")).isPresent();
+        employeeService.deleteEmployee(employee.getId());
+        Assertions.assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+
+    }
+
+    // JUnit test for partition pruning of lookups by email through employee_emails
+    @Test
+    @DisplayName("JUnit test for partition pruning of lookups by email through employee_emails")
+    public void givenPartitionedTable_whenFindByNormalizedEmail_thenOnlyOnePartitionOfEachTableIsRead() {
+
+        // given - precondition or setup
+        Employee employee = employeeService.saveEmployee(Employee.builder()
+                .firstName("Mohammad").lastName("Ranjbar").email("mohammadranjbar@gmail.com").build());
+        Employee other = employeeService.saveEmployee(Employee.builder()
+                .firstName("Hossein").lastName("Aslani").email("hosseinaslani@gmail.com").build());
+
+        // when - action or the behavior that we are going test
+        String byEmail = explain("select e.* from employees e where e.id = (select m.id from employee_emails m " +
+                "where m.email = 'mohammadranjbar@gmail.com') and e.deleted_at is null");
+        jdbcTemplate.update("update employees set email = 'Mohammad.Ranjbar@gmail.com' where id = ?", employee.getId());
+        employeeService.deleteEmployee(other.getId());
+
+        // then - verify the output
+        Assertions.assertThat(partitioner.emailPartitionCount()).isEqualTo(PARTITIONS);
+        Assertions.assertThat(partitionsIn(byEmail, "employee_emails")).hasSize(1);
+        Assertions.assertThat(partitionsIn(byEmail, "employees")).hasSize(1);
+        // the trigger followed the update and the soft delete
+        Assertions.assertThat(employeeRepository.findByNormalizedEmail("mohammadranjbar@gmail.com")).isEmpty();
+        Assertions.assertThat(employeeRepository.findByNormalizedEmail("mohammad.ranjbar@gmail.com"))
+                .map(Employee::getId).contains(employee.getId());
+        Assertions.assertThat(employeeRepository.findByNormalizedEmailIn(List.of("mohammad.ranjbar@gmail.com", "hosseinaslani@gmail.com")))
+                .extracting(Employee::getId).containsExactly(employee.getId());
+        employeeService.deleteEmployee(employee.getId());
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from employee_emails where id in (?, ?)",
+                Long.class, employee.getId(), other.getId())).isZero();
+
+    }
+
+    // JUnit test for unique emails of live employees through the primary key of employee_emails
+    @Test
+    @DisplayName("JUnit test for unique emails of live employees through the primary key of employee_emails")
+    public void givenPartitionedTable_whenEmailIsTakenOrFreed_thenOnlyLiveEmployeesConflict() {
+
+        // given - precondition or setup
+        Employee deleted = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("alirasouli@gmail.com").build());
+        employeeService.deleteEmployee(deleted.getId());
+        Employee other = employeeService.saveEmployee(Employee.builder()
+                .firstName("Hossein").lastName("Rahimi").email("hosseinrahimi@gmail.com").build());
+
+        // when - action or the behavior that we are going test
+        Employee reused = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("AliRasouli@gmail.com").build());
+
+        // then - verify the output
+        Assertions.assertThat(reused.getId()).isNotEqualTo(deleted.getId());
+        // no lookup before an update, the trigger's insert into employee_emails rejects the second live employee
+        ResourceNotFoundException exception = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.updateEmployee(other.toBuilder().email("alirasouli@gmail.com").build()));
+        Assertions.assertThat(exception.getMessage()).startsWith("Resource already exist with given email");
+        org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "update employees set email = 'ALIRASOULI@gmail.com' where id = ?", other.getId()));
+        Assertions.assertThat(employeeService.findByEmail("hosseinrahimi@gmail.com")).isNotNull();
+        // a bulk update moving a second live employee to the email fails as a whole
+        Employee moved = employeeService.saveEmployee(Employee.builder()
+                .firstName("Ali").lastName("Rasouli").email("alirasouli@yahoo.com").build());
+        ResourceNotFoundException bulkException = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.bulkUpdateEmployees(EmployeeBulkUpdateRequest.builder()
+                        .filter(EmployeeSearchCriteria.builder().emailDomain("yahoo.com").build())
+                        .set(EmployeeBulkUpdateRequest.Changes.builder().emailDomain("gmail.com").build())
+                        .build()));
+        Assertions.assertThat(bulkException.getMessage()).isEqualTo("Resource already exist with given email: alirasouli@gmail.com");
+        Assertions.assertThat(employeeService.findByEmail("alirasouli@yahoo.com").getId()).isEqualTo(moved.getId());
+        employeeService.deleteEmployee(moved.getId());
+        employeeService.deleteEmployee(reused.getId());
+        employeeService.deleteEmployee(other.getId());
+
+    }
+
+    // JUnit test for insert and lookup throughput of a plain and a hash partitioned table
+    @Test
+    @DisplayName("JUnit test for insert and lookup throughput of a plain and a hash partitioned table")
+    public void givenPlainAndPartitionedTables_whenInsertAndLookup_thenPrintThroughput() {
+
+        // given - precondition or setup
+        jdbcTemplate.execute("drop table if exists benchmark_plain, benchmark_partitioned, benchmark_emails");
+        jdbcTemplate.execute("create table benchmark_plain (id bigint primary key, first_name varchar(255), " +
+                "last_name varchar(255), email varchar(255))");
+        jdbcTemplate.execute("create table benchmark_partitioned (id bigint primary key, first_name varchar(255), " +
+                "last_name varchar(255), email varchar(255)) partition by hash (id)");
+        for (int remainder = 0; remainder < PARTITIONS; remainder++) {
+            jdbcTemplate.execute(String.format("create table benchmark_partitioned_p%d partition of benchmark_partitioned " +
+                    "for values with (modulus %d, remainder %d)", remainder, PARTITIONS, remainder));
+        }
+        jdbcTemplate.execute("create table benchmark_emails (email varchar(255) not null, id bigint not null, " +
+                "primary key (email, id)) partition by hash (email)");
+        for (int remainder = 0; remainder < PARTITIONS; remainder++) {
+            jdbcTemplate.execute(String.format("create table benchmark_emails_p%d partition of benchmark_emails " +
+                    "for values with (modulus %d, remainder %d)", remainder, PARTITIONS, remainder));
+        }
+        jdbcTemplate.execute("create index on benchmark_plain (lower(email))");
+        jdbcTemplate.execute("create index on benchmark_partitioned (lower(email))");
+
+        // when - action or the behavior that we are going test
+        double plainInserts = insertsPerSecond("benchmark_plain", null);
+        double partitionedInserts = insertsPerSecond("benchmark_partitioned", "benchmark_emails");
+        double plainLookups = lookupsPerSecond("select email from benchmark_plain where id = ?");
+        double partitionedLookups = lookupsPerSecond("select email from benchmark_partitioned where id = ?");
+        double plainEmailLookups = lookupsPerSecond("select email from benchmark_plain where lower(email) = " +
+                "'employee' || ? || '@example.com'");
+        double scannedEmailLookups = lookupsPerSecond("select email from benchmark_partitioned where lower(email) = " +
+                "'employee' || ? || '@example.com'");
+        double prunedEmailLookups = lookupsPerSecond("select e.email from benchmark_partitioned e where e.id = " +
+                "(select min(m.id) from benchmark_emails m where m.email = 'employee' || ? || '@example.com')");
+
+        // then - verify the output
+        System.out.printf("%d rows, plain:       %.0f inserts/s, %.0f id lookups/s, %.0f email lookups/s%n",
+                BENCHMARK_ROWS, plainInserts, plainLookups, plainEmailLookups);
+        System.out.printf("%d rows, partitioned: %.0f inserts/s (with employee_emails), %.0f id lookups/s, " +
+                "%.0f email lookups/s (every partition), %.0f email lookups/s (employee_emails)%n",
+                BENCHMARK_ROWS, partitionedInserts, partitionedLookups, scannedEmailLookups, prunedEmailLookups);
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from benchmark_partitioned", Long.class))
+                .isEqualTo(BENCHMARK_ROWS);
+        Assertions.assertThat(jdbcTemplate.queryForObject("select count(*) from benchmark_emails", Long.class))
+                .isEqualTo(BENCHMARK_ROWS);
+        jdbcTemplate.execute("drop table benchmark_plain, benchmark_partitioned, benchmark_emails");
+
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForList("explain (analyze, costs off) " + sql, String.class).stream()
+                .collect(Collectors.joining("\n"));
+    }
+
+    // partitions of the table that were read; runtime pruning leaves the others in the plan as "never executed"
+    private static List<String> partitionsIn(String plan, String table) {
+        return plan.lines()
+                .filter(line -> line.contains(" on " + table + "_p") && !line.contains("never executed"))
+                .map(line -> line.replaceAll(".* on (" + table + "_p\\d+).*", "$1"))
+                .distinct()
+                .toList();
+    }
+
+    private double insertsPerSecond(String table, String emailTable) {
+        long start = System.nanoTime();
+        jdbcTemplate.update("insert into " + table + " select g, 'First' || g, 'Last' || g, 'employee' || g || '@example.com' " +
+                "from generate_series(1, ?) g", BENCHMARK_ROWS);
+        if (emailTable != null) {
+            jdbcTemplate.update("insert into " + emailTable + " select 'employee' || g || '@example.com', g " +
+                    "from generate_series(1, ?) g", BENCHMARK_ROWS);
+        }
+        double insertsPerSecond = BENCHMARK_ROWS / ((System.nanoTime() - start) / 1e9);
+        jdbcTemplate.execute("analyze " + table);
+        if (emailTable != null) {
+            jdbcTemplate.execute("analyze " + emailTable);
+        }
+        return insertsPerSecond;
+    }
+
+    // the query takes one random id (1 to the number of rows) and returns one email
+    private double lookupsPerSecond(String sql) {
+        long start = System.nanoTime();
+        for (int i = 0; i < BENCHMARK_LOOKUPS; i++) {
+            long id = ThreadLocalRandom.current().nextLong(1, BENCHMARK_ROWS + 1);
+            jdbcTemplate.queryForObject(sql, String.class, id);
+        }
+        return BENCHMARK_LOOKUPS / ((System.nanoTime() - start) / 1e9);
+    }
+
+}
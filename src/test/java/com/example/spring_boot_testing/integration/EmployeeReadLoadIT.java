@@ -0,0 +1,116 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.SpringBootTestingApplication;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// Load test for GET /api/employees against a fixed pool of 2 connections, once with open-session-in-view
+// and once without. With OSIV the connection stays checked out while the JSON is written, so the same pool
+// serves fewer requests per second. Throughput and the mean connection hold time are printed for both runs.
+public class EmployeeReadLoadIT extends AbstractContainerBaseTest {
+
+    private static final int POOL_SIZE = 2;
+    private static final int CLIENTS = 16;
+    private static final int REQUESTS_PER_CLIENT = 50;
+    private static final int EMPLOYEES = 2_000;
+
+    // JUnit test for read throughput with a fixed-size pool
+    @Test
+    @DisplayName("JUnit test for read throughput with a fixed-size pool")
+    public void givenFixedPool_whenOpenInViewIsDisabled_thenConnectionsAreHeldShorter() throws Exception {
+
+        // given - precondition or setup
+        LoadResult withOpenInView = run(true);
+
+        // when - action or the behavior that we are going test
+        LoadResult withoutOpenInView = run(false);
+
+        // then - verify the output
+        System.out.printf("open-in-view=true:  %.0f req/s, mean connection hold %.2f ms%n", withOpenInView.requestsPerSecond(), withOpenInView.meanHoldMillis());
+        System.out.printf("open-in-view=false: %.0f req/s, mean connection hold %.2f ms%n", withoutOpenInView.requestsPerSecond(), withoutOpenInView.meanHoldMillis());
+        Assertions.assertThat(withoutOpenInView.meanHoldMillis()).isLessThan(withOpenInView.meanHoldMillis());
+
+    }
+
+    private static LoadResult run(boolean openInView) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                // command line arguments, so they override application.properties
+                .run(
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.open-in-view=" + openInView,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--employees.concurrency.enabled=false",
+                        "--employees.cache.invalidation.enabled=false",
+                        "--employees.id.worker-id=0",
+                        "--spring.datasource.url=" + POSTGRE_SQL_CONTAINER.getJdbcUrl(),
+                        "--spring.datasource.username=" + POSTGRE_SQL_CONTAINER.getUsername(),
+                        "--spring.datasource.password=" + POSTGRE_SQL_CONTAINER.getPassword())) {
+            seed(context.getBean(EmployeeRepository.class));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            HttpClient client = HttpClient.newHttpClient();
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees")).build();
+            // warm up the JIT and the pool before measuring
+            for (int i = 0; i < 20; i++) {
+                client.send(request, HttpResponse.BodyHandlers.discarding());
+            }
+            Timer usage = context.getBean(MeterRegistry.class).get("hikaricp.connections.usage").timer();
+            long holdsBefore = usage.count();
+            double holdNanosBefore = usage.totalTime(TimeUnit.NANOSECONDS);
+
+            ExecutorService executor = Executors.newFixedThreadPool(CLIENTS);
+            long start = System.nanoTime();
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < CLIENTS; c++) {
+                clients.add(executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        Assertions.assertThat(response.statusCode()).isEqualTo(200);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get(5, TimeUnit.MINUTES);
+            }
+            long elapsed = System.nanoTime() - start;
+            executor.shutdown();
+
+            double requests = CLIENTS * REQUESTS_PER_CLIENT;
+            double meanHoldMillis = (usage.totalTime(TimeUnit.NANOSECONDS) - holdNanosBefore) / (usage.count() - holdsBefore) / 1_000_000;
+            return new LoadResult(requests / (elapsed / 1_000_000_000.0), meanHoldMillis);
+        }
+    }
+
+    private static void seed(EmployeeRepository employeeRepository) {
+        employeeRepository.deleteAllInBatch();
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < EMPLOYEES; i++) {
+            employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").build());
+        }
+        employeeRepository.saveAll(employees);
+    }
+
+    private record LoadResult(double requestsPerSecond, double meanHoldMillis) {
+    }
+
+}
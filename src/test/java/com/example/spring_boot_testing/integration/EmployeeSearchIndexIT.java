@@ -0,0 +1,102 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeIndexInitializer;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.repository.EmployeeSpecifications;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// The emailDomain and namePrefix filters against PostgreSQL with a non-C collation: both have to be index range
+// scans (idx_employees_email_domain, idx_employees_last_name_prefix) instead of scans of the whole table.
+@SpringBootTest
+public class EmployeeSearchIndexIT extends AbstractContainerBaseTest {
+
+    private static final int ROWS = 200_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private long firstId;
+
+    @BeforeEach
+    public void setup() {
+        firstId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) + 1 from employees", Long.class);
+        jdbcTemplate.update("insert into employees (id, first_name, last_name, email) select ? + g, 'First' || g, " +
+                "'Last' || (g % 1000), 'employee' || g || '@domain' || (g % 50) || '.com' from generate_series(0, ? - 1) g",
+                firstId, ROWS);
+        jdbcTemplate.execute("analyze employees");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("delete from employees where id >= ?", firstId);
+    }
+
+    // JUnit test for the plan of the emailDomain filter
+    @Test
+    @DisplayName("JUnit test for the plan of the emailDomain filter")
+    public void givenManyEmployees_whenFilterByEmailDomain_thenUseDomainIndex() {
+
+        // given - precondition or setup
+        String index = jdbcTemplate.queryForObject("select indexdef from pg_indexes where indexname = ?", String.class,
+                EmployeeIndexInitializer.EMAIL_DOMAIN_INDEX);
+
+        // when - action or the behavior that we are going test
+        // the predicate EmployeeSpecifications.emailDomain("Domain7.com") generates
+        String plan = explain("select id from employees where reverse(lower(email)) like 'moc.7niamod@%' escape '\\' " +
+                "and deleted_at is null");
+        List<Employee> employees = employeeRepository.findBy(EmployeeSpecifications.emailDomain("Domain7.com"),
+                query -> query.all());
+
+        // then - verify the output
+        System.out.println(plan);
+        Assertions.assertThat(index).contains("reverse(lower((email)::text)) text_pattern_ops");
+        Assertions.assertThat(plan).contains("Index").doesNotContain("Seq Scan");
+        Assertions.assertThat(employees).hasSize(ROWS / 50)
+                .allMatch(employee -> employee.getEmail().endsWith("@domain7.com"));
+
+    }
+
+    // JUnit test for the plan of the namePrefix filter
+    @Test
+    @DisplayName("JUnit test for the plan of the namePrefix filter")
+    public void givenManyEmployees_whenFilterByNamePrefix_thenUsePrefixIndex() {
+
+        // given - precondition or setup
+        String index = jdbcTemplate.queryForObject("select indexdef from pg_indexes where indexname = ?", String.class,
+                EmployeeIndexInitializer.LAST_NAME_PREFIX_INDEX);
+
+        // when - action or the behavior that we are going test
+        // the predicate EmployeeSpecifications.namePrefix("Last12") generates
+        String plan = explain("select id from employees where last_name like 'Last12%' escape '\\' and deleted_at is null");
+        List<Employee> employees = employeeRepository.findBy(EmployeeSpecifications.namePrefix("Last12"), query -> query.all());
+
+        // then - verify the output
+        System.out.println(plan);
+        Assertions.assertThat(index).contains("last_name varchar_pattern_ops");
+        Assertions.assertThat(plan).contains("Index").doesNotContain("Seq Scan");
+        // Last12 and Last120 to Last129
+        Assertions.assertThat(employees).hasSize(11 * ROWS / 1000)
+                .allMatch(employee -> employee.getLastName().startsWith("Last12"));
+
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.queryForList("explain (analyze, costs off) " + sql, String.class).stream()
+                .collect(Collectors.joining("\n"));
+    }
+
+}
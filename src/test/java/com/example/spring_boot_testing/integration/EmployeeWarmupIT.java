@@ -0,0 +1,197 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.SpringBootTestingApplication;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Latency of the first requests after a deploy, with and without EmployeeWarmup. Each run starts the application
+// in a fresh JVM (in this JVM everything would already be JIT-compiled), waits for the readiness probe and then
+// times requests one by one for the first minute. Percentiles of the first requests and of every 10 seconds of
+// that minute are printed for both runs. The output of each application goes to target/warmup-it-*.log.
+public class EmployeeWarmupIT extends AbstractContainerBaseTest {
+
+    private static final int EMPLOYEES = 2_000;
+    private static final int REQUESTS = 1_000;
+    private static final long MEASURED_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    // JUnit test for first-request latency with and without warm-up
+    @Test
+    @DisplayName("JUnit test for first-request latency with and without warm-up")
+    public void givenFreshJvm_whenWarmupRunsBeforeReadiness_thenFirstRequestsAreFaster() throws Exception {
+
+        // given - precondition or setup
+        List<Long> ids = seed();
+        Run cold = run(false, ids);
+
+        // when - action or the behavior that we are going test
+        Run warm = run(true, ids);
+
+        // then - verify the output
+        System.out.println("warm-up disabled: " + cold);
+        System.out.println("warm-up enabled:  " + warm);
+        Assertions.assertThat(warm.first().percentile(0.99)).isLessThan(cold.first().percentile(0.99));
+
+    }
+
+    private static Run run(boolean warmup, List<Long> ids) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                SpringBootTestingApplication.class.getName(),
+                "--server.port=" + port,
+                "--employees.warmup.enabled=" + warmup));
+        command.addAll(arguments());
+        Path log = Path.of("target", "warmup-it-" + (warmup ? "enabled" : "disabled") + ".log");
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            String base = "http://localhost:" + port;
+            awaitReadiness(client, base, process, log);
+
+            List<Long> latencies = new ArrayList<>();
+            List<List<Long>> windows = new ArrayList<>();
+            long ready = System.nanoTime();
+            for (int i = 0; i < REQUESTS || System.nanoTime() - ready < MEASURED_NANOS; i++) {
+                long id = ids.get(i % ids.size());
+                URI uri = switch (i % 4) {
+                    case 0 -> URI.create(base + "/api/employees/" + id);
+                    case 1 -> URI.create(base + "/api/employees?ids=" + id + "," + ids.get((i + 1) % ids.size()));
+                    case 2 -> URI.create(base + "/api/employees/" + id + "?fields=id,email");
+                    default -> URI.create(base + "/api/employees?namePrefix=Last" + (i % 100) + "&limit=20");
+                };
+                long start = System.nanoTime();
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+                long latency = System.nanoTime() - start;
+                Assertions.assertThat(response.statusCode()).isEqualTo(200);
+                if (i < REQUESTS) {
+                    latencies.add(latency);
+                }
+                int window = (int) ((start - ready) / WINDOW_NANOS);
+                if (window < MEASURED_NANOS / WINDOW_NANOS) {
+                    while (windows.size() <= window) {
+                        windows.add(new ArrayList<>());
+                    }
+                    windows.get(window).add(latency);
+                }
+            }
+            return new Run(new Latencies(latencies), windows.stream().map(Latencies::new).toList());
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void awaitReadiness(HttpClient client, String base, Process process, Path log) throws Exception {
+        HttpRequest readiness = HttpRequest.newBuilder(URI.create(base + "/actuator/health/readiness")).build();
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(3);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new AssertionError("Application exited with " + process.exitValue() + " before it was ready, see " + log.toAbsolutePath());
+            }
+            try {
+                if (client.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (ConnectException e) {
+                // not listening yet
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Application did not become ready, see " + log.toAbsolutePath());
+    }
+
+    // creates the schema and the employees in this JVM, the measured applications only read them
+    private static List<Long> seed() {
+        List<String> arguments = new ArrayList<>(arguments());
+        arguments.add("--employees.warmup.enabled=false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new))) {
+            EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+            employeeRepository.deleteAllInBatch();
+            List<Employee> employees = new ArrayList<>();
+            for (int i = 0; i < EMPLOYEES; i++) {
+                employees.add(Employee.builder().firstName("First" + i).lastName("Last" + i).email("employee" + i + "@gmail.com").build());
+            }
+            return employeeRepository.saveAll(employees).stream().map(Employee::getId).toList();
+        }
+    }
+
+    private static List<String> arguments() {
+        return List.of(
+                "--spring.jpa.show-sql=false",
+                "--employees.concurrency.enabled=false",
+                "--employees.cache.invalidation.enabled=false",
+                "--employees.id.worker-id=0",
+                "--spring.datasource.url=" + POSTGRE_SQL_CONTAINER.getJdbcUrl(),
+                "--spring.datasource.username=" + POSTGRE_SQL_CONTAINER.getUsername(),
+                "--spring.datasource.password=" + POSTGRE_SQL_CONTAINER.getPassword());
+    }
+
+    // latencies of the first REQUESTS requests and of each 10 second window of the first minute
+    private record Run(Latencies first, List<Latencies> windows) {
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder(first.toString());
+            for (int window = 0; window < windows.size(); window++) {
+                Latencies latencies = windows.get(window);
+                text.append(String.format("%n    %2d-%2d s: %5d requests, p50 %.2f ms, p99 %.2f ms, max %.2f ms",
+                        window * 10, window * 10 + 10, latencies.nanos().length,
+                        latencies.percentile(0.5), latencies.percentile(0.99), latencies.percentile(1.0)));
+            }
+            return text.toString();
+        }
+
+    }
+
+    private record Latencies(long[] nanos) {
+
+        Latencies(List<Long> nanos) {
+            this(nanos.stream().mapToLong(Long::longValue).toArray());
+        }
+
+        Latencies {
+            nanos = nanos.clone();
+            Arrays.sort(nanos);
+        }
+
+        double percentile(double percentile) {
+            return nanos.length == 0 ? 0 : nanos[Math.max(0, (int) Math.ceil(percentile * nanos.length) - 1)] / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("first %d requests: p50 %.2f ms, p99 %.2f ms, max %.2f ms, total %.0f ms", nanos.length,
+                    percentile(0.5), percentile(0.99), percentile(1.0), Arrays.stream(nanos).sum() / 1_000_000.0);
+        }
+
+    }
+
+}
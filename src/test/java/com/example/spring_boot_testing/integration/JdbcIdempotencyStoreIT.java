@@ -0,0 +1,199 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.idempotency.IdempotencyService;
+import com.example.spring_boot_testing.idempotency.IdempotentResponse;
+import com.example.spring_boot_testing.idempotency.JdbcIdempotencyStore;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.model.IdempotencyRecord;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The idempotency_keys table as the shared store of several nodes: a key is reserved by exactly one caller,
+// duplicates on other nodes wait for the reservation to be completed, failed and abandoned reservations free the key.
+@SpringBootTest(properties = "employees.idempotency.store=jdbc")
+public class JdbcIdempotencyStoreIT extends AbstractContainerBaseTest {
+
+    @Autowired
+    private JdbcIdempotencyStore store;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Employee employee;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from " + IdempotencyRecord.TABLE);
+        employee = Employee.builder()
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+        executions = new AtomicInteger();
+    }
+
+    // JUnit test for reserving a key from many callers at once
+    @Test
+    @DisplayName("JUnit test for reserving a key from many callers at once")
+    public void givenConcurrentReservations_whenReserve_thenExactlyOneCallerGetsTheKey() throws Exception {
+
+        // given - precondition or setup
+        int callers = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Optional<IdempotentResponse>>> results = new ArrayList<>();
+
+        // when - action or the behavior that we are going test
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return store.reserve("key-1", "f");
+            }));
+        }
+        start.countDown();
+        int reserved = 0;
+        for (Future<Optional<IdempotentResponse>> result : results) {
+            Optional<IdempotentResponse> existing = result.get(10, TimeUnit.SECONDS);
+            if (existing.isEmpty()) {
+                reserved++;
+            } else {
+                Assertions.assertThat(existing.get().completed()).isFalse();
+            }
+        }
+        executor.shutdownNow();
+
+        // then - verify the output
+        Assertions.assertThat(reserved).isEqualTo(1);
+
+    }
+
+    // JUnit test for a duplicate on another node waiting for the first request
+    @Test
+    @DisplayName("JUnit test for a duplicate on another node waiting for the first request")
+    public void givenDuplicateOnOtherNode_whenExecute_thenExecuteOnceAndReplay() throws Exception {
+
+        // given - precondition or setup
+        IdempotencyService node1 = new IdempotencyService(store, objectMapper, Clock.systemUTC(), Duration.ofSeconds(5));
+        IdempotencyService node2 = new IdempotencyService(store, objectMapper, Clock.systemUTC(), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // when - action or the behavior that we are going test
+        Future<ResponseEntity<Employee>> first = executor.submit(() -> node1.execute("key-1", employee, Employee.class, () -> {
+            started.countDown();
+            await(release);
+            return create();
+        }));
+        started.await();
+        Future<ResponseEntity<Employee>> duplicate = executor.submit(() -> node2.execute("key-1", employee, Employee.class, this::create));
+        Thread.sleep(300);
+        release.countDown();
+
+        // then - verify the output
+        Assertions.assertThat(first.get(10, TimeUnit.SECONDS).getBody().getId()).isEqualTo(1L);
+        ResponseEntity<Employee> replayed = duplicate.get(10, TimeUnit.SECONDS);
+        Assertions.assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        Assertions.assertThat(replayed.getBody().getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        executor.shutdownNow();
+
+    }
+
+    // JUnit test for releasing the reservation of a failed request
+    @Test
+    @DisplayName("JUnit test for releasing the reservation of a failed request")
+    public void givenFailedRequest_whenRetryWithSameKey_thenExecuteAgain() {
+
+        // given - precondition or setup
+        IdempotencyService node = new IdempotencyService(store, objectMapper, Clock.systemUTC(), Duration.ofSeconds(5));
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalStateException.class,
+                () -> node.execute("key-1", employee, Employee.class, () -> {
+                    throw new IllegalStateException("database down");
+                }));
+
+        // when - action or the behavior that we are going test
+        ResponseEntity<Employee> response = node.execute("key-1", employee, Employee.class, this::create);
+
+        // then - verify the output
+        Assertions.assertThat(executions.get()).isEqualTo(1);
+        Assertions.assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        Assertions.assertThat(store.reserve("key-1", "f")).get()
+                .extracting(IdempotentResponse::completed).isEqualTo(true);
+
+    }
+
+    // JUnit test for taking over abandoned reservations and deleting expired rows
+    @Test
+    @DisplayName("JUnit test for taking over abandoned reservations and deleting expired rows")
+    public void givenAbandonedAndExpiredRows_whenReserveAndDeleteExpired_thenRowsAreFreed() {
+
+        // given - precondition or setup
+        Instant now = Instant.now();
+        insert("abandoned", IdempotencyRecord.IN_PROGRESS, now.minus(Duration.ofMinutes(10)));
+        insert("running", IdempotencyRecord.IN_PROGRESS, now.minus(Duration.ofSeconds(10)));
+        insert("expired", IdempotencyRecord.COMPLETED, now.minus(Duration.ofDays(2)));
+        insert("completed", IdempotencyRecord.COMPLETED, now.minus(Duration.ofHours(1)));
+
+        // when - action or the behavior that we are going test
+        Optional<IdempotentResponse> abandoned = store.reserve("abandoned", "f");
+        Optional<IdempotentResponse> running = store.reserve("running", "f");
+        Optional<IdempotentResponse> completed = store.reserve("completed", "f");
+        int deleted = store.deleteExpired();
+
+        // then - verify the output
+        Assertions.assertThat(abandoned).isEmpty();
+        Assertions.assertThat(running).get().extracting(IdempotentResponse::completed).isEqualTo(false);
+        Assertions.assertThat(completed).get().extracting(IdempotentResponse::completed).isEqualTo(true);
+        Assertions.assertThat(deleted).isEqualTo(1);
+        Assertions.assertThat(jdbcTemplate.queryForList("select idempotency_key from " + IdempotencyRecord.TABLE, String.class))
+                .containsExactlyInAnyOrder("abandoned", "running", "completed");
+
+    }
+
+    private void insert(String key, String state, Instant createdAt) {
+        jdbcTemplate.update("insert into " + IdempotencyRecord.TABLE + " (idempotency_key, fingerprint, state, status, created_at) values (?, ?, ?, ?, ?)",
+                key, "f", state, IdempotencyRecord.IN_PROGRESS.equals(state) ? 0 : 201, Timestamp.from(createdAt));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ResponseEntity<Employee> create() {
+        executions.incrementAndGet();
+        return new ResponseEntity<>(employee.toBuilder().id(1L).build(), HttpStatus.CREATED);
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.spring_boot_testing.integration;
+
+import com.example.spring_boot_testing.deadline.RequestDeadlineFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+// Request deadlines against PostgreSQL: a query blocked by a lock is cancelled by the statement timeout derived from
+// X-Request-Timeout and the request fails with 504 instead of holding its connection, and an expired request never
+// borrows a connection.
+@SpringBootTest
+@AutoConfigureMockMvc
+public class RequestDeadlineIT extends AbstractContainerBaseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // JUnit test for cancelling a blocked query at the request deadline
+    @Test
+    @DisplayName("JUnit test for cancelling a blocked query at the request deadline")
+    public void givenLockedTable_whenGetAllEmployeesWithTimeout_thenGatewayTimeoutAtDeadline() throws Exception {
+
+        // given - precondition or setup
+        try (Connection locker = dataSource.getConnection()) {
+            locker.setAutoCommit(false);
+            try (Statement statement = locker.createStatement()) {
+                statement.execute("lock table employees in access exclusive mode");
+            }
+
+            // when - action or the behavior that we are going test
+            long start = System.nanoTime();
+            mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                            .header(RequestDeadlineFilter.TIMEOUT_HEADER, "300ms"))
+                    // then - verify the output
+                    .andExpect(MockMvcResultMatchers.status().isGatewayTimeout());
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            locker.rollback();
+
+            System.out.printf("blocked request answered after %d ms%n", elapsedMillis);
+            Assertions.assertThat(elapsedMillis).isBetween(300L, 2_000L);
+        }
+        Assertions.assertThat(meterRegistry.get("employees.deadline.exceeded").tag("stage", "repository").counter().count())
+                .isGreaterThanOrEqualTo(1);
+        // the statement timeout was local to the request's transaction
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+    }
+
+    // JUnit test for rejecting an expired request before it borrows a connection
+    @Test
+    @DisplayName("JUnit test for rejecting an expired request before it borrows a connection")
+    public void givenPassedDeadline_whenGetAllEmployees_thenGatewayTimeoutWithoutConnection() throws Exception {
+
+        // given - precondition or setup
+        Timer usage = meterRegistry.get("hikaricp.connections.usage").timer();
+        long before = usage.count();
+
+        // when - action or the behavior that we are going test
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/employees")
+                        .header(RequestDeadlineFilter.DEADLINE_HEADER, Instant.now().minusSeconds(1).toString()))
+                // then - verify the output
+                .andExpect(MockMvcResultMatchers.status().isGatewayTimeout());
+        Assertions.assertThat(usage.count()).isEqualTo(before);
+
+    }
+
+}
@@ -0,0 +1,114 @@
+package com.example.spring_boot_testing.jfr;
+
+import com.example.spring_boot_testing.model.Employee;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public class FlightRecordingEndpointTests {
+
+    @TempDir
+    private Path dumpDirectory;
+
+    private FlightRecordingEndpoint endpoint;
+
+    @BeforeEach
+    public void setup() {
+        endpoint = new FlightRecordingEndpoint(Duration.ZERO, Duration.ZERO, Duration.ofMinutes(1), dumpDirectory);
+    }
+
+    @AfterEach
+    public void stop() throws Exception {
+        endpoint.control("stop", null, null, null, null);
+    }
+
+    // JUnit test for recording the service and query events of intercepted calls
+    @Test
+    @DisplayName("JUnit test for recording the service and query events of intercepted calls")
+    public void givenRunningRecording_whenInterceptedCalls_thenDumpContainsEvents() throws Exception {
+
+        // given - precondition or setup
+        endpoint.control("start", null, null, null, null);
+        Lookup service = proxy(JfrEventInterceptors.serviceEvents());
+        Lookup repository = proxy(JfrEventInterceptors.queryEvents(Lookup.class));
+
+        // when - action or the behavior that we are going test
+        service.findById(7L);
+        repository.findAll();
+        Resource dump = endpoint.dump("dump");
+
+        // then - verify the output
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.getFile().toPath());
+        Assertions.assertThat(events).anySatisfy(event -> {
+            Assertions.assertThat(event.getEventType().getName()).isEqualTo("com.example.employees.ServiceOperation");
+            Assertions.assertThat(event.getString("operation")).isEqualTo("findById");
+            Assertions.assertThat(event.getLong("employeeId")).isEqualTo(7L);
+            Assertions.assertThat(event.getLong("rows")).isEqualTo(1L);
+        });
+        Assertions.assertThat(events).anySatisfy(event -> {
+            Assertions.assertThat(event.getEventType().getName()).isEqualTo("com.example.employees.RepositoryQuery");
+            Assertions.assertThat(event.getString("query")).isEqualTo("Lookup.findAll");
+            Assertions.assertThat(event.getLong("rows")).isEqualTo(2L);
+        });
+
+    }
+
+    // JUnit test for the status of the endpoint without and with a recording
+    @Test
+    @DisplayName("JUnit test for the status of the endpoint without and with a recording")
+    public void givenNoRecording_whenStartAndStop_thenStatusFollows() throws Exception {
+
+        // given - precondition or setup
+        Assertions.assertThat(endpoint.status()).containsEntry("state", "NONE");
+        Assertions.assertThat(endpoint.dump("dump")).isNull();
+
+        // when - action or the behavior that we are going test
+        Map<String, Object> started = endpoint.control("start", Duration.ofMillis(3), null, null, null);
+        Map<String, Object> stopped = endpoint.control("stop", null, null, null, null);
+
+        // then - verify the output
+        Assertions.assertThat(started).containsEntry("state", "RUNNING").containsEntry("serviceThreshold", "3000000 ns");
+        Assertions.assertThat(stopped).containsEntry("state", "STOPPED");
+
+    }
+
+    private static Lookup proxy(org.aopalliance.intercept.MethodInterceptor interceptor) {
+        ProxyFactory proxyFactory = new ProxyFactory(new LookupImpl());
+        proxyFactory.addInterface(Lookup.class);
+        proxyFactory.addAdvice(interceptor);
+        return (Lookup) proxyFactory.getProxy();
+    }
+
+    public interface Lookup {
+        Optional<Employee> findById(Long id);
+        List<Employee> findAll();
+    }
+
+    private static class LookupImpl implements Lookup {
+
+        @Override
+        public Optional<Employee> findById(Long id) {
+            return Optional.of(Employee.builder().id(id).build());
+        }
+
+        @Override
+        public List<Employee> findAll() {
+            return List.of(Employee.builder().id(1L).build(), Employee.builder().id(2L).build());
+        }
+
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.spring_boot_testing.model;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.engine.spi.ManagedEntity;
+import org.hibernate.engine.spi.PersistentAttributeInterceptable;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+// Employee is enhanced at build time by hibernate-enhance-maven-plugin (see pom.xml), after Lombok generated its
+// accessors; these tests fail when the entity classes were compiled without the enhancement.
+public class EmployeeEnhancementTests {
+
+    // JUnit test for the enhancement of the entity classes
+    @Test
+    @DisplayName("JUnit test for the enhancement of the entity classes")
+    public void givenBuild_whenInspectEntityClasses_thenTheyAreEnhanced() {
+
+        // given - precondition or setup
+        Class<?>[] entities = {Employee.class, EmployeeTombstone.class, IdempotencyRecord.class};
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        for (Class<?> entity : entities) {
+            Assertions.assertThat(entity).isAssignableTo(ManagedEntity.class);
+            Assertions.assertThat(entity).isAssignableTo(SelfDirtinessTracker.class);
+            Assertions.assertThat(entity).isAssignableTo(PersistentAttributeInterceptable.class);
+        }
+
+    }
+
+    // JUnit test for dirty tracking through the Lombok setters
+    @Test
+    @DisplayName("JUnit test for dirty tracking through the Lombok setters")
+    public void givenCleanEmployee_whenSetters_thenOnlyChangedAttributesAreDirty() {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+        SelfDirtinessTracker tracker = (SelfDirtinessTracker) employee;
+        tracker.$$_hibernate_clearDirtyAttributes();
+
+        // when - action or the behavior that we are going test
+        employee.setFirstName("Hossein");
+        employee.setLastName("Ranjbar");
+        employee.normalizeEmail();
+
+        // then - verify the output
+        Assertions.assertThat(tracker.$$_hibernate_getDirtyAttributes()).containsExactly("firstName");
+        Assertions.assertThat(employee.getFirstName()).isEqualTo("Hossein");
+
+    }
+
+}
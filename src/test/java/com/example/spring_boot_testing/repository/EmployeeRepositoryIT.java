@@ -9,14 +9,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.employees.id.worker-id=0")
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 public class EmployeeRepositoryIT extends AbstractContainerBaseTest {
 
@@ -250,4 +253,65 @@ public class EmployeeRepositoryIT extends AbstractContainerBaseTest {
 
     }
 
+    // JUnit test for filtering, sorting and limiting with specifications
+    @DisplayName("JUnit test for filtering, sorting and limiting with specifications")
+    @Test
+    public void givenEmployees_whenFindBySpecifications_thenReturnFilteredSortedAndLimitedList(){
+        // given - precondition or setup
+        employeeRepository.save(employee);
+        employeeRepository.save(Employee.builder().firstName("Hossein").lastName("Rahimi").email("hosseinrahimi@gmail.com").build());
+        employeeRepository.save(Employee.builder().firstName("Ali").lastName("Rasouli").email("alirasouli@yahoo.com").build());
+        employeeRepository.save(Employee.builder().firstName("Reza").lastName("Karimi").email("rezakarimi@gmail.com").build());
+        Specification<Employee> specification = Specification.allOf(
+                EmployeeSpecifications.emailDomain("gmail.com"),
+                EmployeeSpecifications.namePrefix("Ra"));
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> employees = employeeRepository.findBy(specification,
+                query -> query.sortBy(Sort.by(Sort.Direction.DESC, "lastName")).limit(1).all());
+
+        // then - verify the output
+        assertThat(employees).hasSize(1);
+        Assertions.assertThat(employees.get(0).getLastName()).isEqualTo("Ranjbar");
+
+    }
+
+    // JUnit test for selecting only some columns
+    @DisplayName("JUnit test for selecting only some columns")
+    @Test
+    public void givenEmployee_whenFindFields_thenReturnOnlyRequestedColumns(){
+        // given - precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee);
+
+        // when -  action or the behaviour that we are going test
+        List<Map<String, Object>> rows = employeeRepository.findFields(List.of("id", "email"),
+                EmployeeSpecifications.hasId(savedEmployee.getId()), Sort.unsorted(), 1);
+
+        // then - verify the output
+        assertThat(rows).hasSize(1);
+        Assertions.assertThat(rows.get(0)).containsExactly(
+                Map.entry("id", savedEmployee.getId()), Map.entry("email", "mohammadranjbar@gmail.com"));
+
+    }
+
+    // JUnit test for updating all matching employees with one statement
+    @DisplayName("JUnit test for updating all matching employees with one statement")
+    @Test
+    public void givenEmployees_whenBulkUpdateEmailDomain_thenRewriteOnlyMatchingEmails(){
+        // given - precondition or setup
+        Employee gmailEmployee = employeeRepository.save(employee);
+        Employee yahooEmployee = employeeRepository.save(Employee.builder().firstName("Ali").lastName("Rasouli").email("alirasouli@yahoo.com").build());
+
+        // when -  action or the behaviour that we are going test
+        int updated = employeeRepository.bulkUpdate(EmployeeSpecifications.emailDomain("gmail.com"), null, null, "example.com");
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        Employee updatedEmployee = employeeRepository.findById(gmailEmployee.getId()).get();
+        Assertions.assertThat(updatedEmployee.getEmail()).isEqualTo("mohammadranjbar@example.com");
+        Assertions.assertThat(updatedEmployee.getChangeSeq()).isGreaterThan(gmailEmployee.getChangeSeq());
+        Assertions.assertThat(employeeRepository.findById(yahooEmployee.getId()).get().getEmail()).isEqualTo("alirasouli@yahoo.com");
+
+    }
+
 }
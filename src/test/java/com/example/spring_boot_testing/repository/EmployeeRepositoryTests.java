@@ -28,7 +28,7 @@ import java.util.Optional;
  then - verify the output
 } */
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.employees.id.worker-id=0")
 public class EmployeeRepositoryTests {
 
     private Employee employee;
@@ -0,0 +1,103 @@
+package com.example.spring_boot_testing.repository;
+
+import com.example.spring_boot_testing.deadline.RequestDeadline;
+import com.example.spring_boot_testing.exception.RequestDeadlineExceededException;
+import com.example.spring_boot_testing.integration.AbstractContainerBaseTest;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Memory over time while scanning the whole table. The row count defaults to 200k so the test stays fast,
+// run with -Demployees.scan.rows=5000000 for the full measurement; the used heap is printed every 10% of the scan.
+@SpringBootTest
+public class EmployeeScanRepositoryIT extends AbstractContainerBaseTest {
+
+    private static final long ROWS = Long.getLong("employees.scan.rows", 200_000);
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup(){
+        employeeRepository.deleteAllInBatch();
+        jdbcTemplate.update("insert into employees (id, first_name, last_name, email) " +
+                "select i, 'First' || i, 'Last' || i, 'employee' || i || '@example.com' from generate_series(1, ?) i", ROWS);
+    }
+
+    // JUnit test for scanning all employees with a bounded heap
+    @Test
+    @DisplayName("JUnit test for scanning all employees with a bounded heap")
+    public void givenLargeTable_whenScanAll_thenVisitEveryRowInIdOrderWithoutRetainingThem(){
+
+        // given - precondition or setup
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        AtomicLong lastId = new AtomicLong();
+        AtomicLong visited = new AtomicLong();
+        AtomicLong peakAfterGc = new AtomicLong();
+        long sampleEvery = Math.max(1, ROWS / 10);
+
+        // when - action or the behavior that we are going test
+        long scanned = employeeRepository.scanAll(employee -> {
+            Assertions.assertThat(employee.getId()).isGreaterThan(lastId.get());
+            lastId.set(employee.getId());
+            if(visited.incrementAndGet() % sampleEvery == 0){
+                System.gc();
+                long used = memory.getHeapMemoryUsage().getUsed() - baseline;
+                peakAfterGc.accumulateAndGet(used, Math::max);
+                System.out.printf("scanned %,d rows, heap used %,d KB above baseline%n", visited.get(), used / 1024);
+            }
+        });
+
+        // then - verify the output
+        Assertions.assertThat(scanned).isEqualTo(ROWS);
+        Assertions.assertThat(visited.get()).isEqualTo(ROWS);
+        // a managed Employee costs a few hundred bytes; anything retained per row would exceed this quickly
+        Assertions.assertThat(peakAfterGc.get()).isLessThan(64L * 1024 * 1024);
+
+    }
+
+    // JUnit test for stopping the scan at a deadline passed in from the request thread
+    @Test
+    @DisplayName("JUnit test for stopping the scan at a deadline passed in from the request thread")
+    public void givenDeadlinePassedIn_whenScanOutlivesIt_thenThrowRequestDeadlineExceededException(){
+
+        // given - precondition or setup
+        // no deadline is bound to the test thread, as on the thread the export is streamed from
+        RequestDeadline deadline = RequestDeadline.after(Duration.ofMillis(200));
+        AtomicLong visited = new AtomicLong();
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(RequestDeadlineExceededException.class,
+                () -> employeeRepository.scanAll(deadline, employee -> {
+                    if(visited.incrementAndGet() == 1){
+                        sleep(Duration.ofMillis(300));
+                    }
+                }));
+        Assertions.assertThat(visited.get()).isLessThan(ROWS);
+
+    }
+
+    private static void sleep(Duration duration){
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
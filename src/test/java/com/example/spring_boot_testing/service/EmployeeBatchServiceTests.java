@@ -0,0 +1,195 @@
+package com.example.spring_boot_testing.service;
+
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.cache.LastKnownGoodEmployees;
+import com.example.spring_boot_testing.dto.BatchOperation;
+import com.example.spring_boot_testing.dto.BatchOperationRequest;
+import com.example.spring_boot_testing.dto.BatchOperationResponse;
+import com.example.spring_boot_testing.dto.BatchOperationResult;
+import com.example.spring_boot_testing.exception.InvalidRequestException;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.service.Impl.EmployeeBatchServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeBatchServiceTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeCache employeeCache;
+
+    @Mock
+    private LastKnownGoodEmployees lastKnownGood;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private EmployeeBatchServiceImpl employeeBatchService;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        employeeBatchService = new EmployeeBatchServiceImpl(employeeRepository, employeeCache, lastKnownGood, eventPublisher, 100);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("mohammadranjbar@gmail.com")
+                .build();
+    }
+
+    // JUnit test for executeBatch method in all-or-nothing mode with a failing operation
+    @Test
+    @DisplayName("JUnit test for executeBatch method in all-or-nothing mode with a failing operation")
+    public void givenDuplicateEmailInBatch_whenExecuteAllOrNothing_thenWriteNothing() {
+
+        // given - precondition or setup
+        given(employeeRepository.findAllById(anyList())).willReturn(List.of(employee));
+        given(employeeRepository.findByNormalizedEmailIn(anyCollection())).willReturn(List.of(employee));
+        BatchOperationRequest request = BatchOperationRequest.builder()
+                .operations(List.of(
+                        BatchOperation.builder().op(BatchOperation.Type.PATCH).id(1L).lastName("Aslani").build(),
+                        BatchOperation.builder().op(BatchOperation.Type.CREATE).firstName("Hossein").lastName("Ranjbar")
+                                .email("mohammadranjbar@gmail.com").build()))
+                .build();
+
+        // when - action or the behavior that we are going test
+        BatchOperationResponse response = employeeBatchService.executeBatch(request);
+
+        // then - verify the output
+        Assertions.assertThat(response.isCommitted()).isFalse();
+        Assertions.assertThat(response.getResults()).extracting(BatchOperationResult::getStatus)
+                .containsExactly(BatchOperationResult.Status.SKIPPED, BatchOperationResult.Status.FAILED);
+        Assertions.assertThat(employee.getLastName()).isEqualTo("Ranjbar");
+        verify(employeeRepository, never()).saveAll(anyList());
+
+    }
+
+    // JUnit test for executeBatch method in best-effort mode
+    @Test
+    @DisplayName("JUnit test for executeBatch method in best-effort mode")
+    @SuppressWarnings("unchecked")
+    public void givenMixedOperations_whenExecuteBestEffort_thenApplyValidOperations() {
+
+        // given - precondition or setup
+        given(employeeRepository.findAllById(anyList())).willReturn(List.of(employee));
+        given(employeeRepository.findByNormalizedEmailIn(anyCollection())).willReturn(List.of());
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(10L));
+            return employees;
+        });
+        BatchOperationRequest request = BatchOperationRequest.builder()
+                .mode(BatchOperationRequest.Mode.BEST_EFFORT)
+                .operations(List.of(
+                        BatchOperation.builder().op(BatchOperation.Type.CREATE).firstName("Hossein").lastName("Aslani")
+                                .email("hosseinaslani@gmail.com").build(),
+                        BatchOperation.builder().op(BatchOperation.Type.CREATE).firstName("Ali").lastName("Aslani")
+                                .email("hosseinaslani@gmail.com").build(),
+                        BatchOperation.builder().op(BatchOperation.Type.PATCH).id(1L).email("ranjbar@gmail.com").build(),
+                        BatchOperation.builder().op(BatchOperation.Type.DELETE).id(2L).build()))
+                .build();
+
+        // when - action or the behavior that we are going test
+        BatchOperationResponse response;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            response = employeeBatchService.executeBatch(request);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // then - verify the output
+        Assertions.assertThat(response.isCommitted()).isTrue();
+        Assertions.assertThat(response.getResults()).extracting(BatchOperationResult::getStatus)
+                .containsExactly(BatchOperationResult.Status.OK, BatchOperationResult.Status.FAILED,
+                        BatchOperationResult.Status.OK, BatchOperationResult.Status.FAILED);
+        Assertions.assertThat(response.getResults().get(0).getId()).isEqualTo(10L);
+        Assertions.assertThat(employee.getEmail()).isEqualTo("ranjbar@gmail.com");
+        Assertions.assertThat(employee.getFirstName()).isEqualTo("Mohammad");
+        ArgumentCaptor<List<Employee>> created = ArgumentCaptor.forClass(List.class);
+        verify(employeeRepository, times(1)).saveAll(created.capture());
+        Assertions.assertThat(created.getValue()).extracting(Employee::getFirstName).containsExactly("Hossein");
+        verify(employeeRepository, times(1)).findAllById(anyList());
+        verify(employeeRepository, times(1)).findByNormalizedEmailIn(anyCollection());
+        // once in the transaction and once more after commit
+        verify(employeeCache, times(2)).evict(1L);
+        verify(lastKnownGood, times(1)).remove(1L);
+
+    }
+
+    // JUnit test for executeBatch method reusing the email of an employee deleted in the same batch
+    @Test
+    @DisplayName("JUnit test for executeBatch method reusing the email of an employee deleted in the same batch")
+    public void givenDeleteThenCreateWithSameEmail_whenExecuteBatch_thenDeleteBeforeCreate() {
+
+        // given - precondition or setup
+        given(employeeRepository.findAllById(anyList())).willReturn(List.of(employee));
+        given(employeeRepository.findByNormalizedEmailIn(anyCollection())).willReturn(List.of(employee));
+        given(employeeRepository.saveAll(anyList())).willAnswer(invocation -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(employee -> employee.setId(10L));
+            return employees;
+        });
+        BatchOperationRequest request = BatchOperationRequest.builder()
+                .operations(List.of(
+                        BatchOperation.builder().op(BatchOperation.Type.DELETE).id(1L).build(),
+                        BatchOperation.builder().op(BatchOperation.Type.CREATE).firstName("Hossein").lastName("Ranjbar")
+                                .email("MohammadRanjbar@gmail.com").build()))
+                .build();
+
+        // when - action or the behavior that we are going test
+        BatchOperationResponse response = employeeBatchService.executeBatch(request);
+
+        // then - verify the output
+        Assertions.assertThat(response.isCommitted()).isTrue();
+        Assertions.assertThat(response.getResults()).extracting(BatchOperationResult::getStatus)
+                .containsExactly(BatchOperationResult.Status.OK, BatchOperationResult.Status.OK);
+        InOrder inOrder = inOrder(employeeRepository);
+        inOrder.verify(employeeRepository).deleteAll(List.of(employee));
+        inOrder.verify(employeeRepository).flush();
+        inOrder.verify(employeeRepository).saveAll(anyList());
+
+    }
+
+    // JUnit test for executeBatch method with too many operations
+    @Test
+    @DisplayName("JUnit test for executeBatch method with too many operations")
+    public void givenTooManyOperations_whenExecuteBatch_thenThrowsException() {
+
+        // given - precondition or setup
+        BatchOperationRequest request = BatchOperationRequest.builder()
+                .operations(Collections.nCopies(101, BatchOperation.builder().op(BatchOperation.Type.DELETE).id(1L).build()))
+                .build();
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> employeeBatchService.executeBatch(request));
+        verifyNoInteractions(employeeRepository);
+
+    }
+
+}
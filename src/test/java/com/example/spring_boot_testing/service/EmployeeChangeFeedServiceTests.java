@@ -0,0 +1,140 @@
+package com.example.spring_boot_testing.service;
+
+import com.example.spring_boot_testing.dto.EmployeeChangesResponse;
+import com.example.spring_boot_testing.exception.ChangeTokenExpiredException;
+import com.example.spring_boot_testing.exception.InvalidRequestException;
+import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.model.EmployeeTombstone;
+import com.example.spring_boot_testing.repository.EmployeeRepository;
+import com.example.spring_boot_testing.repository.EmployeeTombstoneRepository;
+import com.example.spring_boot_testing.service.Impl.EmployeeChangeFeedServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeChangeFeedServiceTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeTombstoneRepository tombstoneRepository;
+
+    private EmployeeChangeFeedServiceImpl changeFeedService;
+
+    @BeforeEach
+    public void setup(){
+        Clock clock = Clock.fixed(Instant.parse("2024-08-01T12:00:00Z"), ZoneOffset.UTC);
+        changeFeedService = new EmployeeChangeFeedServiceImpl(employeeRepository, tombstoneRepository, clock, 3, Duration.ofMinutes(5));
+    }
+
+    // JUnit test for merging updates and deletes in transaction and change order
+    @Test
+    @DisplayName("JUnit test for merging updates and deletes in transaction and change order")
+    public void givenUpdatesAndDeletes_whenGetChangesSince_thenReturnOnePageInChangeOrder() {
+
+        // given - precondition or setup
+        // the tombstone has the highest sequence number but was written by the oldest transaction
+        given(employeeRepository.currentSnapshot()).willReturn("600:610:600,605");
+        given(employeeRepository.findChangesSince(500L, 10L, 600L, 4))
+                .willReturn(List.of(employee(1L, 501L, 11L), employee(2L, 502L, 13L), employee(3L, 503L, 12L)));
+        given(tombstoneRepository.findChangesSince(500L, 10L, 600L, 4))
+                .willReturn(List.of(tombstone(9L, 500L, 14L)));
+
+        // when - action or the behavior that we are going test
+        EmployeeChangesResponse response = changeFeedService.getChangesSince("500.10");
+
+        // then - verify the output
+        Assertions.assertThat(response.getDeletedIds()).containsExactly(9L);
+        Assertions.assertThat(response.getChanged()).extracting(Employee::getId).containsExactly(1L, 2L);
+        Assertions.assertThat(response.getNextToken()).isEqualTo("502.13");
+        Assertions.assertThat(response.isHasMore()).isTrue();
+
+    }
+
+    // JUnit test for rejecting a token from before the newest removed tombstone
+    @Test
+    @DisplayName("JUnit test for rejecting a token from before the newest removed tombstone")
+    public void givenTokenBeforePrunedTombstone_whenGetChangesSince_thenThrowsChangeTokenExpiredException() {
+
+        // given - precondition or setup
+        given(tombstoneRepository.findPrunedThrough()).willReturn(Optional.of("480.9"));
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(ChangeTokenExpiredException.class, () -> changeFeedService.getChangesSince("480.8"));
+
+    }
+
+    // JUnit test for keeping the token when there is no new change
+    @Test
+    @DisplayName("JUnit test for keeping the token when there is no new change")
+    public void givenNoNewChange_whenGetChangesSince_thenReturnSameToken() {
+
+        // given - precondition or setup
+        given(tombstoneRepository.findPrunedThrough()).willReturn(Optional.of("480.9"));
+        given(employeeRepository.currentSnapshot()).willReturn("600:600:");
+        given(employeeRepository.findChangesSince(502L, 13L, 600L, 4)).willReturn(List.of());
+        given(tombstoneRepository.findChangesSince(502L, 13L, 600L, 4)).willReturn(List.of());
+
+        // when - action or the behavior that we are going test
+        EmployeeChangesResponse response = changeFeedService.getChangesSince("502.13");
+
+        // then - verify the output
+        Assertions.assertThat(response.getChanged()).isEmpty();
+        Assertions.assertThat(response.getNextToken()).isEqualTo("502.13");
+        Assertions.assertThat(response.isHasMore()).isFalse();
+
+    }
+
+    // JUnit test for rejecting an invalid token
+    @Test
+    @DisplayName("JUnit test for rejecting an invalid token")
+    public void givenInvalidToken_whenGetChangesSince_thenThrowsInvalidRequestException() {
+
+        // given - precondition or setup
+        String token = "yesterday";
+
+        // when - action or the behavior that we are going test
+        // then - verify the output
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> changeFeedService.getChangesSince(token));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> changeFeedService.getChangesSince("1.2.3"));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> changeFeedService.getChangesSince("41"));
+
+    }
+
+    private static Employee employee(long id, long changeXid, long changeSeq) {
+        return Employee.builder()
+                .id(id)
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("employee" + id + "@gmail.com")
+                .changeXid(changeXid)
+                .changeSeq(changeSeq)
+                .build();
+    }
+
+    private static EmployeeTombstone tombstone(long employeeId, long changeXid, long changeSeq) {
+        return EmployeeTombstone.builder()
+                .employeeId(employeeId)
+                .changeXid(changeXid)
+                .changeSeq(changeSeq)
+                .deletedAt(Instant.parse("2024-08-01T12:00:00Z"))
+                .build();
+    }
+
+}
@@ -1,26 +1,56 @@
 package com.example.spring_boot_testing.service;
 
+import com.example.spring_boot_testing.cache.EmployeeCache;
+import com.example.spring_boot_testing.cache.EmployeeHotKeys;
+import com.example.spring_boot_testing.cache.LastKnownGoodEmployees;
+import com.example.spring_boot_testing.concurrency.CircuitBreaker;
+import com.example.spring_boot_testing.directory.CompactEmployeeDirectory;
+import com.example.spring_boot_testing.dto.EmployeeBatchResponse;
+import com.example.spring_boot_testing.dto.EmployeeBulkUpdateRequest;
+import com.example.spring_boot_testing.dto.EmployeeSearchCriteria;
+import com.example.spring_boot_testing.dto.ReadResult;
+import com.example.spring_boot_testing.event.EmployeeChangedEvent;
+import com.example.spring_boot_testing.event.EmployeesBulkUpdatedEvent;
+import com.example.spring_boot_testing.exception.InvalidRequestException;
 import com.example.spring_boot_testing.exception.ResourceNotFoundException;
 import com.example.spring_boot_testing.model.Employee;
+import com.example.spring_boot_testing.repository.EmployeeIndexInitializer;
 import com.example.spring_boot_testing.repository.EmployeeRepository;
 import com.example.spring_boot_testing.service.Impl.EmployeeServiceImpl;
 import org.assertj.core.api.Assertions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 // Makes JUnit 5 know to use Mockito to handle mocks. This annotation ensures
@@ -36,6 +66,25 @@ public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EmployeeCache employeeCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ObjectProvider<CompactEmployeeDirectory> compactDirectory;
+
+    // real instances, opened by the first database failure
+    @Spy
+    private CircuitBreaker circuitBreaker = new CircuitBreaker("database", 1, Duration.ofSeconds(2), Duration.ofMinutes(1));
+
+    @Spy
+    private LastKnownGoodEmployees lastKnownGood = new LastKnownGoodEmployees(100, 100);
+
+    @Spy
+    private EmployeeHotKeys hotKeys = new EmployeeHotKeys(100, 10);
+
     // When we want to inject a mocked object into another mocked object, we
     // can use @InjectMocks annotation. @InjectMocks creates the mock object
     // of the class and injects the mocks that are marked with the annotations @Mock into it
@@ -77,7 +126,7 @@ public class EmployeeServiceTests {
 
 //        Mockito.when(employeeRepository.findByEmail(employee.getEmail())).thenReturn(Optional.empty());
 //        Mockito.when(employeeRepository.save(employee)).thenReturn(employee);
-        given(employeeRepository.findByEmail(employee.getEmail()))
+        given(employeeRepository.findByNormalizedEmail(employee.getEmail()))
                 .willReturn(Optional.empty());
         given(employeeRepository.save(employee))
                 .willReturn(employee);
@@ -99,7 +148,7 @@ public class EmployeeServiceTests {
     public void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
 
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
+        given(employeeRepository.findByNormalizedEmail(employee.getEmail()))
                 .willReturn(Optional.of(employee));
 
         // when - action or the behavior that we are going test
@@ -112,6 +161,50 @@ public class EmployeeServiceTests {
 
     }
 
+    // JUnit test for saveEmployee method losing a race for the email against a concurrent save
+    @Test
+    @DisplayName("JUnit test for saveEmployee method losing a race for the email against a concurrent save")
+    public void givenConcurrentSaveOfSameEmail_whenSaveEmployee_thenThrowsException() {
+
+        // given - precondition or setup
+        given(employeeRepository.findByNormalizedEmail(employee.getEmail())).willReturn(Optional.empty());
+        given(employeeRepository.save(employee)).willReturn(employee);
+        willThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key",
+                new SQLException("duplicate key", "23505"), EmployeeIndexInitializer.EMAIL_INDEX)))
+                .given(employeeRepository).flush();
+
+        // when - action or the behavior that we are going test
+        ResourceNotFoundException exception = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.saveEmployee(employee));
+
+        // then - verify the output
+        Assertions.assertThat(exception.getMessage()).isEqualTo("Resource already exist with given email: " + employee.getEmail());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+    }
+
+    // JUnit test for saveEmployee method with an existing email written in another case
+    @Test
+    @DisplayName("JUnit test for saveEmployee method with an existing email written in another case")
+    public void givenExistingEmailInOtherCase_whenSaveEmployee_thenThrowsException() {
+
+        // given - precondition or setup
+        Employee mixedCase = Employee.builder()
+                .firstName("Mohammad")
+                .lastName("Ranjbar")
+                .email("  MohammadRanjbar@Gmail.com ")
+                .build();
+        given(employeeRepository.findByNormalizedEmail("mohammadranjbar@gmail.com"))
+                .willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> employeeService.saveEmployee(mixedCase));
+
+        // then - verify the output
+        verify(employeeRepository,never()).save(any(Employee.class));
+
+    }
+
     // JUnit test for getAllEmployees method (positive scenario)
     @Test
     @DisplayName("JUnit test for getAllEmployees method (positive scenario)")
@@ -160,6 +253,188 @@ public class EmployeeServiceTests {
 
     }
 
+    // JUnit test for getAllEmployees method not counting its latency against the circuit breaker
+    @Test
+    @DisplayName("JUnit test for getAllEmployees method not counting its latency against the circuit breaker")
+    public void givenSlowCallThresholdExceeded_whenGetAllEmployees_thenBreakerStaysClosed() {
+
+        // given - precondition or setup
+        // every call is slower than 1 ns
+        CircuitBreaker strictBreaker = new CircuitBreaker("database", 1, Duration.ofNanos(1), Duration.ofMinutes(1));
+        EmployeeServiceImpl service = new EmployeeServiceImpl(employeeRepository, employeeCache, eventPublisher,
+                compactDirectory, strictBreaker, lastKnownGood, hotKeys);
+        given(employeeRepository.findAll()).willReturn(List.of(employee));
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going test
+        service.getAllEmployees();
+        CircuitBreaker.State afterFullList = strictBreaker.getState();
+        service.getEmployeeById(1L);
+
+        // then - verify the output
+        Assertions.assertThat(afterFullList).isEqualTo(CircuitBreaker.State.CLOSED);
+        Assertions.assertThat(strictBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    }
+
+    // JUnit test for searchEmployees method
+    @Test
+    @DisplayName("JUnit test for searchEmployees method")
+    public void givenSearchCriteria_whenSearchEmployees_thenReturnEmployeesFromOneQuery() {
+
+        // given - precondition or setup
+        EmployeeSearchCriteria criteria = EmployeeSearchCriteria.builder()
+                .emailDomain("gmail.com")
+                .sort("lastName,desc")
+                .limit(10)
+                .build();
+        given(employeeRepository.findBy(any(Specification.class), any())).willReturn(List.of(employee));
+
+        // when - action or the behavior that we are going test
+        List<Employee> employeeList = employeeService.searchEmployees(criteria);
+
+        // then - verify the output
+        Assertions.assertThat(employeeList).containsExactly(employee);
+        verify(employeeRepository, times(1)).findBy(any(Specification.class), any());
+
+    }
+
+    // JUnit test for searchEmployees method (sort key without an index)
+    @Test
+    @DisplayName("JUnit test for searchEmployees method (sort key without an index)")
+    public void givenSortOnUnindexedProperty_whenSearchEmployees_thenThrowsInvalidRequestException() {
+
+        // given - precondition or setup
+        EmployeeSearchCriteria criteria = EmployeeSearchCriteria.builder().sort("firstName").build();
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> employeeService.searchEmployees(criteria));
+
+        // then - verify the output
+        verify(employeeRepository, never()).findBy(any(Specification.class), any());
+
+    }
+
+    // JUnit test for searchEmployees method (limit above the maximum)
+    @Test
+    @DisplayName("JUnit test for searchEmployees method (limit above the maximum)")
+    public void givenTooLargeLimit_whenSearchEmployees_thenThrowsInvalidRequestException() {
+
+        // given - precondition or setup
+        EmployeeSearchCriteria criteria = EmployeeSearchCriteria.builder().limit(1_000_000).build();
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> employeeService.searchEmployees(criteria));
+
+        // then - verify the output
+        verify(employeeRepository, never()).findBy(any(Specification.class), any());
+
+    }
+
+    // JUnit test for getEmployeeFieldsById method (employee in cache)
+    @Test
+    @DisplayName("JUnit test for getEmployeeFieldsById method (employee in cache)")
+    public void givenCachedEmployee_whenGetEmployeeFieldsById_thenProjectWithoutQuery() {
+
+        // given - precondition or setup
+        given(employeeCache.get(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going test
+        Map<String, Object> fields = employeeService.getEmployeeFieldsById(1L, List.of("email", "id"));
+
+        // then - verify the output
+        Assertions.assertThat(fields).containsExactly(Map.entry("email", "mohammadranjbar@gmail.com"), Map.entry("id", 1L));
+        verify(employeeRepository, never()).findFields(anyList(), any(), any(), anyInt());
+
+    }
+
+    // JUnit test for getEmployeeFields method (unknown field)
+    @Test
+    @DisplayName("JUnit test for getEmployeeFields method (unknown field)")
+    public void givenUnknownField_whenGetEmployeeFields_thenThrowsInvalidRequestException() {
+
+        // given - precondition or setup
+        List<String> fields = List.of("id", "password");
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class,
+                () -> employeeService.getEmployeeFields(fields, new EmployeeSearchCriteria()));
+
+        // then - verify the output
+        verify(employeeRepository, never()).findFields(anyList(), any(), any(), anyInt());
+
+    }
+
+    // JUnit test for bulkUpdateEmployees method
+    @Test
+    @DisplayName("JUnit test for bulkUpdateEmployees method")
+    public void givenFilterAndChanges_whenBulkUpdateEmployees_thenUpdateInOneStatementAndFlushCache() {
+
+        // given - precondition or setup
+        EmployeeBulkUpdateRequest request = EmployeeBulkUpdateRequest.builder()
+                .filter(EmployeeSearchCriteria.builder().emailDomain("gmail.com").build())
+                .set(EmployeeBulkUpdateRequest.Changes.builder().emailDomain("example.com").build())
+                .build();
+        given(employeeRepository.bulkUpdate(any(Specification.class), isNull(), isNull(), eq("example.com"))).willReturn(42);
+        lastKnownGood.put(employee);
+
+        // when - action or the behavior that we are going test
+        int updated = employeeService.bulkUpdateEmployees(request);
+
+        // then - verify the output
+        Assertions.assertThat(updated).isEqualTo(42);
+        verify(employeeCache).clear();
+        Assertions.assertThat(lastKnownGood.size()).isZero();
+        verify(eventPublisher).publishEvent(new EmployeesBulkUpdatedEvent(42));
+
+    }
+
+    // JUnit test for bulkUpdateEmployees method giving two employees the same email
+    @Test
+    @DisplayName("JUnit test for bulkUpdateEmployees method giving two employees the same email")
+    public void givenEmailDomainCollision_whenBulkUpdateEmployees_thenThrowsException() {
+
+        // given - precondition or setup
+        EmployeeBulkUpdateRequest request = EmployeeBulkUpdateRequest.builder()
+                .filter(EmployeeSearchCriteria.builder().emailDomain("gmail.com").build())
+                .set(EmployeeBulkUpdateRequest.Changes.builder().emailDomain("example.com").build())
+                .build();
+        given(employeeRepository.bulkUpdate(any(Specification.class), isNull(), isNull(), eq("example.com")))
+                .willThrow(new DataIntegrityViolationException("duplicate key", new ConstraintViolationException("duplicate key",
+                        new SQLException("ERROR: duplicate key value violates unique constraint \"idx_employees_email_lower\"\n" +
+                                "  Detail: Key (lower(email::text))=(ranjbar@example.com) already exists.", "23505"),
+                        EmployeeIndexInitializer.EMAIL_INDEX)));
+
+        // when - action or the behavior that we are going test
+        ResourceNotFoundException exception = org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeService.bulkUpdateEmployees(request));
+
+        // then - verify the output
+        Assertions.assertThat(exception.getMessage()).isEqualTo("Resource already exist with given email: ranjbar@example.com");
+        verify(employeeCache, never()).clear();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+    }
+
+    // JUnit test for bulkUpdateEmployees method (without filter)
+    @Test
+    @DisplayName("JUnit test for bulkUpdateEmployees method (without filter)")
+    public void givenNoFilter_whenBulkUpdateEmployees_thenThrowsInvalidRequestException() {
+
+        // given - precondition or setup
+        EmployeeBulkUpdateRequest request = EmployeeBulkUpdateRequest.builder()
+                .filter(new EmployeeSearchCriteria())
+                .set(EmployeeBulkUpdateRequest.Changes.builder().lastName("Ranjbar").build())
+                .build();
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> employeeService.bulkUpdateEmployees(request));
+
+        // then - verify the output
+        verify(employeeRepository, never()).bulkUpdate(any(), any(), any(), any());
+
+    }
+
     // JUnit test for getEmployeeById method
     @Test
     @DisplayName("JUnit test for getEmployeeById method")
@@ -179,6 +454,194 @@ public class EmployeeServiceTests {
 
     }
 
+    // JUnit test for getEmployeeById method served from the cache
+    @Test
+    @DisplayName("JUnit test for getEmployeeById method served from the cache")
+    public void givenCachedEmployee_whenGetEmployeeById_thenDoNotQueryRepository() {
+
+        // given - precondition or setup
+        given(employeeCache.get(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going test
+        Employee cachedEmployee = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        Assertions.assertThat(cachedEmployee.getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+        verify(employeeRepository, never()).findById(anyLong());
+
+    }
+
+    // JUnit test for recording getEmployeeById and findByEmail lookups as hot keys
+    @Test
+    @DisplayName("JUnit test for recording getEmployeeById and findByEmail lookups as hot keys")
+    public void givenRepeatedLookups_whenGetEmployeeByIdAndFindByEmail_thenCountedAsHotKeys() {
+
+        // given - precondition or setup
+        given(employeeCache.get(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.findByNormalizedEmail("mohammadranjbar@gmail.com")).willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going test
+        for (int i = 0; i < 3; i++) {
+            employeeService.getEmployeeById(1L);
+        }
+        employeeService.findByEmail("MohammadRanjbar@gmail.com");
+
+        // then - verify the output
+        Assertions.assertThat(hotKeys.idFrequency(1L)).isEqualTo(3);
+        Assertions.assertThat(hotKeys.topIds(10)).extracting(hotKey -> hotKey.key()).containsExactly(1L);
+        Assertions.assertThat(hotKeys.topEmails(10)).extracting(hotKey -> hotKey.key()).containsExactly("mohammadranjbar@gmail.com");
+
+    }
+
+    // JUnit test for getEmployeeById method while the database is unavailable
+    @Test
+    @DisplayName("JUnit test for getEmployeeById method while the database is unavailable")
+    public void givenDatabaseFailure_whenReadEmployeeById_thenReturnLastKnownGoodCopyAsStale() {
+
+        // given - precondition or setup
+        given(employeeRepository.findById(1L))
+                .willReturn(Optional.of(employee))
+                .willThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+        employeeService.readEmployeeById(1L);
+
+        // when - action or the behavior that we are going test
+        ReadResult<Employee> whenCallFails = employeeService.readEmployeeById(1L);
+        ReadResult<Employee> whileBreakerIsOpen = employeeService.readEmployeeById(1L);
+
+        // then - verify the output
+        Assertions.assertThat(whenCallFails.isStale()).isTrue();
+        Assertions.assertThat(whenCallFails.value().getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+        Assertions.assertThat(whileBreakerIsOpen.isStale()).isTrue();
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        // the open breaker answers without calling the database
+        verify(employeeRepository, times(2)).findById(1L);
+
+    }
+
+    // JUnit test for getEmployeeById method while the database is unavailable and nothing is known
+    @Test
+    @DisplayName("JUnit test for getEmployeeById method while the database is unavailable and nothing is known")
+    public void givenDatabaseFailureAndNoLastKnownGoodCopy_whenGetEmployeeById_thenThrowsException() {
+
+        // given - precondition or setup
+        given(employeeRepository.findById(1L))
+                .willThrow(new CannotCreateTransactionException("Connection is not available, request timed out"));
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(CannotCreateTransactionException.class, () -> {
+            employeeService.getEmployeeById(1L);
+        });
+
+        // then - verify the output
+        Assertions.assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+    }
+
+    // JUnit test for getAllEmployees method served from the compact directory
+    @Test
+    @DisplayName("JUnit test for getAllEmployees method served from the compact directory")
+    public void givenLoadedCompactDirectory_whenGetAllEmployees_thenDoNotQueryRepository() {
+
+        // given - precondition or setup
+        CompactEmployeeDirectory directory = new CompactEmployeeDirectory(10);
+        directory.upsert(employee);
+        directory.markLoaded();
+        given(compactDirectory.getIfAvailable()).willReturn(directory);
+
+        // when - action or the behavior that we are going test
+        List<Employee> employeeList = employeeService.getAllEmployees();
+
+        // then - verify the output
+        Assertions.assertThat(employeeList).hasSize(1);
+        Assertions.assertThat(employeeList.get(0).getEmail()).isEqualTo("mohammadranjbar@gmail.com");
+        verify(employeeRepository, never()).findAll();
+
+    }
+
+    // JUnit test for findByEmail method
+    @Test
+    @DisplayName("JUnit test for findByEmail method")
+    public void givenEmployeeEmail_whenFindByEmail_thenReturnEmployeeObject() {
+
+        // given - precondition or setup
+        given(employeeRepository.findByNormalizedEmail(employee.getEmail())).willReturn(Optional.of(employee));
+
+        // when - action or the behavior that we are going test
+        Employee foundEmployee = employeeService.findByEmail(employee.getEmail());
+
+        // then - verify the output
+        Assertions.assertThat(foundEmployee).isNotNull();
+        Assertions.assertThat(foundEmployee.getId()).isEqualTo(1L);
+        verify(employeeRepository, times(1)).findByNormalizedEmail(employee.getEmail());
+
+    }
+
+    // JUnit test for getEmployeesByIds method
+    @Test
+    @DisplayName("JUnit test for getEmployeesByIds method")
+    public void givenEmployeeIds_whenGetEmployeesByIds_thenReturnInRequestOrderWithMissingIds() {
+
+        // given - precondition or setup
+        Employee employee2 = Employee.builder()
+                .id(2L)
+                .firstName("Hossein")
+                .lastName("Aslani")
+                .email("hosseinaslani@gmail.com")
+                .build();
+        given(employeeRepository.findAllById(List.of(2L, 3L, 1L))).willReturn(List.of(employee, employee2));
+
+        // when - action or the behavior that we are going test
+        EmployeeBatchResponse response = employeeService.getEmployeesByIds(List.of(2L, 3L, 2L, 1L));
+
+        // then - verify the output
+        Assertions.assertThat(response.getEmployees()).extracting(Employee::getId).containsExactly(2L, 1L);
+        Assertions.assertThat(response.getMissingIds()).containsExactly(3L);
+
+    }
+
+    // JUnit test for getEmployeesByIds method with more ids than fit into one query
+    @Test
+    @DisplayName("JUnit test for getEmployeesByIds method with more ids than fit into one query")
+    public void givenManyEmployeeIds_whenGetEmployeesByIds_thenQueryInChunks() {
+
+        // given - precondition or setup
+        List<Long> ids = new ArrayList<>();
+        for (long id = 1; id <= 2500; id++) {
+            ids.add(id);
+        }
+        given(employeeRepository.findAllById(anyList())).willReturn(Collections.emptyList());
+
+        // when - action or the behavior that we are going test
+        EmployeeBatchResponse response = employeeService.getEmployeesByIds(ids);
+
+        // then - verify the output
+        verify(employeeRepository, times(3)).findAllById(anyList());
+        Assertions.assertThat(response.getMissingIds()).hasSize(2500);
+
+    }
+
+    // JUnit test for getEmployeesByIds method with null ids or too many ids
+    @Test
+    @DisplayName("JUnit test for getEmployeesByIds method with null ids or too many ids")
+    public void givenNullOrTooManyIds_whenGetEmployeesByIds_thenThrowsInvalidRequestException() {
+
+        // given - precondition or setup
+        List<Long> withNull = new ArrayList<>(List.of(1L, 2L));
+        withNull.add(null);
+        List<Long> tooMany = new ArrayList<>();
+        for (long id = 1; id <= 10_001; id++) {
+            tooMany.add(id);
+        }
+
+        // when - action or the behavior that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> employeeService.getEmployeesByIds(withNull));
+        org.junit.jupiter.api.Assertions.assertThrows(InvalidRequestException.class, () -> employeeService.getEmployeesByIds(tooMany));
+
+        // then - verify the output
+        verify(employeeRepository, never()).findAllById(anyList());
+
+    }
+
     // JUnit test for updateEmployee method
     @Test
     @DisplayName("JUnit test for updateEmployee method")
@@ -212,6 +675,8 @@ public class EmployeeServiceTests {
 
         // then - verify the output
         verify(employeeRepository,times(1)).deleteById(employee.getId());
+        verify(employeeCache,times(1)).evict(employee.getId());
+        verify(eventPublisher,times(1)).publishEvent(new EmployeeChangedEvent(employee.getId(), EmployeeChangedEvent.Type.DELETED));
 
     }
 
@@ -0,0 +1,152 @@
+package com.example.spring_boot_testing.timing;
+
+import com.example.spring_boot_testing.warmup.WarmupRequests;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletResponse;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ServerTimingFilterTests {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        request = new MockHttpServletRequest("GET", "/api/employees/1");
+        response = new MockHttpServletResponse();
+    }
+
+    // JUnit test for the Server-Timing header and the phase histograms
+    @Test
+    @DisplayName("JUnit test for the Server-Timing header and the phase histograms")
+    public void givenHeaderEnabled_whenRequestQueriesAndSerializes_thenRecordPhases() throws Exception {
+
+        // given - precondition or setup
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, true);
+        TimingSessionEventListener sessionListener = new TimingSessionEventListener();
+
+        // when - action or the behavior that we are going test
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/{id}");
+            RequestTimings timings = RequestTimings.current();
+            timings.repositoryEntered();
+            sessionListener.jdbcConnectionAcquisitionStart();
+            sessionListener.jdbcConnectionAcquisitionEnd();
+            sessionListener.jdbcExecuteStatementStart();
+            sleep(5);
+            sessionListener.jdbcExecuteStatementEnd();
+            timings.repositoryExited();
+            timings.serializationStarted();
+            servletResponse.getOutputStream().write("{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+        });
+
+        // then - verify the output
+        Assertions.assertThat(response.getHeader(ServerTimingFilter.HEADER))
+                .matches("pool;dur=[0-9.]+, db;dur=[0-9.]+, orm;dur=[0-9.]+, app;dur=[0-9.]+, ser;dur=[0-9.]+, total;dur=[0-9.]+");
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+        Timer db = meterRegistry.get(ServerTimingFilter.METRIC).tag("endpoint", "GET /api/employees/{id}").tag("phase", "db").timer();
+        Assertions.assertThat(db.count()).isEqualTo(1);
+        Assertions.assertThat(db.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(5);
+        Assertions.assertThat(RequestTimings.current()).isNull();
+
+    }
+
+    // JUnit test for the default without the header
+    @Test
+    @DisplayName("JUnit test for the default without the header")
+    public void givenHeaderDisabled_whenRequest_thenOnlyRecordHistograms() throws Exception {
+
+        // given - precondition or setup
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, false);
+
+        // when - action or the behavior that we are going test
+        filter.doFilter(request, response, (servletRequest, servletResponse) ->
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/{id}"));
+
+        // then - verify the output
+        Assertions.assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+        Assertions.assertThat(meterRegistry.get(ServerTimingFilter.METRIC).tag("phase", "total").timer().count()).isEqualTo(1);
+
+    }
+
+    // JUnit test for keeping warm-up requests out of the histograms
+    @Test
+    @DisplayName("JUnit test for keeping warm-up requests out of the histograms")
+    public void givenWarmupRequest_whenRequest_thenRecordNothing() throws Exception {
+
+        // given - precondition or setup
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, false);
+        request.addHeader(WarmupRequests.HEADER, WarmupRequests.token());
+
+        // when - action or the behavior that we are going test
+        filter.doFilter(request, response, (servletRequest, servletResponse) ->
+                servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/{id}"));
+
+        // then - verify the output
+        Assertions.assertThat(meterRegistry.find(ServerTimingFilter.METRIC).timers()).isEmpty();
+
+    }
+
+    // JUnit test for async responses, which write their body after the filter has returned
+    @Test
+    @DisplayName("JUnit test for async responses, which write their body after the filter has returned")
+    public void givenHeaderEnabledAndAsyncHandler_whenBodyIsWrittenAfterFilter_thenBodyReachesResponse() throws Exception {
+
+        // given - precondition or setup
+        ServerTimingFilter filter = new ServerTimingFilter(meterRegistry, true);
+        request.setAsyncSupported(true);
+        AtomicReference<ServletResponse> asyncResponse = new AtomicReference<>();
+
+        // when - action or the behavior that we are going test
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/directory");
+            servletResponse.setContentType("application/json");
+            // like a StreamingResponseBody: the stream is taken before the request goes async
+            servletResponse.getOutputStream();
+            servletRequest.startAsync(servletRequest, servletResponse);
+            asyncResponse.set(servletResponse);
+        });
+        Thread writer = new Thread(() -> {
+            try {
+                asyncResponse.get().getOutputStream().write("[{\"id\":1}]".getBytes(StandardCharsets.UTF_8));
+                asyncResponse.get().flushBuffer();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.start();
+        writer.join();
+        request.getAsyncContext().complete();
+
+        // then - verify the output
+        Assertions.assertThat(response.getContentAsString()).isEqualTo("[{\"id\":1}]");
+        Assertions.assertThat(response.getContentType()).isEqualTo("application/json");
+        Assertions.assertThat(response.getHeader(ServerTimingFilter.HEADER)).isNull();
+        Assertions.assertThat(meterRegistry.find(ServerTimingFilter.METRIC).timers()).isEmpty();
+
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}